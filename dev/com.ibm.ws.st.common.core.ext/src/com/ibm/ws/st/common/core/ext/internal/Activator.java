@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015 IBM Corporation and others.
+ * Copyright (c) 2015, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -27,6 +27,7 @@ import org.osgi.framework.BundleContext;
 
 import com.ibm.ws.st.common.core.ext.internal.producer.AbstractServerProducer;
 import com.ibm.ws.st.common.core.ext.internal.setuphandlers.IPlatformHandlerProvider;
+import com.ibm.ws.st.common.core.ext.internal.util.DockerEngineClient;
 
 public class Activator extends Plugin {
 
@@ -89,6 +90,7 @@ public class Activator extends Plugin {
     @Override
     public void stop(BundleContext bundleContext) throws Exception {
         instance = null;
+        DockerEngineClient.shutdown();
         super.stop(bundleContext);
     }
 
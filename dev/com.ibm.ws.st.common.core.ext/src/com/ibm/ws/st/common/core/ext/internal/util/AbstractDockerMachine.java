@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2017 IBM Corporation and others.
+ * Copyright (c) 2016, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -227,6 +227,21 @@ public abstract class AbstractDockerMachine {
         return platformHandler;
     }
 
+    /**
+     * Returns the engine API client for this docker machine, or <code>null</code> if commands
+     * must go through the docker command line.
+     *
+     * @return the client, or <code>null</code>
+     */
+    public DockerEngineClient getEngineClient() {
+        return DockerEngineClient.getClient(this, platformHandler);
+    }
+
+    private void engineFailed(String operation, IOException e) {
+        if (Trace.ENABLED)
+            Trace.trace(Trace.WARNING, "Docker engine request failed for " + toString() + ": " + operation + ". Using the docker command instead.", e);
+    }
+
     /**
      * Get all running or all defined containers for this machine.
      *
@@ -257,6 +272,19 @@ public abstract class AbstractDockerMachine {
      * @throws Exception
      */
     public List<String> getContainerNames(boolean allDefined) throws Exception {
+        DockerEngineClient engine = getEngineClient();
+        if (engine != null) {
+            try {
+                List<String> list = engine.getContainerNames(allDefined);
+                if (Trace.ENABLED) {
+                    Trace.trace(Trace.DETAILS, "Found the following containers: " + list);
+                }
+                return list;
+            } catch (IOException e) {
+                engineFailed("list containers", e);
+            }
+        }
+
         StringBuilder builder = new StringBuilder();
         builder.append("docker ps");
         if (allDefined) {
@@ -313,6 +341,16 @@ public abstract class AbstractDockerMachine {
      * @throws Exception
      */
     public void removeImage(String imageName) throws Exception {
+        DockerEngineClient engine = getEngineClient();
+        if (engine != null) {
+            try {
+                engine.removeImage(imageName);
+                return;
+            } catch (DockerEngineClient.NotStartedException e) {
+                engineFailed("remove image " + imageName, e);
+            }
+        }
+
         String cmd = "docker rmi " + imageName;
         runCommand(cmd, true);
     }
@@ -334,6 +372,16 @@ public abstract class AbstractDockerMachine {
      * @throws Exception
      */
     public void removeContainer(String containerName, boolean force) throws Exception {
+        DockerEngineClient engine = getEngineClient();
+        if (engine != null) {
+            try {
+                engine.removeContainer(containerName, force);
+                return;
+            } catch (DockerEngineClient.NotStartedException e) {
+                engineFailed("remove container " + containerName, e);
+            }
+        }
+
         String cmd;
         if (force) {
             cmd = "docker rm -f " + containerName;
@@ -351,6 +399,15 @@ public abstract class AbstractDockerMachine {
      * @throws Exception
      */
     public long getImageSize(String imageName) throws Exception {
+        DockerEngineClient engine = getEngineClient();
+        if (engine != null) {
+            try {
+                return engine.getImageSize(imageName);
+            } catch (IOException e) {
+                engineFailed("inspect image " + imageName, e);
+            }
+        }
+
         String cmd = "docker inspect --format {{.Size}} " + imageName;
         ExecutionOutput result = runCommand(cmd, true);
         String output = result.getOutput().trim();
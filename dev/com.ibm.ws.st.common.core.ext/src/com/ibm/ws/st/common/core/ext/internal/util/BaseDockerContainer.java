@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015, 2018 IBM Corporation and others.
+ * Copyright (c) 2015, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,9 +10,15 @@
  *******************************************************************************/
 package com.ibm.ws.st.common.core.ext.internal.util;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.ConnectException;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -61,6 +67,8 @@ public class BaseDockerContainer implements IPlatformHandler {
     private final AbstractDockerMachine dockerMachine;
     protected final IPlatformHandler platformHandler;
     private JsonObject inspectObject = null;
+    private DockerEngineClient engineClient;
+    private boolean engineClientResolved = false;
 
     /**
      * Constructor for DockerContainer.
@@ -117,6 +125,16 @@ public class BaseDockerContainer implements IPlatformHandler {
      * @throws IOException
      */
     public void copyIn(String sourcePath, String destinationPath) throws Exception {
+        DockerEngineClient engine = getEngineClient();
+        if (engine != null) {
+            try {
+                engine.copyIn(containerName, new File(sourcePath), destinationPath);
+                return;
+            } catch (DockerEngineClient.NotStartedException e) {
+                engineFailed("copy in " + sourcePath, e);
+            }
+        }
+
         StringBuilder builder = new StringBuilder();
         builder.append("docker cp ");
         builder.append(getPathWithQuotes(sourcePath));
@@ -146,6 +164,16 @@ public class BaseDockerContainer implements IPlatformHandler {
      * @return ProcessResult the result of running the copy out
      */
     public ExecutionOutput copyOut(String sourcePath, String destinationPath, long timeout) throws ConnectException, IOException {
+        DockerEngineClient engine = getEngineClient();
+        if (engine != null) {
+            try {
+                engine.copyOut(containerName, sourcePath, new File(destinationPath), timeout);
+                return new ExecutionOutput(0, "", "");
+            } catch (DockerEngineClient.NotStartedException e) {
+                engineFailed("copy out " + sourcePath, e);
+            }
+        }
+
         StringBuilder builder = new StringBuilder();
         builder.append("docker cp ");
         builder.append(containerName);
@@ -156,6 +184,136 @@ public class BaseDockerContainer implements IPlatformHandler {
         return runCommand(builder.toString(), true, timeout);
     }
 
+    /**
+     * Copy a batch of files and folders from the host to the docker container as a single
+     * tar archive, instead of one copy for each path. Each source is copied to its destination
+     * path, and folders are copied with their contents.
+     *
+     * @param batch   The files to copy
+     * @param monitor A progress monitor, may be null
+     * @throws Exception
+     */
+    public void copyIn(DockerCopyBatch batch, IProgressMonitor monitor) throws Exception {
+        if (batch.isEmpty())
+            return;
+        IProgressMonitor mon = monitor == null ? new NullProgressMonitor() : monitor;
+        mon.beginTask(NLS.bind(Messages.copyInContainer, containerName), IProgressMonitor.UNKNOWN);
+        try {
+            DockerEngineClient engine = getEngineClient();
+            if (engine != null) {
+                try {
+                    engine.copyIn(containerName, batch, mon);
+                    return;
+                } catch (DockerEngineClient.NotStartedException e) {
+                    engineFailed("copy in " + batch, e);
+                }
+            }
+
+            // a single path without filters is a plain docker cp
+            if (batch.getEntries().size() == 1 && !batch.isFiltered()) {
+                DockerCopyBatch.Entry entry = batch.getEntries().get(0);
+                String source = entry.getSource();
+                copyIn(new File(source).isDirectory() ? source + "/." : source, entry.getDestination());
+                return;
+            }
+
+            // build the archive locally, copy it into the container and extract it there
+            File tar = File.createTempFile("dockerCopy", ".tar");
+            String containerTar = "/tmp/" + tar.getName();
+            try {
+                OutputStream out = new BufferedOutputStream(new FileOutputStream(tar), 64 * 1024);
+                try {
+                    DockerArchive.Writer writer = new DockerArchive.Writer(out);
+                    for (DockerCopyBatch.Entry entry : batch.getEntries())
+                        writer.add(new File(entry.getSource()), DockerCopyBatch.trimSlashes(entry.getDestination()), batch, mon);
+                    writer.finish();
+                } finally {
+                    out.close();
+                }
+                copyIn(tar.getAbsolutePath(), containerTar);
+                // extract as root since docker cp can write anywhere, but leave existing folders as they are
+                dockerRootExec("tar -xf " + containerTar + " -C / --no-overwrite-dir", true, AbstractDockerMachine.DEFAULT_TIMEOUT * 5);
+            } finally {
+                if (!tar.delete() && Trace.ENABLED)
+                    Trace.trace(Trace.WARNING, "Could not delete the temporary archive: " + tar);
+                removeTempArchive(containerTar);
+            }
+        } finally {
+            mon.done();
+        }
+    }
+
+    /**
+     * Copy a batch of files and folders from the docker container to the host as a single
+     * tar archive, instead of one copy for each path. Each source is copied to its destination
+     * path, and folders are copied with their contents.
+     *
+     * @param batch   The files to copy
+     * @param timeout The timeout for each step of the copy
+     * @param monitor A progress monitor, may be null
+     * @throws ConnectException
+     * @throws IOException
+     */
+    public void copyOut(final DockerCopyBatch batch, long timeout, IProgressMonitor monitor) throws ConnectException, IOException {
+        if (batch.isEmpty())
+            return;
+        IProgressMonitor mon = monitor == null ? new NullProgressMonitor() : monitor;
+        mon.beginTask(NLS.bind(Messages.copyOutContainer, containerName), IProgressMonitor.UNKNOWN);
+        try {
+            DockerEngineClient engine = getEngineClient();
+            if (engine != null) {
+                try {
+                    engine.copyOut(containerName, batch, timeout, mon);
+                    return;
+                } catch (DockerEngineClient.NotStartedException e) {
+                    engineFailed("copy out " + batch, e);
+                }
+            }
+
+            // create the archive in the container, copy it out and extract it locally
+            File tar = File.createTempFile("dockerCopy", ".tar");
+            String containerTar = "/tmp/" + tar.getName();
+            try {
+                StringBuilder builder = new StringBuilder("tar -cf ");
+                builder.append(containerTar).append(" -C /");
+                for (DockerCopyBatch.Entry entry : batch.getEntries()) {
+                    String source = DockerCopyBatch.trimSlashes(entry.getSource());
+                    builder.append(' ').append(getPathWithQuotes(source.isEmpty() ? "." : source));
+                }
+                // read as root since docker cp can read anything
+                dockerRootExec(builder.toString(), true, timeout);
+                copyOut(containerTar, tar.getAbsolutePath(), timeout);
+
+                InputStream in = new BufferedInputStream(new FileInputStream(tar), 64 * 1024);
+                try {
+                    DockerArchive.extract(in, new DockerArchive.TargetResolver() {
+                        @Override
+                        public File getTarget(String name) {
+                            return batch.getLocalTarget(name);
+                        }
+                    }, mon);
+                } finally {
+                    in.close();
+                }
+            } finally {
+                if (!tar.delete() && Trace.ENABLED)
+                    Trace.trace(Trace.WARNING, "Could not delete the temporary archive: " + tar);
+                removeTempArchive(containerTar);
+            }
+        } finally {
+            mon.done();
+        }
+    }
+
+    private void removeTempArchive(String containerTar) {
+        try {
+            dockerRootExec("rm -f " + containerTar, false, AbstractDockerMachine.DEFAULT_TIMEOUT);
+        } catch (ConnectException e) {
+            if (Trace.ENABLED)
+                Trace.trace(Trace.WARNING, "Could not delete the temporary archive " + containerTar + " in container " + containerName, e);
+        }
+    }
+
     /**
      * In the case where the path contains spaces (e.g. Windows OS case),
      * the path needs to be surrounded by quotes to prevent errors
@@ -180,21 +338,36 @@ public class BaseDockerContainer implements IPlatformHandler {
      * @throws ConnectException
      */
     public ExecutionOutput dockerExec(String command) throws ConnectException {
+        ExecutionOutput result = engineExec(command, null, false, AbstractDockerMachine.DEFAULT_TIMEOUT);
+        if (result != null)
+            return result;
         String cmd = getExecCommand() + command;
         return runCommand(cmd, false);
     }
 
     public ExecutionOutput dockerExec(String command, boolean checkExitValue, long timeout) throws ConnectException {
+        ExecutionOutput result = engineExec(command, null, checkExitValue, timeout);
+        if (result != null)
+            return result;
         String cmd = getExecCommand() + command;
         return runCommand(cmd, checkExitValue, timeout);
     }
 
     public ExecutionOutput dockerExec(Map<String, String> cmdEnv, String command, boolean checkExitValue, long timeout, IProgressMonitor progressMonitor) throws ConnectException {
+        // the environment is for the docker command itself
+        if (cmdEnv == null || cmdEnv.isEmpty()) {
+            ExecutionOutput result = engineExec(command, null, checkExitValue, timeout);
+            if (result != null)
+                return result;
+        }
         String cmd = getExecCommand() + command;
         return runCommand(cmdEnv, cmd, checkExitValue, timeout, progressMonitor);
     }
 
     public ExecutionOutput dockerRootExec(String command, boolean checkExitValue, long timeout) throws ConnectException {
+        ExecutionOutput result = engineExec(command, "root", checkExitValue, timeout);
+        if (result != null)
+            return result;
         String cmd = getRootExecCommand() + command;
         return runCommand(cmd, checkExitValue, timeout);
     }
@@ -269,6 +442,19 @@ public class BaseDockerContainer implements IPlatformHandler {
      * @throws ConnectException
      */
     public boolean isRunning() throws ConnectException {
+        DockerEngineClient engine = getEngineClient();
+        if (engine != null) {
+            try {
+                boolean isRunning = engine.isRunning(containerName);
+                if (Trace.ENABLED) {
+                    Trace.trace(Trace.DETAILS, "Docker container " + toString() + " is running: " + isRunning);
+                }
+                return isRunning;
+            } catch (IOException e) {
+                engineFailed("inspect", e);
+            }
+        }
+
         String cmd = "docker inspect --format {{.State.Running}} " + containerName;
         ExecutionOutput result = runCommand(cmd, true);
         boolean isRunning = "true".equals(result.getOutput().trim());
@@ -284,6 +470,15 @@ public class BaseDockerContainer implements IPlatformHandler {
      * @return
      */
     public String getLogs() throws ConnectException {
+        DockerEngineClient engine = getEngineClient();
+        if (engine != null) {
+            try {
+                return engine.getLogs(containerName).trim();
+            } catch (IOException e) {
+                engineFailed("logs", e);
+            }
+        }
+
         String cmd = "docker logs " + containerName;
         ExecutionOutput result = runCommand(cmd, true);
         String logs = result.getOutput().trim();
@@ -298,9 +493,20 @@ public class BaseDockerContainer implements IPlatformHandler {
      * @return
      */
     public String getPortMapping(String containerPort) throws ConnectException {
-        String cmd = "docker port " + containerName + " " + containerPort;
-        ExecutionOutput result = runCommand(cmd, true);
-        String mapping = result.getOutput().trim();
+        String mapping = null;
+        DockerEngineClient engine = getEngineClient();
+        if (engine != null) {
+            try {
+                mapping = engine.getPortMapping(containerName, containerPort);
+            } catch (IOException e) {
+                engineFailed("port " + containerPort, e);
+            }
+        }
+        if (mapping == null) {
+            String cmd = "docker port " + containerName + " " + containerPort;
+            ExecutionOutput result = runCommand(cmd, true);
+            mapping = result.getOutput().trim();
+        }
         if (Trace.ENABLED) {
             Trace.trace(Trace.DETAILS, "Docker container " + toString() + " port mapping for " + containerPort + " is: " + mapping);
         }
@@ -590,6 +796,9 @@ public class BaseDockerContainer implements IPlatformHandler {
     public void rename(String name) throws ConnectException {
         String cmd = "docker rename " + containerName + " " + name;
         runCommand(cmd, true);
+        DockerEngineClient engine = getEngineClient();
+        if (engine != null)
+            engine.invalidate(containerName);
         containerName = name;
     }
 
@@ -628,6 +837,15 @@ public class BaseDockerContainer implements IPlatformHandler {
     // once the container is created).  Dynamic information such as whether the
     // container is running should not use this.
     private synchronized JsonObject getInspectOutput() throws ConnectException {
+        DockerEngineClient engine = getEngineClient();
+        if (engine != null) {
+            try {
+                return engine.inspectContainer(containerName);
+            } catch (IOException e) {
+                engineFailed("inspect", e);
+            }
+        }
+
         if (inspectObject == null) {
             try {
                 ExecutionOutput result = runCommand("docker inspect " + containerName, true);
@@ -642,6 +860,52 @@ public class BaseDockerContainer implements IPlatformHandler {
         return inspectObject;
     }
 
+    /**
+     * Returns the engine API client for this container's docker machine, or <code>null</code>
+     * if commands must go through the docker command line.
+     */
+    protected synchronized DockerEngineClient getEngineClient() {
+        if (!engineClientResolved) {
+            engineClient = DockerEngineClient.getClient(dockerMachine, platformHandler);
+            engineClientResolved = true;
+        }
+        return engineClient != null && engineClient.isAvailable() ? engineClient : null;
+    }
+
+    private void engineFailed(String operation, IOException e) {
+        if (Trace.ENABLED)
+            Trace.trace(Trace.WARNING, "Docker engine request failed for " + toString() + ": " + operation + ". Using the docker command instead.", e);
+    }
+
+    // Run a command in the container through the engine API, or return null if the command line must be used.
+    // Once the command has been started it is not run again with the command line, since it may not be safe to repeat.
+    private ExecutionOutput engineExec(String command, String user, boolean checkExitValue, long timeout) throws ConnectException {
+        DockerEngineClient engine = getEngineClient();
+        if (engine == null)
+            return null;
+
+        ExecutionOutput result;
+        try {
+            result = engine.exec(containerName, command, user, timeout);
+        } catch (DockerEngineClient.NotStartedException e) {
+            engineFailed("exec " + command, e);
+            return null;
+        } catch (IOException e) {
+            Trace.logError("Docker engine exec failed after the command was started: " + command, e);
+            ConnectException ce = new ConnectException(e.getMessage());
+            ce.initCause(e);
+            throw ce;
+        }
+        if (checkExitValue && result.getReturnCode() != 0) {
+            if (Trace.ENABLED) {
+                Trace.logError("Docker command failed: " + command + ", exit value: " + result.getReturnCode() + ", output: " + result.getOutput() + ", error: "
+                               + result.getError(), null);
+            }
+            throw new ConnectException(NLS.bind(Messages.errorFailedDockerCommand, new String[] { command, Integer.toString(result.getReturnCode()), result.getError() }));
+        }
+        return result;
+    }
+
     // Run a command using the command protocol where the timeout for the command is a default value
     protected ExecutionOutput runCommand(String command, boolean checkExitValue) throws ConnectException {
         return runCommand(null, command, checkExitValue, AbstractDockerMachine.DEFAULT_TIMEOUT, null);
@@ -0,0 +1,484 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package com.ibm.ws.st.common.core.ext.internal.util;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+
+/**
+ * Minimal streaming tar support for the archives that the Docker engine
+ * accepts and returns when copying files into and out of a container.
+ * Only regular files and directories are written and extracted, which is
+ * all that <code>docker cp</code> is used for.
+ */
+public class DockerArchive {
+
+    private static final int BLOCK_SIZE = 512;
+    private static final int NAME_LENGTH = 100;
+    private static final String LONG_LINK_NAME = "././@LongLink";
+
+    private static final byte TYPE_FILE = '0';
+    private static final byte TYPE_OLD_FILE = 0;
+    private static final byte TYPE_DIRECTORY = '5';
+    private static final byte TYPE_GNU_LONG_NAME = 'L';
+    private static final byte TYPE_PAX_HEADER = 'x';
+
+    private DockerArchive() {
+        // static only
+    }
+
+    /**
+     * Selects the files and folders that are added to an archive, by their path
+     * relative to the file or folder being added.
+     */
+    public interface PathFilter {
+        /**
+         * Returns <code>true</code> if the file should be added. For a folder, returns
+         * <code>true</code> if an entry should be written for the folder itself.
+         *
+         * @param path the relative path
+         * @return <code>true</code> if included
+         */
+        boolean isIncluded(String path);
+
+        /**
+         * Returns <code>true</code> if the file or folder, including a folder's contents,
+         * should be left out.
+         *
+         * @param path the relative path
+         * @return <code>true</code> if excluded
+         */
+        boolean isExcluded(String path);
+    }
+
+    /**
+     * Maps the entries of an archive to the local files that they are extracted to.
+     */
+    public interface TargetResolver {
+        /**
+         * Returns the file to extract the entry to, or <code>null</code> to skip the entry.
+         *
+         * @param name the entry name
+         * @return the target file, or <code>null</code>
+         */
+        File getTarget(String name);
+    }
+
+    /**
+     * A tar stream that files and directories are written to.
+     */
+    public static class Writer {
+        private final OutputStream out;
+        private final byte[] buffer = new byte[8192];
+
+        public Writer(OutputStream out) {
+            this.out = out;
+        }
+
+        /**
+         * Add a file or a directory tree to the archive.
+         *
+         * @param file the local file or directory
+         * @param name the name of the entry in the archive
+         * @throws IOException
+         */
+        public void add(File file, String name) throws IOException {
+            if (file.isDirectory()) {
+                writeHeader(name.endsWith("/") ? name : name + "/", TYPE_DIRECTORY, 0, file.lastModified(), 0755);
+                File[] children = file.listFiles();
+                if (children != null) {
+                    String prefix = name.endsWith("/") ? name : name + "/";
+                    for (File child : children)
+                        add(child, prefix + child.getName());
+                }
+                return;
+            }
+            writeFile(file, name);
+        }
+
+        /**
+         * Add the selected files of a file or a directory tree to the archive. No entry is
+         * written for the top level directory, so that an existing directory keeps its
+         * owner and permissions.
+         *
+         * @param file the local file or directory
+         * @param name the name of the entry in the archive
+         * @param filter selects the files to add, may be <code>null</code>
+         * @param monitor a progress monitor that is told about each file, may be <code>null</code>
+         * @return the number of files added
+         * @throws IOException
+         */
+        public int add(File file, String name, PathFilter filter, IProgressMonitor monitor) throws IOException {
+            return add(file, name, "", filter, monitor);
+        }
+
+        private int add(File file, String name, String path, PathFilter filter, IProgressMonitor monitor) throws IOException {
+            if (monitor != null && monitor.isCanceled())
+                throw new OperationCanceledException();
+
+            if (file.isDirectory()) {
+                String prefix = name.endsWith("/") ? name : name + "/";
+                if (!path.isEmpty() && (filter == null || filter.isIncluded(path)))
+                    writeHeader(prefix, TYPE_DIRECTORY, 0, file.lastModified(), 0755);
+                int count = 0;
+                File[] children = file.listFiles();
+                if (children != null) {
+                    for (File child : children) {
+                        String childPath = path.isEmpty() ? child.getName() : path + "/" + child.getName();
+                        if (filter == null || !filter.isExcluded(childPath))
+                            count += add(child, prefix + child.getName(), childPath, filter, monitor);
+                    }
+                }
+                return count;
+            }
+
+            if (filter != null && !path.isEmpty() && !filter.isIncluded(path))
+                return 0;
+            if (monitor != null)
+                monitor.subTask(name);
+            writeFile(file, name);
+            if (monitor != null)
+                monitor.worked(1);
+            return 1;
+        }
+
+        private void writeFile(File file, String name) throws IOException {
+            long size = file.length();
+            writeHeader(name, TYPE_FILE, size, file.lastModified(), file.canExecute() ? 0775 : 0664);
+            InputStream in = new FileInputStream(file);
+            try {
+                long remaining = size;
+                int n;
+                while (remaining > 0 && (n = in.read(buffer, 0, (int) Math.min(buffer.length, remaining))) > 0) {
+                    out.write(buffer, 0, n);
+                    remaining -= n;
+                }
+                // the file shrank while it was being written, keep the archive consistent
+                while (remaining > 0) {
+                    int len = (int) Math.min(buffer.length, remaining);
+                    Arrays.fill(buffer, 0, len, (byte) 0);
+                    out.write(buffer, 0, len);
+                    remaining -= len;
+                }
+            } finally {
+                in.close();
+            }
+            pad(size);
+        }
+
+        /**
+         * Write the end of archive marker. The underlying stream is not closed.
+         *
+         * @throws IOException
+         */
+        public void finish() throws IOException {
+            out.write(new byte[BLOCK_SIZE * 2]);
+            out.flush();
+        }
+
+        private void writeHeader(String name, byte type, long size, long modified, int mode) throws IOException {
+            byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+            if (nameBytes.length > NAME_LENGTH) {
+                // GNU long name entry, understood by the Docker engine
+                byte[] longName = new byte[nameBytes.length + 1];
+                System.arraycopy(nameBytes, 0, longName, 0, nameBytes.length);
+                writeHeader(LONG_LINK_NAME.getBytes(StandardCharsets.UTF_8), TYPE_GNU_LONG_NAME, longName.length, 0, 0644);
+                out.write(longName);
+                pad(longName.length);
+                byte[] truncated = new byte[NAME_LENGTH];
+                System.arraycopy(nameBytes, 0, truncated, 0, NAME_LENGTH);
+                nameBytes = truncated;
+            }
+            writeHeader(nameBytes, type, size, modified, mode);
+        }
+
+        private void writeHeader(byte[] name, byte type, long size, long modified, int mode) throws IOException {
+            byte[] header = new byte[BLOCK_SIZE];
+            System.arraycopy(name, 0, header, 0, Math.min(name.length, NAME_LENGTH));
+            writeOctal(header, 100, 8, mode);
+            writeOctal(header, 108, 8, 0);
+            writeOctal(header, 116, 8, 0);
+            writeOctal(header, 124, 12, size);
+            writeOctal(header, 136, 12, modified / 1000);
+            header[156] = type;
+            System.arraycopy("ustar\0".getBytes(StandardCharsets.US_ASCII), 0, header, 257, 6);
+            header[263] = '0';
+            header[264] = '0';
+
+            // the checksum is computed with the checksum field set to spaces
+            for (int i = 148; i < 156; i++)
+                header[i] = ' ';
+            long checksum = 0;
+            for (byte b : header)
+                checksum += b & 0xFF;
+            writeOctal(header, 148, 7, checksum);
+            header[155] = ' ';
+            out.write(header);
+        }
+
+        private void pad(long size) throws IOException {
+            int remainder = (int) (size % BLOCK_SIZE);
+            if (remainder > 0)
+                out.write(new byte[BLOCK_SIZE - remainder]);
+        }
+
+        private static void writeOctal(byte[] header, int offset, int length, long value) {
+            String s = Long.toOctalString(value);
+            int digits = length - 1;
+            int start = offset + digits - s.length();
+            for (int i = offset; i < start; i++)
+                header[i] = '0';
+            for (int i = 0; i < s.length() && start + i < offset + digits; i++)
+                header[start + i] = (byte) s.charAt(i);
+            header[offset + digits] = 0;
+        }
+    }
+
+    /**
+     * Extract an archive. The top level entry of the archive is renamed to the given
+     * name, which matches how <code>docker cp</code> copies a single file or directory
+     * to a destination that does not exist.
+     *
+     * @param in the archive
+     * @param destination the folder to extract into
+     * @param rename the new name of the top level entry, or <code>null</code> to keep the
+     *            names in the archive
+     * @return the number of files extracted
+     * @throws IOException
+     */
+    public static int extract(InputStream in, final File destination, final String rename) throws IOException {
+        return extract(in, new TargetResolver() {
+            @Override
+            public File getTarget(String name) {
+                return DockerArchive.getTarget(destination, name, rename);
+            }
+        }, null);
+    }
+
+    /**
+     * Extract an archive, placing each entry where the resolver says.
+     *
+     * @param in the archive
+     * @param resolver maps entry names to local files
+     * @param monitor a progress monitor that is told about each file, may be <code>null</code>
+     * @return the number of files extracted
+     * @throws IOException
+     */
+    public static int extract(InputStream in, TargetResolver resolver, IProgressMonitor monitor) throws IOException {
+        byte[] header = new byte[BLOCK_SIZE];
+        byte[] buffer = new byte[8192];
+        String longName = null;
+        int count = 0;
+
+        while (true) {
+            if (!readFully(in, header))
+                break;
+            if (isZero(header))
+                break;
+
+            byte type = header[156];
+            long size = parseOctal(header, 124, 12);
+            String name = longName != null ? longName : parseName(header);
+            longName = null;
+
+            if (type == TYPE_GNU_LONG_NAME) {
+                byte[] data = readData(in, size);
+                longName = trimNull(new String(data, StandardCharsets.UTF_8));
+                continue;
+            }
+            if (type == TYPE_PAX_HEADER) {
+                byte[] data = readData(in, size);
+                longName = getPaxPath(new String(data, StandardCharsets.UTF_8));
+                continue;
+            }
+
+            if (monitor != null && monitor.isCanceled())
+                throw new OperationCanceledException();
+
+            // never write outside of the destination
+            File target = isSafe(name) ? resolver.getTarget(name) : null;
+            if (type == TYPE_DIRECTORY) {
+                if (target != null && !target.isDirectory() && !target.mkdirs())
+                    throw new IOException("Could not create directory: " + target);
+                skip(in, size);
+            } else if ((type == TYPE_FILE || type == TYPE_OLD_FILE) && target != null) {
+                File parent = target.getParentFile();
+                if (parent != null && !parent.isDirectory() && !parent.mkdirs())
+                    throw new IOException("Could not create directory: " + parent);
+                if (monitor != null)
+                    monitor.subTask(name);
+                OutputStream out = new FileOutputStream(target);
+                try {
+                    long remaining = size;
+                    while (remaining > 0) {
+                        int n = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                        if (n < 0)
+                            throw new EOFException();
+                        out.write(buffer, 0, n);
+                        remaining -= n;
+                    }
+                } finally {
+                    out.close();
+                }
+                skipPadding(in, size);
+                long modified = parseOctal(header, 136, 12);
+                if (modified > 0)
+                    target.setLastModified(modified * 1000);
+                count++;
+                if (monitor != null)
+                    monitor.worked(1);
+            } else {
+                // links and special files are not copied
+                skip(in, size);
+            }
+        }
+        return count;
+    }
+
+    private static File getTarget(File destination, String name, String rename) {
+        String path = name;
+        while (path.startsWith("/") || path.startsWith("./"))
+            path = path.substring(path.startsWith("/") ? 1 : 2);
+        if (path.endsWith("/"))
+            path = path.substring(0, path.length() - 1);
+        if (path.isEmpty())
+            return null;
+
+        if (rename != null) {
+            int index = path.indexOf('/');
+            path = index < 0 ? rename : rename + path.substring(index);
+        }
+        return new File(destination, path);
+    }
+
+    private static boolean isSafe(String name) {
+        for (String segment : name.split("/")) {
+            if ("..".equals(segment))
+                return false;
+        }
+        return true;
+    }
+
+    private static String getPaxPath(String data) {
+        // records are "<length> <key>=<value>\n"
+        for (String record : data.split("\n")) {
+            int space = record.indexOf(' ');
+            if (space > 0 && record.startsWith("path=", space + 1))
+                return record.substring(space + 6);
+        }
+        return null;
+    }
+
+    private static String parseName(byte[] header) {
+        String name = trimNull(new String(header, 0, NAME_LENGTH, StandardCharsets.UTF_8));
+        // ustar prefix
+        if (header[257] == 'u' && header[258] == 's' && header[259] == 't' && header[260] == 'a' && header[261] == 'r') {
+            String prefix = trimNull(new String(header, 345, 155, StandardCharsets.UTF_8));
+            if (!prefix.isEmpty())
+                name = prefix + "/" + name;
+        }
+        return name;
+    }
+
+    private static String trimNull(String s) {
+        int index = s.indexOf('\0');
+        return index < 0 ? s : s.substring(0, index);
+    }
+
+    private static long parseOctal(byte[] header, int offset, int length) {
+        // base-256 encoding for large values
+        if ((header[offset] & 0x80) != 0) {
+            long value = 0;
+            for (int i = offset + 1; i < offset + length; i++)
+                value = (value << 8) | (header[i] & 0xFF);
+            return value;
+        }
+        long value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            byte b = header[i];
+            if (b == 0)
+                break;
+            if (b >= '0' && b <= '7')
+                value = (value << 3) + (b - '0');
+        }
+        return value;
+    }
+
+    private static boolean isZero(byte[] block) {
+        for (byte b : block) {
+            if (b != 0)
+                return false;
+        }
+        return true;
+    }
+
+    private static boolean readFully(InputStream in, byte[] b) throws IOException {
+        int read = 0;
+        while (read < b.length) {
+            int n = in.read(b, read, b.length - read);
+            if (n < 0) {
+                if (read == 0)
+                    return false;
+                throw new EOFException();
+            }
+            read += n;
+        }
+        return true;
+    }
+
+    private static byte[] readData(InputStream in, long size) throws IOException {
+        byte[] data = new byte[(int) size];
+        if (size > 0 && !readFully(in, data))
+            throw new EOFException();
+        skipPadding(in, size);
+        return data;
+    }
+
+    private static void skip(InputStream in, long size) throws IOException {
+        long remaining = size;
+        while (remaining > 0) {
+            long n = in.skip(remaining);
+            if (n <= 0) {
+                if (in.read() < 0)
+                    throw new EOFException();
+                n = 1;
+            }
+            remaining -= n;
+        }
+        skipPadding(in, size);
+    }
+
+    private static void skipPadding(InputStream in, long size) throws IOException {
+        int remainder = (int) (size % BLOCK_SIZE);
+        if (remainder > 0) {
+            long remaining = BLOCK_SIZE - remainder;
+            while (remaining > 0) {
+                long n = in.skip(remaining);
+                if (n <= 0) {
+                    if (in.read() < 0)
+                        throw new EOFException();
+                    n = 1;
+                }
+                remaining -= n;
+            }
+        }
+    }
+}
@@ -0,0 +1,240 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package com.ibm.ws.st.common.core.ext.internal.util;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * A set of files and folders that are copied into or out of a container as a single
+ * tar archive. Each source is copied to its destination path, so a folder's contents
+ * end up directly in the destination folder.
+ * <p>
+ * Include and exclude patterns are matched against paths relative to the source, using
+ * '/' as the separator. '*' matches within a path segment, '**' matches across segments
+ * and '?' matches a single character. A pattern without a '/' matches the name of the
+ * file or folder at any depth. An excluded folder is not copied at all. If there are
+ * include patterns, only the files that match one are copied.
+ */
+public class DockerCopyBatch implements DockerArchive.PathFilter {
+
+    /**
+     * A source and the destination that it is copied to.
+     */
+    public static class Entry {
+        private final String source;
+        private final String destination;
+
+        Entry(String source, String destination) {
+            this.source = source;
+            this.destination = destination;
+        }
+
+        public String getSource() {
+            return source;
+        }
+
+        public String getDestination() {
+            return destination;
+        }
+
+        @Override
+        public String toString() {
+            return source + " -> " + destination;
+        }
+    }
+
+    private final List<Entry> entries = new ArrayList<Entry>();
+    private final List<Pattern> includes = new ArrayList<Pattern>(2);
+    private final List<Pattern> excludes = new ArrayList<Pattern>(2);
+
+    /**
+     * Add a file or folder to the batch.
+     *
+     * @param source the source path
+     * @param destination the path that the source is copied to
+     * @return this batch
+     */
+    public DockerCopyBatch add(String source, String destination) {
+        entries.add(new Entry(normalize(source), normalize(destination)));
+        return this;
+    }
+
+    /**
+     * Only copy files that match the given pattern, or any other include pattern.
+     *
+     * @param pattern the pattern
+     * @return this batch
+     */
+    public DockerCopyBatch include(String pattern) {
+        includes.add(compile(pattern));
+        return this;
+    }
+
+    /**
+     * Do not copy files or folders that match the given pattern.
+     *
+     * @param pattern the pattern
+     * @return this batch
+     */
+    public DockerCopyBatch exclude(String pattern) {
+        excludes.add(compile(pattern));
+        return this;
+    }
+
+    public List<Entry> getEntries() {
+        return Collections.unmodifiableList(entries);
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    /**
+     * Returns <code>true</code> if there are include or exclude patterns.
+     *
+     * @return <code>true</code> if the batch is filtered
+     */
+    public boolean isFiltered() {
+        return !includes.isEmpty() || !excludes.isEmpty();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isIncluded(String path) {
+        if (includes.isEmpty())
+            return true;
+        for (Pattern p : includes) {
+            if (p.matcher(path).matches())
+                return true;
+        }
+        return false;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isExcluded(String path) {
+        for (Pattern p : excludes) {
+            if (p.matcher(path).matches())
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the local file that an archive entry is extracted to, or <code>null</code> if
+     * the entry is not part of the batch or is filtered out. Archive entry names are container
+     * paths relative to the root of the container.
+     *
+     * @param name the archive entry name
+     * @return the local file, or <code>null</code>
+     */
+    File getLocalTarget(String name) {
+        String path = trimSlashes(name);
+        Entry match = null;
+        String relative = null;
+        for (Entry entry : entries) {
+            String source = trimSlashes(entry.getSource());
+            String rel = null;
+            if (source.isEmpty())
+                rel = path;
+            else if (path.equals(source))
+                rel = "";
+            else if (path.startsWith(source + "/"))
+                rel = path.substring(source.length() + 1);
+
+            // prefer the most specific source
+            if (rel != null && (relative == null || rel.length() < relative.length())) {
+                match = entry;
+                relative = rel;
+            }
+        }
+        if (match == null)
+            return null;
+
+        if (!relative.isEmpty()) {
+            // the entries are not nested, so check the parent folders for excludes
+            String parent = relative;
+            int index;
+            while ((index = parent.lastIndexOf('/')) > 0) {
+                parent = parent.substring(0, index);
+                if (isExcluded(parent))
+                    return null;
+            }
+            if (isExcluded(relative))
+                return null;
+        }
+        return relative.isEmpty() ? new File(match.getDestination()) : new File(match.getDestination(), relative);
+    }
+
+    /**
+     * Returns a container path relative to the root of the container, as used for archive entry names.
+     */
+    static String trimSlashes(String path) {
+        String s = path.replace('\\', '/');
+        while (s.startsWith("./"))
+            s = s.substring(2);
+        while (s.startsWith("/"))
+            s = s.substring(1);
+        while (s.endsWith("/"))
+            s = s.substring(0, s.length() - 1);
+        return s;
+    }
+
+    // Remove a trailing "/." or "/" that asks docker cp for the folder contents, since
+    // a batch always copies the contents of a folder to the destination
+    private static String normalize(String path) {
+        String s = path;
+        if (s.endsWith("/.") || s.endsWith("\\."))
+            s = s.substring(0, s.length() - 2);
+        while (s.length() > 1 && (s.endsWith("/") || s.endsWith("\\")))
+            s = s.substring(0, s.length() - 1);
+        return s.isEmpty() ? "/" : s;
+    }
+
+    private static Pattern compile(String glob) {
+        String g = trimSlashes(glob);
+        StringBuilder sb = new StringBuilder(g.length() * 2);
+        // patterns without a separator match the name at any depth
+        if (g.indexOf('/') < 0)
+            sb.append("(?:.*/)?");
+        for (int i = 0; i < g.length(); i++) {
+            char c = g.charAt(i);
+            if (c == '*') {
+                if (i + 1 < g.length() && g.charAt(i + 1) == '*') {
+                    i++;
+                    // "**/" also matches no folder at all
+                    if (i + 1 < g.length() && g.charAt(i + 1) == '/') {
+                        i++;
+                        sb.append("(?:.*/)?");
+                    } else {
+                        sb.append(".*");
+                    }
+                } else {
+                    sb.append("[^/]*");
+                }
+            } else if (c == '?') {
+                sb.append("[^/]");
+            } else {
+                sb.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(sb.toString());
+    }
+
+    @Override
+    public String toString() {
+        return "DockerCopyBatch " + entries;
+    }
+}
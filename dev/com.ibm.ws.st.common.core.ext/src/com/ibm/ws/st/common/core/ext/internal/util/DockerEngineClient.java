@@ -0,0 +1,943 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package com.ibm.ws.st.common.core.ext.internal.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonReader;
+import javax.json.JsonValue;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+
+import com.ibm.ws.st.common.core.ext.internal.Trace;
+import com.ibm.ws.st.common.core.ext.internal.setuphandlers.IPlatformHandler;
+import com.ibm.ws.st.common.core.ext.internal.setuphandlers.IPlatformHandler.ExecutionOutput;
+import com.ibm.ws.st.common.core.ext.internal.setuphandlers.LocalHandler;
+
+/**
+ * Client for the Docker engine API, used instead of forking the docker command line for
+ * the operations that the tools run most often. Requests go over HTTP to the engine given
+ * by <code>DOCKER_HOST</code>, and the connections are kept alive and reused by the JDK.
+ * The inspect output of containers is cached and refreshed when the engine reports an
+ * event for the container.
+ *
+ * A client is only available for a plain TCP engine on the local machine. The JDK cannot
+ * connect to a Unix socket and TLS client certificates are not supported, so the callers
+ * fall back to the command line in those cases. A request that fails with a
+ * {@link NotStartedException} had no effect in the engine and can be repeated with the
+ * command line. Any other failure may have happened after the engine acted on the request,
+ * so it must not be repeated.
+ */
+public class DockerEngineClient {
+
+    public static final String ENGINE_API_PROPERTY = "com.ibm.ws.st.dockerEngineApi";
+
+    private static final String API_VERSION = "/v1.24";
+    private static final String DOCKER_HOST = "DOCKER_HOST";
+    private static final String DOCKER_TLS_VERIFY = "DOCKER_TLS_VERIFY";
+
+    // after a connection failure, use the command line for a while before trying again
+    private static final long RETRY_DELAY = 60000;
+
+    private static final Pattern ARGUMENT_PATTERN = Pattern.compile("[^\\s\"]+|\"[^\"]*\"");
+
+    private static final Map<String, DockerEngineClient> clients = new HashMap<String, DockerEngineClient>();
+
+    private final String baseURL;
+    private final Map<String, JsonObject> inspectCache = new ConcurrentHashMap<String, JsonObject>();
+    // incremented for each event, so that output read while an event arrived is not cached
+    private final AtomicLong eventCount = new AtomicLong();
+    private volatile long unavailableUntil = 0;
+    private EventWatcher eventWatcher;
+
+    DockerEngineClient(String baseURL) {
+        this.baseURL = baseURL;
+    }
+
+    /**
+     * Returns the client for the engine used by the given docker machine, or <code>null</code>
+     * if the engine API cannot be used and commands must go through the command line.
+     *
+     * @param dockerMachine the docker machine
+     * @param platformHandler the platform handler that runs docker commands
+     * @return the client, or <code>null</code>
+     */
+    public static DockerEngineClient getClient(AbstractDockerMachine dockerMachine, IPlatformHandler platformHandler) {
+        // remote engines are reached through the remote machine's command line
+        if (!(platformHandler instanceof LocalHandler) || "false".equalsIgnoreCase(System.getProperty(ENGINE_API_PROPERTY)))
+            return null;
+
+        Map<String, String> env;
+        try {
+            env = dockerMachine.getDockerEnv();
+        } catch (Exception e) {
+            if (Trace.ENABLED)
+                Trace.trace(Trace.WARNING, "Could not get the docker environment for " + dockerMachine, e);
+            return null;
+        }
+
+        String host = env != null ? env.get(DOCKER_HOST) : null;
+        String tlsVerify = env != null ? env.get(DOCKER_TLS_VERIFY) : null;
+        if (host == null) {
+            host = System.getenv(DOCKER_HOST);
+            tlsVerify = System.getenv(DOCKER_TLS_VERIFY);
+        }
+        if (host == null || !host.startsWith("tcp://") || (tlsVerify != null && !tlsVerify.isEmpty() && !"0".equals(tlsVerify)))
+            return null;
+
+        String baseURL = "http://" + host.substring("tcp://".length());
+        if (baseURL.endsWith("/"))
+            baseURL = baseURL.substring(0, baseURL.length() - 1);
+
+        DockerEngineClient client;
+        synchronized (clients) {
+            client = clients.get(baseURL);
+            if (client == null) {
+                client = new DockerEngineClient(baseURL);
+                clients.put(baseURL, client);
+            }
+        }
+        return client.isAvailable() ? client : null;
+    }
+
+    /**
+     * Stop watching for events on all engines.
+     */
+    public static void shutdown() {
+        synchronized (clients) {
+            for (DockerEngineClient client : clients.values())
+                client.stopEventWatcher();
+            clients.clear();
+        }
+    }
+
+    boolean isAvailable() {
+        return System.currentTimeMillis() >= unavailableUntil;
+    }
+
+    // Called when a request could not reach the engine
+    private void markUnavailable(IOException e) {
+        unavailableUntil = System.currentTimeMillis() + RETRY_DELAY;
+        stopEventWatcher();
+        inspectCache.clear();
+        if (Trace.ENABLED)
+            Trace.trace(Trace.WARNING, "The Docker engine at " + baseURL + " could not be reached, the docker command will be used instead", e);
+    }
+
+    /**
+     * Returns the inspect output of a container. The output is cached while the engine's
+     * events are being watched, since any change to the container produces an event.
+     *
+     * @param containerName the container name or id
+     * @return the inspect output
+     * @throws IOException if the request failed
+     */
+    public JsonObject inspectContainer(String containerName) throws IOException {
+        boolean watching = startEventWatcher();
+        if (watching) {
+            JsonObject cached = inspectCache.get(containerName);
+            if (cached != null)
+                return cached;
+        }
+
+        long count = eventCount.get();
+        JsonObject inspect = readObject(request("GET", "/containers/" + encode(containerName) + "/json", null, 0));
+        if (watching) {
+            inspectCache.put(containerName, inspect);
+            if (count != eventCount.get())
+                inspectCache.remove(containerName);
+        }
+        return inspect;
+    }
+
+    /**
+     * Forget the cached inspect output of a container.
+     *
+     * @param containerName the container name or id
+     */
+    public void invalidate(String containerName) {
+        inspectCache.remove(containerName);
+    }
+
+    /**
+     * Returns <code>true</code> if the container is running.
+     *
+     * @param containerName the container name
+     * @return <code>true</code> if running
+     * @throws IOException if the request failed
+     */
+    public boolean isRunning(String containerName) throws IOException {
+        JsonObject state = getObject(inspectContainer(containerName), "State");
+        return state != null && state.getBoolean("Running", false);
+    }
+
+    /**
+     * Returns the host mappings of a container port in the same format as <code>docker port</code>,
+     * one <code>host:port</code> per line.
+     *
+     * @param containerName the container name
+     * @param containerPort the container port, optionally followed by the protocol
+     * @return the mappings
+     * @throws IOException if the request failed
+     */
+    public String getPortMapping(String containerName, String containerPort) throws IOException {
+        String key = containerPort.contains("/") ? containerPort : containerPort + "/tcp";
+        JsonObject settings = getObject(inspectContainer(containerName), "NetworkSettings");
+        JsonValue ports = settings != null ? settings.get("Ports") : null;
+        StringBuilder sb = new StringBuilder();
+        if (ports instanceof JsonObject) {
+            JsonValue bindings = ((JsonObject) ports).get(key);
+            if (bindings instanceof JsonArray) {
+                for (JsonValue value : (JsonArray) bindings) {
+                    if (value instanceof JsonObject) {
+                        JsonObject binding = (JsonObject) value;
+                        if (sb.length() > 0)
+                            sb.append('\n');
+                        sb.append(binding.getString("HostIp", "")).append(':').append(binding.getString("HostPort", ""));
+                    }
+                }
+            }
+        }
+        if (sb.length() == 0)
+            throw new IOException("No public port '" + key + "' published for " + containerName);
+        return sb.toString();
+    }
+
+    /**
+     * Returns the logs of a container.
+     *
+     * @param containerName the container name
+     * @return the logs
+     * @throws IOException if the request failed
+     */
+    public String getLogs(String containerName) throws IOException {
+        JsonObject config = getObject(inspectContainer(containerName), "Config");
+        boolean tty = config != null && config.getBoolean("Tty", false);
+        HttpURLConnection connection = request("GET", "/containers/" + encode(containerName) + "/logs?stdout=1&stderr=1", null, 0);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        InputStream in = connection.getInputStream();
+        try {
+            if (tty)
+                copy(in, out);
+            else
+                demultiplex(in, out, err);
+        } finally {
+            in.close();
+        }
+        return out.toString("UTF-8") + err.toString("UTF-8");
+    }
+
+    /**
+     * Run a command in a container.
+     *
+     * @param containerName the container name
+     * @param command the command, split into arguments the same way as the command line
+     * @param user the user to run as, or <code>null</code> for the container's user
+     * @param timeout the timeout in milliseconds
+     * @return the output and exit code of the command
+     * @throws IOException if the request failed
+     */
+    public ExecutionOutput exec(String containerName, String command, String user, long timeout) throws IOException {
+        JsonArrayBuilder cmd = Json.createArrayBuilder();
+        Matcher matcher = ARGUMENT_PATTERN.matcher(command);
+        while (matcher.find())
+            cmd.add(matcher.group().replaceAll("^\"|\"$", ""));
+
+        String id = createExec(containerName, cmd, user);
+        HttpURLConnection connection = startExec(id, timeout);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        InputStream in = connection.getInputStream();
+        try {
+            demultiplex(in, out, err);
+        } finally {
+            in.close();
+        }
+        return new ExecutionOutput(getExitCode(id), out.toString("UTF-8"), err.toString("UTF-8"));
+    }
+
+    // Create an exec instance. Nothing runs until it is started, so any failure can be repeated
+    private String createExec(String containerName, JsonArrayBuilder cmd, String user) throws IOException {
+        JsonObjectBuilder create = Json.createObjectBuilder();
+        create.add("AttachStdin", false).add("AttachStdout", true).add("AttachStderr", true).add("Tty", false).add("Cmd", cmd);
+        if (user != null)
+            create.add("User", user);
+        try {
+            JsonObject created = readObject(request("POST", "/containers/" + encode(containerName) + "/exec", create.build().toString(), 0));
+            return created.getString("Id");
+        } catch (NotStartedException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new NotStartedException(e);
+        }
+    }
+
+    private HttpURLConnection startExec(String id, long timeout) throws IOException {
+        String start = Json.createObjectBuilder().add("Detach", false).add("Tty", false).build().toString();
+        return request("POST", "/exec/" + id + "/start", start, timeout);
+    }
+
+    private int getExitCode(String id) throws IOException {
+        JsonObject result = readObject(request("GET", "/exec/" + id + "/json", null, 0));
+        return result.getInt("ExitCode", -1);
+    }
+
+    /**
+     * Copy a local file or directory into a container, streaming it as a tar archive. Like
+     * <code>docker cp</code>, if the destination is an existing directory the source is
+     * copied into it, otherwise it is copied to the destination path.
+     *
+     * @param containerName the container name
+     * @param source the local file or directory
+     * @param destinationPath the path in the container
+     * @throws IOException if the request failed
+     */
+    public void copyIn(String containerName, File source, String destinationPath) throws IOException {
+        if (!source.exists())
+            throw new IOException("The source file does not exist: " + source);
+
+        String targetDir;
+        String name;
+        String dest = destinationPath.endsWith("/") && destinationPath.length() > 1 ? destinationPath.substring(0, destinationPath.length() - 1) : destinationPath;
+        boolean isDirectory;
+        try {
+            isDirectory = isDirectory(containerName, dest);
+        } catch (NotStartedException e) {
+            throw e;
+        } catch (IOException e) {
+            // nothing has been copied yet
+            throw new NotStartedException(e);
+        }
+        if (isDirectory) {
+            targetDir = dest;
+            name = source.getName();
+        } else {
+            int index = dest.lastIndexOf('/');
+            targetDir = index <= 0 ? "/" : dest.substring(0, index);
+            name = dest.substring(index + 1);
+        }
+
+        HttpURLConnection connection = openConnection("PUT", "/containers/" + encode(containerName) + "/archive?path=" + encode(targetDir), 0);
+        connection.setRequestProperty("Content-Type", "application/x-tar");
+        connection.setDoOutput(true);
+        connection.setChunkedStreamingMode(64 * 1024);
+        connect(connection);
+        OutputStream out = connection.getOutputStream();
+        try {
+            DockerArchive.Writer writer = new DockerArchive.Writer(out);
+            writer.add(source, name);
+            writer.finish();
+        } finally {
+            out.close();
+        }
+        checkResponse(connection);
+        consume(connection);
+    }
+
+    /**
+     * Copy a file or directory out of a container, streaming it as a tar archive. Like
+     * <code>docker cp</code>, if the destination is an existing directory the source is
+     * copied into it, otherwise it is copied to the destination path.
+     *
+     * @param containerName the container name
+     * @param sourcePath the path in the container
+     * @param destination the local destination
+     * @param timeout the timeout in milliseconds
+     * @return the number of files copied
+     * @throws IOException if the request failed
+     */
+    public int copyOut(String containerName, String sourcePath, File destination, long timeout) throws IOException {
+        HttpURLConnection connection = request("GET", "/containers/" + encode(containerName) + "/archive?path=" + encode(sourcePath), null, timeout);
+        File dir;
+        String rename;
+        if (destination.isDirectory()) {
+            dir = destination;
+            rename = null;
+        } else {
+            dir = destination.getAbsoluteFile().getParentFile();
+            rename = destination.getName();
+        }
+        InputStream in = new BufferedInputStream(connection.getInputStream(), 64 * 1024);
+        try {
+            return DockerArchive.extract(in, dir, rename);
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Copy a batch of local files and folders into a container as one tar archive. The
+     * archive is extracted at the root of the container, with each entry named by its
+     * destination path.
+     *
+     * @param containerName the container name
+     * @param batch the files to copy
+     * @param monitor a progress monitor, may be <code>null</code>
+     * @return the number of files copied
+     * @throws IOException if the request failed
+     */
+    public int copyIn(String containerName, DockerCopyBatch batch, IProgressMonitor monitor) throws IOException {
+        for (DockerCopyBatch.Entry entry : batch.getEntries()) {
+            if (!new File(entry.getSource()).exists())
+                throw new IOException("The source file does not exist: " + entry.getSource());
+        }
+
+        HttpURLConnection connection = openConnection("PUT", "/containers/" + encode(containerName) + "/archive?path=%2F", 0);
+        connection.setRequestProperty("Content-Type", "application/x-tar");
+        connection.setDoOutput(true);
+        connection.setChunkedStreamingMode(64 * 1024);
+        connect(connection);
+        int count = 0;
+        OutputStream out = connection.getOutputStream();
+        try {
+            DockerArchive.Writer writer = new DockerArchive.Writer(out);
+            for (DockerCopyBatch.Entry entry : batch.getEntries())
+                count += writer.add(new File(entry.getSource()), DockerCopyBatch.trimSlashes(entry.getDestination()), batch, monitor);
+            writer.finish();
+        } finally {
+            out.close();
+        }
+        checkResponse(connection);
+        consume(connection);
+        invalidate(containerName);
+        return count;
+    }
+
+    /**
+     * Copy a batch of container files and folders to the local file system as one tar
+     * archive. The engine's archive endpoint only takes a single path, so the archive is
+     * streamed from a <code>tar</code> command run in the container.
+     *
+     * @param containerName the container name
+     * @param batch the files to copy
+     * @param timeout the timeout in milliseconds
+     * @param monitor a progress monitor, may be <code>null</code>
+     * @return the number of files copied
+     * @throws IOException if the request or the tar command failed
+     */
+    public int copyOut(String containerName, final DockerCopyBatch batch, long timeout, IProgressMonitor monitor) throws IOException {
+        JsonArrayBuilder cmd = Json.createArrayBuilder().add("tar").add("-cf").add("-").add("-C").add("/");
+        for (DockerCopyBatch.Entry entry : batch.getEntries()) {
+            String source = DockerCopyBatch.trimSlashes(entry.getSource());
+            cmd.add(source.isEmpty() ? "." : source);
+        }
+
+        String id = createExec(containerName, cmd, null);
+        HttpURLConnection connection = startExec(id, timeout);
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        InputStream in = new BufferedInputStream(new DemultiplexInputStream(connection.getInputStream(), err), 64 * 1024);
+        int count;
+        try {
+            count = DockerArchive.extract(in, new DockerArchive.TargetResolver() {
+                @Override
+                public File getTarget(String name) {
+                    return batch.getLocalTarget(name);
+                }
+            }, monitor);
+            // read the padding after the end of the archive so the command can complete
+            byte[] buffer = new byte[8192];
+            while (in.read(buffer) >= 0) {
+                // discard
+            }
+        } finally {
+            in.close();
+        }
+
+        int exitCode = getExitCode(id);
+        if (exitCode != 0)
+            throw new IOException("The tar command in " + containerName + " failed with exit code " + exitCode + ": " + err.toString("UTF-8"));
+        return count;
+    }
+
+    /**
+     * Returns <code>true</code> if the path is a directory in the container.
+     *
+     * @param containerName the container name
+     * @param path the path
+     * @return <code>true</code> if the path is a directory
+     * @throws IOException if the request failed
+     */
+    public boolean isDirectory(String containerName, String path) throws IOException {
+        HttpURLConnection connection = openConnection("HEAD", "/containers/" + encode(containerName) + "/archive?path=" + encode(path), 0);
+        connect(connection);
+        int code = connection.getResponseCode();
+        if (code == HttpURLConnection.HTTP_NOT_FOUND)
+            return false;
+        checkResponse(connection);
+        String stat = connection.getHeaderField("X-Docker-Container-Path-Stat");
+        if (stat == null)
+            return false;
+        JsonObject obj = readObject(new String(Base64.getDecoder().decode(stat), StandardCharsets.UTF_8));
+        // the directory bit of the Go file mode
+        long mode = obj.getJsonNumber("mode").longValue();
+        return (mode & (1L << 31)) != 0;
+    }
+
+    /**
+     * Returns the names of the running or all defined containers.
+     *
+     * @param allDefined <code>true</code> to include containers that are not running
+     * @return the container names
+     * @throws IOException if the request failed
+     */
+    public List<String> getContainerNames(boolean allDefined) throws IOException {
+        JsonArray array = readArray(request("GET", "/containers/json" + (allDefined ? "?all=1" : ""), null, 0));
+        List<String> list = new ArrayList<String>(array.size());
+        for (JsonValue value : array) {
+            JsonArray names = ((JsonObject) value).getJsonArray("Names");
+            if (names != null && !names.isEmpty()) {
+                String name = names.getString(0);
+                list.add(name.startsWith("/") ? name.substring(1) : name);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Returns the size of an image.
+     *
+     * @param imageName the image name
+     * @return the size
+     * @throws IOException if the request failed
+     */
+    public long getImageSize(String imageName) throws IOException {
+        JsonObject image = readObject(request("GET", "/images/" + encode(imageName) + "/json", null, 0));
+        return image.getJsonNumber("Size").longValue();
+    }
+
+    /**
+     * Remove a container.
+     *
+     * @param containerName the container name
+     * @param force <code>true</code> to remove a running container
+     * @throws IOException if the request failed
+     */
+    public void removeContainer(String containerName, boolean force) throws IOException {
+        consume(request("DELETE", "/containers/" + encode(containerName) + (force ? "?force=1" : ""), null, 0));
+        invalidate(containerName);
+    }
+
+    /**
+     * Remove an image.
+     *
+     * @param imageName the image name
+     * @throws IOException if the request failed
+     */
+    public void removeImage(String imageName) throws IOException {
+        consume(request("DELETE", "/images/" + encode(imageName), null, 0));
+    }
+
+    private HttpURLConnection openConnection(String method, String path, long timeout) throws IOException {
+        try {
+            URL url = new URL(baseURL + API_VERSION + path);
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            connection.setRequestMethod(method);
+            connection.setConnectTimeout((int) AbstractDockerMachine.DEFAULT_TIMEOUT);
+            connection.setReadTimeout((int) (timeout > 0 ? timeout : AbstractDockerMachine.DEFAULT_TIMEOUT));
+            connection.setUseCaches(false);
+            return connection;
+        } catch (IOException e) {
+            markUnavailable(e);
+            throw new NotStartedException(e);
+        }
+    }
+
+    // Connect to the engine before any of the request is sent, so that a failure to reach
+    // the engine can be told apart from a failure after the engine received the request
+    private void connect(HttpURLConnection connection) throws IOException {
+        try {
+            connection.connect();
+        } catch (IOException e) {
+            markUnavailable(e);
+            throw new NotStartedException(e);
+        }
+    }
+
+    private HttpURLConnection request(String method, String path, String body, long timeout) throws IOException {
+        HttpURLConnection connection = openConnection(method, path, timeout);
+        if (body != null) {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            connection.setRequestProperty("Content-Type", "application/json");
+            connection.setDoOutput(true);
+            connection.setFixedLengthStreamingMode(bytes.length);
+            connect(connection);
+            OutputStream out = connection.getOutputStream();
+            try {
+                out.write(bytes);
+            } finally {
+                out.close();
+            }
+        } else {
+            connect(connection);
+        }
+        checkResponse(connection);
+        if (Trace.ENABLED_DETAILS)
+            Trace.trace(Trace.DETAILS, "Docker engine request: " + method + " " + path);
+        return connection;
+    }
+
+    private static void checkResponse(HttpURLConnection connection) throws IOException {
+        int code = connection.getResponseCode();
+        if (code >= 200 && code < 300)
+            return;
+
+        String message = null;
+        InputStream err = connection.getErrorStream();
+        if (err != null) {
+            try {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                copy(err, out);
+                message = out.toString("UTF-8");
+                JsonObject obj = readObject(message);
+                message = obj.getString("message", message);
+            } catch (Exception e) {
+                // not json, use the text as is
+            } finally {
+                err.close();
+            }
+        }
+        throw new DockerEngineException(code, connection.getRequestMethod() + " " + connection.getURL().getPath() + " returned " + code + ": " + message);
+    }
+
+    // Read the rest of the response so that the connection can be reused
+    private static void consume(HttpURLConnection connection) throws IOException {
+        InputStream in = connection.getInputStream();
+        try {
+            byte[] buffer = new byte[1024];
+            while (in.read(buffer) >= 0) {
+                // discard
+            }
+        } finally {
+            in.close();
+        }
+    }
+
+    private static JsonObject readObject(HttpURLConnection connection) throws IOException {
+        InputStream in = connection.getInputStream();
+        try {
+            JsonReader reader = Json.createReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            return reader.readObject();
+        } catch (RuntimeException e) {
+            throw new IOException("Invalid response from the Docker engine", e);
+        } finally {
+            in.close();
+        }
+    }
+
+    private static JsonArray readArray(HttpURLConnection connection) throws IOException {
+        InputStream in = connection.getInputStream();
+        try {
+            JsonReader reader = Json.createReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            return reader.readArray();
+        } catch (RuntimeException e) {
+            throw new IOException("Invalid response from the Docker engine", e);
+        } finally {
+            in.close();
+        }
+    }
+
+    private static JsonObject readObject(String s) {
+        JsonReader reader = Json.createReader(new StringReader(s));
+        return reader.readObject();
+    }
+
+    private static JsonObject getObject(JsonObject obj, String key) {
+        JsonValue value = obj.get(key);
+        return value instanceof JsonObject ? (JsonObject) value : null;
+    }
+
+    private static String encode(String s) {
+        try {
+            return URLEncoder.encode(s, "UTF-8").replace("+", "%20");
+        } catch (UnsupportedEncodingException e) {
+            return s;
+        }
+    }
+
+    private static void copy(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[8192];
+        int n;
+        while ((n = in.read(buffer)) >= 0)
+            out.write(buffer, 0, n);
+    }
+
+    /**
+     * Split the multiplexed stdout and stderr stream of a container that does not use a tty.
+     * Each frame has an 8 byte header: the stream type, 3 unused bytes and the frame length.
+     */
+    static void demultiplex(InputStream in, OutputStream out, OutputStream err) throws IOException {
+        byte[] header = new byte[8];
+        byte[] buffer = new byte[8192];
+        while (true) {
+            int read = 0;
+            while (read < header.length) {
+                int n = in.read(header, read, header.length - read);
+                if (n < 0) {
+                    if (read > 0)
+                        throw new IOException("Truncated stream from the Docker engine");
+                    return;
+                }
+                read += n;
+            }
+
+            OutputStream target = header[0] == 2 ? err : out;
+            long length = ((header[4] & 0xFFL) << 24) | ((header[5] & 0xFF) << 16) | ((header[6] & 0xFF) << 8) | (header[7] & 0xFF);
+            while (length > 0) {
+                int n = in.read(buffer, 0, (int) Math.min(buffer.length, length));
+                if (n < 0)
+                    throw new IOException("Truncated stream from the Docker engine");
+                target.write(buffer, 0, n);
+                length -= n;
+            }
+        }
+    }
+
+    /**
+     * The stdout of a multiplexed stream, with stderr collected on the side.
+     */
+    private static class DemultiplexInputStream extends InputStream {
+        private final InputStream in;
+        private final OutputStream err;
+        private final byte[] header = new byte[8];
+        private long remaining = 0;
+        private boolean done = false;
+
+        DemultiplexInputStream(InputStream in, OutputStream err) {
+            this.in = in;
+            this.err = err;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            int n = read(b, 0, 1);
+            return n < 0 ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0)
+                return 0;
+            while (remaining == 0) {
+                if (!nextFrame())
+                    return -1;
+            }
+            int n = in.read(b, off, (int) Math.min(len, remaining));
+            if (n < 0)
+                throw new IOException("Truncated stream from the Docker engine");
+            remaining -= n;
+            return n;
+        }
+
+        // Position the stream at the next stdout frame, copying any stderr frames on the way
+        private boolean nextFrame() throws IOException {
+            if (done)
+                return false;
+            int read = 0;
+            while (read < header.length) {
+                int n = in.read(header, read, header.length - read);
+                if (n < 0) {
+                    if (read > 0)
+                        throw new IOException("Truncated stream from the Docker engine");
+                    done = true;
+                    return false;
+                }
+                read += n;
+            }
+            long length = ((header[4] & 0xFFL) << 24) | ((header[5] & 0xFF) << 16) | ((header[6] & 0xFF) << 8) | (header[7] & 0xFF);
+            if (header[0] != 2) {
+                remaining = length;
+                return true;
+            }
+            byte[] buffer = new byte[(int) Math.min(8192, length)];
+            while (length > 0) {
+                int n = in.read(buffer, 0, (int) Math.min(buffer.length, length));
+                if (n < 0)
+                    throw new IOException("Truncated stream from the Docker engine");
+                err.write(buffer, 0, n);
+                length -= n;
+            }
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    private synchronized boolean startEventWatcher() {
+        if (eventWatcher != null && eventWatcher.isAlive())
+            return eventWatcher.isConnected();
+        // the cache may be out of date if events were missed
+        inspectCache.clear();
+        eventWatcher = new EventWatcher();
+        eventWatcher.start();
+        return false;
+    }
+
+    private synchronized void stopEventWatcher() {
+        if (eventWatcher != null) {
+            eventWatcher.stopWatching();
+            eventWatcher = null;
+        }
+    }
+
+    /**
+     * Streams the engine's container events and drops the cached inspect output of any
+     * container that an event is reported for.
+     */
+    private class EventWatcher extends Thread {
+        private volatile boolean connected;
+        private volatile boolean stopped;
+        private volatile HttpURLConnection connection;
+
+        EventWatcher() {
+            super("Docker engine events " + URI.create(baseURL).getAuthority());
+            setDaemon(true);
+        }
+
+        boolean isConnected() {
+            return connected && !stopped;
+        }
+
+        void stopWatching() {
+            stopped = true;
+            connected = false;
+            HttpURLConnection c = connection;
+            if (c != null)
+                c.disconnect();
+        }
+
+        @Override
+        public void run() {
+            BufferedReader reader = null;
+            try {
+                String filter = "{\"type\":[\"container\"]}";
+                HttpURLConnection c = (HttpURLConnection) new URL(baseURL + API_VERSION + "/events?filters=" + encode(filter)).openConnection();
+                c.setConnectTimeout((int) AbstractDockerMachine.DEFAULT_TIMEOUT);
+                c.setReadTimeout(0);
+                connection = c;
+                if (c.getResponseCode() != HttpURLConnection.HTTP_OK)
+                    return;
+                reader = new BufferedReader(new InputStreamReader(c.getInputStream(), StandardCharsets.UTF_8));
+                connected = true;
+
+                String line;
+                while (!stopped && (line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (line.isEmpty())
+                        continue;
+                    try {
+                        handleEvent(readObject(line));
+                    } catch (RuntimeException e) {
+                        if (Trace.ENABLED)
+                            Trace.trace(Trace.WARNING, "Invalid Docker engine event: " + line, e);
+                    }
+                }
+            } catch (IOException e) {
+                if (!stopped && Trace.ENABLED)
+                    Trace.trace(Trace.INFO, "Stopped watching Docker engine events at " + baseURL, e);
+            } finally {
+                connected = false;
+                inspectCache.clear();
+                if (reader != null) {
+                    try {
+                        reader.close();
+                    } catch (IOException e) {
+                        // ignore
+                    }
+                }
+            }
+        }
+
+        private void handleEvent(JsonObject event) {
+            eventCount.incrementAndGet();
+            String id = event.getString("id", null);
+            JsonObject actor = getObject(event, "Actor");
+            JsonObject attributes = actor != null ? getObject(actor, "Attributes") : null;
+            String name = attributes != null ? attributes.getString("name", null) : null;
+            if (Trace.ENABLED_DETAILS)
+                Trace.trace(Trace.DETAILS, "Docker engine event: " + event.getString("status", event.getString("Action", "")) + " " + name);
+
+            if (name != null)
+                inspectCache.remove(name);
+            if (id != null) {
+                inspectCache.remove(id);
+                // the container may have been inspected by its old name before a rename
+                for (Map.Entry<String, JsonObject> entry : inspectCache.entrySet()) {
+                    if (id.equals(entry.getValue().getString("Id", null)))
+                        inspectCache.remove(entry.getKey());
+                }
+            }
+        }
+    }
+
+    /**
+     * A request that failed before the engine could act on it, either because the engine
+     * could not be reached or because the command was never created. It is safe to run the
+     * same operation with the command line instead.
+     */
+    public static class NotStartedException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        public NotStartedException(IOException cause) {
+            super(cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * An error response from the Docker engine. The engine was reached, so the command
+     * line would fail the same way.
+     */
+    public static class DockerEngineException extends IOException {
+        private static final long serialVersionUID = 1L;
+        private final int statusCode;
+
+        public DockerEngineException(int statusCode, String message) {
+            super(message);
+            this.statusCode = statusCode;
+        }
+
+        public int getStatusCode() {
+            return statusCode;
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014, 2015 IBM Corporation and others.
+ * Copyright (c) 2014, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,6 +11,8 @@
 package com.ibm.ws.st.core.internal;
 
 import java.util.Arrays;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.debug.core.ILaunchManager;
 import org.eclipse.wst.server.core.IServer;
@@ -21,20 +23,41 @@ import com.ibm.ws.st.core.internal.launch.ServerStartInfo;
 import com.ibm.ws.st.core.internal.launch.WebSphereLaunchConfigurationDelegate;
 
 /**
- *
+ * Server state monitor. Monitors no longer own a thread; each poll is run on a probe thread
+ * of the shared {@link ServerMonitorScheduler} and the next poll is scheduled when it completes,
+ * so a monitor never polls concurrently with itself.
  */
-public abstract class AbstractMonitorThread extends Thread {
+public abstract class AbstractMonitorThread {
 
     public static final String SERVER_STATUS_POLLING_DELAY_PROPERTY = "com.ibm.ws.st.serverStatusPollingDelaySeconds";
 
     protected static int POLLING_DELAY = 3500;
-    protected boolean stopMonitor = false;
+
+    // Poll quickly for a few cycles after a server state transition
+    protected static int FAST_POLLING_DELAY = 1000;
+    protected static final int FAST_POLL_COUNT = 5;
+
+    // Stopped servers back off gradually up to this multiple of the polling delay
+    protected static final int MAX_IDLE_BACKOFF = 4;
+    protected static final int IDLE_POLLS_PER_BACKOFF = 5;
+
+    protected volatile boolean stopMonitor = false;
 
     protected WebSphereServerBehaviour wsBehaviour;
     protected IServer server;
     protected WebSphereServer wsServer;
     protected Object serverStateSyncObj;
 
+    private final String name;
+    private final Object scheduleLock = new Object();
+    private ScheduledFuture<?> nextPoll;
+    private long pollGeneration;
+    private boolean polling;
+    private boolean pollRequested;
+    private int lastServerState = -1;
+    private int fastPolls = FAST_POLL_COUNT;
+    private int idlePolls;
+
     static {
         String pollingDelay = System.getProperty(SERVER_STATUS_POLLING_DELAY_PROPERTY);
         if (pollingDelay != null && !pollingDelay.isEmpty()) {
@@ -44,18 +67,132 @@ public abstract class AbstractMonitorThread extends Thread {
                 Trace.logError("The server status polling delay specified is not valid: " + pollingDelay + ". The default will be used: " + POLLING_DELAY, e);
             }
         }
+        if (FAST_POLLING_DELAY > POLLING_DELAY)
+            FAST_POLLING_DELAY = POLLING_DELAY;
     }
 
     public AbstractMonitorThread(WebSphereServerBehaviour wsBehaviour, Object serverStateSyncObj, String name) {
-        super(name);
+        this.name = name;
         this.wsBehaviour = wsBehaviour;
         this.server = wsBehaviour.getServer();
         this.wsServer = wsBehaviour.getWebSphereServer();
         this.serverStateSyncObj = serverStateSyncObj;
     }
 
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Start monitoring. The first poll is run immediately.
+     */
+    public void start() {
+        schedulePoll(0);
+    }
+
     public void stopMonitor() {
-        stopMonitor = true;
+        synchronized (scheduleLock) {
+            stopMonitor = true;
+            if (nextPoll != null) {
+                nextPoll.cancel(false);
+                nextPoll = null;
+            }
+        }
+    }
+
+    /**
+     * Notify the monitor that the server state has changed so that it polls quickly for
+     * the next few cycles.
+     */
+    public void serverStateChanged() {
+        synchronized (scheduleLock) {
+            fastPolls = FAST_POLL_COUNT;
+            idlePolls = 0;
+            if (polling) {
+                pollRequested = true;
+                return;
+            }
+            if (nextPoll != null && nextPoll.getDelay(TimeUnit.MILLISECONDS) <= FAST_POLLING_DELAY)
+                return;
+        }
+        schedulePoll(FAST_POLLING_DELAY);
+    }
+
+    /**
+     * Check the server once. Called on a probe thread of the scheduler, so it may block.
+     */
+    protected abstract void poll();
+
+    /**
+     * Returns the delay before the next poll, in ms. Servers that have just changed state are
+     * polled quickly, stopped servers back off gradually, and everything else uses the polling delay.
+     */
+    protected long getNextPollDelay() {
+        int state = server.getServerState();
+        synchronized (scheduleLock) {
+            if (state != lastServerState) {
+                lastServerState = state;
+                fastPolls = FAST_POLL_COUNT;
+                idlePolls = 0;
+            }
+            if (state == IServer.STATE_STARTING || state == IServer.STATE_STOPPING || fastPolls > 0) {
+                if (fastPolls > 0)
+                    fastPolls--;
+                return FAST_POLLING_DELAY;
+            }
+            if (state == IServer.STATE_STOPPED) {
+                idlePolls++;
+                int backoff = Math.min(MAX_IDLE_BACKOFF, 1 + idlePolls / IDLE_POLLS_PER_BACKOFF);
+                return (long) POLLING_DELAY * backoff;
+            }
+            return POLLING_DELAY;
+        }
+    }
+
+    private void schedulePoll(long delay) {
+        synchronized (scheduleLock) {
+            if (stopMonitor)
+                return;
+            if (polling) {
+                pollRequested = true;
+                return;
+            }
+            if (nextPoll != null)
+                nextPoll.cancel(false);
+            final long generation = ++pollGeneration;
+            nextPoll = ServerMonitorScheduler.getInstance().schedule(new Runnable() {
+                @Override
+                public void run() {
+                    runPoll(generation);
+                }
+            }, delay);
+        }
+    }
+
+    void runPoll(long generation) {
+        synchronized (scheduleLock) {
+            // a superseded poll may still run if it was cancelled after it started
+            if (stopMonitor || polling || generation != pollGeneration)
+                return;
+            polling = true;
+            nextPoll = null;
+        }
+
+        boolean requested = false;
+        try {
+            poll();
+        } catch (Throwable t) {
+            if (Trace.ENABLED)
+                Trace.trace(Trace.WARNING, "Server monitor poll failed: " + name, t);
+        } finally {
+            long delay = stopMonitor ? 0 : getNextPollDelay();
+            synchronized (scheduleLock) {
+                polling = false;
+                requested = pollRequested;
+                pollRequested = false;
+            }
+            schedulePoll(requested ? Math.min(delay, FAST_POLLING_DELAY) : delay);
+        }
     }
 
     protected WebSphereRuntime getWebSphereRuntime() {
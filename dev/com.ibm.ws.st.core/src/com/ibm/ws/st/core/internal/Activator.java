@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2017 IBM Corporation and others.
+ * Copyright (c) 2011, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -67,8 +67,10 @@ import com.ibm.ws.st.common.core.internal.CommonServerUtil;
 import com.ibm.ws.st.core.internal.PromptHandler.AbstractPrompt;
 import com.ibm.ws.st.core.internal.config.ConfigurationFile;
 import com.ibm.ws.st.core.internal.generation.FeatureListExtMetadata;
+import com.ibm.ws.st.core.internal.generation.GeneratorJob;
 import com.ibm.ws.st.core.internal.generation.MetaDataRemover;
 import com.ibm.ws.st.core.internal.jmx.JMXConnectionInfo;
+import com.ibm.ws.st.core.internal.jmx.JMXConnectionPool;
 import com.ibm.ws.st.core.internal.launch.AbstractServerStartupExtension;
 
 /**
@@ -262,6 +264,9 @@ public class Activator extends Plugin {
                         WebSphereServer serv = (WebSphereServer) server.loadAdapter(WebSphereServer.class, null);
                         if (serv != null) {
                             serv.cleanup();
+                            WebSphereServerInfo serverInfo = serv.getServerInfo();
+                            if (serverInfo != null)
+                                ServerStatusProbe.getInstance().clearLatency(serverInfo);
                             if (!serv.isLocalSetup()) {
                                 removeRemoteServerSecureStorageValues(serv);
                                 removeTempRemoteServerUsrDirectoryFiles(serv);
@@ -504,6 +509,13 @@ public class Activator extends Plugin {
         ServerListenerUtil.getInstance().removeMetadataListener(metadataListener);
         instance = null;
         ConfigurationResourceChangeListener.stop();
+        ConfigSyncScheduler.shutdown();
+        JMXConnectionPool.shutdown();
+        ServerMonitorScheduler.shutdown();
+        ZipPackager.shutdown();
+        ServerCacheUpdater.shutdown();
+        RemoteFileDeleter.shutdown();
+        GeneratorJob.shutdown();
 
         //terminate all the debugTargets if the workbench is closed with an active debug session to avoid VMDisconnected exception
         terminateDebugTargets();
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2017 IBM Corporation and others.
+ * Copyright (c) 2011, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,13 +12,11 @@ package com.ibm.ws.st.core.internal;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import javax.management.openmbean.CompositeData;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
@@ -44,6 +42,7 @@ import com.ibm.ws.st.common.core.ext.internal.servertype.AbstractServerBehaviour
 import com.ibm.ws.st.core.internal.WebSphereServerBehaviour.ApplicationStateTracker;
 import com.ibm.ws.st.core.internal.config.ConfigurationFile;
 import com.ibm.ws.st.core.internal.jmx.JMXConnection;
+import com.ibm.ws.st.core.internal.looseconfig.LooseConfigFingerprint;
 import com.ibm.ws.st.core.internal.looseconfig.LooseconfigXMLGenerator;
 
 /**
@@ -208,6 +207,7 @@ public abstract class ApplicationPublisher {
                     Trace.logError("Can't delete loose config xml " + serverPath.toString(), null);
                 }
             }
+            LooseConfigFingerprint.remove(getWebSphereServerBehaviour().getTempDirectory(), appsPathOverride != null ? appsPathOverride : serverPath);
         } else {
             IPath tempPath = getWebSphereServerBehaviour().getTempDirectory().append(xmlFileName);
             long time = System.currentTimeMillis();
@@ -237,7 +237,29 @@ public abstract class ApplicationPublisher {
      * @throws IOException
      */
     private void doHandleGen(PublishUnit app, IPath serverPath, File serverFile, IPath tempPath, LooseconfigXMLGenerator gen) throws ParserConfigurationException, IOException {
+        LooseConfigFingerprint fingerprint = new LooseConfigFingerprint(getWebSphereServerBehaviour().getTempDirectory(), serverPath, app, getWebSphereServerBehaviour());
         if (serverFile.exists()) {
+            // skip generating the file if no module changed, or only regenerate the modules that did
+            List<PublishUnit> changedModules = fingerprint.getChangedModules(serverFile);
+            if (changedModules != null) {
+                try {
+                    Boolean updated = changedModules.isEmpty() ? Boolean.FALSE : gen.updateRepository(serverPath, tempPath, app, changedModules);
+                    if (updated != null) {
+                        if (updated.booleanValue()) {
+                            FileUtil.move(tempPath, serverPath);
+                            getChangedResourceList().add(serverPath.toOSString());
+                        }
+                        fingerprint.save(serverFile);
+                        if (Trace.ENABLED)
+                            Trace.trace(Trace.INFO, "Loose config xml " + (updated.booleanValue() ? "updated for " + changedModules.size() + " module(s): " : "is up to date: ") + serverPath);
+                        return;
+                    }
+                } catch (Exception e) {
+                    if (Trace.ENABLED)
+                        Trace.trace(Trace.WARNING, "Could not update loose config file, it will be generated again", e);
+                }
+            }
+
             try {
                 gen.generateRepository(tempPath, app);
                 DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
@@ -264,6 +286,7 @@ public abstract class ApplicationPublisher {
                 getChangedResourceList().add(serverPath.toOSString());
             }
         }
+        fingerprint.save(serverFile);
     }
 
     protected void notifyUpdatedApplicationResourcesViaJMX() throws Exception {
@@ -316,19 +339,15 @@ public abstract class ApplicationPublisher {
                 long deleteStartTime = System.currentTimeMillis();
                 remoteRemovedResourceList = new ArrayList<String>(removedResourceList.size());
                 for (String f : removedResourceList) {
-                    try {
-                        String dest = f.replace(wrapper.getWebSphereServerInfo().getServerPath().toOSString(), remoteServerConfigPath).replace("\\", "/");
-                        remoteRemovedResourceList.add(dest);
-                        jmx.deleteFile(dest);
-                    } catch (Exception e) {
-                        if (Trace.ENABLED)
-                            Trace.trace(Trace.WARNING, "Failed to delete remote file: " + f, e);
-                    }
+                    String dest = f.replace(wrapper.getWebSphereServerInfo().getServerPath().toOSString(), remoteServerConfigPath).replace("\\", "/");
+                    remoteRemovedResourceList.add(dest);
                 }
+                new RemoteFileDeleter(jmx).delete(remoteRemovedResourceList);
                 if (Trace.ENABLED && removedResourceList.size() > 0) {
                     Trace.tracePerf("Finished JMX delete operations", deleteStartTime);
                 }
             }
+            removeFromRemoteManifests(removedResourceList);
             jmx.notifyFileChanges(remoteAddedResourceList, remoteChangedResourceList, remoteRemovedResourceList);
         } else {
             jmx.notifyFileChanges(addedResourceList, changedResourceList, removedResourceList);
@@ -640,7 +659,7 @@ public abstract class ApplicationPublisher {
                     // (In particular, when switching to non-loose, the app should also be uploaded to the remote server
                     // where in the standalone case, this is not needed).
                     if (postLooseConfigChange()) {
-                        updateRemoteApplicationFilesViaJMX(pu, status);
+                        updateRemoteApplicationFilesViaJMX(pu, status, true);
                     }
                     jmx.startApplication(appName);
                 } catch (Exception e) {
@@ -1030,6 +1049,14 @@ public abstract class ApplicationPublisher {
      * @throws Exception
      */
     private void updateRemoteApplicationFilesViaJMX(PublishUnit app, MultiStatus status) throws Exception {
+        updateRemoteApplicationFilesViaJMX(app, status, false);
+    }
+
+    /**
+     * @param fullUpload <code>true</code> to upload every application file, for when the
+     *            module resource deltas don't describe the published content
+     */
+    private void updateRemoteApplicationFilesViaJMX(PublishUnit app, MultiStatus status, boolean fullUpload) throws Exception {
         JMXConnection jmx = getJMXConnection();
         if (jmx == null || jmx.isLocalConnection() || getServer().getServerState() != IServer.STATE_STARTED) {
             jmxDeleteList.clear();
@@ -1040,55 +1067,35 @@ public abstract class ApplicationPublisher {
 
         if (!jmxDeleteList.isEmpty()) {
             long deleteStartTime = System.currentTimeMillis();
-            for (String file : jmxDeleteList) {
-                // TODO We can only delete a single file at a time using the JMX deleteFile operation at this time.
-                // Therefore, this is workaround code since we cannot just specify a directory or list of files
-                // to be deleted. We will revisit this code to make it more efficient in the future once the runtime
-                // has such an operation.
-                try {
-                    String remotePath = wsb.resolveConfigVar("${server.config.dir}", jmx);
-                    String dest = file.replace(wrapper.getWebSphereServerInfo().getServerPath().toOSString(), remotePath).replace("\\",
-                                                                                                                                  "/");
-                    CompositeData[] data = jmx.getDirectoryEntries(dest, true, "");
-
-                    if (data == null)
-                        continue;
-
-                    ArrayDeque<String> dirs = new ArrayDeque<String>(data.length);
-                    dirs.push(dest); // the parent directory is last to be deleted
-                    // the directories are listed in a depth-first manner so each file
-                    // should be pushed to the top of the stack so that we are deleting the
-                    // deepest files first and work up to the root directories & files
-                    for (CompositeData c : data) {
-                        dirs.push((String) c.get("fileName"));
-                    }
-
-                    while (!dirs.isEmpty()) {
-                        String f = dirs.pop();
-                        try {
-                            jmx.deleteFile(f);
-                        } catch (Exception e) {
-                            if (Trace.ENABLED)
-                                Trace.trace(Trace.WARNING, "Could not delete remote file: " + f, e);
-                        }
-                    }
-                } catch (Exception e) {
-                    Trace.logError("Failed to delete file: " + file, e);
-                }
+            try {
+                // resolve once for the whole publish rather than once per file
+                String remotePath = wsb.resolveConfigVar("${server.config.dir}", jmx);
+                String serverPath = wrapper.getWebSphereServerInfo().getServerPath().toOSString();
+                List<String> remoteFiles = new ArrayList<String>(jmxDeleteList.size());
+                for (String file : jmxDeleteList)
+                    remoteFiles.add(file.replace(serverPath, remotePath).replace("\\", "/"));
+                new RemoteFileDeleter(jmx).delete(remoteFiles);
+            } catch (Exception e) {
+                Trace.logError("Failed to delete files: " + jmxDeleteList, e);
             }
             if (Trace.ENABLED) {
                 Trace.tracePerf("Finished JMX delete operations", deleteStartTime);
             }
 
+            removeFromRemoteManifests(jmxDeleteList);
             jmxDeleteList.clear();
         } // jmx delete end
 
         IPath path = wsb.getRootPublishFolder(false);
         IPath tempPath = wsb.getTempDirectory();
         Map<File, File> filesToUpload = new HashMap<File, File>();
+        Map<File, RemoteAppManifest> manifests = new HashMap<File, RemoteAppManifest>();
         try {
             if (path != null) {
+                String serverPath = wrapper.getWebSphereServerInfo().getServerPath().toOSString();
+                String remoteServerConfigPath = null;
                 try {
+                    remoteServerConfigPath = wsb.resolveConfigVar("${server.config.dir}", jmx);
                     // At the time of writing this appsDir can only be apps in the server output directory
                     // The tools don't currently support publishing to the shared apps location
                     File appsDir = path.toFile();
@@ -1098,11 +1105,35 @@ public abstract class ApplicationPublisher {
                             for (File f : files) {
                                 // Currently we only handle applications that are expanded in directory structure (ie. the apps are directories not files)
                                 if (f.isDirectory()) {
+                                    String remoteDestination = f.getAbsolutePath().replace(serverPath, remoteServerConfigPath).replace("\\", "/");
+                                    RemoteAppManifest manifest = RemoteAppManifest.load(tempPath, f.getName());
                                     IPath zipPath = tempPath.append(f.getName() + ".zip");
-                                    FileUtil.zipDirectory(f, zipPath.toOSString());
+                                    if (fullUpload || app.getDeltaKind() == ServerBehaviourDelegate.ADDED || !manifest.matches(remoteDestination)) {
+                                        // no trusted record of what is on the server so upload everything
+                                        manifest.clear();
+                                        manifest.getChangedFiles(f, null);
+                                        FileUtil.zipDirectory(f, zipPath.toOSString());
+                                    } else {
+                                        List<File> deltaFiles = getDeltaFiles(f);
+                                        if (deltaFiles == null) {
+                                            if (Trace.ENABLED)
+                                                Trace.trace(Trace.INFO, "No changes to upload for: " + f.getName());
+                                            continue;
+                                        }
+                                        List<File> changed = manifest.getChangedFiles(f, deltaFiles);
+                                        if (changed.isEmpty()) {
+                                            if (Trace.ENABLED)
+                                                Trace.trace(Trace.INFO, "No content changes to upload for: " + f.getName());
+                                            continue;
+                                        }
+                                        if (Trace.ENABLED)
+                                            Trace.trace(Trace.INFO, "Uploading " + changed.size() + " changed file(s) for: " + f.getName());
+                                        FileUtil.zipFiles(f, changed, zipPath.toOSString());
+                                    }
                                     File zipFile = zipPath.toFile();
                                     if (zipFile.exists()) {
                                         filesToUpload.put(zipFile, f);
+                                        manifests.put(f, manifest);
                                     }
                                 }
                             }
@@ -1117,17 +1148,19 @@ public abstract class ApplicationPublisher {
                     return;
 
                 long uploadStartTime = System.currentTimeMillis();
-                try {
-                    for (Map.Entry<File, File> entry : filesToUpload.entrySet()) {
-                        File zipFile = entry.getKey();
-                        File origFile = entry.getValue();
-                        String remoteServerConfigPath = wsb.resolveConfigVar("${server.config.dir}", jmx);
-                        String remoteDestination = origFile.getAbsolutePath().replace(wrapper.getWebSphereServerInfo().getServerPath().toOSString(),
-                                                                                      remoteServerConfigPath).replace("\\", "/");
+                for (Map.Entry<File, File> entry : filesToUpload.entrySet()) {
+                    File zipFile = entry.getKey();
+                    File origFile = entry.getValue();
+                    String remoteDestination = origFile.getAbsolutePath().replace(serverPath, remoteServerConfigPath).replace("\\", "/");
+                    try {
                         jmx.uploadFile(zipFile, remoteDestination, true);
+                        manifests.get(origFile).save(remoteDestination);
+                    } catch (Exception e) {
+                        // the server content is no longer known so force a full upload next time,
+                        // and carry on with the other applications
+                        RemoteAppManifest.delete(tempPath, origFile.getName());
+                        status.add(new Status(IStatus.ERROR, Activator.PLUGIN_ID, NLS.bind(Messages.errorRemotePublishTransfer, origFile.getName()), e));
                     }
-                } catch (Exception e) {
-                    status.add(new Status(IStatus.ERROR, Activator.PLUGIN_ID, NLS.bind(Messages.errorRemotePublishTransfer, app.getModuleName()), e));
                 }
                 if (Trace.ENABLED && !filesToUpload.isEmpty()) {
                     Trace.tracePerf("Finished JMX upload operations", uploadStartTime);
@@ -1144,6 +1177,67 @@ public abstract class ApplicationPublisher {
         }
     }
 
+    /**
+     * Returns the files under the given application folder that the module resource deltas
+     * report as added or changed, or <code>null</code> if there are none.
+     */
+    private List<File> getDeltaFiles(File appDir) {
+        String appPath = appDir.getAbsolutePath();
+        String root = appPath + File.separator;
+        List<File> files = new ArrayList<File>();
+        if (addedResourceList != null) {
+            for (String s : addedResourceList) {
+                // the application folder itself is reported when the whole module is added
+                if (s.startsWith(root) || s.equals(appPath))
+                    files.add(new File(s));
+            }
+        }
+        if (changedResourceList != null) {
+            for (String s : changedResourceList) {
+                if (s.startsWith(root) || s.equals(appPath))
+                    files.add(new File(s));
+            }
+        }
+        return files.isEmpty() ? null : files;
+    }
+
+    /**
+     * Remove deleted files from the remote application manifests.
+     *
+     * @param files the local paths of the deleted files
+     */
+    private void removeFromRemoteManifests(List<String> files) {
+        IPath appsPath = getWebSphereServerBehaviour().getRootPublishFolder(false);
+        if (appsPath == null || files == null || files.isEmpty())
+            return;
+
+        IPath tempPath = getWebSphereServerBehaviour().getTempDirectory();
+        Map<String, RemoteAppManifest> manifests = new HashMap<String, RemoteAppManifest>();
+        for (String file : files) {
+            IPath filePath = new Path(file);
+            if (!appsPath.isPrefixOf(filePath) || filePath.segmentCount() <= appsPath.segmentCount())
+                continue;
+            IPath relativePath = filePath.removeFirstSegments(appsPath.segmentCount()).setDevice(null);
+            String appName = relativePath.segment(0);
+            if (relativePath.segmentCount() == 1) {
+                // the whole application was removed
+                RemoteAppManifest.delete(tempPath, appName);
+                manifests.remove(appName);
+                continue;
+            }
+            RemoteAppManifest manifest = manifests.get(appName);
+            if (manifest == null) {
+                manifest = RemoteAppManifest.load(tempPath, appName);
+                manifests.put(appName, manifest);
+            }
+            manifest.remove(relativePath.removeFirstSegments(1).toPortableString());
+        }
+        for (RemoteAppManifest manifest : manifests.values()) {
+            if (manifest.isLoaded())
+                manifest.save();
+        }
+    }
+
     private void cleanupRemoteTempPublishFiles() {
         if (getWebSphereServerBehaviour().isLocalUserDir())
             return;
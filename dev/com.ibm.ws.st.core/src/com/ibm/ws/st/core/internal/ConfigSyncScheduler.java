@@ -0,0 +1,274 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package com.ibm.ws.st.core.internal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+
+/**
+ * Schedules the automatic configuration sync of each server. Every server has its own sync
+ * job, and requests for a server that arrive before its job runs are coalesced into one
+ * sync. Each request postpones the sync until the configuration has been quiet for the
+ * quiet period, but a steady stream of changes can not postpone it indefinitely.
+ * <p>
+ * A sync checks all of the configuration files of the server, so the changes of all of the
+ * coalesced requests are picked up together. The number of syncs that run at the same time
+ * is limited, and a sync that can't run yet is retried shortly.
+ */
+public class ConfigSyncScheduler {
+
+    public static final String QUIET_PERIOD_PROPERTY = "com.ibm.ws.st.configSyncQuietPeriod";
+    public static final String MAX_CONCURRENT_PROPERTY = "com.ibm.ws.st.configSyncMaxConcurrent";
+
+    // the longest a stream of requests can postpone a sync, in milliseconds
+    public static final long MAX_DEFERRAL = 30000;
+
+    private static final long DEFAULT_QUIET_PERIOD = 500;
+    private static final int DEFAULT_MAX_CONCURRENT = 2;
+    private static final long PERMIT_RETRY_DELAY = 250;
+
+    /**
+     * A configuration sync.
+     */
+    public interface ConfigSync {
+        public IStatus sync(IProgressMonitor monitor);
+    }
+
+    private static final Map<Object, SyncJob> jobs = new HashMap<Object, SyncJob>();
+    private static final long quietPeriod = getQuietPeriod();
+    private static final Semaphore permits = new Semaphore(getMaxConcurrent());
+
+    private ConfigSyncScheduler() {
+        // static methods only
+    }
+
+    /**
+     * Schedule a configuration sync for the given server, or postpone a sync that is
+     * already scheduled.
+     *
+     * @param behaviour the server behaviour
+     * @param delay the minimum time to wait before the sync, in milliseconds
+     */
+    public static void schedule(final WebSphereServerBehaviour behaviour, long delay) {
+        schedule(behaviour, new ConfigSync() {
+            @Override
+            public IStatus sync(IProgressMonitor monitor) {
+                return behaviour.autoConfigSync(monitor);
+            }
+        }, delay);
+    }
+
+    /**
+     * Schedule a configuration sync, or postpone a sync that is already scheduled for the
+     * same key.
+     *
+     * @param key the key of the sync, e.g. the server behaviour
+     * @param sync the sync to run, if no sync is scheduled for the key yet
+     * @param delay the minimum time to wait before the sync, in milliseconds
+     */
+    public static void schedule(Object key, ConfigSync sync, long delay) {
+        SyncJob job;
+        synchronized (jobs) {
+            job = jobs.get(key);
+            if (job == null) {
+                if (Trace.ENABLED)
+                    Trace.trace(Trace.INFO, "Create a new Auto Config Sync Job");
+                job = new SyncJob(sync);
+                jobs.put(key, job);
+            }
+        }
+        job.request(delay);
+    }
+
+    /**
+     * Cancel the scheduled configuration sync for the given key, if there is one.
+     *
+     * @param key the key of the sync, e.g. the server behaviour
+     */
+    public static void cancel(Object key) {
+        SyncJob job;
+        synchronized (jobs) {
+            job = jobs.get(key);
+        }
+        if (job != null) {
+            if (Trace.ENABLED)
+                Trace.trace(Trace.INFO, "Cancel Auto Config Sync Job");
+            job.cancelSync();
+        }
+    }
+
+    /**
+     * Cancel the configuration sync for the given key and forget its job.
+     *
+     * @param key the key of the sync, e.g. the server behaviour
+     */
+    public static void remove(Object key) {
+        SyncJob job;
+        synchronized (jobs) {
+            job = jobs.remove(key);
+        }
+        if (job != null)
+            job.cancelSync();
+    }
+
+    /**
+     * Cancel all configuration syncs.
+     */
+    public static void shutdown() {
+        List<SyncJob> list;
+        synchronized (jobs) {
+            list = new ArrayList<SyncJob>(jobs.values());
+            jobs.clear();
+        }
+        for (SyncJob job : list)
+            job.cancelSync();
+    }
+
+    private static long getQuietPeriod() {
+        long period = DEFAULT_QUIET_PERIOD;
+        String prop = System.getProperty(QUIET_PERIOD_PROPERTY);
+        if (prop != null && !prop.isEmpty()) {
+            try {
+                period = Math.max(0, Long.parseLong(prop));
+            } catch (NumberFormatException e) {
+                Trace.logError("The config sync quiet period specified is not valid: " + prop + ". The default will be used: " + period, e);
+            }
+        }
+        return period;
+    }
+
+    private static int getMaxConcurrent() {
+        int max = DEFAULT_MAX_CONCURRENT;
+        String prop = System.getProperty(MAX_CONCURRENT_PROPERTY);
+        if (prop != null && !prop.isEmpty()) {
+            try {
+                max = Math.max(1, Integer.parseInt(prop));
+            } catch (NumberFormatException e) {
+                Trace.logError("The maximum number of concurrent config syncs specified is not valid: " + prop + ". The default will be used: " + max, e);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * The time to wait before a sync. Each request postpones the sync until the configuration
+     * has been quiet for the quiet period, but not past the maximum deferral after the first
+     * request.
+     */
+    public static class Deferral {
+        private final long quietPeriod;
+        private final long maxDeferral;
+        private boolean deferring;
+        private long firstRequest;
+
+        public Deferral(long quietPeriod, long maxDeferral) {
+            this.quietPeriod = quietPeriod;
+            this.maxDeferral = maxDeferral;
+        }
+
+        /**
+         * Returns the time to wait before the sync for a request.
+         *
+         * @param time the time of the request, in milliseconds
+         * @param delay the minimum time to wait before the sync, in milliseconds
+         * @return the time to wait from the request, in milliseconds
+         */
+        public synchronized long request(long time, long delay) {
+            if (!deferring) {
+                deferring = true;
+                firstRequest = time;
+            }
+
+            long runTime = time + Math.max(delay, quietPeriod);
+            runTime = Math.min(runTime, firstRequest + Math.max(delay, maxDeferral));
+            return Math.max(0, runTime - time);
+        }
+
+        /**
+         * Start a new deferral period with the next request. Called when the sync runs or is
+         * cancelled, since the requests before it no longer wait for a sync.
+         */
+        public synchronized void reset() {
+            deferring = false;
+        }
+    }
+
+    /**
+     * The configuration sync job of one server.
+     */
+    static class SyncJob extends Job {
+        private final ConfigSync sync;
+        private final Deferral deferral = new Deferral(quietPeriod, MAX_DEFERRAL);
+
+        SyncJob(ConfigSync sync) {
+            super("WebSphere Configuration Sync Job");
+            this.sync = sync;
+        }
+
+        synchronized void request(long delay) {
+            long wait = deferral.request(System.currentTimeMillis(), delay);
+
+            int state = getState();
+            if (state == Job.SLEEPING) {
+                if (Trace.ENABLED)
+                    Trace.trace(Trace.INFO, "Reschedule Auto Config Sync Job in " + wait + "ms");
+                wakeUp(wait);
+            } else if (state != Job.WAITING) {
+                if (Trace.ENABLED)
+                    Trace.trace(Trace.INFO, "Schedule Auto Config Sync Job in " + wait + "ms");
+                schedule(wait);
+            }
+        }
+
+        /**
+         * Cancel the sync. The next request starts a new maximum deferral period, since
+         * the requests before it will not be synced by this job.
+         */
+        synchronized boolean cancelSync() {
+            deferral.reset();
+            return cancel();
+        }
+
+        @Override
+        protected IStatus run(IProgressMonitor monitor) {
+            if (monitor.isCanceled())
+                return Status.CANCEL_STATUS;
+
+            if (!permits.tryAcquire()) {
+                if (Trace.ENABLED)
+                    Trace.trace(Trace.INFO, "Too many config syncs running, retrying the Auto Config Sync Job");
+                schedule(PERMIT_RETRY_DELAY);
+                return Status.OK_STATUS;
+            }
+
+            try {
+                // requests from now on need another sync
+                deferral.reset();
+                return sync.sync(monitor);
+            } finally {
+                permits.release();
+            }
+        }
+
+        @Override
+        public boolean belongsTo(Object family) {
+            return Constants.JOB_FAMILY.equals(family);
+        }
+    }
+}
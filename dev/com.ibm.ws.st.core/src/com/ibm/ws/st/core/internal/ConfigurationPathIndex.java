@@ -0,0 +1,281 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package com.ibm.ws.st.core.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.IPath;
+
+import com.ibm.ws.st.core.internal.config.ConfigurationFile;
+import com.ibm.ws.st.core.internal.config.ConfigurationIncludeGraph;
+import com.ibm.ws.st.core.internal.config.ExtendedConfigFile;
+
+/**
+ * Index of the workspace folders that belong to the user directories and servers of all
+ * runtimes, used to route resource changes. The folders are kept in a tree by path segment,
+ * so finding what a changed resource affects only walks the resource's path. Configuration
+ * files that servers include from outside of their own folder are looked up in the servers'
+ * include graphs.
+ *
+ * The index is rebuilt when the runtimes, their user directories or their servers change.
+ */
+public class ConfigurationPathIndex {
+    private static ConfigurationPathIndex current;
+
+    private final Node root = new Node();
+    private final Set<IProject> projects = new HashSet<IProject>();
+    private final Set<WebSphereServerInfo> servers = new HashSet<WebSphereServerInfo>();
+    private final List<Object> stamp;
+
+    private static class Node {
+        Map<String, Node> children;
+        // user directories whose servers folder this is
+        List<UserDirectory> serversFolderOf;
+        // user directories whose shared config folder this is
+        List<UserDirectory> sharedConfigOf;
+        // user directories whose shared jvm.options file this is
+        List<UserDirectory> sharedJVMOptionsOf;
+        // servers whose folder this is
+        List<WebSphereServerInfo> serverFolderOf;
+
+        Node getChild(String segment) {
+            return children == null ? null : children.get(segment);
+        }
+
+        Node addChild(String segment) {
+            if (children == null)
+                children = new HashMap<String, Node>(4);
+            Node node = children.get(segment);
+            if (node == null) {
+                node = new Node();
+                children.put(segment, node);
+            }
+            return node;
+        }
+    }
+
+    /**
+     * The servers and user directories affected by a set of changes.
+     */
+    public static class Routing {
+        public final Set<WebSphereServerInfo> servers = new HashSet<WebSphereServerInfo>();
+        public final Set<UserDirectory> userDirs = new HashSet<UserDirectory>();
+    }
+
+    private ConfigurationPathIndex(WebSphereRuntime[] runtimes, List<Object> stamp) {
+        this.stamp = stamp;
+        for (WebSphereRuntime runtime : runtimes) {
+            for (UserDirectory ud : runtime.getUserDirectories()) {
+                if (ud.getProject() != null)
+                    projects.add(ud.getProject());
+
+                IFolder folder = ud.getServersFolder();
+                if (folder != null) {
+                    Node node = getNode(folder.getFullPath());
+                    node.serversFolderOf = add(node.serversFolderOf, ud);
+                }
+
+                folder = ud.getSharedConfigFolder();
+                if (folder != null) {
+                    Node node = getNode(folder.getFullPath());
+                    node.sharedConfigOf = add(node.sharedConfigOf, ud);
+                }
+
+                folder = ud.getSharedFolder();
+                if (folder != null) {
+                    Node node = getNode(folder.getFullPath().append(ExtendedConfigFile.JVM_OPTIONS_FILE));
+                    node.sharedJVMOptionsOf = add(node.sharedJVMOptionsOf, ud);
+                }
+            }
+
+            for (WebSphereServerInfo server : runtime.getServerInfoSnapshot()) {
+                IFolder folder = server.getServerFolder();
+                if (folder != null) {
+                    Node node = getNode(folder.getFullPath());
+                    node.serverFolderOf = add(node.serverFolderOf, server);
+                    servers.add(server);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the index for the current runtimes, rebuilding it if anything changed.
+     *
+     * @return the index
+     */
+    public static synchronized ConfigurationPathIndex getInstance() {
+        WebSphereRuntime[] runtimes = WebSphereUtil.getWebSphereRuntimes();
+        List<Object> stamp = getStamp(runtimes);
+        if (current == null || !current.matches(stamp)) {
+            long time = System.currentTimeMillis();
+            current = new ConfigurationPathIndex(runtimes, stamp);
+            if (Trace.ENABLED)
+                Trace.tracePerf("Configuration path index", time);
+        }
+        return current;
+    }
+
+    // The server snapshots are only replaced when they change, so comparing them by identity is
+    // enough. The user directory lists are changed in place, so each user directory and its path
+    // are part of the stamp.
+    private static List<Object> getStamp(WebSphereRuntime[] runtimes) {
+        List<Object> stamp = new ArrayList<Object>(runtimes.length * 8);
+        for (WebSphereRuntime runtime : runtimes) {
+            List<UserDirectory> userDirs = runtime.getUserDirectories();
+            stamp.add(runtime);
+            stamp.add(Integer.valueOf(userDirs.size()));
+            for (UserDirectory ud : userDirs.toArray(new UserDirectory[userDirs.size()])) {
+                stamp.add(ud);
+                stamp.add(ud.getPath());
+            }
+            stamp.add(runtime.getServerInfoSnapshot());
+        }
+        return stamp;
+    }
+
+    private boolean matches(List<Object> newStamp) {
+        if (stamp.size() != newStamp.size())
+            return false;
+        for (int i = 0; i < stamp.size(); i++) {
+            Object o1 = stamp.get(i);
+            Object o2 = newStamp.get(i);
+            boolean value = o1 instanceof Integer || o1 instanceof IPath;
+            if (value ? !o1.equals(o2) : o1 != o2)
+                return false;
+        }
+        return true;
+    }
+
+    private Node getNode(IPath path) {
+        Node node = root;
+        for (String segment : path.segments())
+            node = node.addChild(segment);
+        return node;
+    }
+
+    private Node findNode(IPath path) {
+        Node node = root;
+        for (int i = 0; node != null && i < path.segmentCount(); i++)
+            node = node.getChild(path.segment(i));
+        return node;
+    }
+
+    private static <T> List<T> add(List<T> list, T item) {
+        List<T> result = list == null ? new ArrayList<T>(1) : list;
+        if (!result.contains(item))
+            result.add(item);
+        return result;
+    }
+
+    /**
+     * Returns <code>true</code> if the given project holds a user directory of any runtime.
+     *
+     * @param project a project
+     * @return <code>true</code> if the project is a user directory
+     */
+    public boolean isUserDirectoryProject(IProject project) {
+        return projects.contains(project);
+    }
+
+    /**
+     * Returns the user directories whose servers folder is the given folder.
+     *
+     * @param folder a folder
+     * @return the user directories, possibly empty
+     */
+    public List<UserDirectory> getUserDirectoriesForServersFolder(IFolder folder) {
+        Node node = findNode(folder.getFullPath());
+        if (node == null || node.serversFolderOf == null)
+            return Collections.emptyList();
+        return Collections.unmodifiableList(node.serversFolderOf);
+    }
+
+    /**
+     * Add the servers and user directories affected by a changed configuration file.
+     *
+     * @param path the full path of the file
+     * @param routing the routing to add to
+     */
+    public void routeFile(IPath path, Routing routing) {
+        Node node = root;
+        for (int i = 0; i < path.segmentCount(); i++) {
+            node = node.getChild(path.segment(i));
+            if (node == null)
+                return;
+
+            if (node.serverFolderOf != null)
+                routing.servers.addAll(node.serverFolderOf);
+
+            if (node.sharedConfigOf != null) {
+                for (UserDirectory ud : node.sharedConfigOf) {
+                    if (!ud.getSharedConfigFolder().exists() || !routing.userDirs.add(ud))
+                        continue;
+                    // for remote server, there is only 1 server per user directory. To sync shared files, we need to add that particular server
+                    // so that sync job is triggered when files in shared folder are changed as well.
+                    for (WebSphereServerInfo server : ud.getWebSphereRuntime().getWebSphereServerInfos(ud)) {
+                        WebSphereServer ws = WebSphereUtil.getWebSphereServer(server);
+                        if (ws != null && !ws.isLocalSetup())
+                            routing.servers.add(server);
+                    }
+                }
+            }
+        }
+
+        if (node.sharedJVMOptionsOf != null) {
+            for (UserDirectory ud : node.sharedJVMOptionsOf) {
+                if (ud.getSharedConfigFolder().exists())
+                    routing.servers.addAll(ud.getWebSphereRuntime().getWebSphereServerInfos(ud));
+            }
+        }
+    }
+
+    /**
+     * Add the servers that include a changed file from outside of their server folder.
+     *
+     * @param location the location of the file
+     * @param routing the routing to add to
+     */
+    public void routeExternalInclude(IPath location, Routing routing) {
+        for (ConfigurationFile root : ConfigurationIncludeGraph.getIncludingRoots(location)) {
+            // the graph of a server that was removed may not have been collected yet
+            WebSphereServerInfo server = root.getWebSphereServer();
+            if (server != null && servers.contains(server))
+                routing.servers.add(server);
+        }
+    }
+
+    /**
+     * Add the servers affected by an added or removed folder within a configDropins folder.
+     *
+     * @param path the full path of the folder
+     * @param routing the routing to add to
+     */
+    public void routeConfigDropinsFolder(IPath path, Routing routing) {
+        Node node = root;
+        for (int i = 0; i < path.segmentCount() - 1; i++) {
+            node = node.getChild(path.segment(i));
+            if (node == null)
+                return;
+
+            if (node.serverFolderOf != null && Constants.CONFIG_DROPINS_FOLDER.equals(path.segment(i + 1)))
+                routing.servers.addAll(node.serverFolderOf);
+        }
+    }
+}
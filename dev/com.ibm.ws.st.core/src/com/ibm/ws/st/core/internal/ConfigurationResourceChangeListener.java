@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2017 IBM Corporation and others.
+ * Copyright (c) 2011, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -34,6 +34,7 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
 
+import com.ibm.ws.st.core.internal.config.ConfigurationIncludeGraph;
 import com.ibm.ws.st.core.internal.config.ExtendedConfigFile;
 
 /**
@@ -106,10 +107,13 @@ public class ConfigurationResourceChangeListener implements IResourceChangeListe
                                         return false;
                                     files.add(file);
                             }
+                            // record the change in the include graphs right away, the servers are refreshed later
+                            ConfigurationIncludeGraph.resourceChanged(file.getLocation(), kind != IResourceDelta.CHANGED);
                         }
                     }
                     if (resource != null && resource instanceof IFolder) {
                         if (kind == IResourceDelta.ADDED || kind == IResourceDelta.REMOVED) {
+                            ConfigurationIncludeGraph.resourceChanged(resource.getLocation(), true);
                             IPath path = resource.getProjectRelativePath();
                             if (path.segmentCount() == 2 && Constants.SERVERS_FOLDER.equals(path.segment(0))) {
                                 IContainer serverFolder = resource.getParent();
@@ -180,77 +184,37 @@ public class ConfigurationResourceChangeListener implements IResourceChangeListe
     }
 
     protected static void refreshChangesImpl(final List<IFolder> folders, final List<IFile> files) {
-        WebSphereRuntime[] runtimes = WebSphereUtil.getWebSphereRuntimes();
         if (!folders.isEmpty()) {
-            for (WebSphereRuntime runtime : runtimes) {
-                List<UserDirectory> userDirs = runtime.getUserDirectories();
-                for (UserDirectory ud : userDirs) {
-                    IFolder folder = ud.getServersFolder();
-                    if (folders.contains(folder)) {
-                        WebSphereUtil.configureValidatorsForRuntimeProject(ud.getProject());
-                        runtime.updateServerCache(true);
-                    }
+            ConfigurationPathIndex index = ConfigurationPathIndex.getInstance();
+            Set<WebSphereRuntime> updated = new HashSet<WebSphereRuntime>();
+            for (IFolder folder : folders) {
+                for (UserDirectory ud : index.getUserDirectoriesForServersFolder(folder)) {
+                    WebSphereUtil.configureValidatorsForRuntimeProject(ud.getProject());
+                    if (updated.add(ud.getWebSphereRuntime()))
+                        ud.getWebSphereRuntime().updateServerCache(true);
                 }
             }
         }
 
-        Set<WebSphereServerInfo> serverSet = new HashSet<WebSphereServerInfo>();
-        Set<UserDirectory> userDirSet = new HashSet<UserDirectory>();
-
-        // loop through to see if anything needs refreshing
-        for (WebSphereRuntime runtime : runtimes) {
-            List<UserDirectory> userDirs = runtime.getUserDirectories();
-            for (UserDirectory ud : userDirs) {
-                List<WebSphereServerInfo> servers = runtime.getWebSphereServerInfos(ud);
-
-                // Handle changes in shared config folder
-                IFolder folder = ud.getSharedConfigFolder();
-                if (folder != null && folder.exists()) {
-                    for (IFile file : files) {
-                        if (folder.getFullPath().isPrefixOf(file.getFullPath())) {
-                            userDirSet.add(ud);
-                            // for remote server, there is only 1 server per user directory. To sync shared files, we need to add that particular server
-                            // in the "serverList" variable so that sync job is triggered when files in shared folder are changed as well.
-                            for (WebSphereServerInfo server : servers) {
-                                WebSphereServer ws = WebSphereUtil.getWebSphereServer(server);
-                                if (ws != null && !ws.isLocalSetup())
-                                    serverSet.add(server);
-                            }
-                            break;
-                        }
-                    }
-
-                    IPath sharedJVMPath = ud.getSharedFolder().getFullPath().append(ExtendedConfigFile.JVM_OPTIONS_FILE);
-                    for (IFile file : files) {
-                        if (sharedJVMPath.equals(file.getFullPath())) {
-                            serverSet.addAll(servers);
-                            break;
-                        }
-                    }
-                }
-
-                // Handle changes in the server folder
-                for (WebSphereServerInfo server : servers) {
-                    folder = server.getServerFolder();
-                    if (folder == null) {
-                        continue;
-                    }
-                    for (IFile file : files) {
-                        if (folder.getFullPath().isPrefixOf(file.getFullPath())) {
-                            serverSet.add(server);
-                            break;
-                        }
-                    }
-
-                    // Handle added/removed config dropins folders
-                    IPath configDropinsPath = folder.getFullPath().append(Constants.CONFIG_DROPINS_FOLDER);
-                    for (IFolder changedFolder : folders) {
-                        if (configDropinsPath.isPrefixOf(changedFolder.getFullPath())) {
-                            serverSet.add(server);
-                        }
-                    }
-                }
-            }
+        // get the index after any server cache updates so that it includes new servers
+        ConfigurationPathIndex index = ConfigurationPathIndex.getInstance();
+        ConfigurationPathIndex.Routing routing = new ConfigurationPathIndex.Routing();
+        Set<WebSphereServerInfo> serverSet = routing.servers;
+        Set<UserDirectory> userDirSet = routing.userDirs;
+
+        // Handle changes in shared config folders and server folders
+        for (IFile file : files)
+            index.routeFile(file.getFullPath(), routing);
+
+        // Handle added/removed config dropins folders
+        for (IFolder changedFolder : folders)
+            index.routeConfigDropinsFolder(changedFolder.getFullPath(), routing);
+
+        // Handle changes to files that servers include from outside of their server folder
+        for (IFile file : files) {
+            IPath location = file.getLocation();
+            if (location != null)
+                index.routeExternalInclude(location, routing);
         }
 
         // refresh affected user directories
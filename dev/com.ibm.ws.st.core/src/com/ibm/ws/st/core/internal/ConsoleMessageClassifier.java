@@ -0,0 +1,215 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package com.ibm.ws.st.core.internal;
+
+import java.io.StringReader;
+
+import javax.json.Json;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParserFactory;
+
+/**
+ * Classifies server console lines by the message codes that the server state tracking
+ * reacts to. The tracked codes are held in a precomputed open addressing table that is
+ * probed directly from the characters of the line, so lines that do not contain a tracked
+ * code are rejected in a single pass without creating any strings.
+ * <p>
+ * A line is classified by the tracked code it contains, wherever it is in the line. If a
+ * line contains more than one tracked code, the kind that comes first in {@link Kind} wins.
+ */
+public class ConsoleMessageClassifier {
+
+    /**
+     * The kinds of tracked messages, in order of precedence.
+     */
+    public enum Kind {
+        SERVER_STARTED,
+        APP_STARTED,
+        APP_STOPPED,
+        APP_UPDATED,
+        APP_START_FAILED,
+        APP_NO_HANDLER,
+        APP_UPDATE_FAILED,
+        APP_STOP_FAILED,
+        APP_NOT_FOUND
+    }
+
+    protected static final String MESSAGE_KEY = "message";
+
+    private static final int PREFIX_LENGTH = 4;
+    private static final int TABLE_SIZE = 64;
+    private static final int MASK = TABLE_SIZE - 1;
+
+    private static final String[] codes = new String[TABLE_SIZE];
+    private static final Kind[] kinds = new Kind[TABLE_SIZE];
+    private static final boolean[] firstChars = new boolean[128];
+    private static String[] prefixes = new String[0];
+    private static int minLength = Integer.MAX_VALUE;
+    private static int maxLength = 0;
+
+    private static final JsonParserFactory parserFactory = Json.createParserFactory(null);
+
+    static {
+        add(Kind.SERVER_STARTED, "CWWKF0011I");
+        add(Kind.APP_STARTED, "CWWKZ0001I", "CWWKZ0013E", "J2CA7001I", "J2CA7013E");
+        add(Kind.APP_STOPPED, "CWWKZ0009I", "J2CA7009I");
+        add(Kind.APP_UPDATED, "CWWKZ0003I", "CWWKZ0062I");
+        add(Kind.APP_START_FAILED, "CWWKZ0002E", "J2CA7002E", "CWWKZ0012I", "J2CA7012I");
+        add(Kind.APP_NO_HANDLER, "CWWKZ0005E");
+        add(Kind.APP_UPDATE_FAILED, "CWWKZ0004E", "CWWKZ0020I", "J2CA7020I");
+        add(Kind.APP_STOP_FAILED, "CWWKZ0010E", "J2CA7010E");
+        add(Kind.APP_NOT_FOUND, "CWWKZ0014W", "J2CA7014W");
+    }
+
+    private ConsoleMessageClassifier() {
+        // static methods only
+    }
+
+    private static void add(Kind kind, String... messageCodes) {
+        for (String code : messageCodes) {
+            int index = index(code.hashCode());
+            while (codes[index] != null)
+                index = (index + 1) & MASK;
+            codes[index] = code;
+            kinds[index] = kind;
+
+            firstChars[code.charAt(0)] = true;
+            minLength = Math.min(minLength, code.length());
+            maxLength = Math.max(maxLength, code.length());
+
+            String prefix = code.substring(0, PREFIX_LENGTH);
+            boolean found = false;
+            for (String p : prefixes) {
+                if (p.equals(prefix))
+                    found = true;
+            }
+            if (!found) {
+                String[] temp = new String[prefixes.length + 1];
+                System.arraycopy(prefixes, 0, temp, 0, prefixes.length);
+                temp[prefixes.length] = prefix;
+                prefixes = temp;
+            }
+        }
+    }
+
+    private static int index(int hash) {
+        return (hash ^ (hash >>> 16)) & MASK;
+    }
+
+    /**
+     * Returns the kind of the given line, or <code>null</code> if it does not contain a tracked
+     * message code.
+     *
+     * @param line a console line
+     * @return the kind of message, or <code>null</code>
+     */
+    public static Kind classify(String line) {
+        return classify(line, 0, line.length());
+    }
+
+    /**
+     * Returns the kind of the line between the given indexes, or <code>null</code> if it does
+     * not contain a tracked message code.
+     *
+     * @param text the text containing the line
+     * @param start the index of the start of the line
+     * @param end the index after the end of the line
+     * @return the kind of message, or <code>null</code>
+     */
+    public static Kind classify(String text, int start, int end) {
+        Kind result = null;
+        int last = end - minLength;
+        for (int i = start; i <= last; i++) {
+            char c = text.charAt(i);
+            if (c >= firstChars.length || !firstChars[c] || !hasPrefix(text, i))
+                continue;
+
+            // hash the candidate one character at a time, probing at each tracked length
+            int hash = 0;
+            int max = Math.min(maxLength, end - i);
+            for (int len = 1; len <= max; len++) {
+                hash = 31 * hash + text.charAt(i + len - 1);
+                if (len < minLength)
+                    continue;
+                Kind kind = lookup(text, i, len, hash);
+                if (kind != null && (result == null || kind.ordinal() < result.ordinal()))
+                    result = kind;
+            }
+            if (result == Kind.SERVER_STARTED)
+                return result;
+        }
+        return result;
+    }
+
+    private static boolean hasPrefix(String text, int offset) {
+        for (String prefix : prefixes) {
+            if (text.startsWith(prefix, offset))
+                return true;
+        }
+        return false;
+    }
+
+    private static Kind lookup(String text, int offset, int length, int hash) {
+        int index = index(hash);
+        String code;
+        while ((code = codes[index]) != null) {
+            if (code.length() == length && text.startsWith(code, offset))
+                return kinds[index];
+            index = (index + 1) & MASK;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the message from a JSON formatted log line, or <code>null</code> if the line
+     * does not have a message. The line is parsed only as far as the top level message field.
+     *
+     * @param line a JSON log line
+     * @return the message, or <code>null</code>
+     */
+    public static String getJsonMessage(String line) {
+        JsonParser parser = null;
+        try {
+            parser = parserFactory.createParser(new StringReader(line));
+            int depth = 0;
+            while (parser.hasNext()) {
+                switch (parser.next()) {
+                    case START_OBJECT:
+                    case START_ARRAY:
+                        depth++;
+                        break;
+                    case END_OBJECT:
+                    case END_ARRAY:
+                        depth--;
+                        break;
+                    case KEY_NAME:
+                        if (depth == 1 && MESSAGE_KEY.equals(parser.getString())) {
+                            if (parser.next() != JsonParser.Event.VALUE_STRING)
+                                return null;
+                            String message = parser.getString();
+                            return message.isEmpty() ? null : message;
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+        } catch (Exception e) {
+            if (Trace.ENABLED) {
+                Trace.trace(Trace.WARNING, "Message started with '{' but could not parse as JSON: " + line, e);
+            }
+        } finally {
+            if (parser != null)
+                parser.close();
+        }
+        return null;
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014, 2019 IBM Corporation and others.
+ * Copyright (c) 2014, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,16 +10,9 @@
  *******************************************************************************/
 package com.ibm.ws.st.core.internal;
 
-import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.util.Properties;
 import java.util.Set;
-import java.util.StringTokenizer;
-
-import javax.json.Json;
-import javax.json.JsonObject;
-import javax.json.JsonReader;
-import javax.json.JsonReaderFactory;
 
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.NullProgressMonitor;
@@ -38,6 +31,7 @@ import org.eclipse.wst.server.core.IModule;
 import org.eclipse.wst.server.core.IServer;
 import org.eclipse.wst.server.core.IServerWorkingCopy;
 
+import com.ibm.ws.st.core.internal.ConsoleMessageClassifier.Kind;
 import com.ibm.ws.st.core.internal.WebSphereServerBehaviour.ApplicationStateTracker;
 import com.ibm.ws.st.core.internal.jmx.JMXConnection;
 import com.ibm.ws.st.core.internal.launch.ConsoleStreamsProxy;
@@ -47,130 +41,125 @@ public class ConsoleMonitorThread extends AbstractMonitorThread {
 
     private IStreamListener streamListener;
     private IDebugEventSetListener processListener;
-    protected final JsonReaderFactory jsonFactory = Json.createReaderFactory(null);
-    protected static final String MESSAGE_KEY = "message";
 
     ConsoleMonitorThread(WebSphereServerBehaviour wsBehaviour, Object serverStateSyncObj, String name) {
         super(wsBehaviour, serverStateSyncObj, name);
     }
 
     @Override
-    public void run() {
-        while (!stopMonitor) {
-            try {
-                int state = server.getServerState();
-                WebSphereRuntime wsRuntime = getWebSphereRuntime();
-                int serverStatus = -2; // Set to some value not returned by WebSphereRuntime.getServerStatus so can differentiate
-                if (wsRuntime != null && wsServer.getUserDirectory() != null) {
-                    // getServerStatus returns -1 if timeout; 0 if the server is running; 1 if the server is stopped; 2 if the status is unknown.
-                    serverStatus = wsRuntime.getServerStatus(wsServer.getServerInfo(), 20f, new NullProgressMonitor());
-                }
-                if (serverStatus == 0) {
-                    // Server process is running (0 status means running), but we aren't tracking the state yet so need to add the
-                    // process listener to listen for console messages
-                    if (state != IServer.STATE_STARTED && state != IServer.STATE_STARTING && state != IServer.STATE_STOPPING && !wsBehaviour.isServerCmdStopProcessRunning()) {
-                        if (Trace.ENABLED)
-                            Trace.trace(Trace.SSM, "Detected externally started server. Changing server state to STARTING");
-
-                        synchronized (serverStateSyncObj) {
-                            wsBehaviour.setServerStateImpl(IServer.STATE_STARTING);
-                            IModule[] modules = server.getModules();
-                            for (IModule module : modules)
-                                wsBehaviour.setModuleStateImpl(new IModule[] { module }, IServer.STATE_STOPPED);
-                        }
+    protected void poll() {
+        try {
+            int state = server.getServerState();
+            WebSphereRuntime wsRuntime = getWebSphereRuntime();
+            int serverStatus = -2; // Set to some value not returned by WebSphereRuntime.getServerStatus so can differentiate
+            if (wsRuntime != null && wsServer.getUserDirectory() != null) {
+                // getServerStatus returns -1 if timeout; 0 if the server is running; 1 if the server is stopped; 2 if the status is unknown.
+                // The probe only falls back to the server script when it can't determine the status in process.
+                serverStatus = ServerStatusProbe.getInstance().getServerStatus(wsRuntime, wsServer.getServerInfo(), 20f, new NullProgressMonitor());
+            }
+            if (serverStatus == 0) {
+                // Server process is running (0 status means running), but we aren't tracking the state yet so need to add the
+                // process listener to listen for console messages
+                if (state != IServer.STATE_STARTED && state != IServer.STATE_STARTING && state != IServer.STATE_STOPPING && !wsBehaviour.isServerCmdStopProcessRunning()) {
+                    if (Trace.ENABLED)
+                        Trace.trace(Trace.SSM, "Detected externally started server. Changing server state to STARTING");
 
-                        ILaunchConfiguration lc = server.getLaunchConfiguration(true, null);
-                        ILaunch launch = new Launch(lc, ILaunchManager.RUN_MODE, null);
-                        IPath consoleLog = wsServer.getOutputPath().append("logs").append(Constants.CONSOLE_LOG);
-                        boolean isUseConsoleLog = isUseConsoleLogToMonitor(consoleLog, wsServer.getWorkAreaPath().append(".sLock"));
-                        IPath consolePath = isUseConsoleLog ? consoleLog : wsServer.getMessagesFile();
-                        ConsoleStreamsProxy streamsProxy = new ConsoleStreamsProxy(consolePath.toFile(), isUseConsoleLog, null);
-                        IProcess process = new ExternalProcess(launch, server, streamsProxy);
-                        process.setAttribute(IProcess.ATTR_PROCESS_LABEL, LaunchUtil.getProcessLabelAttr(server.getName(), wsServer.getServerName()));
-                        process.setAttribute(IProcess.ATTR_PROCESS_TYPE, IJavaLaunchConfigurationConstants.ID_JAVA_PROCESS_TYPE);
-                        addProcessListeners(process);
-                        launch.addProcess(process);
-
-                        DebugPlugin.getDefault().getLaunchManager().addLaunch(launch);
-                        wsBehaviour.setLaunch(launch);
-                        // we know the server is started based on the command line status from calling WebSphereRuntime.isServerStarted()
-                        if (Trace.ENABLED)
-                            Trace.trace(Trace.SSM, "Changing server state to STARTED");
-                        synchronized (serverStateSyncObj) {
-                            wsBehaviour.setServerStateImpl(IServer.STATE_STARTED);
-                            wsBehaviour.setInternalMode(ILaunchManager.RUN_MODE);
-                            try {
-                                IServerWorkingCopy serverWorkingCopy = server.createWorkingCopy();
-                                // Since the server is already started, we will explicitly turn off the option, stopOnShutdown.
-                                // We do not want to stop the server, which has led to unexpected behavior, when the workbench
-                                // is shutdown.
-                                boolean stopOnShutDown = serverWorkingCopy.getAttribute("stopOnShutdown", true);
-                                if (stopOnShutDown) {
-                                    serverWorkingCopy.setAttribute(WebSphereServer.PROP_STOP_ON_SHUTDOWN, false);
-                                    serverWorkingCopy.save(true, new NullProgressMonitor());
-                                }
-                            } catch (Exception e) {
-                                if (Trace.ENABLED) {
-                                    Trace.trace(Trace.SSM, "Attempting to change the state of the option to stop server on shutdown.", e);
-                                }
-                            }
-                        }
+                    synchronized (serverStateSyncObj) {
+                        wsBehaviour.setServerStateImpl(IServer.STATE_STARTING);
+                        IModule[] modules = server.getModules();
+                        for (IModule module : modules)
+                            wsBehaviour.setModuleStateImpl(new IModule[] { module }, IServer.STATE_STOPPED);
+                    }
 
-                        // detect Debug and Profiling modes
+                    ILaunchConfiguration lc = server.getLaunchConfiguration(true, null);
+                    ILaunch launch = new Launch(lc, ILaunchManager.RUN_MODE, null);
+                    IPath consoleLog = wsServer.getOutputPath().append("logs").append(Constants.CONSOLE_LOG);
+                    boolean isUseConsoleLog = isUseConsoleLogToMonitor(consoleLog, wsServer.getWorkAreaPath().append(".sLock"));
+                    IPath consolePath = isUseConsoleLog ? consoleLog : wsServer.getMessagesFile();
+                    ConsoleStreamsProxy streamsProxy = new ConsoleStreamsProxy(consolePath.toFile(), isUseConsoleLog, null);
+                    IProcess process = new ExternalProcess(launch, server, streamsProxy);
+                    process.setAttribute(IProcess.ATTR_PROCESS_LABEL, LaunchUtil.getProcessLabelAttr(server.getName(), wsServer.getServerName()));
+                    process.setAttribute(IProcess.ATTR_PROCESS_TYPE, IJavaLaunchConfigurationConstants.ID_JAVA_PROCESS_TYPE);
+                    addProcessListeners(process);
+                    launch.addProcess(process);
+
+                    DebugPlugin.getDefault().getLaunchManager().addLaunch(launch);
+                    wsBehaviour.setLaunch(launch);
+                    // we know the server is started based on the command line status from calling WebSphereRuntime.isServerStarted()
+                    if (Trace.ENABLED)
+                        Trace.trace(Trace.SSM, "Changing server state to STARTED");
+                    synchronized (serverStateSyncObj) {
+                        wsBehaviour.setServerStateImpl(IServer.STATE_STARTED);
+                        wsBehaviour.setInternalMode(ILaunchManager.RUN_MODE);
                         try {
-                            JMXConnection jmxConnection = wsServer.createJMXConnection();
-                            detectAndSetServerMode(jmxConnection);
+                            IServerWorkingCopy serverWorkingCopy = server.createWorkingCopy();
+                            // Since the server is already started, we will explicitly turn off the option, stopOnShutdown.
+                            // We do not want to stop the server, which has led to unexpected behavior, when the workbench
+                            // is shutdown.
+                            boolean stopOnShutDown = serverWorkingCopy.getAttribute("stopOnShutdown", true);
+                            if (stopOnShutDown) {
+                                serverWorkingCopy.setAttribute(WebSphereServer.PROP_STOP_ON_SHUTDOWN, false);
+                                serverWorkingCopy.save(true, new NullProgressMonitor());
+                            }
                         } catch (Exception e) {
-                            Trace.logError("Cannot detect mode of externally started server, ensure the server's localConnector feature is configured", e);
+                            if (Trace.ENABLED) {
+                                Trace.trace(Trace.SSM, "Attempting to change the state of the option to stop server on shutdown.", e);
+                            }
                         }
                     }
-                } else if (state == IServer.STATE_UNKNOWN || state == IServer.STATE_STOPPING) {
-                    if (Trace.ENABLED) {
-                        String stateName = state == IServer.STATE_STOPPING ? "STOPPING" : "UNKNOWN";
-                        Trace.trace(Trace.SSM, "Server process is stopped but server state is " + stateName + ". Changing to STOPPED...");
-                    }
-                    synchronized (serverStateSyncObj) {
-                        wsBehaviour.stopImpl();
+
+                    // detect Debug and Profiling modes
+                    JMXConnection jmxConnection = null;
+                    try {
+                        jmxConnection = wsServer.createJMXConnection();
+                        detectAndSetServerMode(jmxConnection);
+                    } catch (Exception e) {
+                        Trace.logError("Cannot detect mode of externally started server, ensure the server's localConnector feature is configured", e);
+                    } finally {
+                        if (jmxConnection != null)
+                            jmxConnection.disconnect();
                     }
-                } else if (state == IServer.STATE_STARTED) {
-                    if (Trace.ENABLED)
-                        Trace.trace(Trace.SSM, "Server state is started but the status is: " + serverStatus);
-                    ILaunch launch = server.getLaunch();
-                    // serverStatus value: -1 if timeout; 0 if the server is running; 1 if the server is stopped; 2 if the status is unknown.
-                    if (serverStatus == -1) {
-                        // If there was a timeout getting the status and the process is still running, loop around.
-                        // Otherwise terminate the launch.
-                        if (launch != null && !launch.isTerminated()) {
-                            IProcess[] processes = launch.getProcesses();
-                            for (IProcess process : processes) {
-                                if (process.isTerminated()) {
-                                    if (Trace.ENABLED)
-                                        Trace.trace(Trace.SSM, "Terminating launch since the process is stopped: " + serverStatus);
-                                    launch.terminate();
-                                    break;
-                                }
+                }
+            } else if (state == IServer.STATE_UNKNOWN || state == IServer.STATE_STOPPING) {
+                if (Trace.ENABLED) {
+                    String stateName = state == IServer.STATE_STOPPING ? "STOPPING" : "UNKNOWN";
+                    Trace.trace(Trace.SSM, "Server process is stopped but server state is " + stateName + ". Changing to STOPPED...");
+                }
+                synchronized (serverStateSyncObj) {
+                    wsBehaviour.stopImpl();
+                }
+            } else if (state == IServer.STATE_STARTED) {
+                if (Trace.ENABLED)
+                    Trace.trace(Trace.SSM, "Server state is started but the status is: " + serverStatus);
+                ILaunch launch = server.getLaunch();
+                // serverStatus value: -1 if timeout; 0 if the server is running; 1 if the server is stopped; 2 if the status is unknown.
+                if (serverStatus == -1) {
+                    // If there was a timeout getting the status and the process is still running, loop around.
+                    // Otherwise terminate the launch.
+                    if (launch != null && !launch.isTerminated()) {
+                        IProcess[] processes = launch.getProcesses();
+                        for (IProcess process : processes) {
+                            if (process.isTerminated()) {
+                                if (Trace.ENABLED)
+                                    Trace.trace(Trace.SSM, "Terminating launch since the process is stopped: " + serverStatus);
+                                launch.terminate();
+                                break;
                             }
                         }
-                    } else {
-                        // The server is not running so terminate the launch which will update the state to stopped
-                        if (Trace.ENABLED)
-                            Trace.trace(Trace.SSM, "Server process is stopped, terminate the launch");
-                        if (launch != null)
-                            launch.terminate();
                     }
+                } else {
+                    // The server is not running so terminate the launch which will update the state to stopped
+                    if (Trace.ENABLED)
+                        Trace.trace(Trace.SSM, "Server process is stopped, terminate the launch");
+                    if (launch != null)
+                        launch.terminate();
                 }
-            } catch (Throwable t) {
-                if (Trace.ENABLED)
-                    Trace.trace(Trace.WARNING, "Unable to verify server status", t);
-            }
-            try {
-                Thread.sleep(POLLING_DELAY);
-            } catch (InterruptedException e) {
-                // ignore
             }
+        } catch (Throwable t) {
+            if (Trace.ENABLED)
+                Trace.trace(Trace.WARNING, "Unable to verify server status", t);
         }
-
-    } // end of run
+    } // end of poll
 
     public void addProcessListeners(final IProcess newProcess) {
         if (processListener != null || newProcess == null)
@@ -216,7 +205,6 @@ public class ConsoleMonitorThread extends AbstractMonitorThread {
             public void streamAppended(String text, IStreamMonitor monitor) {
                 if (Trace.ENABLED)
                     Trace.trace(Trace.SSM, "Stream appended: " + text);
-                StringTokenizer st = new StringTokenizer(text, "\r\n");
                 Activator actr = Activator.getInstance();
                 Properties serverMessageReplacementKey = null;
                 if (actr != null) {
@@ -224,32 +212,53 @@ public class ConsoleMonitorThread extends AbstractMonitorThread {
                     // We can revisit why it is still being call after shut down.
                     serverMessageReplacementKey = actr.getServerMessageReplacementKey();
                 }
-                while (st.hasMoreTokens()) {
-                    String s = st.nextToken();
 
-                    if (s.startsWith("{")) {
-                        String message = parseJsonMessage(s);
-                        if (message != null) {
-                            s = message;
-                        }
+                // Only lines that contain a tracked message code are decoded and looked at further. Replacement
+                // keys can turn any line into a tracked one, so every line is handled when they are in use.
+                int length = text.length();
+                int start = 0;
+                while (start < length) {
+                    int end = start;
+                    char c;
+                    while (end < length && (c = text.charAt(end)) != '\n' && c != '\r')
+                        end++;
+                    if (end > start && (serverMessageReplacementKey != null || ConsoleMessageClassifier.classify(text, start, end) != null))
+                        handleLine(text.substring(start, end), serverMessageReplacementKey);
+                    start = end + 1;
+                }
+            }
+
+            private void handleLine(String line, Properties serverMessageReplacementKey) {
+                String s = line;
+                if (s.startsWith("{")) {
+                    String message = ConsoleMessageClassifier.getJsonMessage(s);
+                    if (message != null) {
+                        s = message;
                     }
+                }
 
-                    if (serverMessageReplacementKey != null && s.length() > 22) {
-                        String tempS = s.substring(11, 21);
-                        tempS = serverMessageReplacementKey.getProperty(tempS);
-                        if (tempS != null) {
-                            StringBuilder sb = new StringBuilder(s);
-                            sb.delete(11, 21);
-                            sb.insert(11, tempS);
-                            s = sb.toString();
-                        }
+                if (serverMessageReplacementKey != null && s.length() > 22) {
+                    String tempS = s.substring(11, 21);
+                    tempS = serverMessageReplacementKey.getProperty(tempS);
+                    if (tempS != null) {
+                        StringBuilder sb = new StringBuilder(s);
+                        sb.delete(11, 21);
+                        sb.insert(11, tempS);
+                        s = sb.toString();
                     }
+                }
+
+                Kind kind = ConsoleMessageClassifier.classify(s);
+                if (kind == null)
+                    return;
 
-                    if (s.contains("CWWKF0011I")) {
+                switch (kind) {
+                    case SERVER_STARTED:
                         synchronized (serverStateSyncObj) {
                             wsBehaviour.setServerStateImpl(IServer.STATE_STARTED);
                         }
-                    } else if (s.contains("CWWKZ0001I") || s.contains("CWWKZ0013E") || s.contains("J2CA7001I") || s.contains("J2CA7013E")) {
+                        break;
+                    case APP_STARTED: {
                         String appName = s.contains("J2CA7001I") ? RuntimeMessageHelper.matchAppNameFromWorkspaceProjects(s, server) : RuntimeMessageHelper.getAppName(s);
                         wsBehaviour.appStateTracker.addApplicationState(appName, ApplicationStateTracker.STARTED);
                         IModule[] modules = server.getModules();
@@ -282,7 +291,9 @@ public class ConsoleMonitorThread extends AbstractMonitorThread {
                                 }
                             }
                         }
-                    } else if (s.contains("CWWKZ0009I") || s.contains("J2CA7009I")) {
+                        break;
+                    }
+                    case APP_STOPPED: {
                         String appName = RuntimeMessageHelper.getAppName(s);
                         wsBehaviour.appStateTracker.addApplicationState(appName, ApplicationStateTracker.STOPPED);
                         IModule[] modules = server.getModules();
@@ -298,7 +309,9 @@ public class ConsoleMonitorThread extends AbstractMonitorThread {
                                 }
                             }
                         }
-                    } else if (s.contains("CWWKZ0003I") || s.contains("CWWKZ0062I")) {
+                        break;
+                    }
+                    case APP_UPDATED: {
                         String appName = RuntimeMessageHelper.getAppName(s);
                         wsBehaviour.appStateTracker.addApplicationState(appName, ApplicationStateTracker.UPDATED);
                         IModule[] modules = server.getModules();
@@ -308,44 +321,31 @@ public class ConsoleMonitorThread extends AbstractMonitorThread {
                                     wsBehaviour.setModuleStateImpl(new IModule[] { module }, IServer.STATE_STARTED);
                             }
                         }
-                        // below messages are for publish to exit when there is a failure.
-                    } else if (s.contains("CWWKZ0002E") || s.contains("J2CA7002E")) { // fail start
-                        wsBehaviour.appStateTracker.addApplicationState(RuntimeMessageHelper.getAppName(s), ApplicationStateTracker.FAILED_START);
-                    } else if (s.contains("CWWKZ0012I") || s.contains("J2CA7012I")) {
-                        wsBehaviour.appStateTracker.addApplicationState(RuntimeMessageHelper.getAppName(s), ApplicationStateTracker.FAILED_START);
+                        break;
                     }
+                    // below messages are for publish to exit when there is a failure.
+                    case APP_START_FAILED:
+                        wsBehaviour.appStateTracker.addApplicationState(RuntimeMessageHelper.getAppName(s), ApplicationStateTracker.FAILED_START);
+                        break;
                     // Special case since the {0} and {1} can be reversed in some languages so we use a different method that matches
                     // the substitutions with names of projects in the workspace.
-                    else if (s.contains("CWWKZ0005E")) {
+                    case APP_NO_HANDLER:
                         wsBehaviour.appStateTracker.addApplicationState(RuntimeMessageHelper.matchAppNameFromWorkspaceProjects(s, server),
                                                                         ApplicationStateTracker.FAILED_START);
-                    } else if (s.contains("CWWKZ0004E")) { //fail update
+                        break;
+                    case APP_UPDATE_FAILED:
                         wsBehaviour.appStateTracker.addApplicationState(RuntimeMessageHelper.getAppName(s), ApplicationStateTracker.FAILED_UPDATE);
-                    } else if (s.contains("CWWKZ0020I") || s.contains("J2CA7020I")) {
-                        wsBehaviour.appStateTracker.addApplicationState(RuntimeMessageHelper.getAppName(s), ApplicationStateTracker.FAILED_UPDATE);
-                    } else if (s.contains("CWWKZ0010E") || s.contains("J2CA7010E")) { //fail stop
+                        break;
+                    case APP_STOP_FAILED:
                         wsBehaviour.appStateTracker.addApplicationState(RuntimeMessageHelper.getAppName(s), ApplicationStateTracker.FAILED_STOP);
-                        // config is picked up first, need to use JMX to start the app etc
-                    } else if (s.contains("CWWKZ0014W") || s.contains("J2CA7014W")) {
+                        break;
+                    // config is picked up first, need to use JMX to start the app etc
+                    case APP_NOT_FOUND:
                         wsBehaviour.appStateTracker.addApplicationState(RuntimeMessageHelper.getAppName(s), ApplicationStateTracker.NEED_RESTART_APP);
-                    }
-                }
-            }
-
-            private String parseJsonMessage(String s) {
-                try {
-                    JsonReader reader = jsonFactory.createReader(new ByteArrayInputStream(s.getBytes()));
-                    JsonObject obj = reader.readObject();
-                    String message = obj.getString(MESSAGE_KEY);
-                    if (message != null && !message.isEmpty()) {
-                        return message;
-                    }
-                } catch (Exception e) {
-                    if (Trace.ENABLED) {
-                        Trace.trace(Trace.WARNING, "Message started with '{' but could not parse as JSON: " + s, e);
-                    }
+                        break;
+                    default:
+                        break;
                 }
-                return null;
             }
         };
         newProcess.getStreamsProxy().getOutputStreamMonitor().addListener(streamListener);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2019 IBM Corporation and others.
+ * Copyright (c) 2011, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -204,6 +204,7 @@ public class Constants {
     public static final String GENERATED_SSL_INCLUDE = "GeneratedSSLInclude.xml";
     public static final String REMOTE_CONFIG_SYNC_FILENAME = "remoteConfigSyncInfo.properties";
     public static final String CONFIG_SYNC_FILENAME = "configSyncInfo.properties";
+    public static final String CONFIG_SYNC_DIGEST_FILENAME = "configSyncDigest.properties";
     public static final String SSL_KEY_FILE = "key.jks";
     public static final String IGNORED_FEATURES = "ignoredFeatures.xml";
 
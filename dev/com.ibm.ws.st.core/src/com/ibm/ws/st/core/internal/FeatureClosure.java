@@ -0,0 +1,575 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package com.ibm.ws.st.core.internal;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.ibm.ws.st.core.internal.config.FeatureList.FeatureMapType;
+import com.ibm.ws.st.core.internal.generation.Feature;
+import com.ibm.ws.st.core.internal.generation.FeatureListCoreMetadata;
+import com.ibm.ws.st.core.internal.generation.FeatureListExtMetadata;
+
+/**
+ * Precomputed feature relationships for the feature metadata of a runtime.
+ *
+ * Every public feature has the transitive closure of the features it enables stored as a
+ * bit set, so containment checks are bit set intersections instead of walks over the
+ * feature map. The include graph of all features is also held together with the versions
+ * of each singleton feature family that every include accepts, which is used to rule out
+ * feature conflicts without running the feature resolver.
+ *
+ * A closure is built on first use and is discarded when the runtime's feature metadata
+ * is regenerated.
+ */
+public class FeatureClosure {
+
+    private static final Map<WebSphereRuntime, FeatureClosure> closures = new WeakHashMap<WebSphereRuntime, FeatureClosure>();
+    private static FeatureClosure fallbackClosure;
+
+    // the feature maps this closure was built from, used to detect new metadata
+    private final List<Map<String, Feature>> sources;
+
+    // public features and every feature they enable, keyed by lower case name
+    private final Map<String, Integer> nameIds = new HashMap<String, Integer>();
+    private final List<String> names = new ArrayList<String>();
+    private final List<BitSet> children = new ArrayList<BitSet>();
+    private final Map<String, BitSet> supporters = new ConcurrentHashMap<String, BitSet>();
+
+    // all features keyed by symbolic name
+    private final Map<String, Integer> symbolicIds = new HashMap<String, Integer>();
+    private final List<Include[]> includes = new ArrayList<Include[]>();
+    private final Map<String, Integer> publicToSymbolic = new HashMap<String, Integer>();
+    private final Map<Integer, List<Condition>> autoFeatures = new HashMap<Integer, List<Condition>>();
+
+    // singleton families with more than one version, and the family of each feature
+    private final Map<String, Integer> familyIds = new HashMap<String, Integer>();
+    private int[] featureFamilies;
+
+    private FeatureClosure(List<Map<String, Feature>> sources, Map<String, Feature> publicMap, Map<String, Feature> symbolicMap) {
+        this.sources = sources;
+        long time = System.currentTimeMillis();
+        buildEnables(publicMap);
+        buildIncludes(publicMap, symbolicMap);
+        if (Trace.ENABLED)
+            Trace.tracePerf("Feature closure of " + names.size() + " public and " + symbolicIds.size() + " symbolic features", time);
+    }
+
+    /**
+     * Returns the feature closure for the given runtime.
+     *
+     * @param wsRuntime the runtime, null means use fall back feature list
+     * @return the feature closure
+     */
+    public static FeatureClosure getInstance(WebSphereRuntime wsRuntime) {
+        List<Map<String, Feature>> sources = new ArrayList<Map<String, Feature>>(4);
+        HashMap<FeatureMapType, HashMap<String, Feature>> coreMaps = FeatureListCoreMetadata.getInstance().getFeatureListMaps(wsRuntime);
+        sources.add(coreMaps.get(FeatureMapType.PUBLIC_FEATURES_KEYED_BY_NAME));
+        sources.add(coreMaps.get(FeatureMapType.ALL_FEATURES_KEYED_BY_SYMBOLIC_NAME));
+        for (FeatureListExtMetadata ext : FeatureListExtMetadata.getInstances(wsRuntime)) {
+            HashMap<FeatureMapType, HashMap<String, Feature>> extMaps = ext.getFeatureListMaps(wsRuntime);
+            sources.add(extMaps.get(FeatureMapType.PUBLIC_FEATURES_KEYED_BY_NAME));
+            sources.add(extMaps.get(FeatureMapType.ALL_FEATURES_KEYED_BY_SYMBOLIC_NAME));
+        }
+
+        synchronized (closures) {
+            FeatureClosure closure = wsRuntime == null ? fallbackClosure : closures.get(wsRuntime);
+            if (closure != null && closure.isBuiltFrom(sources))
+                return closure;
+        }
+
+        // build outside of the lock, at worst two threads build the same closure
+        Map<String, Feature> publicMap = new HashMap<String, Feature>();
+        Map<String, Feature> symbolicMap = new HashMap<String, Feature>();
+        for (int i = 0; i < sources.size(); i += 2) {
+            if (sources.get(i) != null)
+                publicMap.putAll(sources.get(i));
+            if (sources.get(i + 1) != null)
+                symbolicMap.putAll(sources.get(i + 1));
+        }
+        FeatureClosure closure = new FeatureClosure(sources, publicMap, symbolicMap);
+        synchronized (closures) {
+            if (wsRuntime == null)
+                fallbackClosure = closure;
+            else
+                closures.put(wsRuntime, closure);
+        }
+        return closure;
+    }
+
+    /**
+     * Discard the feature closure for the given runtime, for use when its metadata is regenerated.
+     *
+     * @param wsRuntime the runtime
+     */
+    public static void invalidate(WebSphereRuntime wsRuntime) {
+        synchronized (closures) {
+            closures.remove(wsRuntime);
+        }
+    }
+
+    private boolean isBuiltFrom(List<Map<String, Feature>> maps) {
+        if (maps.size() != sources.size())
+            return false;
+        for (int i = 0; i < maps.size(); i++) {
+            if (maps.get(i) != sources.get(i))
+                return false;
+        }
+        return true;
+    }
+
+    private void buildEnables(Map<String, Feature> publicMap) {
+        // direct enables, by id
+        List<BitSet> enables = new ArrayList<BitSet>();
+        for (Map.Entry<String, Feature> entry : publicMap.entrySet()) {
+            if (entry.getKey() == null || entry.getValue() == null)
+                continue;
+            int id = getNameId(entry.getKey());
+            BitSet set = new BitSet();
+            for (String enabled : entry.getValue().getEnables()) {
+                int child = getNameId(enabled);
+                if (child != id)
+                    set.set(child);
+            }
+            while (enables.size() <= id)
+                enables.add(new BitSet());
+            enables.set(id, set);
+        }
+        while (enables.size() < names.size())
+            enables.add(new BitSet());
+
+        for (int id = 0; id < names.size(); id++)
+            children.add(closure(id, enables));
+    }
+
+    private int getNameId(String name) {
+        String key = name.toLowerCase(Locale.ENGLISH);
+        Integer id = nameIds.get(key);
+        if (id == null) {
+            id = Integer.valueOf(names.size());
+            nameIds.put(key, id);
+            names.add(name);
+        }
+        return id.intValue();
+    }
+
+    private void buildIncludes(Map<String, Feature> publicMap, Map<String, Feature> symbolicMap) {
+        List<Feature> features = new ArrayList<Feature>(symbolicMap.size());
+        for (Map.Entry<String, Feature> entry : symbolicMap.entrySet()) {
+            if (entry.getKey() == null || entry.getValue() == null)
+                continue;
+            symbolicIds.put(entry.getKey(), Integer.valueOf(features.size()));
+            features.add(entry.getValue());
+        }
+
+        // singleton families that have more than one version
+        Map<String, Integer> familySizes = new HashMap<String, Integer>();
+        for (Feature f : features) {
+            if (f.isSingleton() && f.getSymbolicName() != null) {
+                String family = getFamily(f.getSymbolicName());
+                Integer size = familySizes.get(family);
+                familySizes.put(family, Integer.valueOf(size == null ? 1 : size.intValue() + 1));
+            }
+        }
+        featureFamilies = new int[features.size()];
+        for (int id = 0; id < features.size(); id++) {
+            Feature f = features.get(id);
+            featureFamilies[id] = -1;
+            if (f.isSingleton() && f.getSymbolicName() != null) {
+                String family = getFamily(f.getSymbolicName());
+                if (familySizes.get(family).intValue() > 1) {
+                    Integer familyId = familyIds.get(family);
+                    if (familyId == null) {
+                        familyId = Integer.valueOf(familyIds.size());
+                        familyIds.put(family, familyId);
+                    }
+                    featureFamilies[id] = familyId.intValue();
+                }
+            }
+        }
+
+        for (int id = 0; id < features.size(); id++) {
+            Feature f = features.get(id);
+            List<Include> list = new ArrayList<Include>(f.getIncludes().size());
+            for (Map.Entry<String, List<String>> include : f.getIncludes().entrySet()) {
+                // the preferred version and any tolerated version may be used
+                BitSet versions = new BitSet();
+                Integer preferred = symbolicIds.get(include.getKey());
+                if (preferred != null)
+                    versions.set(preferred.intValue());
+                String base = getFamily(include.getKey());
+                if (include.getValue() != null) {
+                    for (String version : include.getValue()) {
+                        Integer tolerated = symbolicIds.get(base + FeatureUtil.FEATURE_SEPARATOR + version);
+                        if (tolerated != null)
+                            versions.set(tolerated.intValue());
+                    }
+                }
+                if (!versions.isEmpty()) {
+                    Integer familyId = familyIds.get(base);
+                    list.add(new Include(familyId == null ? -1 : familyId.intValue(), preferred == null ? versions.nextSetBit(0) : preferred.intValue(), versions));
+                }
+            }
+            includes.add(list.toArray(new Include[list.size()]));
+
+            if (f.isAutoFeature())
+                autoFeatures.put(Integer.valueOf(id), getAutoProvisionConditions(f));
+        }
+
+        for (Map.Entry<String, Feature> entry : publicMap.entrySet()) {
+            if (entry.getKey() == null || entry.getValue() == null || entry.getValue().getSymbolicName() == null)
+                continue;
+            Integer id = symbolicIds.get(entry.getValue().getSymbolicName());
+            if (id != null)
+                publicToSymbolic.put(entry.getKey().toLowerCase(Locale.ENGLISH), id);
+        }
+    }
+
+    /**
+     * Returns the auto provision filters of the given feature. The feature is provisioned when
+     * all of the filters match the features in the server.
+     */
+    private List<Condition> getAutoProvisionConditions(Feature f) {
+        List<Condition> conditions = new ArrayList<Condition>();
+        for (String filter : f.getAutoProvisions()) {
+            int[] pos = new int[] { 0 };
+            Condition c = parseCondition(filter.trim(), pos);
+            // a filter that can't be parsed might match anything
+            conditions.add(c == null || pos[0] != filter.trim().length() ? Condition.ANY : c);
+        }
+        return conditions;
+    }
+
+    /**
+     * Parse an LDAP style filter such as (&(type=osgi.subsystem.feature)(|(osgi.identity=a)(osgi.identity=b))).
+     *
+     * @return the condition, or <code>null</code> if the filter is not valid
+     */
+    private Condition parseCondition(String filter, int[] pos) {
+        if (pos[0] >= filter.length() || filter.charAt(pos[0]) != '(')
+            return null;
+        pos[0]++;
+        if (pos[0] >= filter.length())
+            return null;
+
+        char op = filter.charAt(pos[0]);
+        Condition c;
+        if (op == '&' || op == '|' || op == '!') {
+            pos[0]++;
+            c = new Condition(op, -1);
+            while (pos[0] < filter.length() && filter.charAt(pos[0]) == '(') {
+                Condition operand = parseCondition(filter, pos);
+                if (operand == null)
+                    return null;
+                c.operands.add(operand);
+            }
+        } else {
+            int end = filter.indexOf(')', pos[0]);
+            if (end < 0)
+                return null;
+            String term = filter.substring(pos[0], end);
+            pos[0] = end;
+            final String key = "osgi.identity=";
+            if (term.startsWith(key)) {
+                // a feature that is not installed can never be in the server
+                Integer id = symbolicIds.get(term.substring(key.length()).trim());
+                c = id == null ? Condition.NONE : new Condition('=', id.intValue());
+            } else {
+                c = Condition.ANY;
+            }
+        }
+        if (pos[0] >= filter.length() || filter.charAt(pos[0]) != ')')
+            return null;
+        pos[0]++;
+        return c;
+    }
+
+    /**
+     * Returns the name of a feature without its version, e.g. com.ibm.websphere.appserver.servlet
+     * for com.ibm.websphere.appserver.servlet-3.1.
+     */
+    private static String getFamily(String name) {
+        int index = name.lastIndexOf(FeatureUtil.FEATURE_SEPARATOR);
+        if (index > 0 && index < name.length() - 1 && Character.isDigit(name.charAt(index + 1)))
+            return name.substring(0, index);
+        return name;
+    }
+
+    private static BitSet closure(int start, List<BitSet> graph) {
+        BitSet found = new BitSet();
+        ArrayDeque<Integer> queue = new ArrayDeque<Integer>();
+        queue.add(Integer.valueOf(start));
+        while (!queue.isEmpty()) {
+            BitSet next = graph.get(queue.poll().intValue());
+            for (int i = next.nextSetBit(0); i >= 0; i = next.nextSetBit(i + 1)) {
+                if (i != start && !found.get(i)) {
+                    found.set(i);
+                    queue.add(Integer.valueOf(i));
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Returns the features enabled by the given feature, directly or indirectly, or
+     * <code>null</code> if the feature is not a known public feature.
+     */
+    private BitSet getChildren(String feature) {
+        Integer id = nameIds.get(feature.toLowerCase(Locale.ENGLISH));
+        if (id == null)
+            return null;
+        return children.get(id.intValue());
+    }
+
+    /**
+     * Returns the features that support the given feature: the feature itself and any other
+     * version of it that is the same or higher.
+     */
+    private BitSet getSupporters(String feature) {
+        String key = feature.toLowerCase(Locale.ENGLISH);
+        BitSet set = supporters.get(key);
+        if (set == null) {
+            set = new BitSet();
+            for (int i = 0; i < names.size(); i++) {
+                String name = names.get(i);
+                if (feature.equalsIgnoreCase(name) || isSupportedBy(feature, name))
+                    set.set(i);
+            }
+            supporters.put(key, set);
+        }
+        return set;
+    }
+
+    private static boolean isSupportedBy(String feature1, String feature2) {
+        try {
+            return FeatureUtil.isSupportedBy(feature1, feature2);
+        } catch (NumberFormatException e) {
+            // not a numeric version
+            return false;
+        }
+    }
+
+    /**
+     * Returns true if feature1 is a subset of feature2.
+     */
+    public boolean isContainedBy(String feature1, String feature2) {
+        if (feature1 == null || feature2 == null)
+            return false;
+        BitSet set = getChildren(feature2);
+        if (set == null) {
+            if (Trace.ENABLED)
+                Trace.trace(Trace.WARNING, "Unrecognized feature:" + feature2);
+            return false;
+        }
+        return set.intersects(getSupporters(feature1));
+    }
+
+    /**
+     * Returns true if feature1 is enabled by feature2 (either feature2 matches feature1 or
+     * one of its children does).
+     */
+    public boolean isEnabledBy(String feature1, String feature2) {
+        if (feature1.equalsIgnoreCase(feature2) || FeatureUtil.isSupportedBy(feature1, feature2))
+            return true;
+        return isContainedBy(feature1, feature2);
+    }
+
+    /**
+     * Returns true if the given feature is enabled by a feature in the given list.
+     */
+    public boolean isEnabledBy(String feature, Collection<String> allFeatures) {
+        BitSet all = new BitSet();
+        for (String f : allFeatures) {
+            if (feature.equalsIgnoreCase(f) || FeatureUtil.isSupportedBy(feature, f))
+                return true;
+            BitSet set = getChildren(f);
+            if (set != null)
+                all.or(set);
+        }
+        return all.intersects(getSupporters(feature));
+    }
+
+    /**
+     * Returns the features enabled by the given feature, directly or indirectly, not including
+     * the feature itself.
+     */
+    public Set<String> getFeatureChildren(String feature) {
+        BitSet set = feature == null ? null : getChildren(feature);
+        if (set == null)
+            return new HashSet<String>();
+        Set<String> result = new HashSet<String>(set.cardinality() * 2);
+        for (int i = set.nextSetBit(0); i >= 0; i = set.nextSetBit(i + 1))
+            result.add(names.get(i));
+        return result;
+    }
+
+    /**
+     * Returns false if the given features cannot result in a feature conflict. This is
+     * a conservative check: if it returns true the features may still resolve without
+     * a conflict and the feature resolver must be used to find out.
+     *
+     * @param features the configured features
+     * @return false if the features are known to be free of conflicts, true otherwise
+     */
+    public boolean canConflict(Collection<String> features) {
+        if (familyIds.isEmpty())
+            return false;
+
+        // Look for a resolution: pick one version of each singleton family, and when an
+        // include doesn't accept the version picked so far pick another version that every
+        // include seen so far accepts. The features reached through a version that is no
+        // longer picked are kept, which can only add more restrictions.
+        BitSet[] allowed = new BitSet[familyIds.size()];
+        int[] picked = new int[familyIds.size()];
+        BitSet reached = new BitSet();
+        ArrayDeque<Integer> queue = new ArrayDeque<Integer>();
+        for (String feature : features) {
+            if (feature == null)
+                continue;
+            Integer id = publicToSymbolic.get(feature.toLowerCase(Locale.ENGLISH));
+            if (id == null)
+                id = symbolicIds.get(feature);
+            if (id == null)
+                continue;
+            int family = featureFamilies[id.intValue()];
+            if (family >= 0) {
+                // a configured feature must be used as is
+                BitSet version = new BitSet();
+                version.set(id.intValue());
+                if (!restrict(allowed, family, version))
+                    return true;
+                picked[family] = id.intValue();
+            }
+            if (!reached.get(id.intValue())) {
+                reached.set(id.intValue());
+                queue.add(id);
+            }
+        }
+
+        Map<Integer, List<Condition>> pendingAuto = new HashMap<Integer, List<Condition>>(autoFeatures);
+        while (!queue.isEmpty()) {
+            while (!queue.isEmpty()) {
+                for (Include include : includes.get(queue.poll().intValue())) {
+                    int next = include.preferred;
+                    if (include.family >= 0) {
+                        boolean first = allowed[include.family] == null;
+                        if (!restrict(allowed, include.family, include.versions))
+                            return true;
+                        BitSet versions = allowed[include.family];
+                        if (first || !versions.get(picked[include.family]))
+                            picked[include.family] = versions.get(include.preferred) ? include.preferred : versions.nextSetBit(0);
+                        next = picked[include.family];
+                    }
+                    if (!reached.get(next)) {
+                        reached.set(next);
+                        queue.add(Integer.valueOf(next));
+                    }
+                }
+            }
+
+            // an auto feature is provisioned once all of its filters match
+            for (Map.Entry<Integer, List<Condition>> entry : new ArrayList<Map.Entry<Integer, List<Condition>>>(pendingAuto.entrySet())) {
+                if (Condition.matchAll(entry.getValue(), reached)) {
+                    pendingAuto.remove(entry.getKey());
+                    if (!reached.get(entry.getKey().intValue())) {
+                        reached.set(entry.getKey().intValue());
+                        queue.add(entry.getKey());
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Restrict the allowed versions of a family, returns false if no version is left.
+     */
+    private static boolean restrict(BitSet[] allowed, int family, BitSet versions) {
+        if (allowed[family] == null)
+            allowed[family] = (BitSet) versions.clone();
+        else
+            allowed[family].and(versions);
+        return !allowed[family].isEmpty();
+    }
+
+    /**
+     * An include of one feature by another.
+     */
+    private static class Include {
+        // the singleton family of the included feature, or -1
+        final int family;
+        final int preferred;
+        final BitSet versions;
+
+        Include(int family, int preferred, BitSet versions) {
+            this.family = family;
+            this.preferred = preferred;
+            this.versions = versions;
+        }
+    }
+
+    /**
+     * An auto provision filter. The filter is checked conservatively: any term other than a
+     * feature identity matches, and so does any negation, so a filter that could match the
+     * features in the server always does.
+     */
+    private static class Condition {
+        static final Condition ANY = new Condition('*', -1);
+        static final Condition NONE = new Condition('0', -1);
+
+        final char op;
+        final int id;
+        final List<Condition> operands = new ArrayList<Condition>(2);
+
+        Condition(char op, int id) {
+            this.op = op;
+            this.id = id;
+        }
+
+        boolean matches(BitSet reached) {
+            switch (op) {
+                case '=':
+                    return reached.get(id);
+                case '0':
+                    return false;
+                case '&':
+                    return matchAll(operands, reached);
+                case '|':
+                    for (Condition c : operands) {
+                        if (c.matches(reached))
+                            return true;
+                    }
+                    return false;
+                default:
+                    return true;
+            }
+        }
+
+        static boolean matchAll(List<Condition> conditions, BitSet reached) {
+            for (Condition c : conditions) {
+                if (!c.matches(reached))
+                    return false;
+            }
+            return true;
+        }
+    }
+}
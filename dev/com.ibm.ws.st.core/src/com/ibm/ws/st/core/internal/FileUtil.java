@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2017 IBM Corporation and others.
+ * Copyright (c) 2011, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -22,7 +22,10 @@ import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.net.URL;
 import java.net.URLConnection;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Map;
@@ -33,7 +36,6 @@ import java.util.jar.Manifest;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipException;
 import java.util.zip.ZipFile;
-import java.util.zip.ZipOutputStream;
 
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.IPath;
@@ -415,85 +417,82 @@ public class FileUtil {
         }
     }
 
+    /**
+     * Zip the contents of the given folder into a new zip file. Entries are compressed in
+     * parallel, see {@link ZipPackager}.
+     *
+     * @param folderToCompress the folder to zip
+     * @param destinationZipFile the zip file to create
+     * @return <code>true</code> if the zip file was created, <code>false</code> otherwise
+     * @throws IOException
+     */
     public static boolean zipDirectory(File folderToCompress, String destinationZipFile) throws IOException {
         if (folderToCompress == null || destinationZipFile == null)
             return false;
 
-        FileOutputStream fos = null;
-        ZipOutputStream zos = null;
-
-        try {
-            File zipFile = new File(destinationZipFile);
-            if (folderToCompress.exists() && folderToCompress.isDirectory()) {
-                fos = new FileOutputStream(zipFile);
-                zos = new ZipOutputStream(fos);
-
-                addToZipStream(zos, folderToCompress);
-
-                zos.close();
-                return true;
-            }
-
-        } finally {
-            try {
-                if (zos != null)
-                    zos.close();
-            } catch (Exception e) {
-                // ignore
-            }
-            try {
-                if (fos != null)
-                    fos.close();
-            } catch (Exception e) {
-                // ignore
-            }
+        if (folderToCompress.exists() && folderToCompress.isDirectory()) {
+            new ZipPackager().zipDirectory(folderToCompress, new File(destinationZipFile));
+            return true;
         }
-
         return false;
     }
 
     /**
-     * Recursively add files to zip output stream
+     * Zip the given files into a new zip file. Entry names are relative to the given root folder.
+     *
+     * @param root the root folder for the zip structure, must be a parent of all of the files
+     * @param files the files to add
+     * @param destinationZipFile the zip file to create
+     * @return <code>true</code> if the zip file was created, <code>false</code> otherwise
+     * @throws IOException
      */
-    private static void addToZipStream(ZipOutputStream zos, File file) throws IOException {
-        addToZipStream(zos, file, file.getAbsolutePath());
+    public static boolean zipFiles(File root, Collection<File> files, String destinationZipFile) throws IOException {
+        if (root == null || files == null || destinationZipFile == null || !root.isDirectory())
+            return false;
+
+        new ZipPackager().zipFiles(root, files, new File(destinationZipFile));
+        return true;
     }
 
     /**
-     * Recursively adds files to a provided ZipOutputStream.
+     * Returns the SHA-256 digest of the contents of the given file as a hex string.
      *
-     * @param zos The ZipOutputStream object.
-     * @param file A file or folder to be zipped.
-     * @param root The root directory for the zip structure. Must be a parent of the provided {@code file}.
-     * @throws IOException
+     * @param file a file
+     * @return the digest
+     * @throws IOException if the file cannot be read
      */
-    private static void addToZipStream(ZipOutputStream zos, File file, String root) throws IOException {
-        byte[] buf = new byte[8192];
-        if (file.isFile()) {
-            String absPath = file.getAbsolutePath();
-            String entry = absPath.substring(root.length() + 1, absPath.length());
-            entry = entry.replace("\\", "/");
-            ZipEntry zipEntry = new ZipEntry(entry);
-            zos.putNextEntry(zipEntry);
-            FileInputStream fis = new FileInputStream(file);
-            int length;
-            while ((length = fis.read(buf)) > 0) {
-                zos.write(buf, 0, length);
-            }
-            fis.close();
-            zos.closeEntry();
-            return;
+    public static String getFileDigest(File file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
         }
 
-        if (file.isDirectory()) {
-            File[] files = file.listFiles();
-            for (File f : files) {
-                // TODO investigate using java NIO APIs, in particular DirectoryStream.class which
-                // may give better performance for iterating over files within a large directory
-                // Note: it is only available since Java 1.7
-                addToZipStream(zos, f, root);
+        InputStream in = null;
+        try {
+            in = new FileInputStream(file);
+            byte[] b = new byte[8192];
+            int n;
+            while ((n = in.read(b)) > 0)
+                digest.update(b, 0, n);
+        } finally {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException e) {
+                    // ignore
+                }
             }
         }
+
+        byte[] d = digest.digest();
+        StringBuilder sb = new StringBuilder(d.length * 2);
+        for (byte x : d) {
+            sb.append(Character.forDigit((x >> 4) & 0xF, 16));
+            sb.append(Character.forDigit(x & 0xF, 16));
+        }
+        return sb.toString();
     }
 
     /**
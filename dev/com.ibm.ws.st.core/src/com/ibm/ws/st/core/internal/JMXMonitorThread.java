@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014, 2017 IBM Corporation and others.
+ * Copyright (c) 2014, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -48,7 +48,7 @@ public class JMXMonitorThread extends AbstractMonitorThread {
     /**
      * @param wsBehaviour Server behaviour object
      * @param serverStateSyncObj Server state lock
-     * @param name Thread name
+     * @param name Monitor name
      */
     public JMXMonitorThread(WebSphereServerBehaviour wsBehaviour, Object serverStateSyncObj, String name) {
         super(wsBehaviour, serverStateSyncObj, name);
@@ -68,100 +68,100 @@ public class JMXMonitorThread extends AbstractMonitorThread {
     }
 
     @Override
-    public void run() {
+    protected void poll() {
+        if (resetJMXConnection) {
+            if (Trace.ENABLED)
+                Trace.trace(Trace.SSM, "Resetting JMX connection");
+            if (jmxConnection != null) {
+                try {
+                    jmxConnection.disconnect();
+                } catch (Exception e) {
+                    // ignore
+                }
+            }
+            jmxConnection = null;
+            resetJMXConnection = false;
+        }
 
-        while (!stopMonitor) {
-            if (resetJMXConnection) {
-                if (Trace.ENABLED)
-                    Trace.trace(Trace.SSM, "Resetting JMX connection");
-                if (jmxConnection != null) {
-                    try {
-                        jmxConnection.disconnect();
-                    } catch (Exception e) {
-                        // ignore
+        // create the JMX connection if it does not exist
+        if (jmxConnection == null) {
+            try {
+                if (Trace.ENABLED) {
+                    Trace.trace(Trace.SSM, "Creating JMX connection");
+                }
+                jmxConnection = wsServer.createJMXConnection();
+                resetRegistrations();
+            } catch (Exception e) {
+                if (Trace.ENABLED) {
+                    Trace.trace(Trace.SSM, "Could not create JMX Connection: " + e.getLocalizedMessage());
+                }
+                synchronized (serverStateSyncObj) {
+                    int serverState = server.getServerState();
+                    if (serverState != IServer.STATE_STOPPED && serverState != IServer.STATE_STARTING) {
+                        if (Trace.ENABLED) {
+                            Trace.trace(Trace.SSM, "Changing server state to STOPPED");
+                        }
+                        stoppedServerCleanup();
                     }
                 }
-                jmxConnection = null;
-                resetJMXConnection = false;
             }
+        }
 
-            // create the JMX connection if it does not exist
-            if (jmxConnection == null) {
+        if (jmxConnection != null) {
+            // attempt connection to set server state
+            try {
                 try {
+                    // Try to register any app listeners that haven't already been registered.
+                    // Also serves as the connection test.
+                    connectAndRegisterAppListeners();
                     if (Trace.ENABLED) {
-                        Trace.trace(Trace.SSM, "Creating JMX connection");
+                        Trace.trace(Trace.SSM, "Reusing existing JMX connection");
                     }
-                    jmxConnection = wsServer.createJMXConnection();
-                    resetRegistrations();
                 } catch (Exception e) {
+                    wsBehaviour.clearRemoteConfigVarMap();
+                    // need to connect
                     if (Trace.ENABLED) {
-                        Trace.trace(Trace.SSM, "Could not create JMX Connection: " + e.getLocalizedMessage());
-                    }
-                    synchronized (serverStateSyncObj) {
-                        int serverState = server.getServerState();
-                        if (serverState != IServer.STATE_STOPPED && serverState != IServer.STATE_STARTING) {
-                            if (Trace.ENABLED) {
-                                Trace.trace(Trace.SSM, "Changing server state to STOPPED");
-                            }
-                            stoppedServerCleanup();
-                        }
+                        Trace.trace(Trace.SSM, "Attempting reconnect");
                     }
+                    unregisterAppListeners();
+                    jmxConnection.disconnect();
+                    jmxConnection.connect();
                 }
-            }
-
-            if (jmxConnection != null) {
-                // attempt connection to set server state
-                try {
-                    try {
-                        // Try to register any app listeners that haven't already been registered.
-                        // Also serves as the connection test.
-                        connectAndRegisterAppListeners();
-                        if (Trace.ENABLED) {
-                            Trace.trace(Trace.SSM, "Reusing existing JMX connection");
-                        }
-                    } catch (Exception e) {
-                        wsBehaviour.clearRemoteConfigVarMap();
-                        // need to connect
-                        if (Trace.ENABLED) {
-                            Trace.trace(Trace.SSM, "Attempting reconnect");
-                        }
-                        unregisterAppListeners();
-                        jmxConnection.disconnect();
-                        jmxConnection.connect();
-                    }
-
-                    String launchMode = server.getMode();
-                    int serverState = server.getServerState();
-                    // if stop is invoked on the server the server will be in STOPPING state but
-                    // the remote server's JMX connection may still be alive, so we should not
-                    // switch the server state to STARTED in this case
-                    if (serverState != IServer.STATE_STOPPING && serverState != IServer.STATE_STARTED) {
 
-                        synchronized (serverStateSyncObj) { // synchronize with server state lock for any blocks of code that use/set server state
-                            if (Trace.ENABLED)
-                                Trace.trace(Trace.SSM, "Changing server state to STARTED");
-                            wsBehaviour.setServerStateImpl(IServer.STATE_STARTED);
-                            if (!ILaunchManager.RUN_MODE.equals(launchMode))
-                                wsBehaviour.setInternalMode(ILaunchManager.RUN_MODE);
+                String launchMode = server.getMode();
+                int serverState = server.getServerState();
+                // if stop is invoked on the server the server will be in STOPPING state but
+                // the remote server's JMX connection may still be alive, so we should not
+                // switch the server state to STARTED in this case
+                if (serverState != IServer.STATE_STOPPING && serverState != IServer.STATE_STARTED) {
 
-                            try {
-                                IServerWorkingCopy serverWorkingCopy = server.createWorkingCopy();
-                                // Since the server is already started, we will explicitly turn off the option, stopOnShutdown.
-                                // We do not want to stop the server, which has led to unexpected behavior, when the workbench
-                                // is shutdown.
-                                boolean stopOnShutDown = serverWorkingCopy.getAttribute("stopOnShutdown", true);
-                                if (stopOnShutDown) {
-                                    serverWorkingCopy.setAttribute(WebSphereServer.PROP_STOP_ON_SHUTDOWN, false);
-                                    serverWorkingCopy.save(true, new NullProgressMonitor());
-                                }
-                            } catch (Exception e) {
-                                if (Trace.ENABLED) {
-                                    Trace.trace(Trace.SSM, "Attempting to change the state of the option to stop server on shutdown.", e);
-                                }
+                    synchronized (serverStateSyncObj) { // synchronize with server state lock for any blocks of code that use/set server state
+                        if (Trace.ENABLED)
+                            Trace.trace(Trace.SSM, "Changing server state to STARTED");
+                        wsBehaviour.setServerStateImpl(IServer.STATE_STARTED);
+                        if (!ILaunchManager.RUN_MODE.equals(launchMode))
+                            wsBehaviour.setInternalMode(ILaunchManager.RUN_MODE);
+
+                        try {
+                            IServerWorkingCopy serverWorkingCopy = server.createWorkingCopy();
+                            // Since the server is already started, we will explicitly turn off the option, stopOnShutdown.
+                            // We do not want to stop the server, which has led to unexpected behavior, when the workbench
+                            // is shutdown.
+                            boolean stopOnShutDown = serverWorkingCopy.getAttribute("stopOnShutdown", true);
+                            if (stopOnShutDown) {
+                                serverWorkingCopy.setAttribute(WebSphereServer.PROP_STOP_ON_SHUTDOWN, false);
+                                serverWorkingCopy.save(true, new NullProgressMonitor());
+                            }
+                        } catch (Exception e) {
+                            if (Trace.ENABLED) {
+                                Trace.trace(Trace.SSM, "Attempting to change the state of the option to stop server on shutdown.", e);
                             }
                         }
+                    }
 
-                        JMXConnection jmx = wsServer.createJMXConnection();
+                    JMXConnection jmx = wsServer.createJMXConnection();
+                    boolean keepConnection = false;
+                    try {
                         CompositeData metadata = (CompositeData) jmx.getMetadata(Constants.SERVER_CONFIG_VAR, "a");
                         String serverConfigDir = (String) metadata.get("fileName");
                         serverConfigDir = serverConfigDir.replace("\\", "/");
@@ -198,6 +198,8 @@ public class JMXMonitorThread extends AbstractMonitorThread {
                             curProcess.setAttribute(IProcess.ATTR_PROCESS_LABEL, LaunchUtil.getProcessLabelAttr(server.getName(), wsServer.getServerName()));
                             curProcess.setAttribute(IProcess.ATTR_PROCESS_TYPE, IJavaLaunchConfigurationConstants.ID_JAVA_PROCESS_TYPE);
                             launch.addProcess(curProcess);
+                            // the console proxy disconnects the connection when it is closed
+                            keepConnection = true;
 
                             DebugPlugin.getDefault().getLaunchManager().addLaunch(launch);
                             wsBehaviour.setLaunch(launch);
@@ -205,40 +207,37 @@ public class JMXMonitorThread extends AbstractMonitorThread {
                             // we should never get here since launchIt should be called to ensure we get a launch, but if we do log it
                             Trace.logError("Failed to create server launch.", null);
                         }
+                    } finally {
+                        if (!keepConnection)
+                            jmx.disconnect();
                     }
+                }
 
-                    detectAndSetServerMode(jmxConnection);
+                detectAndSetServerMode(jmxConnection);
 
-                } catch (Exception e) {
-                    if (Trace.ENABLED) {
-                        Trace.trace(Trace.SSM, "Could not refresh JMX Connection: " + e);
-                    }
-                    synchronized (serverStateSyncObj) {
-                        int serverState = server.getServerState();
-                        String launchMode = server.getMode();
-                        // similar to stop behaviour, if start is invoked on the server the server will be in
-                        // STARTING state but the remote server's JMX connection may not be up yet, so we
-                        // should not switch the server state to STARTED in this case
-                        if (serverState != IServer.STATE_STARTING && serverState != IServer.STATE_STOPPED) {
-                            if (Trace.ENABLED)
-                                Trace.trace(Trace.SSM, "Changing server state to STOPPED");
-                            stoppedServerCleanup();
-                            //reset the server mode so debugger can be attached once remote server is started in debug mode
-                            if (launchMode != ILaunchManager.RUN_MODE)
-                                wsBehaviour.setInternalMode(ILaunchManager.RUN_MODE);
-                        }
-                    }
-                }
-            } else { // JMX connection is null
+            } catch (Exception e) {
                 if (Trace.ENABLED) {
-                    Trace.trace(Trace.SSM, "JMX connection is NULL");
+                    Trace.trace(Trace.SSM, "Could not refresh JMX Connection: " + e);
+                }
+                synchronized (serverStateSyncObj) {
+                    int serverState = server.getServerState();
+                    String launchMode = server.getMode();
+                    // similar to stop behaviour, if start is invoked on the server the server will be in
+                    // STARTING state but the remote server's JMX connection may not be up yet, so we
+                    // should not switch the server state to STARTED in this case
+                    if (serverState != IServer.STATE_STARTING && serverState != IServer.STATE_STOPPED) {
+                        if (Trace.ENABLED)
+                            Trace.trace(Trace.SSM, "Changing server state to STOPPED");
+                        stoppedServerCleanup();
+                        //reset the server mode so debugger can be attached once remote server is started in debug mode
+                        if (launchMode != ILaunchManager.RUN_MODE)
+                            wsBehaviour.setInternalMode(ILaunchManager.RUN_MODE);
+                    }
                 }
             }
-
-            try {
-                Thread.sleep(POLLING_DELAY);
-            } catch (InterruptedException e) {
-                // ignore
+        } else { // JMX connection is null
+            if (Trace.ENABLED) {
+                Trace.trace(Trace.SSM, "JMX connection is NULL");
             }
         }
     }
@@ -0,0 +1,209 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package com.ibm.ws.st.core.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+import org.eclipse.core.runtime.IPath;
+
+/**
+ * Content manifest of an application that has been uploaded to a remote server. Each entry
+ * records the size and content digest of a file, relative to the application folder, as
+ * it was last uploaded. The manifest is used to upload only the files that have changed.
+ *
+ * The manifest is persisted as a properties file in the server's temp directory.
+ */
+public class RemoteAppManifest {
+
+    public static final String MANIFEST_FOLDER = "remoteApps";
+
+    private static final String MANIFEST_EXT = ".properties";
+    // relative paths never start with a separator so this key cannot clash with a file entry
+    private static final String DESTINATION_KEY = "/destination";
+    private static final char SEPARATOR = ',';
+
+    private final IPath manifestPath;
+    private final Properties entries = new Properties();
+    private final Properties pending = new Properties();
+    private boolean loaded;
+
+    private RemoteAppManifest(IPath manifestPath) {
+        this.manifestPath = manifestPath;
+    }
+
+    /**
+     * Load the manifest for the given application.
+     *
+     * @param tempDir the server temp directory
+     * @param appName the application folder name
+     * @return the manifest, never <code>null</code>. The manifest is empty if it was never saved.
+     */
+    public static RemoteAppManifest load(IPath tempDir, String appName) {
+        RemoteAppManifest manifest = new RemoteAppManifest(getManifestPath(tempDir, appName));
+        File file = manifest.manifestPath.toFile();
+        if (file.exists()) {
+            FileUtil.loadProperties(manifest.entries, manifest.manifestPath);
+            manifest.loaded = true;
+        }
+        return manifest;
+    }
+
+    /**
+     * Delete the manifest for the given application so that the next upload is a full upload.
+     *
+     * @param tempDir the server temp directory
+     * @param appName the application folder name
+     */
+    public static void delete(IPath tempDir, String appName) {
+        File file = getManifestPath(tempDir, appName).toFile();
+        if (file.exists() && !file.delete() && Trace.ENABLED)
+            Trace.trace(Trace.WARNING, "Could not delete remote application manifest: " + file);
+    }
+
+    private static IPath getManifestPath(IPath tempDir, String appName) {
+        return tempDir.append(MANIFEST_FOLDER).append(appName + MANIFEST_EXT);
+    }
+
+    /**
+     * Returns <code>true</code> if the manifest was saved for the given remote destination, and
+     * can be trusted to describe what is on the server.
+     *
+     * @param remoteDestination the remote application folder
+     * @return <code>true</code> if the manifest matches, <code>false</code> otherwise
+     */
+    public boolean matches(String remoteDestination) {
+        return loaded && remoteDestination != null && remoteDestination.equals(entries.getProperty(DESTINATION_KEY));
+    }
+
+    /**
+     * Returns the files that differ from the manifest. The new state of the returned files is
+     * recorded and becomes part of the manifest when {@link #save(String)} is called.
+     *
+     * @param appDir the local application folder
+     * @param candidates the files to check, or <code>null</code> to check every file in the folder
+     * @return the changed files
+     */
+    public List<File> getChangedFiles(File appDir, Collection<File> candidates) {
+        Set<File> files = new LinkedHashSet<File>();
+        if (candidates == null)
+            collectFiles(appDir, files);
+        else {
+            for (File f : candidates)
+                collectFiles(f, files);
+        }
+
+        String root = appDir.getAbsolutePath();
+        List<File> changed = new ArrayList<File>();
+        for (File f : files) {
+            String key = getRelativePath(root, f);
+            if (key == null)
+                continue;
+            String value = getEntryValue(f);
+            if (value == null || !value.equals(entries.getProperty(key))) {
+                changed.add(f);
+                if (value != null)
+                    pending.setProperty(key, value);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Remove the given file, or folder and its contents, from the manifest.
+     *
+     * @param relativePath the path relative to the application folder, using '/' separators
+     */
+    public void remove(String relativePath) {
+        String prefix = relativePath + "/";
+        for (Iterator<Object> it = entries.keySet().iterator(); it.hasNext();) {
+            String key = (String) it.next();
+            if (key.equals(relativePath) || key.startsWith(prefix))
+                it.remove();
+        }
+        for (Iterator<Object> it = pending.keySet().iterator(); it.hasNext();) {
+            String key = (String) it.next();
+            if (key.equals(relativePath) || key.startsWith(prefix))
+                it.remove();
+        }
+    }
+
+    /**
+     * Discard all entries, for use before a full upload.
+     */
+    public void clear() {
+        entries.clear();
+        pending.clear();
+    }
+
+    /**
+     * Returns <code>true</code> if the manifest was read from or written to disk.
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Apply the recorded changes and save the manifest.
+     *
+     * @param remoteDestination the remote application folder the files were uploaded to
+     */
+    public void save(String remoteDestination) {
+        entries.setProperty(DESTINATION_KEY, remoteDestination);
+        save();
+    }
+
+    /**
+     * Apply the recorded changes and save the manifest, keeping the current remote destination.
+     */
+    public void save() {
+        entries.putAll(pending);
+        pending.clear();
+        FileUtil.saveCachedProperties(entries, manifestPath);
+        loaded = true;
+    }
+
+    private static void collectFiles(File file, Set<File> files) {
+        if (file.isFile()) {
+            files.add(file);
+        } else if (file.isDirectory()) {
+            File[] children = file.listFiles();
+            if (children != null) {
+                for (File f : children)
+                    collectFiles(f, files);
+            }
+        }
+    }
+
+    private static String getRelativePath(String root, File file) {
+        String path = file.getAbsolutePath();
+        if (!path.startsWith(root) || path.length() <= root.length())
+            return null;
+        return path.substring(root.length() + 1).replace('\\', '/');
+    }
+
+    private static String getEntryValue(File file) {
+        try {
+            return Long.toString(file.length()) + SEPARATOR + FileUtil.getFileDigest(file);
+        } catch (IOException e) {
+            if (Trace.ENABLED)
+                Trace.trace(Trace.WARNING, "Could not compute the digest for: " + file, e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,268 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package com.ibm.ws.st.core.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.ReflectionException;
+import javax.management.openmbean.CompositeData;
+
+import com.ibm.ws.st.core.internal.jmx.JMXConnection;
+
+/**
+ * Deletes files and directories on a remote server in batches.
+ *
+ * The paths to delete are first coalesced into the smallest set of roots. The roots are
+ * deleted with a single <code>deleteAll</code> call where the server supports it. Otherwise
+ * the contents of each root are listed and deleted deepest level first, with each level
+ * deleted concurrently over a bounded number of MBean calls on a shared pool.
+ */
+public class RemoteFileDeleter {
+
+    public static final String REMOTE_DELETE_THREADS_PROPERTY = "com.ibm.ws.st.remoteDeleteThreads";
+
+    private static final int DEFAULT_THREADS = 4;
+
+    // servers (host:port) that do not have the deleteAll operation
+    private static final Set<String> deleteAllUnsupported = ConcurrentHashMap.newKeySet();
+
+    private static ExecutorService pool;
+
+    private final JMXConnection jmx;
+    private final AtomicInteger deleted = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+
+    public RemoteFileDeleter(JMXConnection jmx) {
+        this.jmx = jmx;
+    }
+
+    private static synchronized ExecutorService getPool() {
+        if (pool == null) {
+            pool = Executors.newFixedThreadPool(getThreadCount(), new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "Remote delete-" + count.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+        }
+        return pool;
+    }
+
+    /**
+     * Shut down the shared delete pool.
+     */
+    public static synchronized void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+            pool = null;
+        }
+        deleteAllUnsupported.clear();
+    }
+
+    /**
+     * Returns the smallest set of paths that covers all of the given paths, i.e. any path that
+     * is inside another path in the collection is removed.
+     *
+     * @param paths remote paths using '/' separators
+     * @return the root paths, sorted
+     */
+    public static List<String> coalesce(Collection<String> paths) {
+        Set<String> all = new HashSet<String>();
+        for (String p : paths) {
+            String s = p.replace("\\", "/");
+            while (s.length() > 1 && s.endsWith("/"))
+                s = s.substring(0, s.length() - 1);
+            all.add(s);
+        }
+
+        List<String> roots = new ArrayList<String>();
+        for (String s : all) {
+            boolean covered = false;
+            String parent = s;
+            int i;
+            while (!covered && (i = parent.lastIndexOf('/')) > 0) {
+                parent = parent.substring(0, i);
+                covered = all.contains(parent);
+            }
+            if (!covered)
+                roots.add(s);
+        }
+        Collections.sort(roots);
+        return roots;
+    }
+
+    /**
+     * Delete the given remote paths and everything below them.
+     *
+     * @param paths remote paths using '/' separators
+     * @return the number of files or directories that could not be deleted
+     */
+    public int delete(Collection<String> paths) {
+        if (paths == null || paths.isEmpty())
+            return 0;
+
+        long time = System.currentTimeMillis();
+        int failedBefore = failed.get();
+        List<String> roots = coalesce(paths);
+        if (Trace.ENABLED)
+            Trace.trace(Trace.INFO, "Deleting " + roots.size() + " remote root(s) for " + paths.size() + " path(s)");
+
+        String server = jmx.getHost() + ":" + jmx.getPort();
+        if (!deleteAllUnsupported.contains(server)) {
+            try {
+                if (jmx.deleteAll(roots)) {
+                    deleted.addAndGet(roots.size());
+                    if (Trace.ENABLED)
+                        Trace.tracePerf("Remote batch delete of " + roots.size() + " root(s)", time);
+                    return 0;
+                }
+            } catch (Exception e) {
+                // older servers do not have the deleteAll operation, any other failure is retried next time
+                if (isOperationNotFound(e))
+                    deleteAllUnsupported.add(server);
+                if (Trace.ENABLED)
+                    Trace.trace(Trace.INFO, "Remote batch delete failed, deleting files individually", e);
+            }
+        }
+
+        ExecutorService executor = getPool();
+        // group every file and directory by depth so that children are deleted before their parents
+        TreeMap<Integer, Set<String>> levels = new TreeMap<Integer, Set<String>>(Collections.reverseOrder());
+        List<Future<CompositeData[]>> listings = new ArrayList<Future<CompositeData[]>>(roots.size());
+        for (final String root : roots) {
+            addToLevel(levels, root);
+            listings.add(executor.submit(new Callable<CompositeData[]>() {
+                @Override
+                public CompositeData[] call() {
+                    try {
+                        return jmx.getDirectoryEntries(root, true, "");
+                    } catch (Exception e) {
+                        // the root may be a file, or not exist
+                        if (Trace.ENABLED_DETAILS)
+                            Trace.trace(Trace.DETAILS, "Could not list remote directory: " + root, e);
+                        return null;
+                    }
+                }
+            }));
+        }
+        for (Future<CompositeData[]> listing : listings) {
+            try {
+                CompositeData[] data = listing.get();
+                if (data != null) {
+                    for (CompositeData c : data)
+                        addToLevel(levels, ((String) c.get("fileName")).replace("\\", "/"));
+                }
+            } catch (Exception e) {
+                if (Trace.ENABLED)
+                    Trace.trace(Trace.WARNING, "Remote directory listing was interrupted", e);
+            }
+        }
+        if (Trace.ENABLED)
+            Trace.tracePerf("Remote delete listing of " + roots.size() + " root(s)", time);
+
+        for (Set<String> level : levels.values())
+            deleteLevel(executor, level);
+
+        if (Trace.ENABLED)
+            Trace.tracePerf("Remote delete of " + deleted.get() + " file(s), " + (failed.get() - failedBefore) + " failed", time);
+        return failed.get() - failedBefore;
+    }
+
+    public int getDeletedCount() {
+        return deleted.get();
+    }
+
+    private void deleteLevel(ExecutorService executor, Set<String> level) {
+        long time = System.currentTimeMillis();
+        List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>(level.size());
+        for (final String f : level) {
+            futures.add(executor.submit(new Callable<Boolean>() {
+                @Override
+                public Boolean call() {
+                    try {
+                        jmx.deleteFile(f);
+                        deleted.incrementAndGet();
+                        return Boolean.TRUE;
+                    } catch (Exception e) {
+                        failed.incrementAndGet();
+                        if (Trace.ENABLED)
+                            Trace.trace(Trace.WARNING, "Could not delete remote file: " + f, e);
+                        return Boolean.FALSE;
+                    }
+                }
+            }));
+        }
+        for (Future<Boolean> future : futures) {
+            try {
+                future.get();
+            } catch (Exception e) {
+                if (Trace.ENABLED)
+                    Trace.trace(Trace.WARNING, "Remote delete was interrupted", e);
+            }
+        }
+        if (Trace.ENABLED)
+            Trace.tracePerf("Remote delete of " + level.size() + " file(s) at one level, total deleted: " + deleted.get(), time);
+    }
+
+    private static boolean isOperationNotFound(Exception e) {
+        return e instanceof UnsupportedOperationException
+               || (e instanceof ReflectionException && e.getCause() instanceof NoSuchMethodException);
+    }
+
+    private static void addToLevel(TreeMap<Integer, Set<String>> levels, String path) {
+        Integer depth = Integer.valueOf(getDepth(path));
+        Set<String> level = levels.get(depth);
+        if (level == null) {
+            level = new LinkedHashSet<String>();
+            levels.put(depth, level);
+        }
+        level.add(path);
+    }
+
+    private static int getDepth(String path) {
+        int depth = 0;
+        for (int i = 0; i < path.length(); i++) {
+            if (path.charAt(i) == '/')
+                depth++;
+        }
+        return depth;
+    }
+
+    private static int getThreadCount() {
+        String prop = System.getProperty(REMOTE_DELETE_THREADS_PROPERTY);
+        if (prop != null && !prop.isEmpty()) {
+            try {
+                return Math.max(1, Integer.parseInt(prop));
+            } catch (NumberFormatException e) {
+                Trace.logError("The remote delete thread count specified is not valid: " + prop + ". The default will be used: " + DEFAULT_THREADS, e);
+            }
+        }
+        return DEFAULT_THREADS;
+    }
+}
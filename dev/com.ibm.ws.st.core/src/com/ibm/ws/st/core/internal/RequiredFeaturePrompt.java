@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2016 IBM Corporation and others.
+ * Copyright (c) 2012, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -26,7 +26,6 @@ import org.eclipse.wst.server.core.model.IModuleResourceDelta;
 
 import com.ibm.ws.st.core.internal.PromptHandler.AbstractPrompt;
 import com.ibm.ws.st.core.internal.RuntimeFeatureResolver.FeatureConflict;
-import com.ibm.ws.st.core.internal.RuntimeFeatureResolver.ResolverResult;
 import com.ibm.ws.st.core.internal.config.ConfigurationFile;
 
 /**
@@ -165,8 +164,7 @@ public class RequiredFeaturePrompt extends AbstractPrompt implements IPromptActi
                 if (!combinedFeatures.contains(feature))
                     combinedFeatures.add(feature);
             }
-            ResolverResult result = RuntimeFeatureResolver.resolve(ws.getWebSphereRuntime(), combinedFeatures);
-            Set<FeatureConflict> conflicts = result.getFeatureConflicts();
+            Set<FeatureConflict> conflicts = RuntimeFeatureResolver.getFeatureConflicts(ws.getWebSphereRuntime(), combinedFeatures);
             boolean ignoreConflicts = ws.shouldIgnoreConflicts(conflicts);
             FeatureConflictHandler featureConflictHandler = Activator.getFeatureConflictHandler();
             if (conflicts != null && !conflicts.isEmpty() && featureConflictHandler != null && !ignoreConflicts) {
@@ -205,8 +203,7 @@ public class RequiredFeaturePrompt extends AbstractPrompt implements IPromptActi
                 if (!combinedFeatures.contains(feature))
                     combinedFeatures.add(feature);
             }
-            ResolverResult result = RuntimeFeatureResolver.resolve(ws.getWebSphereRuntime(), combinedFeatures);
-            Set<FeatureConflict> conflicts = result.getFeatureConflicts();
+            Set<FeatureConflict> conflicts = RuntimeFeatureResolver.getFeatureConflicts(ws.getWebSphereRuntime(), combinedFeatures);
             boolean ignoreConflicts = ws.shouldIgnoreConflicts(conflicts);
             FeatureConflictHandler featureConflictHandler = Activator.getFeatureConflictHandler();
             if (conflicts != null && !conflicts.isEmpty() && featureConflictHandler != null && !ignoreConflicts) {
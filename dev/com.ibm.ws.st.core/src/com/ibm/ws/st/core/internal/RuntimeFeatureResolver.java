@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015 IBM Corporation and others.
+ * Copyright (c) 2015, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -112,6 +112,23 @@ public class RuntimeFeatureResolver {
         return new ResolverResult(featureConflicts, result.getMissing(), result.getNonPublicRoots(), result.getResolvedFeatures());
     }
 
+    /**
+     * Returns the conflicts between the given features. The feature resolver is only used
+     * if the features could conflict.
+     *
+     * @param wsRuntime the runtime, null means use fall back feature list
+     * @param features the configured features
+     * @return the feature conflicts, empty if there are none
+     */
+    public static Set<FeatureConflict> getFeatureConflicts(WebSphereRuntime wsRuntime, List<String> features) {
+        if (!FeatureClosure.getInstance(wsRuntime).canConflict(features)) {
+            if (Trace.ENABLED_DETAILS)
+                Trace.trace(Trace.DETAILS, "Features cannot conflict, skipping the feature resolver: " + features);
+            return new HashSet<FeatureConflict>();
+        }
+        return resolve(wsRuntime, features).getFeatureConflicts();
+    }
+
     public static class ResolverResult {
 
         private final Set<FeatureConflict> featureConflicts;
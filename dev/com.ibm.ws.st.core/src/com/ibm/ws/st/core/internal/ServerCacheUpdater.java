@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package com.ibm.ws.st.core.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared pool for refreshing the configuration caches of the servers in a runtime. Each
+ * server reads its own bootstrap.properties, server.env, jvm.options and include tree, so
+ * the updates are independent and run on a small pool of daemon threads.
+ */
+public class ServerCacheUpdater {
+
+    public static final String SERVER_CACHE_THREADS_PROPERTY = "com.ibm.ws.st.serverCacheThreads";
+
+    private static final int DEFAULT_MAX_THREADS = 4;
+
+    private static ExecutorService pool;
+
+    private static class UpdaterThread extends Thread {
+        UpdaterThread(Runnable r, String name) {
+            super(r, name);
+        }
+    }
+
+    private ServerCacheUpdater() {
+        // static only
+    }
+
+    private static synchronized ExecutorService getPool() {
+        if (pool == null) {
+            pool = Executors.newFixedThreadPool(getThreadCount(), new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread t = new UpdaterThread(r, "WebSphere server cache updater-" + count.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+        }
+        return pool;
+    }
+
+    /**
+     * Shut down the shared update pool.
+     */
+    public static synchronized void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+            pool = null;
+        }
+    }
+
+    /**
+     * Update the cache of each of the given servers. No server changed events are fired, the
+     * caller is expected to fire them once the whole batch is done.
+     *
+     * @param servers the servers to update
+     * @param inline <code>true</code> to run the updates on the calling thread
+     * @return the servers whose cache changed, in the order they were given
+     */
+    public static List<WebSphereServerInfo> update(List<WebSphereServerInfo> servers, boolean inline) {
+        List<WebSphereServerInfo> changed = new ArrayList<WebSphereServerInfo>(2);
+
+        // run on the calling thread if there is nothing to gain, or if we are already on a
+        // pool thread and waiting for the pool could starve it
+        if (inline || servers.size() < 2 || Thread.currentThread() instanceof UpdaterThread) {
+            for (WebSphereServerInfo info : servers) {
+                if (update(info))
+                    changed.add(info);
+            }
+            return changed;
+        }
+
+        List<Callable<Boolean>> tasks = new ArrayList<Callable<Boolean>>(servers.size());
+        for (final WebSphereServerInfo info : servers) {
+            tasks.add(new Callable<Boolean>() {
+                @Override
+                public Boolean call() {
+                    return Boolean.valueOf(update(info));
+                }
+            });
+        }
+
+        List<Future<Boolean>> results;
+        try {
+            results = getPool().invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return changed;
+        } catch (Exception e) {
+            // the pool was shut down, fall back to the calling thread
+            if (Trace.ENABLED)
+                Trace.trace(Trace.WARNING, "Server cache update pool is not available", e);
+            return update(servers, true);
+        }
+
+        for (int i = 0; i < results.size(); i++) {
+            try {
+                if (results.get(i).get().booleanValue())
+                    changed.add(servers.get(i));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                Trace.logError("Error updating runtime cache: " + servers.get(i).getServerName(), e.getCause());
+            } catch (Exception e) {
+                // cancelled by a pool shutdown
+                if (Trace.ENABLED)
+                    Trace.trace(Trace.WARNING, "Server cache update did not complete: " + servers.get(i).getServerName(), e);
+            }
+        }
+        return changed;
+    }
+
+    private static boolean update(WebSphereServerInfo info) {
+        try {
+            return info.updateCache(false);
+        } catch (Exception e) {
+            Trace.logError("Error updating runtime cache: " + info.getServerName(), e);
+        }
+        return false;
+    }
+
+    private static int getThreadCount() {
+        int threads = Math.max(1, Math.min(DEFAULT_MAX_THREADS, Runtime.getRuntime().availableProcessors()));
+        String prop = System.getProperty(SERVER_CACHE_THREADS_PROPERTY);
+        if (prop != null && !prop.isEmpty()) {
+            try {
+                threads = Math.max(1, Integer.parseInt(prop));
+            } catch (NumberFormatException e) {
+                Trace.logError("The server cache thread count specified is not valid: " + prop + ". The default will be used: " + threads, e);
+            }
+        }
+        return threads;
+    }
+}
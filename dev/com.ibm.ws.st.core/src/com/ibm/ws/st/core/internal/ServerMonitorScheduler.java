@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package com.ibm.ws.st.core.internal;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared scheduler for the server state monitors. A single timer thread schedules the polls
+ * for all servers instead of one sleeping thread per server, and hands each poll to a pool of
+ * probe threads when it is due. Polls can block (script status checks, JMX connects, waiting
+ * for a launch), so the probe pool grows when every thread is busy rather than queueing the
+ * polls of other servers behind a slow one.
+ */
+public class ServerMonitorScheduler {
+
+    // the number of probe threads kept alive when idle
+    public static final String SERVER_MONITOR_THREADS_PROPERTY = "com.ibm.ws.st.serverMonitorThreads";
+
+    private static final int DEFAULT_MAX_THREADS = 4;
+
+    // idle probe threads above the core count are released after this time, in ms
+    private static final long PROBE_KEEP_ALIVE = 60000;
+
+    private static ServerMonitorScheduler instance;
+
+    private final ScheduledThreadPoolExecutor executor;
+    private final ThreadPoolExecutor probeExecutor;
+
+    private ServerMonitorScheduler(int threads) {
+        executor = new ScheduledThreadPoolExecutor(1, new MonitorThreadFactory("WebSphere status monitor-"));
+        executor.setRemoveOnCancelPolicy(true);
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        probeExecutor = new ThreadPoolExecutor(threads, Integer.MAX_VALUE, PROBE_KEEP_ALIVE, TimeUnit.MILLISECONDS, new SynchronousQueue<Runnable>(), new MonitorThreadFactory("WebSphere status probe-"));
+    }
+
+    public static synchronized ServerMonitorScheduler getInstance() {
+        if (instance == null)
+            instance = new ServerMonitorScheduler(getThreadCount());
+        return instance;
+    }
+
+    /**
+     * Shut down the scheduler. Any pending polls are discarded.
+     */
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            instance.executor.shutdownNow();
+            instance.probeExecutor.shutdownNow();
+            instance = null;
+        }
+    }
+
+    /**
+     * Schedule a poll. The poll is run on a probe thread, so it may block without delaying
+     * the polls of other servers. Cancelling the returned future after the poll has been
+     * handed to a probe thread does not stop it.
+     *
+     * @param poll  the poll to run
+     * @param delay the delay before running, in ms
+     * @return the scheduled poll
+     */
+    public ScheduledFuture<?> schedule(final Runnable poll, long delay) {
+        if (Trace.ENABLED_DETAILS)
+            Trace.trace(Trace.DETAILS, "Server monitor poll scheduled in " + delay + "ms, queue size: " + executor.getQueue().size()
+                                       + ", active probes: " + probeExecutor.getActiveCount());
+        return executor.schedule(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    probeExecutor.execute(poll);
+                } catch (RejectedExecutionException e) {
+                    // the scheduler has been shut down
+                    if (Trace.ENABLED)
+                        Trace.trace(Trace.INFO, "Server monitor poll discarded after shutdown");
+                }
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private static int getThreadCount() {
+        int threads = Math.max(2, Math.min(DEFAULT_MAX_THREADS, Runtime.getRuntime().availableProcessors()));
+        String prop = System.getProperty(SERVER_MONITOR_THREADS_PROPERTY);
+        if (prop != null && !prop.isEmpty()) {
+            try {
+                threads = Math.max(1, Integer.parseInt(prop));
+            } catch (NumberFormatException e) {
+                Trace.logError("The server monitor thread count specified is not valid: " + prop + ". The default will be used: " + threads, e);
+            }
+        }
+        return threads;
+    }
+
+    private static class MonitorThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger count = new AtomicInteger();
+
+        MonitorThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, prefix + count.incrementAndGet());
+            t.setPriority(Thread.MIN_PRIORITY + 1);
+            t.setDaemon(true);
+            return t;
+        }
+    }
+}
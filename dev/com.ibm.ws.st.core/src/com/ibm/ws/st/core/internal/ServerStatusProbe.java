@@ -0,0 +1,285 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package com.ibm.ws.st.core.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+
+import com.ibm.ws.st.core.internal.jmx.JMXConnection;
+
+/**
+ * Determines the status of a local Liberty server from within the workbench process, without
+ * launching the <code>server status:fast</code> script.
+ *
+ * A running server holds an exclusive lock on <code>workarea/.sLock</code>, so the lock and the
+ * server's PID file are checked first. If the lock cannot be tested, the local JMX connector is
+ * tried. The script is only used when the result is still ambiguous.
+ */
+public class ServerStatusProbe {
+
+    public static final String SERVER_STATUS_PROBE_PROPERTY = "com.ibm.ws.st.serverStatusProbe";
+
+    // Status values match those returned by WebSphereRuntime.getServerStatus
+    public static final int STATUS_RUNNING = 0;
+    public static final int STATUS_STOPPED = 1;
+    public static final int STATUS_UNKNOWN = 2;
+
+    private static final String SERVER_LOCK_FILE = ".sLock";
+    private static final String PID_FOLDER = ".pid";
+    private static final String PID_FILE_EXT = ".pid";
+    private static final String JMX_ADDRESS_FILE = "com.ibm.ws.jmx.local.address";
+
+    private static boolean ENABLED = true;
+
+    static {
+        String probe = System.getProperty(SERVER_STATUS_PROBE_PROPERTY);
+        if (probe != null && !probe.isEmpty())
+            ENABLED = Boolean.parseBoolean(probe);
+    }
+
+    private static final ServerStatusProbe instance = new ServerStatusProbe();
+
+    private final ConcurrentHashMap<String, ProbeLatency> latencies = new ConcurrentHashMap<String, ProbeLatency>();
+
+    // Only one thread at a time may test a given lock file since the JVM does not allow
+    // overlapping locks on the same file from within one process
+    private final Object lockTestSync = new Object();
+
+    /**
+     * Probe latency statistics for a single server.
+     */
+    public static class ProbeLatency {
+        private long lastTime;
+        private long totalTime;
+        private int count;
+        private int scriptFallbacks;
+
+        synchronized void record(long time, boolean scriptFallback) {
+            lastTime = time;
+            totalTime += time;
+            count++;
+            if (scriptFallback)
+                scriptFallbacks++;
+        }
+
+        /**
+         * Returns the time taken by the most recent probe, in ms.
+         */
+        public synchronized long getLastTime() {
+            return lastTime;
+        }
+
+        /**
+         * Returns the average time taken by a probe, in ms.
+         */
+        public synchronized long getAverageTime() {
+            if (count == 0)
+                return 0;
+            return totalTime / count;
+        }
+
+        /**
+         * Returns the number of probes that had to fall back to the server script.
+         */
+        public synchronized int getScriptFallbackCount() {
+            return scriptFallbacks;
+        }
+
+        public synchronized int getCount() {
+            return count;
+        }
+
+        @Override
+        public synchronized String toString() {
+            return "ProbeLatency [last=" + lastTime + "ms, average=" + getAverageTime() + "ms, count=" + count + ", scriptFallbacks=" + scriptFallbacks + "]";
+        }
+    }
+
+    private ServerStatusProbe() {
+        // use getInstance()
+    }
+
+    public static ServerStatusProbe getInstance() {
+        return instance;
+    }
+
+    /**
+     * Returns the status of the given server. The probe is done in process where possible and
+     * falls back to {@link WebSphereRuntime#getServerStatus(WebSphereServerInfo, float, IProgressMonitor)}
+     * when the status cannot be determined.
+     *
+     * @param wsRuntime the runtime
+     * @param server    the server
+     * @param timeout   the timeout for the script fallback, in seconds
+     * @param monitor   a progress monitor, or <code>null</code>
+     * @return -1 if timeout; 0 if the server is running; 1 if the server is stopped; 2 if the status is unknown.
+     * @throws CoreException if the script fallback fails
+     */
+    public int getServerStatus(WebSphereRuntime wsRuntime, WebSphereServerInfo server, float timeout, IProgressMonitor monitor) throws CoreException {
+        long time = System.currentTimeMillis();
+        int status = ENABLED ? probe(server) : STATUS_UNKNOWN;
+        boolean scriptFallback = false;
+        if (status == STATUS_UNKNOWN) {
+            scriptFallback = true;
+            status = wsRuntime.getServerStatus(server, timeout, monitor);
+        }
+
+        long elapsed = System.currentTimeMillis() - time;
+        getLatency(server).record(elapsed, scriptFallback);
+        if (Trace.ENABLED_DETAILS) {
+            Trace.trace(Trace.SSM, "Server status probe for " + server.getServerName() + ": " + status + (scriptFallback ? " (script)" : ""));
+            Trace.tracePerf("Server status probe", time);
+        }
+        return status;
+    }
+
+    /**
+     * Returns the probe latency statistics for the given server.
+     *
+     * @param server the server
+     * @return the latency statistics, never <code>null</code>
+     */
+    public ProbeLatency getLatency(WebSphereServerInfo server) {
+        String key = getKey(server);
+        ProbeLatency latency = latencies.get(key);
+        if (latency == null) {
+            latency = new ProbeLatency();
+            ProbeLatency existing = latencies.putIfAbsent(key, latency);
+            if (existing != null)
+                latency = existing;
+        }
+        return latency;
+    }
+
+    /**
+     * Discard the latency statistics for the given server.
+     *
+     * @param server the server
+     */
+    public void clearLatency(WebSphereServerInfo server) {
+        latencies.remove(getKey(server));
+    }
+
+    /**
+     * Probe the server status without launching a process.
+     *
+     * @param server the server
+     * @return 0 if the server is running; 1 if the server is stopped; 2 if the status could not be determined.
+     */
+    protected int probe(WebSphereServerInfo server) {
+        IPath outputPath = server.getServerOutputPath();
+        if (outputPath == null)
+            return STATUS_UNKNOWN;
+
+        IPath workArea = outputPath.append("workarea");
+        File lockFile = workArea.append(SERVER_LOCK_FILE).toFile();
+        File pidFile = getPidFile(server);
+
+        if (!lockFile.exists()) {
+            // The server has never started (or has been cleaned) so it can't be running unless
+            // a pid file was left behind, in which case let the script decide
+            if (pidFile != null && pidFile.exists())
+                return STATUS_UNKNOWN;
+            return STATUS_STOPPED;
+        }
+
+        int status = testServerLock(lockFile);
+        if (status != STATUS_UNKNOWN)
+            return status;
+
+        return testLocalConnector(workArea);
+    }
+
+    /**
+     * Test whether another process holds the server lock.
+     *
+     * @param lockFile the server lock file
+     * @return 0 if the lock is held; 1 if the lock is free; 2 if the lock could not be tested.
+     */
+    protected int testServerLock(File lockFile) {
+        synchronized (lockTestSync) {
+            FileChannel channel = null;
+            try {
+                channel = FileChannel.open(lockFile.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+                FileLock lock = channel.tryLock();
+                if (lock == null)
+                    return STATUS_RUNNING;
+                lock.release();
+                return STATUS_STOPPED;
+            } catch (OverlappingFileLockException e) {
+                // Held within this JVM, should not happen for a server launched by the tools
+                if (Trace.ENABLED)
+                    Trace.trace(Trace.WARNING, "Server lock is held within the workbench: " + lockFile, e);
+            } catch (IOException e) {
+                // Some platforms refuse to open a file locked by another process
+                if (Trace.ENABLED_DETAILS)
+                    Trace.trace(Trace.DETAILS, "Could not test the server lock: " + lockFile, e);
+            } finally {
+                if (channel != null) {
+                    try {
+                        channel.close();
+                    } catch (IOException e) {
+                        // ignore
+                    }
+                }
+            }
+        }
+        return STATUS_UNKNOWN;
+    }
+
+    /**
+     * Test whether the server's local JMX connector is accepting connections.
+     *
+     * @param workArea the server work area
+     * @return 0 if the server responded; 2 otherwise.
+     */
+    protected int testLocalConnector(IPath workArea) {
+        // JMXConnection waits for the address file to appear, so only try when it already exists
+        if (!workArea.append(JMX_ADDRESS_FILE).toFile().exists())
+            return STATUS_UNKNOWN;
+
+        JMXConnection jmxConnection = null;
+        try {
+            jmxConnection = new JMXConnection(workArea);
+            jmxConnection.connect();
+            if (jmxConnection.getMBeanCount() != null)
+                return STATUS_RUNNING;
+        } catch (Exception e) {
+            if (Trace.ENABLED_DETAILS)
+                Trace.trace(Trace.DETAILS, "Local JMX connector is not available: " + workArea, e);
+        } finally {
+            if (jmxConnection != null)
+                jmxConnection.disconnect();
+        }
+        return STATUS_UNKNOWN;
+    }
+
+    private static File getPidFile(WebSphereServerInfo server) {
+        UserDirectory userDir = server.getUserDirectory();
+        if (userDir == null || userDir.getOutputPath() == null)
+            return null;
+        return userDir.getOutputPath().append(PID_FOLDER).append(server.getServerName() + PID_FILE_EXT).toFile();
+    }
+
+    private static String getKey(WebSphereServerInfo server) {
+        IPath outputPath = server.getServerOutputPath();
+        return outputPath == null ? server.getServerName() : outputPath.toPortableString();
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2019 IBM Corporation and others.
+ * Copyright (c) 2011, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -110,11 +110,13 @@ public class WebSphereRuntime extends RuntimeDelegate implements IJavaRuntime, I
     private static final String USER_DIR_METADATA_PATH = "OLT__UserDirectory__";
     private static byte userDirCounter = 0;
 
-    protected List<WebSphereServerInfo> serverInfo;
+    // copy-on-write snapshot of the servers, readers use it without locking
+    protected volatile List<WebSphereServerInfo> serverInfo;
+    private volatile Map<ServerKey, WebSphereServerInfo> serverRegistry = Collections.emptyMap();
     protected List<UserDirectory> userDirCache;
     protected List<String> customEncryptionAlgoList = null;
     protected Map<String, CustomPasswordEncryptionInfo> customPasswordEncryptionInfoMap = null;
-    protected int serverCacheHash = -1;
+    protected volatile int serverCacheHash = -1;
     protected int userDirHash = -1;
 
     // Cache for runtime version.
@@ -530,12 +532,12 @@ public class WebSphereRuntime extends RuntimeDelegate implements IJavaRuntime, I
      *
      * @return an array of server names
      */
-    public synchronized String[] getServerNames() {
-        updateServerCache(false);
-        int length = serverInfo.size();
+    public String[] getServerNames() {
+        List<WebSphereServerInfo> servers = getServerInfoSnapshot();
+        int length = servers.size();
         String[] serverNames = new String[length];
         for (int i = 0; i < length; i++) {
-            serverNames[i] = serverInfo.get(i).getServerName();
+            serverNames[i] = servers.get(i).getServerName();
         }
 
         // sort
@@ -554,12 +556,16 @@ public class WebSphereRuntime extends RuntimeDelegate implements IJavaRuntime, I
      *
      * @param force
      */
-    public synchronized void refresh() {
-        updateServerCache(true);
-        schemaHelper = null;
-        customEncryptionAlgoList = null;
-        customPasswordEncryptionInfoMap = null;
+    public void refresh() {
+        boolean changed = updateServerCache(true, false);
+        synchronized (this) {
+            schemaHelper = null;
+            customEncryptionAlgoList = null;
+            customPasswordEncryptionInfoMap = null;
+        }
         fireRefreshEvent();
+        if (changed)
+            refreshProjectView();
     }
 
     private int getRuntimeHash() {
@@ -578,86 +584,144 @@ public class WebSphereRuntime extends RuntimeDelegate implements IJavaRuntime, I
      *
      * @param force
      */
-    public synchronized void updateServerCache(boolean force) {
+    public void updateServerCache(boolean force) {
+        updateServerCache(force, true);
+    }
 
+    /**
+     * Refresh the servers within this runtime. The runtime is only held while the server folders are
+     * listed and a new snapshot of the servers is published; the server caches are then updated in
+     * parallel, so readers are not blocked by the updates.
+     *
+     * @param force
+     * @param fireEvents <code>true</code> to fire change events, or <code>false</code> if the caller
+     *            will fire a runtime refresh event itself
+     * @return <code>true</code> if servers were added or removed
+     */
+    private boolean updateServerCache(boolean force, boolean fireEvents) {
         int hash = getRuntimeHash();
         if (serverInfo != null && !force && serverCacheHash == hash)
-            return;
+            return false;
 
         long time = System.currentTimeMillis();
-
-        if (serverInfo == null)
-            serverInfo = new ArrayList<WebSphereServerInfo>(5);
-
-        IPath runtimePath = getRuntime().getLocation();
-        serverCacheHash = hash;
-        if (runtimePath == null)
-            return;
-
         boolean changed = false;
-        List<WebSphereServerInfo> found = new ArrayList<WebSphereServerInfo>(5);
+        List<WebSphereServerInfo> snapshot;
 
-        List<UserDirectory> userDirs = getUserDirectories();
+        synchronized (this) {
+            // another thread may have refreshed while we were waiting
+            if (serverInfo != null && !force && serverCacheHash == hash)
+                return false;
 
-        for (UserDirectory userDir : userDirs) {
-            IPath path = userDir.getServersPath();
+            IPath runtimePath = getRuntime().getLocation();
+            if (runtimePath == null) {
+                if (serverInfo == null)
+                    serverInfo = Collections.emptyList();
+                serverCacheHash = hash;
+                return false;
+            }
 
-            if (!path.toFile().exists())
-                continue;
+            Map<ServerKey, WebSphereServerInfo> registry = serverRegistry;
+            Map<ServerKey, WebSphereServerInfo> found = new LinkedHashMap<ServerKey, WebSphereServerInfo>();
 
-            File[] folders = path.toFile().listFiles();
+            List<UserDirectory> userDirs = getUserDirectories();
 
-            for (File f : folders) {
+            for (UserDirectory userDir : userDirs) {
+                IPath path = userDir.getServersPath();
 
-                if (f.isDirectory()) {
+                File[] folders = path.toFile().listFiles();
+                if (folders == null)
+                    continue;
 
-                    File serverFile = new File(f, Constants.SERVER_XML);
-                    if (serverFile.exists()) {
-                        String serverName = f.getName();
+                for (File f : folders) {
 
-                        // find existing server info to update, or create a new one
-                        WebSphereServerInfo info = null;
-                        for (WebSphereServerInfo existing : serverInfo) {
-                            if (existing.getServerName().equals(serverName) && existing.getUserDirectory().equals(userDir)) {
-                                info = existing;
-                            }
-                        }
-                        if (info == null) {
-                            info = new WebSphereServerInfo(serverName, userDir, this);
-                            serverInfo.add(info);
-                            changed = true;
-                        }
-                        found.add(info);
+                    if (f.isDirectory()) {
 
-                        // update server info
-                        try {
-                            info.updateCache();
-                        } catch (Exception e) {
-                            Trace.logError("Error updating runtime cache: " + info.getServerName(), e);
+                        File serverFile = new File(f, Constants.SERVER_XML);
+                        if (serverFile.exists()) {
+                            // find existing server info to update, or create a new one
+                            ServerKey key = new ServerKey(userDir, f.getName());
+                            WebSphereServerInfo info = registry.get(key);
+                            if (info == null) {
+                                info = new WebSphereServerInfo(key.serverName, userDir, this);
+                                changed = true;
+                            }
+                            found.put(key, info);
                         }
                     }
                 }
             }
-        }
 
-        // remove old/removed servers
-        List<WebSphereServerInfo> delete = new ArrayList<WebSphereServerInfo>(1);
-        for (WebSphereServerInfo info : serverInfo) {
-            if (!found.contains(info)) {
-                delete.add(info);
+            // old/removed servers
+            if (!changed && found.size() != registry.size())
                 changed = true;
+
+            // keep the same snapshot if nothing was added or removed
+            if (changed || serverInfo == null) {
+                serverRegistry = found;
+                serverInfo = Collections.unmodifiableList(new ArrayList<WebSphereServerInfo>(found.values()));
             }
+            snapshot = serverInfo;
+            serverCacheHash = hash;
         }
-        for (WebSphereServerInfo info : delete)
-            serverInfo.remove(info);
 
-        if (changed) {
-            fireRefreshEvent();
-            refreshProjectView();
+        // update server info. If the caller holds the runtime the updates stay on its thread,
+        // since updating a server may need the runtime as well
+        List<WebSphereServerInfo> changedServers = ServerCacheUpdater.update(snapshot, Thread.holdsLock(this));
+
+        if (fireEvents) {
+            // a single refresh event covers everything, otherwise tell about the one server
+            if (changed || changedServers.size() > 1)
+                fireRefreshEvent();
+            else if (!changedServers.isEmpty())
+                ServerListenerUtil.getInstance().fireServerChangedEvent(changedServers.get(0));
+
+            if (changed)
+                refreshProjectView();
         }
 
         if (Trace.ENABLED)
             Trace.tracePerf("Update runtime cache", time);
+        return changed;
+    }
+
+    /**
+     * Returns the current snapshot of the servers, refreshing it first if needed. The snapshot
+     * is unmodifiable and only replaced when servers are added or removed.
+     */
+    List<WebSphereServerInfo> getServerInfoSnapshot() {
+        List<WebSphereServerInfo> snapshot = serverInfo;
+        if (snapshot != null && serverCacheHash == getRuntimeHash())
+            return snapshot;
+
+        updateServerCache(false);
+        snapshot = serverInfo;
+        return snapshot == null ? Collections.<WebSphereServerInfo> emptyList() : snapshot;
+    }
+
+    /**
+     * Registry key for a server, a server name is only unique within a user directory.
+     */
+    private static final class ServerKey {
+        final UserDirectory userDir;
+        final String serverName;
+
+        ServerKey(UserDirectory userDir, String serverName) {
+            this.userDir = userDir;
+            this.serverName = serverName;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof ServerKey))
+                return false;
+            ServerKey key = (ServerKey) obj;
+            return serverName.equals(key.serverName) && userDir.equals(key.userDir);
+        }
+
+        @Override
+        public int hashCode() {
+            return serverName.hashCode() * 31 + userDir.hashCode();
+        }
     }
 
     // Refresh view in project explorer to show any servers that
@@ -714,21 +778,17 @@ public class WebSphereRuntime extends RuntimeDelegate implements IJavaRuntime, I
         ServerListenerUtil.getInstance().fireMetadataChangedEvent(theRuntime);
     }
 
-    public synchronized WebSphereServerInfo getServerInfo(String serverName, UserDirectory userDir) {
-        updateServerCache(false);
-        for (WebSphereServerInfo info : serverInfo) {
-            if (info.getServerName().equals(serverName) &&
-                userDir != null && userDir.equals(info.getUserDirectory())) {
-                return info;
-            }
-        }
-        return null;
+    public WebSphereServerInfo getServerInfo(String serverName, UserDirectory userDir) {
+        if (serverName == null || userDir == null)
+            return null;
+        getServerInfoSnapshot();
+        return serverRegistry.get(new ServerKey(userDir, serverName));
     }
 
-    public synchronized List<WebSphereServerInfo> getWebSphereServerInfos(UserDirectory userDir) {
-        updateServerCache(false);
-        List<WebSphereServerInfo> list = new ArrayList<WebSphereServerInfo>(serverInfo.size());
-        for (WebSphereServerInfo info : serverInfo) {
+    public List<WebSphereServerInfo> getWebSphereServerInfos(UserDirectory userDir) {
+        List<WebSphereServerInfo> servers = getServerInfoSnapshot();
+        List<WebSphereServerInfo> list = new ArrayList<WebSphereServerInfo>(servers.size());
+        for (WebSphereServerInfo info : servers) {
             if (info.getUserDirectory().equals(userDir)) {
                 list.add(info);
             }
@@ -736,14 +796,12 @@ public class WebSphereRuntime extends RuntimeDelegate implements IJavaRuntime, I
         return list;
     }
 
-    public synchronized boolean hasServers() {
-        updateServerCache(false);
-        return serverInfo.size() > 0;
+    public boolean hasServers() {
+        return !getServerInfoSnapshot().isEmpty();
     }
 
-    public synchronized List<WebSphereServerInfo> getWebSphereServerInfos() {
-        updateServerCache(false);
-        return new ArrayList<WebSphereServerInfo>(serverInfo);
+    public List<WebSphereServerInfo> getWebSphereServerInfos() {
+        return new ArrayList<WebSphereServerInfo>(getServerInfoSnapshot());
     }
 
     /**
@@ -1726,10 +1784,8 @@ public class WebSphereRuntime extends RuntimeDelegate implements IJavaRuntime, I
      * @param fileURI
      * @return
      */
-    public synchronized URL getConfigurationSchemaURL(URI fileURI) {
-        updateServerCache(false);
-
-        for (WebSphereServerInfo info : serverInfo) {
+    public URL getConfigurationSchemaURL(URI fileURI) {
+        for (WebSphereServerInfo info : getServerInfoSnapshot()) {
             if (info.getConfigurationFileFromURI(fileURI) != null) {
                 return getConfigurationSchemaURL();
             }
@@ -1825,6 +1881,7 @@ public class WebSphereRuntime extends RuntimeDelegate implements IJavaRuntime, I
                     for (FeatureListExtMetadata exts : extMetadata) {
                         exts.generationComplete(generatorId, exts.getPayload(wsr));
                     }
+                    FeatureClosure.invalidate(wsr);
 
                 } finally {
                     event.getJob().removeJobChangeListener(this);
@@ -2333,7 +2390,8 @@ public class WebSphereRuntime extends RuntimeDelegate implements IJavaRuntime, I
      * Added as part of WI 124142.
      */
     public void resetRuntimeServerInfo() {
-        serverInfo = new ArrayList<WebSphereServerInfo>();
+        serverInfo = Collections.emptyList();
+        serverRegistry = Collections.emptyMap();
         serverCacheHash = -1;
         userDirCache = new ArrayList<UserDirectory>();
         userDirHash = -1;
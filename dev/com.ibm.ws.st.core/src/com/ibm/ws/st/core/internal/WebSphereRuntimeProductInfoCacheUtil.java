@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013, 2015 IBM Corporation and others.
+ * Copyright (c) 2013, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -31,6 +31,10 @@ public class WebSphereRuntimeProductInfoCacheUtil {
     private static final String VERSION = "version";
     private static final String CACHE_FILE_NAME = "productInfoKey.properties";
 
+    // folders whose content affects the generated metadata. An iFix can change bundle metadata
+    // without changing any feature manifest, so the installed fixes are included too
+    private static final String[] INSTALL_KEY_FOLDERS = { "lib/versions", "lib/features", "lib/fixes", "etc/extensions", Constants.USR_EXTENSION_FOLDER + "/lib/features" };
+
     protected static String getProductVersionInfo(WebSphereRuntime runtime) {
         return executeProductInfo(runtime, VERSION);
     }
@@ -160,6 +164,46 @@ public class WebSphereRuntimeProductInfoCacheUtil {
         return current;
     }
 
+    /**
+     * Returns a key for the content of the runtime install, so that runtimes unpacked from the same
+     * archive have the same key. The key combines the product version and feature information with
+     * the names and sizes of the installed features, fixes and product extensions.
+     *
+     * The product information is taken from the cache, and is only queried from the runtime if it
+     * has not been cached yet. A product update that hasn't been seen yet still changes the
+     * installed files.
+     *
+     * @param runtime the runtime
+     * @return the install key, or null if the product information is not available
+     */
+    public static String getInstallKey(WebSphereRuntime runtime) {
+        if (runtime == null || runtime.getRuntime() == null || runtime.getRuntime().getLocation() == null)
+            return null;
+
+        Properties productInfo = loadCachedProductKey(runtime);
+        String version = productInfo.getProperty(VERSION);
+        String featureInfo = productInfo.getProperty(FEATURE_INFO);
+        if (version == null || featureInfo == null) {
+            productInfo = getCombinedProductKey(runtime);
+            version = productInfo.getProperty(VERSION);
+            featureInfo = productInfo.getProperty(FEATURE_INFO);
+            if (version == null || featureInfo == null)
+                return null;
+            saveProductInfoCache(runtime, productInfo);
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(version).append('\n').append(featureInfo).append('\n');
+
+        IPath location = runtime.getRuntime().getLocation();
+        for (String folder : INSTALL_KEY_FOLDERS) {
+            sb.append(folder).append('\n');
+            for (File f : FileUtil.getSortedFiles(location.append(folder).toFile(), false))
+                sb.append(f.getName()).append(' ').append(f.length()).append('\n');
+        }
+        return sb.toString();
+    }
+
     private static String executeProductInfo(WebSphereRuntime runtime, String cmd) {
         if (runtime.getRuntime() == null || runtime.getRuntime().getLocation() == null) {
             if (Trace.ENABLED)
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2017 IBM Corporation and others.
+ * Copyright (c) 2011, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -59,12 +59,12 @@ import com.ibm.ws.st.common.core.ext.internal.servertype.ServerTypeExtensionFact
 import com.ibm.ws.st.common.core.internal.CommonServerUtil;
 import com.ibm.ws.st.common.core.internal.RemoteServerInfo;
 import com.ibm.ws.st.core.internal.RuntimeFeatureResolver.FeatureConflict;
-import com.ibm.ws.st.core.internal.RuntimeFeatureResolver.ResolverResult;
 import com.ibm.ws.st.core.internal.WebSphereServerBehaviour.ApplicationStateTracker;
 import com.ibm.ws.st.core.internal.config.Bootstrap;
 import com.ibm.ws.st.core.internal.config.ConfigurationFile;
 import com.ibm.ws.st.core.internal.jmx.JMXConnection;
 import com.ibm.ws.st.core.internal.jmx.JMXConnectionInfo;
+import com.ibm.ws.st.core.internal.jmx.JMXConnectionPool;
 import com.ibm.ws.st.core.internal.remote.RemoteUtils;
 
 public class WebSphereServer extends ServerDelegate implements IURLProvider, IAdaptable {
@@ -494,8 +494,7 @@ public class WebSphereServer extends ServerDelegate implements IURLProvider, IAd
             List<String> combinedFeatures = new ArrayList<String>(allFeatures);
             combinedFeatures.addAll(featuresToAdd);
 
-            ResolverResult result = RuntimeFeatureResolver.resolve(getWebSphereRuntime(), combinedFeatures);
-            Set<FeatureConflict> conflicts = result.getFeatureConflicts();
+            Set<FeatureConflict> conflicts = RuntimeFeatureResolver.getFeatureConflicts(getWebSphereRuntime(), combinedFeatures);
             boolean ignoreConflicts = shouldIgnoreConflicts(conflicts);
             FeatureConflictHandler featureConflictHandler = Activator.getFeatureConflictHandler();
             if (conflicts != null && !conflicts.isEmpty() && featureConflictHandler != null && !ignoreConflicts) {
@@ -1159,23 +1158,66 @@ public class WebSphereServer extends ServerDelegate implements IURLProvider, IAd
         return false;
     }
 
+    /**
+     * Returns a connected JMX connection to the server. Connections to the same server share
+     * a connector, so the connection must be disconnected when it is no longer needed.
+     *
+     * @return a connected JMX connection
+     * @throws Exception if the connection could not be created
+     */
     public JMXConnection createJMXConnection() throws Exception {
-        JMXConnection connection = null;
+        if (!isLocalSetup()) {
+            final String userName = getServerUserName();
+            final String password = getServerPassword();
+            final String host = getConnectionHost();
+            final String portNum = getConnectionPort();
+            String key = getJMXConnectionKey(host, portNum, userName, password);
+            return JMXConnectionPool.getConnection(key, new JMXConnectionPool.ConnectionFactory() {
+                @Override
+                public JMXConnection connect() throws Exception {
+                    JMXConnection connection = new JMXConnection(host, portNum, userName, password);
+                    connection.connect();
+                    //update the remoteUserDir when new connection is made
+                    if (getServerInfo() != null)
+                        getServerInfo().getUserDirectory().setRemoteUserPath(new Path(getWebSphereServerBehaviour().resolveConfigVar("${wlp.user.dir}", connection)));
+                    return connection;
+                }
+            });
+        }
+
+        final WebSphereServerInfo serverInfo = getServerInfo();
+        return JMXConnectionPool.getConnection(getJMXConnectionKey(serverInfo), new JMXConnectionPool.ConnectionFactory() {
+            @Override
+            public JMXConnection connect() throws Exception {
+                return serverInfo.createLocalJMXConnection();
+            }
+        });
+    }
+
+    /**
+     * Check the server's shared JMX connection before it is next used, for instance because
+     * the server has stopped.
+     */
+    public void invalidateJMXConnection() {
         if (!isLocalSetup()) {
             String userName = getServerUserName();
             String password = getServerPassword();
-            String host = getConnectionHost();
-            String portNum = getConnectionPort();
-            connection = new JMXConnection(host, portNum, userName, password);
-            connection.connect();
-            //update the remoteUserDir when new connection is made
-            if (getServerInfo() != null)
-                getServerInfo().getUserDirectory().setRemoteUserPath(new Path(getWebSphereServerBehaviour().resolveConfigVar("${wlp.user.dir}", connection)));
-
+            if (userName != null && password != null)
+                JMXConnectionPool.invalidate(getJMXConnectionKey(getConnectionHost(), getConnectionPort(), userName, password));
         } else {
-            connection = getServerInfo().createLocalJMXConnection();
+            WebSphereServerInfo serverInfo = getServerInfo();
+            if (serverInfo != null)
+                JMXConnectionPool.invalidate(getJMXConnectionKey(serverInfo));
         }
-        return connection;
+    }
+
+    private static String getJMXConnectionKey(String host, String port, String userName, String password) {
+        // a changed password needs a new connection, but the password itself is not kept in the key
+        return host + ":" + port + ":" + userName + ":" + (password == null ? 0 : password.hashCode());
+    }
+
+    private static String getJMXConnectionKey(WebSphereServerInfo serverInfo) {
+        return "local:" + serverInfo.getServerOutputPath().append("workarea").toOSString();
     }
 
     public String getConnectionPort() {
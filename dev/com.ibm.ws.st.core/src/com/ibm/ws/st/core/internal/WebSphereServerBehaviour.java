@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2017 IBM Corporation and others.
+ * Copyright (c) 2011, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -26,6 +26,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -100,8 +101,11 @@ public class WebSphereServerBehaviour extends ServerBehaviourDelegate implements
 
     private Properties configSyncInfo = null;
     private Properties remoteConfigSyncInfo = null;
+    private Properties configSyncDigests = null;
     public static final String CONFIG_SYNC_FILENAME = Constants.CONFIG_SYNC_FILENAME;
     public static final String REMOTE_CONFIG_SYNC_FILENAME = Constants.REMOTE_CONFIG_SYNC_FILENAME;
+    public static final String CONFIG_SYNC_DIGEST_FILENAME = Constants.CONFIG_SYNC_DIGEST_FILENAME;
+    private static final String CONFIG_SYNC_ARCHIVE = "configSync.zip";
 
     public static final int AUTO_PUBLISH_DISABLE = 1;
     public static final int AUTO_PUBLISH_RESOURCE = 2;
@@ -456,6 +460,10 @@ public class WebSphereServerBehaviour extends ServerBehaviourDelegate implements
         synchronized (serverStateSyncObj) {
             super.setServerState(state);
         }
+        // poll quickly after a state transition
+        AbstractMonitorThread monitor = monitorThread;
+        if (monitor != null)
+            monitor.serverStateChanged();
     }
 
     protected void setModuleStateImpl(IModule[] module, int state) {
@@ -478,11 +486,11 @@ public class WebSphereServerBehaviour extends ServerBehaviourDelegate implements
             Trace.trace(Trace.SSM, "Stop monitor thread");
         if (monitorThread != null) {
             monitorThread.stopMonitor();
-            try {
-                monitorThread.notify();
-            } catch (Exception e) {
-                // Do nothing
-            }
+            // the status probe statistics are only needed while the server is monitored
+            WebSphereServer wsServer = getWebSphereServer();
+            WebSphereServerInfo serverInfo = wsServer == null ? null : wsServer.getServerInfo();
+            if (serverInfo != null)
+                ServerStatusProbe.getInstance().clearLatency(serverInfo);
         }
         monitorThread = null;
     }
@@ -501,8 +509,6 @@ public class WebSphereServerBehaviour extends ServerBehaviourDelegate implements
         else
             monitorThread = new JMXMonitorThread(this, serverStateSyncObj, "WebSphere status monitor(JMX)");
 
-        monitorThread.setPriority(Thread.MIN_PRIORITY + 1);
-        monitorThread.setDaemon(true);
         monitorThread.start();
     }
 
@@ -580,6 +586,9 @@ public class WebSphereServerBehaviour extends ServerBehaviourDelegate implements
             ((ConsoleMonitorThread) monitorThread).removeProcessListeners();
         }
         setServerAndModuleState(IServer.STATE_STOPPED);
+        WebSphereServer wsServer = getWebSphereServer();
+        if (wsServer != null)
+            wsServer.invalidateJMXConnection();
         stopMonitorThread();
         appStateTracker.clear();
         // Start the monitor thread again so that if the server is started outside of the
@@ -1365,6 +1374,8 @@ public class WebSphereServerBehaviour extends ServerBehaviourDelegate implements
         terminateDebugTarget();
 
         stopMonitorThread();
+
+        ConfigSyncScheduler.remove(this);
     }
 
     public void setModulePublishState(int state, IModule[] module) {
@@ -1381,6 +1392,10 @@ public class WebSphereServerBehaviour extends ServerBehaviourDelegate implements
             configSyncInfo = new Properties();
             FileUtil.loadProperties(configSyncInfo, getTempDirectory().append(CONFIG_SYNC_FILENAME));
         }
+        if (configSyncDigests == null) {
+            configSyncDigests = new Properties();
+            FileUtil.loadProperties(configSyncDigests, getTempDirectory().append(CONFIG_SYNC_DIGEST_FILENAME));
+        }
 
         List<String> allFeatures = getWebSphereServer().getConfiguration().getAllFeatures();
 
@@ -1417,6 +1432,7 @@ public class WebSphereServerBehaviour extends ServerBehaviourDelegate implements
                     }
                     if (!found) {
                         configSyncInfo.remove(k);
+                        configSyncDigests.remove(k);
                         deletedFiles.add(k);
                     }
                 }
@@ -1472,11 +1488,12 @@ public class WebSphereServerBehaviour extends ServerBehaviourDelegate implements
                                     Object o = configConflictHandlers[0].createExecutableExtension("class");
                                     if (o instanceof LibertyConfigSyncConflictHandler) {
                                         ArrayList<Pair> conflictFiles = new ArrayList<Pair>(); // the list of local files that have conflicts
-                                        for (String remoteFile : remotelyUpdatedFiles) {
-                                            for (String localFile : updatedFiles) {
-                                                if (resolveRemoteFilePath(localFile, jmxConnection).equals(remoteFile))
-                                                    conflictFiles.add(new Pair(localFile, remoteFile));
-                                            }
+                                        // resolve each local file once and look it up, rather than resolving inside a loop over the remote files
+                                        Set<String> remoteFiles = new HashSet<String>(remotelyUpdatedFiles);
+                                        for (String localFile : updatedFiles) {
+                                            String remoteFile = resolveRemoteFilePath(localFile, jmxConnection);
+                                            if (remoteFile != null && remoteFiles.contains(remoteFile))
+                                                conflictFiles.add(new Pair(localFile, remoteFile));
                                         }
                                         // Its very unlikely that conflictFiles will be empty at this point
                                         if (!conflictFiles.isEmpty()) {
@@ -1500,21 +1517,29 @@ public class WebSphereServerBehaviour extends ServerBehaviourDelegate implements
                                 ArrayList<String> updatedRemoteFiles = new ArrayList<String>(updatedFiles.size());
                                 ArrayList<String> deletedRemoteFiles = new ArrayList<String>(deletedFiles.size());
 
+                                // files in the user directory are uploaded together in one archive
+                                List<File> archiveFiles = new ArrayList<File>(updatedFiles.size());
                                 for (String file : updatedFiles) {
                                     File f = new File(file);
                                     String remotePath = file.replace("\\", "/").replace(localUserDir, remoteUserPath);
-                                    jmxConnection.uploadFile(f, remotePath, false);
+                                    if (remoteUserPath != null && file.replace("\\", "/").startsWith(localUserDir + "/"))
+                                        archiveFiles.add(f);
+                                    else
+                                        jmxConnection.uploadFile(f, remotePath, false);
                                     updatedRemoteFiles.add(remotePath);
                                 }
+                                uploadConfigFiles(archiveFiles, localUserDir, remoteUserPath, jmxConnection);
 
                                 //delete the files on remote server
+                                List<String> remoteFilesToDelete = new ArrayList<String>(deletedFiles.size());
                                 for (String file : deletedFiles) {
                                     String remotePath = file.replace("\\", "/").replace(localUserDir, remoteUserPath);
                                     if (remotePath.startsWith(remoteUserPath)) {
-                                        jmxConnection.deleteFile(remotePath);
+                                        remoteFilesToDelete.add(remotePath);
                                     }
                                     deletedRemoteFiles.add(remotePath);
                                 }
+                                deleteRemoteConfigFiles(remoteFilesToDelete, jmxConnection);
 
                                 notifyChanges(jmxConnection, updatedRemoteFiles, deletedRemoteFiles);
 
@@ -1566,12 +1591,14 @@ public class WebSphereServerBehaviour extends ServerBehaviourDelegate implements
                 Trace.logError("Exception when syncing server config", e);
                 configSyncInfo = null;
                 remoteConfigSyncInfo = null;
+                configSyncDigests = null;
                 return new Status(IStatus.ERROR, Activator.PLUGIN_ID, Messages.publishConfigSyncError, e);
             }
         }
 
         saveProperties(configSyncInfo, CONFIG_SYNC_FILENAME);
         saveProperties(remoteConfigSyncInfo, REMOTE_CONFIG_SYNC_FILENAME);
+        FileUtil.saveCachedProperties(configSyncDigests, getTempDirectory().append(CONFIG_SYNC_DIGEST_FILENAME));
 
         return new Status(IStatus.OK, Activator.PLUGIN_ID, Messages.publishConfigSyncSuccess);
 
@@ -1594,12 +1621,108 @@ public class WebSphereServerBehaviour extends ServerBehaviourDelegate implements
                 Trace.trace(Trace.DETAILS, "File: " + key + " TS: " + s + " cached TS: " + cachedTS);
             if (cachedTS == null || !s.equals(cachedTS)) {
                 configSyncInfo.put(key, s);
-                if (updatedFileList != null)
+                // a new timestamp doesn't mean new content, so only report the file if its digest changed too
+                if (isContentChanged(file, key) && updatedFileList != null)
                     updatedFileList.add(key);
             }
         }
     }
 
+    /**
+     * Returns true if the content of the given file differs from the content it had at the last
+     * config sync, and caches the digest of its current content.
+     */
+    private boolean isContentChanged(File file, String key) {
+        if (configSyncDigests == null)
+            return true;
+
+        String digest = null;
+        try {
+            if (file.isFile())
+                digest = FileUtil.getFileDigest(file);
+        } catch (IOException e) {
+            if (Trace.ENABLED)
+                Trace.trace(Trace.WARNING, "Could not compute the digest of configuration file: " + key, e);
+        }
+
+        if (digest == null) {
+            configSyncDigests.remove(key);
+            return true;
+        }
+
+        String cachedDigest = (String) configSyncDigests.put(key, digest);
+        if (digest.equals(cachedDigest)) {
+            if (Trace.ENABLED)
+                Trace.trace(Trace.DETAILS, "File: " + key + " has a new timestamp but its content has not changed");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Upload the given configuration files, which are all in the local user directory, to the
+     * remote user directory. More than one file is uploaded as a single archive that the server
+     * expands in place.
+     */
+    private void uploadConfigFiles(List<File> files, String localUserDir, String remoteUserPath, JMXConnection jmx) throws Exception {
+        if (files.size() > 1) {
+            File zipFile = getTempDirectory().append(CONFIG_SYNC_ARCHIVE).toFile();
+            try {
+                long time = System.currentTimeMillis();
+                if (FileUtil.zipFiles(new File(localUserDir), files, zipFile.getPath())) {
+                    jmx.uploadFile(zipFile, remoteUserPath, true);
+                    if (Trace.ENABLED)
+                        Trace.tracePerf("Uploaded " + files.size() + " configuration files", time);
+                    return;
+                }
+            } finally {
+                if (zipFile.exists() && !zipFile.delete()) {
+                    if (Trace.ENABLED)
+                        Trace.trace(Trace.INFO, "Failed to delete temporary file: " + zipFile);
+                }
+            }
+        }
+
+        for (File f : files)
+            jmx.uploadFile(f, f.getPath().replace("\\", "/").replace(localUserDir, remoteUserPath), false);
+    }
+
+    /**
+     * Delete the given remote configuration files, with a single call if there is more than one.
+     * If the single call does not delete everything, the files are deleted one at a time. An
+     * exception is thrown if any file could not be deleted, so that the sync info is reset and
+     * the next sync tries again.
+     */
+    private void deleteRemoteConfigFiles(List<String> remoteFiles, JMXConnection jmx) throws Exception {
+        if (remoteFiles.size() > 1) {
+            try {
+                if (jmx.deleteAll(remoteFiles))
+                    return;
+                if (Trace.ENABLED)
+                    Trace.trace(Trace.WARNING, "Not all remote configuration files were deleted together, deleting them one at a time: " + remoteFiles);
+            } catch (Exception e) {
+                if (Trace.ENABLED)
+                    Trace.trace(Trace.WARNING, "Could not delete the remote configuration files together, deleting them one at a time", e);
+            }
+        }
+
+        Exception failure = null;
+        List<String> failed = new ArrayList<String>();
+        for (String remoteFile : remoteFiles) {
+            try {
+                jmx.deleteFile(remoteFile);
+            } catch (Exception e) {
+                // keep going so that as many files as possible are deleted
+                if (Trace.ENABLED)
+                    Trace.trace(Trace.WARNING, "Could not delete remote configuration file: " + remoteFile, e);
+                failed.add(remoteFile);
+                failure = e;
+            }
+        }
+        if (failure != null)
+            throw new Exception("Failed to delete remote configuration files: " + failed, failure);
+    }
+
     private ArrayList<String> fillRemoteConfigSyncInfo(String[] fileLocations, JMXConnection jmx) {
 
         ArrayList<String> remoteUpdatedFileList = new ArrayList<String>(3);
@@ -1611,32 +1734,77 @@ public class WebSphereServerBehaviour extends ServerBehaviourDelegate implements
         if (fileLocations == null || jmx == null)
             return remoteUpdatedFileList;
 
+        // group the remote files by folder so that the timestamps in each folder are read with one call
+        Map<String, List<String>> folders = new LinkedHashMap<String, List<String>>();
         for (String key : fileLocations) {
             // Update this code if we need to handle config files that aren't located within the server config directory
             // Replace local path with remote path
             key = key.replace("\\", "/");
             if (key.startsWith(localUserDir))
                 key = key.replace(localUserDir, remoteUserPath);
-            String lastModified = null;
+            int index = key.lastIndexOf('/');
+            String folder = index > 0 ? key.substring(0, index) : key;
+            List<String> files = folders.get(folder);
+            if (files == null) {
+                files = new ArrayList<String>();
+                folders.put(folder, files);
+            }
+            files.add(key);
+        }
+
+        for (Map.Entry<String, List<String>> entry : folders.entrySet()) {
+            Map<String, String> timestamps = getRemoteTimestamps(entry.getKey(), entry.getValue(), jmx);
+            for (String key : entry.getValue()) {
+                String lastModified = timestamps.get(key);
+                String cachedTS = remoteConfigSyncInfo.getProperty(key);
+                if (lastModified != null && (cachedTS == null || !lastModified.equals(cachedTS))) {
+                    remoteConfigSyncInfo.put(key, lastModified);
+                    remoteUpdatedFileList.add(key);
+                }
+            }
+        }
+
+        return remoteUpdatedFileList;
+    }
+
+    /**
+     * Returns the last modified times of the given remote files, which are all in the given folder.
+     * If there is more than one file the folder is listed with one call, and only the files that are
+     * not in the listing are looked up one at a time.
+     */
+    private Map<String, String> getRemoteTimestamps(String folder, List<String> files, JMXConnection jmx) {
+        Map<String, String> timestamps = new HashMap<String, String>();
+        if (files.size() > 1) {
+            try {
+                CompositeData[] entries = jmx.getDirectoryEntries(folder, false, "t");
+                if (entries != null) {
+                    for (CompositeData entry : entries) {
+                        String fileName = (String) entry.get("fileName");
+                        Date lastModifiedDate = (Date) entry.get("lastModified");
+                        if (fileName != null && lastModifiedDate != null)
+                            timestamps.put(fileName.replace("\\", "/"), lastModifiedDate.toString());
+                    }
+                }
+            } catch (Exception e) {
+                if (Trace.ENABLED)
+                    Trace.trace(Trace.WARNING, "Couldn't list remote configuration folder: " + folder, e);
+            }
+        }
+
+        for (String key : files) {
+            if (timestamps.containsKey(key))
+                continue;
             try {
                 CompositeData metadata = (CompositeData) jmx.getMetadata(key, "t");
-                Date lastModifiedDate = null;
                 if (metadata != null) {
-                    lastModifiedDate = (Date) metadata.get("lastModified");
-                    lastModified = lastModifiedDate.toString();
+                    Date lastModifiedDate = (Date) metadata.get("lastModified");
+                    timestamps.put(key, lastModifiedDate.toString());
                 }
             } catch (Exception e) {
                 Trace.logError("Couldn't retrieve server user directory using JMX for: " + key, e);
             }
-
-            String cachedTS = remoteConfigSyncInfo.getProperty(key);
-            if (lastModified != null && (cachedTS == null || !lastModified.equals(cachedTS))) {
-                remoteConfigSyncInfo.put(key, lastModified);
-                remoteUpdatedFileList.add(key);
-            }
         }
-
-        return remoteUpdatedFileList;
+        return timestamps;
     }
 
     private String[] getConfigFileLocations(JMXConnection jmx) throws Exception {
@@ -1857,85 +2025,45 @@ public class WebSphereServerBehaviour extends ServerBehaviourDelegate implements
     /**
      * @param delayTime time delay in seconds. A negative number indicates to cancel the job.
      */
-    synchronized void handleAutoConfigSyncJob(int delayTime) {
-        Job[] jobs = Job.getJobManager().find(Constants.JOB_FAMILY);
-        Job syncJob = null;
-        if (jobs != null && jobs.length > 0) {
-            for (Job j : jobs) {
-                if (j instanceof AutoConfigSyncJob) {
-                    if (Trace.ENABLED)
-                        Trace.trace(Trace.INFO, "Reuse Auto Config Sync Job");
-                    syncJob = j;
-                    break;
-                }
-            }
-        }
+    void handleAutoConfigSyncJob(int delayTime) {
         if (delayTime < 0) {
-            if (syncJob != null) {
-                if (Trace.ENABLED)
-                    Trace.trace(Trace.INFO, "Cancel Auto Config Sync Job");
-                syncJob.cancel();
-            }
+            ConfigSyncScheduler.cancel(this);
             return;
         }
-
-        if (syncJob == null) {
-            if (Trace.ENABLED)
-                Trace.trace(Trace.INFO, "Create a new Auto Config Sync Job");
-            syncJob = new AutoConfigSyncJob();
-        }
-        int state = syncJob.getState();
-        if (state == Job.SLEEPING) {
-            if (Trace.ENABLED)
-                Trace.trace(Trace.INFO, "Reschedule Auto Config Sync Job");
-            syncJob.wakeUp(delayTime * 1000);
-        } else if (state != Job.WAITING) {
-            if (Trace.ENABLED)
-                Trace.trace(Trace.INFO, "Schedule Auto Config Sync Job");
-            syncJob.schedule(delayTime * 1000);
-        }
+        ConfigSyncScheduler.schedule(this, delayTime * 1000L);
     }
 
-    public class AutoConfigSyncJob extends Job {
-        public AutoConfigSyncJob() {
-            super("WebSphere Configuration Sync Job");
-        }
-
-        @Override
-        protected IStatus run(IProgressMonitor monitor) {
-            if (Trace.ENABLED)
-                Trace.trace(Trace.INFO, "Auto Config Sync job starting");
-
-            if (monitor.isCanceled())
-                return Status.CANCEL_STATUS;
-
-            if (getServer().getServerState() != IServer.STATE_STARTED)
-                return Status.OK_STATUS;
+    /**
+     * Sync the server configuration, called from the scheduled config sync job.
+     */
+    IStatus autoConfigSync(IProgressMonitor monitor) {
+        if (Trace.ENABLED)
+            Trace.trace(Trace.INFO, "Auto Config Sync job starting");
 
-            JMXConnection jmxConnection = null;
-            IStatus status;
-            try {
-                jmxConnection = getWebSphereServer().createJMXConnection();
-                status = syncConfig(jmxConnection);
-            } catch (Exception e) {
-                Trace.logError("Exception while syncing server config", e);
-                status = new Status(IStatus.ERROR, Activator.PLUGIN_ID, Messages.publishConfigSyncError, e);
-            } finally {
-                if (jmxConnection != null)
-                    jmxConnection.disconnect();
-            }
+        if (monitor.isCanceled())
+            return Status.CANCEL_STATUS;
 
-            if (status.getSeverity() != IStatus.ERROR && status.getSeverity() != IStatus.CANCEL) {
-                setWebSphereServerPublishState(IServer.PUBLISH_STATE_NONE);
-            }
+        if (getServer().getServerState() != IServer.STATE_STARTED)
+            return Status.OK_STATUS;
 
-            return status;
+        JMXConnection jmxConnection = null;
+        IStatus status;
+        try {
+            jmxConnection = getWebSphereServer().createJMXConnection();
+            status = syncConfig(jmxConnection);
+        } catch (Exception e) {
+            Trace.logError("Exception while syncing server config", e);
+            status = new Status(IStatus.ERROR, Activator.PLUGIN_ID, Messages.publishConfigSyncError, e);
+        } finally {
+            if (jmxConnection != null)
+                jmxConnection.disconnect();
         }
 
-        @Override
-        public boolean belongsTo(Object family) {
-            return Constants.JOB_FAMILY.equals(family);
+        if (status.getSeverity() != IStatus.ERROR && status.getSeverity() != IStatus.CANCEL) {
+            setWebSphereServerPublishState(IServer.PUBLISH_STATE_NONE);
         }
+
+        return status;
     }
 
     @Override
@@ -2298,6 +2426,14 @@ public class WebSphereServerBehaviour extends ServerBehaviourDelegate implements
      * @throws Exception
      */
     public String resolveConfigVar(String var, JMXConnection jmx) throws Exception {
+        // connections that share a connector also share the variables resolved over it
+        Map<String, String> sharedVars = jmx.getConfigVarCache();
+        if (sharedVars != null) {
+            String val = sharedVars.get(var);
+            if (val != null)
+                return val;
+        }
+
         String host = jmx.getHost();
         String port = jmx.getPort();
         String key = (host == null || port == null) ? null : host + ":" + port + ":" + var;
@@ -2323,6 +2459,8 @@ public class WebSphereServerBehaviour extends ServerBehaviourDelegate implements
             if (key != null) {
                 remoteConfigVarMap.put(key, path);
             }
+            if (sharedVars != null)
+                sharedVars.put(var, path);
             return path;
         }
     }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2018 IBM Corporation and others.
+ * Copyright (c) 2011, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -43,7 +43,7 @@ import com.ibm.ws.st.core.internal.config.Bootstrap;
 import com.ibm.ws.st.core.internal.config.ConfigVars;
 import com.ibm.ws.st.core.internal.config.ConfigurationDropinsFolder;
 import com.ibm.ws.st.core.internal.config.ConfigurationFile;
-import com.ibm.ws.st.core.internal.config.ConfigurationIncludeFilter;
+import com.ibm.ws.st.core.internal.config.ConfigurationIncludeGraph;
 import com.ibm.ws.st.core.internal.config.ExtendedConfigFile;
 import com.ibm.ws.st.core.internal.config.JVMOptions;
 import com.ibm.ws.st.core.internal.config.SchemaHelper;
@@ -69,6 +69,7 @@ public class WebSphereServerInfo implements IMetadataGenerator {
     private final WebSphereRuntime runtime;
     private ConfigurationFile file;
     private Map<URI, ConfigurationFile> map;
+    private ConfigurationIncludeGraph includeGraph;
     private long lastUpdate = 0;
 
     private final Object infoLock;
@@ -191,6 +192,17 @@ public class WebSphereServerInfo implements IMetadataGenerator {
      * @return <code>true</code> if the cache was affected, and <code>false</code> otherwise
      */
     public boolean updateCache() {
+        return updateCache(true);
+    }
+
+    /**
+     * Refresh the server's configuration cache.
+     *
+     * @param fireEvent <code>true</code> to fire a change event if anything changed, or <code>false</code>
+     *            if the caller will fire its own events, e.g. once for a batch of servers
+     * @return <code>true</code> if the cache was affected, and <code>false</code> otherwise
+     */
+    public boolean updateCache(boolean fireEvent) {
         boolean changed = false;
 
         // Synchronizing this block since the file, jvmOptions and serverEnv objects are being
@@ -206,8 +218,8 @@ public class WebSphereServerInfo implements IMetadataGenerator {
 
             // we could have updated the configuration cache in a different
             // thread, e.g. validation, so we check to see if the configuration
-            // file is newer than the last update time stamp
-            else if (file.isNewerThan(lastUpdate, true))
+            // was reloaded since the last update time stamp
+            else if (includeGraph != null && includeGraph.getBuildTime() > lastUpdate)
                 changed = true;
 
             lastUpdate = System.currentTimeMillis();
@@ -250,7 +262,7 @@ public class WebSphereServerInfo implements IMetadataGenerator {
 
         // This is purposely left unsynchronized since server changed events can trigger
         // time-consuming operations and we don't need to block during those operations.
-        if (changed) {
+        if (changed && fireEvent) {
             ServerListenerUtil.getInstance().fireServerChangedEvent(this);
         }
 
@@ -259,15 +271,10 @@ public class WebSphereServerInfo implements IMetadataGenerator {
 
     private boolean isConfigCacheDirty() {
         synchronized (infoLock) {
-            if (map == null)
+            if (includeGraph == null)
                 return false;
 
-            Collection<ConfigurationFile> files = map.values();
-            for (ConfigurationFile file : files) {
-                if (file.hasChanged() || file.hasOutOfSyncLocalIncludes())
-                    return true;
-            }
-            return false;
+            return includeGraph.isDirty();
         }
     }
 
@@ -372,6 +379,12 @@ public class WebSphereServerInfo implements IMetadataGenerator {
             if (map != null && !isConfigCacheDirty())
                 return false;
 
+            if (includeGraph != null) {
+                if (Trace.ENABLED_DETAILS)
+                    Trace.trace(Trace.DETAILS, "Configuration changed for " + serverName + ": " + includeGraph.getChangedFiles(includeGraph.getBuildTime()));
+                includeGraph.dispose();
+            }
+
             // TODO incremental refresh - should only reload parts of the config tree
             // from changed files and down
             try {
@@ -380,16 +393,11 @@ public class WebSphereServerInfo implements IMetadataGenerator {
                 URI configRoot = path.append(Constants.SERVER_XML).toFile().toURI();
 
                 map = new HashMap<URI, ConfigurationFile>(4);
+                includeGraph = null;
                 file = new ConfigurationFile(configRoot, userDir, this);
 
-                List<ConfigurationFile> files = new ArrayList<ConfigurationFile>();
-                final ConfigurationIncludeFilter includeFilter = new ConfigurationIncludeFilter();
-                file.getAllConfigFiles(files, includeFilter);
-
-                for (ConfigurationFile cf : files) {
-                    URI uri = URIUtil.getCanonicalURI(cf.getURI());
-                    map.put(uri, cf);
-                }
+                includeGraph = new ConfigurationIncludeGraph(file, this);
+                map = includeGraph.getFileMap();
             } catch (IOException ioe) {
                 Trace.logError("Error updating server cache configuration: " + serverName, ioe);
             }
@@ -0,0 +1,605 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package com.ibm.ws.st.core.internal;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Creates zip archives from files on disk. Entries are read and compressed in parallel and
+ * then written to the output stream in order, so the archive can be written to any stream.
+ *
+ * Entries that are already compressed (archives and images) are stored rather than deflated.
+ * Large entries are compressed on the writing thread so that memory use stays bounded.
+ */
+public class ZipPackager {
+
+    public static final String ZIP_THREADS_PROPERTY = "com.ibm.ws.st.zipThreads";
+
+    private static final Set<String> STORED_EXTENSIONS = new HashSet<String>(Arrays.asList("jar", "war", "ear", "rar", "eba", "esa", "zip", "gz",
+                                                                                           "tgz", "bz2", "xz", "7z", "png", "jpg", "jpeg", "gif",
+                                                                                           "ico", "webp", "mp3", "mp4", "woff", "woff2"));
+
+    // entries larger than this are compressed as they are written instead of in memory
+    private static final long MAX_BUFFERED_ENTRY = 4 * 1024 * 1024;
+
+    // the archive is written in the classic zip format, larger archives use ZipOutputStream
+    private static final long ZIP32_LIMIT = 0xFFFFFFFFL;
+    private static final int ZIP32_MAX_ENTRIES = 0xFFFF;
+
+    private static final int LOCAL_HEADER_SIG = 0x04034b50;
+    private static final int DATA_DESCRIPTOR_SIG = 0x08074b50;
+    private static final int CENTRAL_HEADER_SIG = 0x02014b50;
+    private static final int END_SIG = 0x06054b50;
+    private static final int VERSION = 20;
+    private static final int FLAG_DATA_DESCRIPTOR = 0x08;
+    private static final int FLAG_UTF8 = 0x800;
+
+    private static ForkJoinPool pool;
+
+    private final int level;
+    private final boolean storeCompressed;
+
+    /**
+     * Create a packager that uses the default compression level and stores entries that are
+     * already compressed.
+     */
+    public ZipPackager() {
+        this(Deflater.DEFAULT_COMPRESSION, true);
+    }
+
+    /**
+     * Create a packager.
+     *
+     * @param level the compression level, see {@link Deflater}
+     * @param storeCompressed <code>true</code> to store entries that are already compressed, such as
+     *            jars and images, instead of deflating them again
+     */
+    public ZipPackager(int level, boolean storeCompressed) {
+        this.level = level;
+        this.storeCompressed = storeCompressed;
+    }
+
+    private static synchronized ForkJoinPool getPool() {
+        if (pool == null)
+            pool = new ForkJoinPool(getThreadCount());
+        return pool;
+    }
+
+    /**
+     * Shut down the shared compression pool.
+     */
+    public static synchronized void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+            pool = null;
+        }
+    }
+
+    /**
+     * Zip the contents of the given folder into a new file.
+     *
+     * @param folder the folder to zip, entry names are relative to it
+     * @param zipFile the zip file to create
+     * @throws IOException if the archive could not be written
+     */
+    public void zipDirectory(File folder, File zipFile) throws IOException {
+        List<File> files = new ArrayList<File>();
+        collectFiles(folder, files);
+        zipFiles(folder, files, zipFile);
+    }
+
+    /**
+     * Zip the given files into a new file.
+     *
+     * @param root the root folder for the zip structure, must be a parent of all of the files
+     * @param files the files to add, folders are ignored
+     * @param zipFile the zip file to create
+     * @throws IOException if the archive could not be written
+     */
+    public void zipFiles(File root, Collection<File> files, File zipFile) throws IOException {
+        OutputStream out = new BufferedOutputStream(new FileOutputStream(zipFile), 65536);
+        try {
+            write(root, files, out);
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Write a zip archive of the given files to a stream. The stream is not closed.
+     *
+     * @param root the root folder for the zip structure, must be a parent of all of the files
+     * @param files the files to add, folders are ignored
+     * @param out the stream to write to
+     * @throws IOException if the archive could not be written
+     */
+    public void write(File root, Collection<File> files, OutputStream out) throws IOException {
+        long time = System.currentTimeMillis();
+        String rootPath = root.getAbsolutePath();
+        List<File> entries = new ArrayList<File>(files.size());
+        long totalSize = 0;
+        for (File f : files) {
+            if (f.isFile()) {
+                entries.add(f);
+                totalSize += f.length();
+            }
+        }
+
+        if (entries.size() >= ZIP32_MAX_ENTRIES || totalSize >= ZIP32_LIMIT) {
+            if (Trace.ENABLED)
+                Trace.trace(Trace.INFO, "Archive of " + entries.size() + " file(s) and " + totalSize + " bytes needs zip64, zipping sequentially");
+            writeSequential(rootPath, entries, out);
+        } else {
+            writeParallel(rootPath, entries, out);
+        }
+        if (Trace.ENABLED)
+            Trace.tracePerf("Zipped " + entries.size() + " file(s), " + totalSize + " bytes", time);
+    }
+
+    private void writeParallel(String rootPath, List<File> files, OutputStream out) throws IOException {
+        ForkJoinPool executor = getPool();
+        int window = executor.getParallelism() * 2;
+        CountingOutputStream cout = new CountingOutputStream(out);
+        List<CentralEntry> central = new ArrayList<CentralEntry>(files.size());
+        ArrayDeque<Future<CompressedEntry>> pending = new ArrayDeque<Future<CompressedEntry>>();
+
+        try {
+            int next = 0;
+            while (next < files.size() || !pending.isEmpty()) {
+                // keep a bounded number of entries in flight so that memory use stays flat
+                while (next < files.size() && pending.size() < window) {
+                    final File file = files.get(next++);
+                    final String name = getEntryName(rootPath, file);
+                    if (file.length() > MAX_BUFFERED_ENTRY) {
+                        pending.add(new ImmediateFuture(new CompressedEntry(file, name)));
+                    } else {
+                        pending.add(executor.submit(new Callable<CompressedEntry>() {
+                            @Override
+                            public CompressedEntry call() throws IOException {
+                                return compress(file, name);
+                            }
+                        }));
+                    }
+                }
+
+                CompressedEntry entry = getResult(pending.poll());
+                if (entry.data == null)
+                    central.add(writeStreamed(cout, entry));
+                else
+                    central.add(writeBuffered(cout, entry));
+            }
+        } finally {
+            for (Future<CompressedEntry> f : pending)
+                f.cancel(true);
+        }
+
+        long centralStart = cout.getCount();
+        for (CentralEntry entry : central)
+            writeCentralHeader(cout, entry);
+        long centralSize = cout.getCount() - centralStart;
+        if (centralStart >= ZIP32_LIMIT || centralSize >= ZIP32_LIMIT)
+            throw new IOException("Archive exceeded the zip size limit while writing");
+
+        writeInt(cout, END_SIG);
+        writeShort(cout, 0);
+        writeShort(cout, 0);
+        writeShort(cout, central.size());
+        writeShort(cout, central.size());
+        writeInt(cout, centralSize);
+        writeInt(cout, centralStart);
+        writeShort(cout, 0);
+        cout.flush();
+    }
+
+    private static CompressedEntry getResult(Future<CompressedEntry> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Zip packaging was interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException)
+                throw (IOException) cause;
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Read and compress a single entry in memory. Runs on the compression pool.
+     */
+    CompressedEntry compress(File file, String name) throws IOException {
+        CompressedEntry entry = new CompressedEntry(file, name);
+        byte[] content = readFully(file);
+        CRC32 crc = new CRC32();
+        crc.update(content, 0, content.length);
+        entry.crc = crc.getValue();
+        entry.size = content.length;
+
+        if (storeCompressed && isCompressed(name)) {
+            entry.method = ZipEntry.STORED;
+            entry.data = content;
+            entry.compressedSize = content.length;
+            return entry;
+        }
+
+        Deflater deflater = new Deflater(level, true);
+        try {
+            deflater.setInput(content);
+            deflater.finish();
+            ByteArrayOutputStream bout = new ByteArrayOutputStream(Math.max(64, content.length / 2));
+            byte[] buf = new byte[8192];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buf);
+                bout.write(buf, 0, n);
+            }
+            // don't pay for decompression when deflate did not help
+            if (bout.size() >= content.length) {
+                entry.method = ZipEntry.STORED;
+                entry.data = content;
+                entry.compressedSize = content.length;
+            } else {
+                entry.method = ZipEntry.DEFLATED;
+                entry.data = bout.toByteArray();
+                entry.compressedSize = entry.data.length;
+            }
+        } finally {
+            deflater.end();
+        }
+        return entry;
+    }
+
+    private static CentralEntry writeBuffered(CountingOutputStream out, CompressedEntry entry) throws IOException {
+        CentralEntry c = new CentralEntry(entry, out.getCount(), 0);
+        writeLocalHeader(out, c);
+        out.write(entry.data);
+        // the data is no longer needed once it has been written
+        entry.data = null;
+        return c;
+    }
+
+    private CentralEntry writeStreamed(CountingOutputStream out, CompressedEntry entry) throws IOException {
+        entry.method = storeCompressed && isCompressed(entry.name) ? ZipEntry.STORED : ZipEntry.DEFLATED;
+        if (entry.method == ZipEntry.STORED) {
+            // stored entries need the crc up front
+            entry.crc = getCrc(entry.file);
+            entry.size = entry.file.length();
+            entry.compressedSize = entry.size;
+            CentralEntry c = new CentralEntry(entry, out.getCount(), 0);
+            writeLocalHeader(out, c);
+            copy(entry.file, out, null);
+            return c;
+        }
+
+        CentralEntry c = new CentralEntry(entry, out.getCount(), FLAG_DATA_DESCRIPTOR);
+        writeLocalHeader(out, c);
+        long start = out.getCount();
+        CRC32 crc = new CRC32();
+        Deflater deflater = new Deflater(level, true);
+        try {
+            DeflaterOutputStream dout = new DeflaterOutputStream(new NonClosingOutputStream(out), deflater, 65536);
+            entry.size = copy(entry.file, dout, crc);
+            dout.finish();
+        } finally {
+            deflater.end();
+        }
+        entry.crc = crc.getValue();
+        entry.compressedSize = out.getCount() - start;
+        writeInt(out, DATA_DESCRIPTOR_SIG);
+        writeInt(out, entry.crc);
+        writeInt(out, entry.compressedSize);
+        writeInt(out, entry.size);
+        return c;
+    }
+
+    private static void writeLocalHeader(OutputStream out, CentralEntry c) throws IOException {
+        boolean descriptor = (c.flags & FLAG_DATA_DESCRIPTOR) != 0;
+        writeInt(out, LOCAL_HEADER_SIG);
+        writeShort(out, VERSION);
+        writeShort(out, c.flags);
+        writeShort(out, c.entry.method);
+        writeInt(out, c.dosTime);
+        writeInt(out, descriptor ? 0 : c.entry.crc);
+        writeInt(out, descriptor ? 0 : c.entry.compressedSize);
+        writeInt(out, descriptor ? 0 : c.entry.size);
+        writeShort(out, c.nameBytes.length);
+        writeShort(out, 0);
+        out.write(c.nameBytes);
+    }
+
+    private static void writeCentralHeader(OutputStream out, CentralEntry c) throws IOException {
+        writeInt(out, CENTRAL_HEADER_SIG);
+        writeShort(out, VERSION);
+        writeShort(out, VERSION);
+        writeShort(out, c.flags);
+        writeShort(out, c.entry.method);
+        writeInt(out, c.dosTime);
+        writeInt(out, c.entry.crc);
+        writeInt(out, c.entry.compressedSize);
+        writeInt(out, c.entry.size);
+        writeShort(out, c.nameBytes.length);
+        writeShort(out, 0);
+        writeShort(out, 0);
+        writeShort(out, 0);
+        writeShort(out, 0);
+        writeInt(out, 0);
+        writeInt(out, c.offset);
+        out.write(c.nameBytes);
+    }
+
+    /**
+     * Fallback for archives that need zip64 extensions.
+     */
+    private void writeSequential(String rootPath, List<File> files, OutputStream out) throws IOException {
+        ZipOutputStream zos = new ZipOutputStream(new NonClosingOutputStream(out));
+        zos.setLevel(level);
+        for (File file : files) {
+            String name = getEntryName(rootPath, file);
+            ZipEntry zipEntry = new ZipEntry(name);
+            zipEntry.setTime(file.lastModified());
+            if (storeCompressed && isCompressed(name)) {
+                zipEntry.setMethod(ZipEntry.STORED);
+                zipEntry.setSize(file.length());
+                zipEntry.setCompressedSize(file.length());
+                zipEntry.setCrc(getCrc(file));
+            }
+            zos.putNextEntry(zipEntry);
+            copy(file, zos, null);
+            zos.closeEntry();
+        }
+        zos.finish();
+    }
+
+    /**
+     * Returns <code>true</code> if the entry is a format that is already compressed.
+     *
+     * @param name an entry name
+     * @return <code>true</code> if deflating the entry is unlikely to reduce its size
+     */
+    public static boolean isCompressed(String name) {
+        int ind = name.lastIndexOf('.');
+        if (ind < 0 || ind < name.lastIndexOf('/'))
+            return false;
+        return STORED_EXTENSIONS.contains(name.substring(ind + 1).toLowerCase(Locale.ENGLISH));
+    }
+
+    private static String getEntryName(String rootPath, File file) {
+        String absPath = file.getAbsolutePath();
+        return absPath.substring(rootPath.length() + 1).replace("\\", "/");
+    }
+
+    private static void collectFiles(File file, List<File> files) {
+        if (file.isFile()) {
+            files.add(file);
+        } else if (file.isDirectory()) {
+            File[] children = file.listFiles();
+            if (children != null) {
+                for (File f : children)
+                    collectFiles(f, files);
+            }
+        }
+    }
+
+    private static byte[] readFully(File file) throws IOException {
+        InputStream in = new FileInputStream(file);
+        try {
+            ByteArrayOutputStream bout = new ByteArrayOutputStream((int) Math.max(32, file.length()));
+            byte[] buf = new byte[8192];
+            int n;
+            while ((n = in.read(buf)) > 0)
+                bout.write(buf, 0, n);
+            return bout.toByteArray();
+        } finally {
+            in.close();
+        }
+    }
+
+    private static long copy(File file, OutputStream out, CRC32 crc) throws IOException {
+        InputStream in = new FileInputStream(file);
+        try {
+            byte[] buf = new byte[65536];
+            long total = 0;
+            int n;
+            while ((n = in.read(buf)) > 0) {
+                out.write(buf, 0, n);
+                if (crc != null)
+                    crc.update(buf, 0, n);
+                total += n;
+            }
+            return total;
+        } finally {
+            in.close();
+        }
+    }
+
+    private static long getCrc(File file) throws IOException {
+        InputStream in = new FileInputStream(file);
+        try {
+            CRC32 crc = new CRC32();
+            byte[] buf = new byte[65536];
+            int n;
+            while ((n = in.read(buf)) > 0)
+                crc.update(buf, 0, n);
+            return crc.getValue();
+        } finally {
+            in.close();
+        }
+    }
+
+    private static void writeShort(OutputStream out, int v) throws IOException {
+        out.write(v & 0xff);
+        out.write((v >>> 8) & 0xff);
+    }
+
+    private static void writeInt(OutputStream out, long v) throws IOException {
+        out.write((int) (v & 0xff));
+        out.write((int) ((v >>> 8) & 0xff));
+        out.write((int) ((v >>> 16) & 0xff));
+        out.write((int) ((v >>> 24) & 0xff));
+    }
+
+    static int toDosTime(long time) {
+        Calendar cal = Calendar.getInstance();
+        cal.setTimeInMillis(time);
+        int year = cal.get(Calendar.YEAR);
+        if (year < 1980)
+            return (1 << 21) | (1 << 16);
+        return (year - 1980) << 25 | (cal.get(Calendar.MONTH) + 1) << 21 | cal.get(Calendar.DAY_OF_MONTH) << 16
+               | cal.get(Calendar.HOUR_OF_DAY) << 11 | cal.get(Calendar.MINUTE) << 5 | cal.get(Calendar.SECOND) >> 1;
+    }
+
+    private static int getThreadCount() {
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        String prop = System.getProperty(ZIP_THREADS_PROPERTY);
+        if (prop != null && !prop.isEmpty()) {
+            try {
+                threads = Math.max(1, Integer.parseInt(prop));
+            } catch (NumberFormatException e) {
+                Trace.logError("The zip thread count specified is not valid: " + prop + ". The default will be used: " + threads, e);
+            }
+        }
+        return threads;
+    }
+
+    static class CompressedEntry {
+        final File file;
+        final String name;
+        int method;
+        long crc;
+        long size;
+        long compressedSize;
+        byte[] data;
+
+        CompressedEntry(File file, String name) {
+            this.file = file;
+            this.name = name;
+        }
+    }
+
+    private static class CentralEntry {
+        final CompressedEntry entry;
+        final long offset;
+        final int flags;
+        final int dosTime;
+        final byte[] nameBytes;
+
+        CentralEntry(CompressedEntry entry, long offset, int flags) throws IOException {
+            if (offset >= ZIP32_LIMIT)
+                throw new IOException("Archive exceeded the zip size limit while writing");
+            this.entry = entry;
+            this.offset = offset;
+            this.flags = flags | FLAG_UTF8;
+            this.dosTime = toDosTime(entry.file.lastModified());
+            this.nameBytes = entry.name.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    private static class ImmediateFuture implements Future<CompressedEntry> {
+        private final CompressedEntry entry;
+
+        ImmediateFuture(CompressedEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return false;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+
+        @Override
+        public boolean isDone() {
+            return true;
+        }
+
+        @Override
+        public CompressedEntry get() {
+            return entry;
+        }
+
+        @Override
+        public CompressedEntry get(long timeout, TimeUnit unit) {
+            return entry;
+        }
+    }
+
+    private static class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+
+    private static class NonClosingOutputStream extends FilterOutputStream {
+        NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2018 IBM Corporation and others.
+ * Copyright (c) 2011, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -27,7 +27,6 @@ import org.eclipse.wst.xml.core.internal.contentmodel.CMDataType;
 
 import com.ibm.ws.st.core.internal.Constants;
 import com.ibm.ws.st.core.internal.Messages;
-import com.ibm.ws.st.core.internal.expression.Expression;
 
 /**
  * Container for configuration variables.
@@ -419,127 +418,8 @@ public class ConfigVars {
     }
 
     public void resolve(String value, ResolvedValueInfo info, String expectedTypeName) {
-        StringBuilder builder = new StringBuilder();
-        int offset = 0;
-        int start = value.indexOf("${");
-
         info.reset();
-        while (start >= 0) {
-            int end = value.indexOf("}", start);
-            if (end >= 0) {
-                builder.append(value, offset, start);
-                String varName = value.substring(start + 2, end);
-                int varOffset = start + 2;
-                Expression expression = null;
-
-                // Check for list
-                if (varName.startsWith(LIST_START) && varName.endsWith(LIST_END)) {
-                    varName = varName.substring(LIST_START.length(), varName.length() - 1);
-                    varOffset = varOffset + LIST_START.length();
-                } else {
-                    expression = new Expression(varName);
-                }
-
-                // Check for expressions
-                if (expression != null && expression.getOperator() != null) {
-
-                    // Detect if there is a chained expression
-                    Expression chainedExpression = new Expression(expression.getRightOperand());
-                    if (chainedExpression.getOperator() != null) {
-                        info.setInvalidExpression(true);
-                    } else {
-                        String expressionResult = calculateExpression(expression, info);
-                        if (expressionResult != null) {
-                            builder.append(expressionResult);
-                        } else {
-                            builder.append(varName);
-                        }
-                    }
-                } else {
-                    String varValue = getValue(varName);
-                    if (varValue != null) {
-                        builder.append(varValue);
-                        if (expectedTypeName != null) {
-                            if (!checkType(getType(varName), expectedTypeName)) {
-                                info.setTypeMismatch(true);
-                            }
-                        }
-                    } else {
-                        info.addUndefinedReference(varName, varOffset);
-                        builder.append(value, start, end + 1);
-                    }
-                }
-
-            } else {
-                break;
-            }
-            offset = end + 1;
-            start = value.indexOf("${", offset);
-        }
-        if (offset < value.length()) {
-            builder.append(value, offset, value.length());
-        }
-        info.setResolvedValue(builder.toString());
-    }
-
-    private String calculateExpression(Expression expression, ResolvedValueInfo info) {
-
-        long leftOperandLongValue = 0;
-        long rightOperandLongValue = 0;
-
-        // Obtain left operand
-        String leftOperand = expression.getLeftOperand();
-        if (leftOperand.length() > 0) {
-            if (!LONG_TYPES.contains(computeType(leftOperand))) {
-                leftOperand = getValue(leftOperand);
-            }
-            if (leftOperand == null) {
-                info.setExpressionLeftOperandError(ExpressionOperandError.UNDEFINED);
-            } else {
-                try {
-                    leftOperandLongValue = Long.parseLong(leftOperand);
-                } catch (NumberFormatException numberFormatException) {
-                    info.setExpressionLeftOperandError(ExpressionOperandError.INVALID_VALUE);
-                }
-            }
-        } else {
-            info.setExpressionLeftOperandError(ExpressionOperandError.MISSING);
-        }
-
-        // Obtain right operand
-        String rightOperand = expression.getRightOperand();
-        if (rightOperand.length() > 0) {
-            if (!LONG_TYPES.contains(computeType(rightOperand))) {
-                rightOperand = getValue(rightOperand);
-            }
-
-            if (rightOperand == null) {
-                info.setExpressionRightOperandError(ExpressionOperandError.UNDEFINED);
-            } else {
-                try {
-                    rightOperandLongValue = Long.parseLong(rightOperand);
-                } catch (NumberFormatException numberFormatException) {
-                    info.setExpressionRightOperandError(ExpressionOperandError.INVALID_VALUE);
-                }
-            }
-        } else {
-            info.setExpressionRightOperandError(ExpressionOperandError.MISSING);
-        }
-
-        // If both operands were obtained, return calculated expression
-        if (info.getExpressionLeftOperandError() == null && info.getExpressionRightOperandError() == null) {
-            switch (expression.getOperator()) {
-                case ADDITION:
-                    return Long.toString(leftOperandLongValue + rightOperandLongValue);
-                case SUBTRACTION:
-                    return Long.toString(leftOperandLongValue - rightOperandLongValue);
-                case MULTIPLICATION:
-                    return Long.toString(leftOperandLongValue * rightOperandLongValue);
-                case DIVISION:
-                    return Long.toString(leftOperandLongValue / rightOperandLongValue);
-            }
-        }
-        return null;
+        ConfigVarsTemplate.get(value).resolve(this, info, expectedTypeName);
     }
 
     // Check if the value matches the expected type.
@@ -0,0 +1,299 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package com.ibm.ws.st.core.internal.config;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.ibm.ws.st.core.internal.config.ConfigVars.ExpressionOperandError;
+import com.ibm.ws.st.core.internal.config.ConfigVars.ResolvedValueInfo;
+import com.ibm.ws.st.core.internal.expression.Expression;
+
+/**
+ * A configuration value parsed into literal text, variable references and expressions,
+ * so that resolving it against a set of variables does not have to scan it again.
+ * Templates are immutable and shared through a bounded cache keyed by the raw value, which
+ * drops the least recently used templates when it is full.
+ */
+final class ConfigVarsTemplate {
+
+    private static final int MAX_CACHE_SIZE = 4096;
+
+    // access ordered, so that the values of a large configuration that are resolved over and
+    // over stay cached while values that are no longer used are dropped
+    private static final Map<String, ConfigVarsTemplate> cache = new LinkedHashMap<String, ConfigVarsTemplate>(256, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ConfigVarsTemplate> eldest) {
+            return size() > MAX_CACHE_SIZE;
+        }
+    };
+
+    private final String raw;
+    private final Segment[] segments;
+
+    private ConfigVarsTemplate(String raw, Segment[] segments) {
+        this.raw = raw;
+        this.segments = segments;
+    }
+
+    /**
+     * Returns the template for the given value, parsing it if it is not cached.
+     *
+     * @param value a configuration value
+     * @return the template
+     */
+    static ConfigVarsTemplate get(String value) {
+        ConfigVarsTemplate template;
+        synchronized (cache) {
+            template = cache.get(value);
+        }
+        if (template != null)
+            return template;
+
+        // parse outside of the lock, another thread may cache the same value in the meantime
+        template = parse(value);
+        synchronized (cache) {
+            ConfigVarsTemplate existing = cache.get(value);
+            if (existing != null)
+                return existing;
+            cache.put(value, template);
+        }
+        return template;
+    }
+
+    private static ConfigVarsTemplate parse(String value) {
+        List<Segment> list = new ArrayList<Segment>(3);
+        int offset = 0;
+        int start = value.indexOf("${");
+
+        while (start >= 0) {
+            int end = value.indexOf("}", start);
+            if (end < 0)
+                break;
+
+            if (start > offset)
+                list.add(new Literal(value.substring(offset, start)));
+
+            String varName = value.substring(start + 2, end);
+            int varOffset = start + 2;
+            Expression expression = null;
+
+            // Check for list
+            if (varName.startsWith(ConfigVars.LIST_START) && varName.endsWith(ConfigVars.LIST_END)) {
+                varName = varName.substring(ConfigVars.LIST_START.length(), varName.length() - 1);
+                varOffset = varOffset + ConfigVars.LIST_START.length();
+            } else {
+                expression = new Expression(varName);
+            }
+
+            if (expression != null && expression.getOperator() != null) {
+                // Detect if there is a chained expression
+                boolean chained = new Expression(expression.getRightOperand()).getOperator() != null;
+                list.add(new ExpressionReference(varName, expression, chained));
+            } else {
+                list.add(new VariableReference(varName, varOffset, value.substring(start, end + 1)));
+            }
+
+            offset = end + 1;
+            start = value.indexOf("${", offset);
+        }
+        if (!list.isEmpty() && offset < value.length())
+            list.add(new Literal(value.substring(offset)));
+
+        return new ConfigVarsTemplate(value, list.toArray(new Segment[list.size()]));
+    }
+
+    /**
+     * Resolve the template against the given variables. The info must have been reset.
+     *
+     * @param vars the variables
+     * @param info the resolved value and any problems
+     * @param expectedTypeName the expected type of variable values, or <code>null</code> to not check
+     */
+    void resolve(ConfigVars vars, ResolvedValueInfo info, String expectedTypeName) {
+        // no references, nothing to build
+        if (segments.length == 0) {
+            info.setResolvedValue(raw);
+            return;
+        }
+
+        // the value is a single reference, use the variable's value as is
+        if (segments.length == 1 && segments[0] instanceof VariableReference) {
+            VariableReference ref = (VariableReference) segments[0];
+            String varValue = vars.getValue(ref.name);
+            if (varValue != null) {
+                ref.checkType(vars, info, expectedTypeName);
+                info.setResolvedValue(varValue);
+                return;
+            }
+        }
+
+        StringBuilder builder = new StringBuilder(raw.length() + 32);
+        for (Segment segment : segments)
+            segment.append(vars, info, expectedTypeName, builder);
+        info.setResolvedValue(builder.toString());
+    }
+
+    private static abstract class Segment {
+        abstract void append(ConfigVars vars, ResolvedValueInfo info, String expectedTypeName, StringBuilder builder);
+    }
+
+    private static final class Literal extends Segment {
+        private final String text;
+
+        Literal(String text) {
+            this.text = text;
+        }
+
+        @Override
+        void append(ConfigVars vars, ResolvedValueInfo info, String expectedTypeName, StringBuilder builder) {
+            builder.append(text);
+        }
+    }
+
+    private static final class VariableReference extends Segment {
+        final String name;
+        private final int offset;
+        private final String text;
+
+        VariableReference(String name, int offset, String text) {
+            this.name = name;
+            this.offset = offset;
+            this.text = text;
+        }
+
+        void checkType(ConfigVars vars, ResolvedValueInfo info, String expectedTypeName) {
+            if (expectedTypeName != null && !vars.checkType(vars.getType(name), expectedTypeName))
+                info.setTypeMismatch(true);
+        }
+
+        @Override
+        void append(ConfigVars vars, ResolvedValueInfo info, String expectedTypeName, StringBuilder builder) {
+            String varValue = vars.getValue(name);
+            if (varValue != null) {
+                builder.append(varValue);
+                checkType(vars, info, expectedTypeName);
+            } else {
+                info.addUndefinedReference(name, offset);
+                builder.append(text);
+            }
+        }
+    }
+
+    private static final class ExpressionReference extends Segment {
+        private final String text;
+        private final Expression.Operator operator;
+        private final boolean chained;
+        private final Operand left;
+        private final Operand right;
+
+        ExpressionReference(String text, Expression expression, boolean chained) {
+            this.text = text;
+            this.operator = expression.getOperator();
+            this.chained = chained;
+            this.left = new Operand(expression.getLeftOperand());
+            this.right = new Operand(expression.getRightOperand());
+        }
+
+        @Override
+        void append(ConfigVars vars, ResolvedValueInfo info, String expectedTypeName, StringBuilder builder) {
+            if (chained) {
+                info.setInvalidExpression(true);
+                return;
+            }
+
+            // Obtain left operand
+            long l = 0;
+            ExpressionOperandError error = left.getError(vars);
+            if (error != null)
+                info.setExpressionLeftOperandError(error);
+            else
+                l = left.getValue(vars);
+
+            // Obtain right operand
+            long r = 0;
+            error = right.getError(vars);
+            if (error != null)
+                info.setExpressionRightOperandError(error);
+            else
+                r = right.getValue(vars);
+
+            // If both operands were obtained, append the calculated expression
+            if (info.getExpressionLeftOperandError() != null || info.getExpressionRightOperandError() != null) {
+                builder.append(text);
+                return;
+            }
+
+            switch (operator) {
+                case ADDITION:
+                    builder.append(l + r);
+                    break;
+                case SUBTRACTION:
+                    builder.append(l - r);
+                    break;
+                case MULTIPLICATION:
+                    builder.append(l * r);
+                    break;
+                case DIVISION:
+                    builder.append(l / r);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * An expression operand, either a number or the name of a variable.
+     */
+    private static final class Operand {
+        private final String text;
+        private final boolean isNumber;
+        private final long number;
+
+        Operand(String text) {
+            this.text = text;
+            long l = 0;
+            boolean b = false;
+            try {
+                l = Long.parseLong(text);
+                b = true;
+            } catch (NumberFormatException e) {
+                // a variable name
+            }
+            isNumber = b;
+            number = l;
+        }
+
+        ExpressionOperandError getError(ConfigVars vars) {
+            if (text.isEmpty())
+                return ExpressionOperandError.MISSING;
+            if (isNumber)
+                return null;
+            String value = vars.getValue(text);
+            if (value == null)
+                return ExpressionOperandError.UNDEFINED;
+            try {
+                Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                return ExpressionOperandError.INVALID_VALUE;
+            }
+            return null;
+        }
+
+        // only valid if there is no error
+        long getValue(ConfigVars vars) {
+            return isNumber ? number : Long.parseLong(vars.getValue(text));
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2019 IBM Corporation and others.
+ * Copyright (c) 2011, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -229,6 +229,7 @@ public class ConfigurationFile implements IAdaptable, IConfigurationElement {
 
     protected URI uri;
     protected long lastModified = -1;
+    protected long workspaceStamp = IResource.NULL_STAMP; // only set for server configuration files in the workspace
     protected Document document;
     protected Element serverElement;
     protected IDOMDocument domDocument;
@@ -294,6 +295,11 @@ public class ConfigurationFile implements IAdaptable, IConfigurationElement {
         try {
             File file = new File(uri);
             lastModified = file.lastModified();
+            if (server != null) {
+                IFile ifile = getIFile();
+                if (ifile != null)
+                    workspaceStamp = ifile.getModificationStamp();
+            }
             in = new BufferedInputStream(new FileInputStream(file));
             document = documentLoad(in);
             serverElement = document.getDocumentElement();
@@ -483,12 +489,8 @@ public class ConfigurationFile implements IAdaptable, IConfigurationElement {
             }
 
             // Check for unresolved includes to see if any of them now exist
-            for (String location : unresolvedIncludes) {
-                URI includeURI = (server != null) ? server.resolve(getURI(), location) : getUserDirectory().resolve(getURI(), location);
-                if (includeURI != null && new File(includeURI).exists()) {
-                    return true;
-                }
-            }
+            if (hasOutOfSyncUnresolvedIncludes())
+                return true;
 
             // Check if any config dropins have been added or removed
             if (hasOutOfSyncDropins())
@@ -498,6 +500,35 @@ public class ConfigurationFile implements IAdaptable, IConfigurationElement {
         }
     }
 
+    /**
+     * Check if any of this file's includes that could not be resolved now exist.
+     */
+    private boolean hasOutOfSyncUnresolvedIncludes() {
+        for (URI includeURI : getUnresolvedIncludeURIs()) {
+            if (new File(includeURI).exists()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the locations of this file's includes that could not be resolved, for the
+     * includes whose location is valid.
+     */
+    List<URI> getUnresolvedIncludeURIs() {
+        synchronized (configLock) {
+            getIncludes();
+            List<URI> uris = new ArrayList<URI>(unresolvedIncludes.size());
+            for (String location : unresolvedIncludes) {
+                URI includeURI = (server != null) ? server.resolve(getURI(), location) : getUserDirectory().resolve(getURI(), location);
+                if (includeURI != null)
+                    uris.add(includeURI);
+            }
+            return uris;
+        }
+    }
+
     /**
      * Returns the user directory this config file was loaded from.
      *
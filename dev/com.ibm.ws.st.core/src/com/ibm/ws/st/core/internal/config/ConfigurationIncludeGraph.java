@@ -0,0 +1,381 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package com.ibm.ws.st.core.internal.config;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+
+import com.ibm.ws.st.core.internal.Trace;
+import com.ibm.ws.st.core.internal.URIUtil;
+import com.ibm.ws.st.core.internal.UserDirectory;
+import com.ibm.ws.st.core.internal.WebSphereServerInfo;
+
+/**
+ * The include graph of a server configuration: every configuration file reachable from
+ * the server.xml, the files that include each of them, and the files changed since the
+ * graph was built.
+ *
+ * Changes to files in the workspace are recorded from resource deltas through
+ * {@link #resourceChanged(IPath, boolean)}, so checking the graph does not touch them.
+ * This covers the configuration files, the config dropins folders and the locations of
+ * includes that could not be resolved. Only the files and folders outside of the workspace
+ * are checked with a timestamp each. A file that is changed in the workspace but not
+ * refreshed is seen when it is refreshed.
+ */
+public class ConfigurationIncludeGraph {
+
+    // graphs that contain or watch a location, keyed by canonical path
+    private static final Map<String, Set<ConfigurationIncludeGraph>> registry = new HashMap<String, Set<ConfigurationIncludeGraph>>();
+
+    private static class Node {
+        final ConfigurationFile config;
+        final File file;
+        final boolean inWorkspace;
+        final long lastModified;
+        final Set<URI> includedBy = new HashSet<URI>(2);
+
+        Node(ConfigurationFile config) {
+            this.config = config;
+            this.file = new File(config.getURI());
+            this.lastModified = config.lastModified;
+            // the stamp is only set for files loaded from the user directory project
+            this.inWorkspace = config.workspaceStamp != IResource.NULL_STAMP;
+        }
+    }
+
+    private final ConfigurationFile root;
+    private final Map<URI, Node> nodes = new LinkedHashMap<URI, Node>();
+    private final List<URI> externalFiles = new ArrayList<URI>();
+    private final Map<File, Long> externalDropinFolders = new LinkedHashMap<File, Long>(4);
+    private final List<File> externalUnresolved = new ArrayList<File>(2);
+    private final Set<String> keys = new HashSet<String>();
+    // the files that changed, and when the change was seen
+    private final Map<URI, Long> changes = new LinkedHashMap<URI, Long>(4);
+    private final long buildTime;
+    private boolean disposed;
+
+    /**
+     * Build the include graph for the given configuration root.
+     *
+     * @param root the server configuration root
+     * @param server the server, or <code>null</code> if the root is not associated with a server
+     */
+    public ConfigurationIncludeGraph(ConfigurationFile root, WebSphereServerInfo server) {
+        this.root = root;
+        this.buildTime = System.currentTimeMillis();
+        IPath projectLocation = getProjectLocation(root);
+
+        // record the folder state before the dropins are listed so that a concurrent change is not missed
+        if (server != null && root.isConfigRoot()) {
+            addDropinFolder(server.getConfigDefaultDropinsPath(), projectLocation);
+            addDropinFolder(server.getConfigOverrideDropinsPath(), projectLocation);
+        }
+
+        List<ConfigurationFile> files = new ArrayList<ConfigurationFile>();
+        root.getAllConfigFiles(files, new ConfigurationIncludeFilter());
+        for (ConfigurationFile cf : files) {
+            URI key = getKey(cf.getURI());
+            Node node = new Node(cf);
+            nodes.put(key, node);
+            keys.add(getPath(key));
+            if (!node.inWorkspace)
+                externalFiles.add(key);
+        }
+
+        for (Map.Entry<URI, Node> entry : nodes.entrySet()) {
+            ConfigurationFile config = entry.getValue().config;
+            for (ConfigurationFile child : config.getDefaultDropins())
+                addEdge(entry.getKey(), child);
+            for (ConfigurationFile child : config.getLocalIncludedFiles())
+                addEdge(entry.getKey(), child);
+            for (ConfigurationFile child : config.getOverrideDropins())
+                addEdge(entry.getKey(), child);
+
+            // an include that can't be resolved is a change when the file is created
+            for (URI uri : config.getUnresolvedIncludeURIs()) {
+                File file = new File(uri);
+                if (isInProject(file, projectLocation))
+                    keys.add(getPath(file));
+                else
+                    externalUnresolved.add(file);
+            }
+        }
+
+        register();
+
+        if (Trace.ENABLED_DETAILS)
+            Trace.trace(Trace.DETAILS, "Configuration include graph for " + root.getURI() + ": " + nodes.size() + " file(s), " + externalFiles.size() + " outside the workspace");
+    }
+
+    private void addDropinFolder(IPath path, IPath projectLocation) {
+        if (path == null)
+            return;
+        File folder = path.toFile();
+        if (isInProject(folder, projectLocation))
+            keys.add(getPath(folder));
+        else
+            externalDropinFolders.put(folder, Long.valueOf(folder.lastModified()));
+    }
+
+    private void addEdge(URI parent, ConfigurationFile child) {
+        Node node = nodes.get(getKey(child.getURI()));
+        if (node != null)
+            node.includedBy.add(parent);
+    }
+
+    private static IPath getProjectLocation(ConfigurationFile root) {
+        UserDirectory userDir = root.getUserDirectory();
+        IProject project = userDir == null ? null : userDir.getProject();
+        if (project == null || !project.isAccessible())
+            return null;
+        return project.getLocation();
+    }
+
+    // changes inside the user directory project are delivered as resource deltas
+    private static boolean isInProject(File file, IPath projectLocation) {
+        return projectLocation != null && projectLocation.isPrefixOf(new Path(file.getAbsolutePath()));
+    }
+
+    private static URI getKey(URI uri) {
+        return URIUtil.getCanonicalURI(uri);
+    }
+
+    private static String getPath(URI canonicalURI) {
+        return new File(canonicalURI).getPath();
+    }
+
+    private static String getPath(File file) {
+        try {
+            return file.getCanonicalPath();
+        } catch (IOException e) {
+            return file.getAbsolutePath();
+        }
+    }
+
+    private void register() {
+        synchronized (registry) {
+            for (String key : keys) {
+                Set<ConfigurationIncludeGraph> graphs = registry.get(key);
+                if (graphs == null) {
+                    graphs = Collections.newSetFromMap(new WeakHashMap<ConfigurationIncludeGraph, Boolean>(2));
+                    registry.put(key, graphs);
+                }
+                graphs.add(this);
+            }
+        }
+    }
+
+    /**
+     * Stop tracking changes. Called when the graph is replaced.
+     */
+    public void dispose() {
+        synchronized (registry) {
+            disposed = true;
+            for (String key : keys) {
+                Set<ConfigurationIncludeGraph> graphs = registry.get(key);
+                if (graphs != null) {
+                    graphs.remove(this);
+                    if (graphs.isEmpty())
+                        registry.remove(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * Record a change to a file or folder in the workspace. Called for every resource delta
+     * on a configuration file or folder.
+     *
+     * @param location the location of the changed resource
+     * @param structural <code>true</code> if the resource was added or removed
+     */
+    public static void resourceChanged(IPath location, boolean structural) {
+        if (location == null)
+            return;
+        synchronized (registry) {
+            if (registry.isEmpty())
+                return;
+        }
+
+        File file = location.toFile();
+        URI uri = getKey(file.toURI());
+        markChanged(getPath(file), uri);
+        // an added or removed file may be a config dropin
+        if (structural && file.getParentFile() != null)
+            markChanged(getPath(file.getParentFile()), uri);
+    }
+
+    private static void markChanged(String key, URI uri) {
+        List<ConfigurationIncludeGraph> graphs;
+        synchronized (registry) {
+            Set<ConfigurationIncludeGraph> set = registry.get(key);
+            if (set == null)
+                return;
+            graphs = new ArrayList<ConfigurationIncludeGraph>(set);
+        }
+        for (ConfigurationIncludeGraph graph : graphs)
+            graph.markChanged(uri);
+    }
+
+    private void markChanged(URI uri) {
+        synchronized (changes) {
+            if (!changes.containsKey(uri))
+                changes.put(uri, Long.valueOf(System.currentTimeMillis()));
+        }
+        if (Trace.ENABLED_DETAILS)
+            Trace.trace(Trace.DETAILS, "Configuration file changed: " + uri + " for " + root.getURI());
+    }
+
+    /**
+     * Returns the configuration roots that include the given file, directly or indirectly.
+     *
+     * @param location the location of a file
+     * @return the configuration roots, possibly empty
+     */
+    public static List<ConfigurationFile> getIncludingRoots(IPath location) {
+        List<ConfigurationFile> roots = new ArrayList<ConfigurationFile>(2);
+        if (location == null)
+            return roots;
+        File file = location.toFile();
+        URI uri = getKey(file.toURI());
+        synchronized (registry) {
+            Set<ConfigurationIncludeGraph> graphs = registry.get(getPath(file));
+            if (graphs != null) {
+                for (ConfigurationIncludeGraph graph : graphs) {
+                    if (!graph.disposed && graph.nodes.containsKey(uri))
+                        roots.add(graph.root);
+                }
+            }
+        }
+        return roots;
+    }
+
+    public ConfigurationFile getRoot() {
+        return root;
+    }
+
+    /**
+     * Returns the time the graph was built.
+     */
+    public long getBuildTime() {
+        return buildTime;
+    }
+
+    /**
+     * Returns the configuration files keyed by their canonical URI.
+     */
+    public Map<URI, ConfigurationFile> getFileMap() {
+        Map<URI, ConfigurationFile> map = new LinkedHashMap<URI, ConfigurationFile>(nodes.size() * 2);
+        for (Map.Entry<URI, Node> entry : nodes.entrySet())
+            map.put(entry.getKey(), entry.getValue().config);
+        return map;
+    }
+
+    /**
+     * Returns the files that include the given file, directly or indirectly. The result
+     * includes the root if the file is part of this configuration.
+     *
+     * @param uri a file URI
+     * @return the including files, or an empty set if the file is not part of this configuration
+     */
+    public Set<URI> getIncludingFiles(URI uri) {
+        if (uri == null)
+            return Collections.emptySet();
+        Set<URI> found = new HashSet<URI>();
+        ArrayDeque<URI> queue = new ArrayDeque<URI>();
+        queue.add(getKey(uri));
+        while (!queue.isEmpty()) {
+            Node node = nodes.get(queue.poll());
+            if (node == null)
+                continue;
+            for (URI parent : node.includedBy) {
+                if (found.add(parent))
+                    queue.add(parent);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Returns the files and folders that changed since the given time. An added or
+     * removed config dropin is reported by its own location.
+     *
+     * @param time a time, in ms
+     * @return the changed locations, in the order the changes were seen
+     */
+    public List<URI> getChangedFiles(long time) {
+        checkExternal();
+        List<URI> changed = new ArrayList<URI>(2);
+        synchronized (changes) {
+            for (Map.Entry<URI, Long> entry : changes.entrySet()) {
+                if (entry.getValue().longValue() >= time)
+                    changed.add(entry.getKey());
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Returns <code>true</code> if the configuration no longer matches what was loaded:
+     * a file was changed or deleted, an include that could not be resolved now exists, or
+     * a config dropin was added or removed.
+     */
+    public boolean isDirty() {
+        synchronized (changes) {
+            if (!changes.isEmpty())
+                return true;
+        }
+        return checkExternal();
+    }
+
+    // Check the files and folders that resource deltas don't cover, and record any changes
+    private boolean checkExternal() {
+        boolean dirty = false;
+        for (URI uri : externalFiles) {
+            Node node = nodes.get(uri);
+            if (node.file.lastModified() != node.lastModified) {
+                markChanged(uri);
+                dirty = true;
+            }
+        }
+
+        for (Map.Entry<File, Long> entry : externalDropinFolders.entrySet()) {
+            if (entry.getKey().lastModified() != entry.getValue().longValue()) {
+                markChanged(entry.getKey().toURI());
+                dirty = true;
+            }
+        }
+
+        for (File file : externalUnresolved) {
+            if (file.exists()) {
+                markChanged(file.toURI());
+                dirty = true;
+            }
+        }
+        return dirty;
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2018 IBM Corporation and others.
+ * Copyright (c) 2012, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,20 +10,23 @@
  *******************************************************************************/
 package com.ibm.ws.st.core.internal.config;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 
-import com.ibm.ws.st.core.internal.FeatureUtil;
+import com.ibm.ws.st.core.internal.FeatureClosure;
 import com.ibm.ws.st.core.internal.Trace;
 import com.ibm.ws.st.core.internal.WebSphereRuntime;
 import com.ibm.ws.st.core.internal.generation.Feature;
+import com.ibm.ws.st.core.internal.generation.FeatureIndex;
 import com.ibm.ws.st.core.internal.generation.FeatureListCoreMetadata;
 import com.ibm.ws.st.core.internal.generation.FeatureListExtMetadata;
 
@@ -129,8 +132,39 @@ public class FeatureList {
 
     public static Set<String> getFeatureChildren(String feature, WebSphereRuntime wsRuntime) {
         Set<String> children = new HashSet<String>();
-        HashMap<String, Feature> map = getFeatureMap(wsRuntime);
-        getFeatureChildren(children, feature, map);
+        List<FeatureIndex> indexes = getFeatureIndexes(wsRuntime);
+        if (indexes == null) {
+            HashMap<String, Feature> map = getFeatureMap(wsRuntime);
+            getFeatureChildren(children, feature, map);
+            return children;
+        }
+
+        // each index holds the closure within its own feature list, so only features
+        // that are defined in another feature list need to be followed
+        Set<String> visited = new HashSet<String>();
+        ArrayDeque<String> queue = new ArrayDeque<String>();
+        queue.add(feature);
+        visited.add(feature.toLowerCase(Locale.ENGLISH));
+        boolean found = false;
+        boolean root = true;
+        while (!queue.isEmpty()) {
+            String name = queue.poll();
+            for (FeatureIndex index : indexes) {
+                List<String> list = index.getChildren(name);
+                if (list == null)
+                    continue;
+                found |= root;
+                for (String child : list) {
+                    if (visited.add(child.toLowerCase(Locale.ENGLISH))) {
+                        children.add(child);
+                        queue.add(child);
+                    }
+                }
+            }
+            root = false;
+        }
+        if (!found && Trace.ENABLED)
+            Trace.trace(Trace.WARNING, "Unrecognized feature:" + feature);
         return children;
     }
 
@@ -197,8 +231,31 @@ public class FeatureList {
 
     public static Set<String> getFeatureParents(String featureName, WebSphereRuntime wsRuntime) {
         Set<String> set = new HashSet<String>();
-        HashMap<String, Feature> map = getFeatureMap(wsRuntime);
-        getFeatureParents(set, featureName, map);
+        List<FeatureIndex> indexes = getFeatureIndexes(wsRuntime);
+        if (indexes == null) {
+            HashMap<String, Feature> map = getFeatureMap(wsRuntime);
+            getFeatureParents(set, featureName, map);
+            return set;
+        }
+
+        Set<String> visited = new HashSet<String>();
+        ArrayDeque<String> queue = new ArrayDeque<String>();
+        queue.add(featureName);
+        visited.add(featureName.toLowerCase(Locale.ENGLISH));
+        while (!queue.isEmpty()) {
+            String name = queue.poll();
+            for (FeatureIndex index : indexes) {
+                List<String> list = index.getParents(name);
+                if (list == null)
+                    continue;
+                for (String parent : list) {
+                    if (visited.add(parent.toLowerCase(Locale.ENGLISH))) {
+                        set.add(parent);
+                        queue.add(parent);
+                    }
+                }
+            }
+        }
         return set;
     }
 
@@ -261,9 +318,7 @@ public class FeatureList {
      * one of its children does).
      */
     public static boolean isEnabledBy(String feature1, String feature2, WebSphereRuntime wsRuntime) {
-        if (feature1.equalsIgnoreCase(feature2) || FeatureUtil.isSupportedBy(feature1, feature2))
-            return true;
-        return isContainedBy(feature1, feature2, wsRuntime);
+        return FeatureClosure.getInstance(wsRuntime).isEnabledBy(feature1, feature2);
     }
 
     /**
@@ -271,8 +326,9 @@ public class FeatureList {
      * the features in allFeatures list.
      */
     public static boolean featuresEnabled(List<String> featuresToCheck, List<String> allFeatures, WebSphereRuntime wsRuntime) {
+        FeatureClosure closure = FeatureClosure.getInstance(wsRuntime);
         for (String feature : featuresToCheck) {
-            if (!featureEnabled(feature, allFeatures, wsRuntime))
+            if (!closure.isEnabledBy(feature, allFeatures))
                 return false;
         }
         return true;
@@ -282,19 +338,14 @@ public class FeatureList {
      * Returns true if featuretoCheck is enabled by a feature in the allFeatures list.
      */
     public static boolean featureEnabled(String featureToCheck, List<String> allFeatures, WebSphereRuntime wsRuntime) {
-        for (String feature : allFeatures) {
-            if (isEnabledBy(featureToCheck, feature, wsRuntime))
-                return true;
-        }
-        return false;
+        return FeatureClosure.getInstance(wsRuntime).isEnabledBy(featureToCheck, allFeatures);
     }
 
     /**
      * Returns true if feature1 is a subset of feature2.
      */
     public static boolean isContainedBy(String feature1, String feature2, WebSphereRuntime wsRuntime) {
-        Set<String> children = FeatureList.getFeatureChildren(feature2, wsRuntime);
-        return isSupportedBy(children, feature1);
+        return FeatureClosure.getInstance(wsRuntime).isContainedBy(feature1, feature2);
     }
 
     public static HashMap<String, Feature> getFeatureMap(WebSphereRuntime wsRuntime) {
@@ -323,8 +374,47 @@ public class FeatureList {
         return allInclusiveFeatureMap;
     }
 
+    /**
+     * Returns the feature indexes for the core feature list and all product extensions,
+     * or <code>null</code> if the core feature list has no index.
+     */
+    private static List<FeatureIndex> getFeatureIndexes(WebSphereRuntime wsRuntime) {
+        FeatureIndex core = FeatureListCoreMetadata.getInstance().getFeatureIndex(wsRuntime);
+        if (core == null)
+            return null;
+        List<FeatureIndex> indexes = new ArrayList<FeatureIndex>(2);
+        indexes.add(core);
+        for (FeatureListExtMetadata ext : FeatureListExtMetadata.getInstances(wsRuntime)) {
+            FeatureIndex index = ext.getFeatureIndex(wsRuntime);
+            if (index != null)
+                indexes.add(index);
+        }
+        return indexes;
+    }
+
     private static Feature getFeature(String featureName, WebSphereRuntime wsRuntime) {
-        return getFeature(featureName, getFeatureMap(wsRuntime));
+        if (featureName == null)
+            return null;
+
+        // product extensions are checked first since they override the core features
+        FeatureListExtMetadata[] exts = FeatureListExtMetadata.getInstances(wsRuntime);
+        for (int i = exts.length - 1; i >= 0; i--) {
+            Feature f = getFeature(featureName, exts[i].getFeatureIndex(wsRuntime), exts[i].getFeatureListMaps(wsRuntime));
+            if (f != null)
+                return f;
+        }
+        FeatureListCoreMetadata core = FeatureListCoreMetadata.getInstance();
+        return getFeature(featureName, core.getFeatureIndex(wsRuntime), core.getFeatureListMaps(wsRuntime));
+    }
+
+    private static Feature getFeature(String featureName, FeatureIndex index, HashMap<FeatureMapType, HashMap<String, Feature>> maps) {
+        HashMap<String, Feature> map = maps == null ? null : maps.get(FeatureMapType.PUBLIC_FEATURES_KEYED_BY_NAME);
+        if (map == null)
+            return null;
+        if (index == null)
+            return getFeature(featureName, map);
+        String name = index.getFeatureName(featureName);
+        return name == null ? null : map.get(name);
     }
 
     private static Feature getFeature(String featureName, Map<String, Feature> featureMap) {
@@ -347,14 +437,6 @@ public class FeatureList {
         return false;
     }
 
-    private static boolean isSupportedBy(Set<String> set, String val) {
-        for (String entry : set) {
-            if (val.equalsIgnoreCase(entry) || FeatureUtil.isSupportedBy(val, entry))
-                return true;
-        }
-        return false;
-    }
-
     public enum FeatureMapType {
 
         PUBLIC_FEATURES_KEYED_BY_NAME,
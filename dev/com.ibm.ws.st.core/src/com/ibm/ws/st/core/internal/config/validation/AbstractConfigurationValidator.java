@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2019 IBM Corporation and others.
+ * Copyright (c) 2011, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -44,7 +44,6 @@ import com.ibm.ws.st.core.internal.Constants;
 import com.ibm.ws.st.core.internal.Messages;
 import com.ibm.ws.st.core.internal.RuntimeFeatureResolver;
 import com.ibm.ws.st.core.internal.RuntimeFeatureResolver.FeatureConflict;
-import com.ibm.ws.st.core.internal.RuntimeFeatureResolver.ResolverResult;
 import com.ibm.ws.st.core.internal.Trace;
 import com.ibm.ws.st.core.internal.UserDirectory;
 import com.ibm.ws.st.core.internal.WebSphereRuntime;
@@ -80,6 +79,7 @@ public abstract class AbstractConfigurationValidator {
 
     private static final String ORIG_NODE = "origNode";
     private static final String NODE_CONTEXT = "nodeContext";
+    private static final String OWNER = "owner";
 
     private WebSphereRuntime wsRuntime = null;
     private final HashMap<URI, ValidationContext> includes = new HashMap<URI, ValidationContext>();
@@ -95,7 +95,10 @@ public abstract class AbstractConfigurationValidator {
     private final List<String> attributes = new ArrayList<String>(4);
     private Map<String, Element> featureMap;
     private List<String> features;
-    private ResolverResult resolverResult;
+    private Set<FeatureConflict> featureConflicts;
+    private IncrementalValidationState state;
+    private List<IncrementalValidationState.Message> recording;
+    private Element currentOwner;
 
     protected enum Level {
         INFO,
@@ -152,12 +155,139 @@ public abstract class AbstractConfigurationValidator {
      * @param resource The resource from which the DOM was created.
      */
     public void validate(Document document, IResource resource) {
-        validate(ValidationContext.createValidationContext(document, resource, null, null));
+        IncrementalValidationState incrementalState = isIncremental() ? IncrementalValidationState.getState(document) : null;
+        if (incrementalState == null) {
+            validate(ValidationContext.createValidationContext(document, resource, null, null));
+            return;
+        }
+
+        synchronized (incrementalState.validationLock) {
+            try {
+                boolean done = false;
+                if (incrementalState.isReusable(resource)) {
+                    try {
+                        done = revalidate(incrementalState);
+                    } catch (Exception e) {
+                        if (Trace.ENABLED)
+                            Trace.trace(Trace.WARNING, "Incremental validation failed for: " + resource, e);
+                    }
+                }
+                if (!done) {
+                    if (Trace.ENABLED)
+                        Trace.trace(Trace.DETAILS, "Full validation pass for: " + resource);
+                    incrementalState.reset();
+                    state = incrementalState;
+                    validate(ValidationContext.createValidationContext(document, resource, null, null));
+                }
+
+                recording = null;
+                for (List<IncrementalValidationState.Message> list : incrementalState.messages.values()) {
+                    for (IncrementalValidationState.Message message : list)
+                        createMessage(message.text, message.resource, message.level, message.node, message.fixData);
+                }
+            } finally {
+                state = null;
+                recording = null;
+                currentOwner = null;
+            }
+        }
+    }
+
+    /**
+     * Returns true if DOM documents that support change notifications, such as the ones
+     * from an editor, should be validated incrementally. The merged document, the symbol
+     * tables and the messages of each pass are kept with the document, and the next pass
+     * only revalidates the top level elements that changed, if it can.
+     *
+     * @return <code>true</code> to validate incrementally
+     */
+    protected boolean isIncremental() {
+        return false;
+    }
+
+    /**
+     * Revalidate the top level elements that changed since the last pass, against the
+     * merged document and symbol tables of the last full pass.
+     *
+     * @return <code>true</code> if the changes were revalidated, or <code>false</code> if
+     *         a full pass is needed
+     */
+    private boolean revalidate(IncrementalValidationState incrementalState) {
+        topLevelContext = incrementalState.context;
+        currentContext = incrementalState.context;
+        wsRuntime = incrementalState.runtime;
+        globalVars = incrementalState.globalVars;
+        ids = incrementalState.ids;
+        ignoreMatcher = incrementalState.ignoreMatcher;
+        featureMap = incrementalState.featureMap;
+        features = incrementalState.features;
+        featureConflicts = incrementalState.featureConflicts;
+        state = incrementalState;
+
+        Element mergeRoot = incrementalState.mergeDoc.getDocumentElement();
+        for (Element elem : incrementalState.takeDirty()) {
+            Element oldMergeElem = incrementalState.mergeElements.get(elem);
+            if (oldMergeElem == null || elem.getParentNode() == null)
+                return false;
+
+            Node next = oldMergeElem.getNextSibling();
+            mergeRoot.removeChild(oldMergeElem);
+            List<IncrementalValidationState.Message> list = new ArrayList<IncrementalValidationState.Message>();
+            recording = list;
+            currentOwner = elem;
+            Node last = mergeRoot.getLastChild();
+            processElement(elem, mergeRoot, incrementalState.serverDecl);
+            Node added = mergeRoot.getLastChild();
+            currentOwner = null;
+
+            // the element must still stand on its own and declare the same ids, otherwise
+            // other elements and references are affected
+            if (added == last || !(added instanceof Element) || added.getPreviousSibling() != last || incrementalState.merged.contains(elem)
+                || Constants.FEATURE_MANAGER.equals(elem.getNodeName()) || !IncrementalValidationState.getIdSignature(elem).equals(incrementalState.idSignatures.get(elem)))
+                return false;
+
+            if (next != null)
+                mergeRoot.insertBefore(added, next);
+            incrementalState.mergeElements.put(elem, (Element) added);
+            incrementalState.messages.put(elem, list);
+            incrementalState.watch(elem);
+        }
+
+        startGroup(IncrementalValidationState.POST);
+        checkKeystore(incrementalState.mergeDoc);
+        return true;
+    }
+
+    private void startGroup(Object key) {
+        if (state != null) {
+            recording = new ArrayList<IncrementalValidationState.Message>();
+            state.messages.put(key, recording);
+        }
+    }
+
+    /**
+     * Mark the element being processed, and the element that the given merged node came
+     * from, as merged with other elements.
+     */
+    private void markMerged(Node mergeNode) {
+        if (state == null)
+            return;
+        if (currentOwner != null)
+            state.merged.add(currentOwner);
+        if (mergeNode != null) {
+            Object owner = mergeNode.getUserData(OWNER);
+            if (owner instanceof Element)
+                state.merged.add((Element) owner);
+        }
     }
 
     private void validate(ValidationContext context) {
         try {
             topLevelContext = context;
+            if (state != null) {
+                state.context = context;
+                startGroup(IncrementalValidationState.GLOBAL);
+            }
             URI uri = context.getURI();
             WebSphereServerInfo serverInfo = null;
             UserDirectory userDir = null;
@@ -182,7 +312,7 @@ public abstract class AbstractConfigurationValidator {
             checkRemoteServerSecurePort(topLevelContext, serverInfo);
             featureMap = DOMUtils.getFeatureElementMap(context.getDocument(), context.getURI(), context.getServer(), context.getUserDirectory());
             features = new ArrayList<String>(featureMap.keySet());
-            resolverResult = RuntimeFeatureResolver.resolve(wsRuntime, features);
+            featureConflicts = RuntimeFeatureResolver.getFeatureConflicts(wsRuntime, features);
             // Add main document to the include list to prevent it from
             // being recursively included
             includes.put(topLevelContext.getURI(), topLevelContext);
@@ -190,113 +320,131 @@ public abstract class AbstractConfigurationValidator {
             Document mergeDoc = createTmpDoc();
             processDocument(topLevelContext, mergeDoc);
 
-            // Specific check for ssl, appSecurity and ejbRemote features but no keystore
-            // element (see 176956).  Use the merged document which contains all elements.
-            Element root = mergeDoc.getDocumentElement();
-            if (root != null) {
-                NodeList nodes = root.getElementsByTagName(Constants.FEATURE_MANAGER);
-                HashSet<String> features = new HashSet<String>(3);
-                Element featureManager = null;
-                if (nodes.getLength() > 0) {
-                    featureManager = (Element) nodes.item(0);
-                    for (Element elem = DOMUtils.getFirstChildElement(featureManager, Constants.FEATURE); elem != null; elem = DOMUtils.getNextElement(elem, Constants.FEATURE)) {
-                        String feature = DOMUtils.getTextContent(elem);
-                        if (FeatureList.isEnabledBy("ssl-1.0", feature, wsRuntime)) {
-                            features.add("ssl");
-                        }
-                        if (FeatureList.isEnabledBy("appSecurity-1.0", feature, wsRuntime)) {
-                            features.add("appSecurity");
-                        }
-                        if (FeatureList.isEnabledBy("ejbRemote-3.2", feature, wsRuntime)) {
-                            features.add("ejbRemote");
-                        }
-                        if (features.size() == 3) {
-                            // If all three features have already been detected, break out of the loop.
-                            break;
-                        }
+            startGroup(IncrementalValidationState.POST);
+            checkKeystore(mergeDoc);
+
+            if (state != null) {
+                state.runtime = wsRuntime;
+                state.globalVars = globalVars;
+                state.ids = ids;
+                state.ignoreMatcher = ignoreMatcher;
+                state.featureMap = featureMap;
+                state.features = features;
+                state.featureConflicts = featureConflicts;
+                state.completed(context.getResource());
+            }
+        } catch (Exception e) {
+            Trace.logError("Error during validation for: " + context.getURI(), e);
+        } finally {
+            if (topLevelContext != null) {
+                topLevelContext.dispose();
+            }
+        }
+    }
+
+    /**
+     * Specific check for ssl, appSecurity and ejbRemote features but no keystore
+     * element (see 176956). Use the merged document which contains all elements.
+     */
+    private void checkKeystore(Document mergeDoc) {
+        Element root = mergeDoc.getDocumentElement();
+        if (root != null) {
+            NodeList nodes = root.getElementsByTagName(Constants.FEATURE_MANAGER);
+            HashSet<String> features = new HashSet<String>(3);
+            Element featureManager = null;
+            if (nodes.getLength() > 0) {
+                featureManager = (Element) nodes.item(0);
+                for (Element elem = DOMUtils.getFirstChildElement(featureManager, Constants.FEATURE); elem != null; elem = DOMUtils.getNextElement(elem, Constants.FEATURE)) {
+                    String feature = DOMUtils.getTextContent(elem);
+                    if (FeatureList.isEnabledBy("ssl-1.0", feature, wsRuntime)) {
+                        features.add("ssl");
+                    }
+                    if (FeatureList.isEnabledBy("appSecurity-1.0", feature, wsRuntime)) {
+                        features.add("appSecurity");
+                    }
+                    if (FeatureList.isEnabledBy("ejbRemote-3.2", feature, wsRuntime)) {
+                        features.add("ejbRemote");
+                    }
+                    if (features.size() == 3) {
+                        // If all three features have already been detected, break out of the loop.
+                        break;
                     }
                 }
+            }
 
-                if (features.size() == 3 || features.contains("ssl")) {
-                    // First check what keystore (if any) we need to look for.
-
-                    // If the default ssl is overridden then it will reference an
-                    // ssl element that has a keystore ref.  If the keystore is not
-                    // defined then the reference checking will have picked it up.
-                    //    <ssl id="sslConfig" keyStoreRef="myKeyStore"/>
-                    //    <sslDefault sslRef="sslConfig"/>
-                    boolean hasNonDefaultSSL = false;
-                    nodes = root.getElementsByTagName(Constants.SSL_DEFAULT_ELEMENT);
+            if (features.size() == 3 || features.contains("ssl")) {
+                // First check what keystore (if any) we need to look for.
+
+                // If the default ssl is overridden then it will reference an
+                // ssl element that has a keystore ref.  If the keystore is not
+                // defined then the reference checking will have picked it up.
+                //    <ssl id="sslConfig" keyStoreRef="myKeyStore"/>
+                //    <sslDefault sslRef="sslConfig"/>
+                boolean hasNonDefaultSSL = false;
+                nodes = root.getElementsByTagName(Constants.SSL_DEFAULT_ELEMENT);
+                for (int i = 0; i < nodes.getLength(); i++) {
+                    Element defaultSSLElement = (Element) nodes.item(i);
+                    String sslRef = defaultSSLElement.getAttribute(Constants.SSL_REF_ATTR);
+                    if (sslRef != null && !sslRef.isEmpty() && !sslRef.equals(Constants.DEFAULT_SSL_CONFIG_ID)) {
+                        hasNonDefaultSSL = true;
+                        break;
+                    }
+                }
+                if (!hasNonDefaultSSL) {
+                    // Check all ssl elements with the default id to see if the keystore ref
+                    // is set to something other than the default.  If it is and the keystore
+                    // is not defined then the reference checking will have picked it
+                    // up already.
+                    //    <ssl id="defaultSSLConfig" keyStoreRef="myKeyStore" />
+                    boolean hasNonDefaultKeystore = false;
+                    nodes = root.getElementsByTagName(Constants.SSL_ELEMENT);
                     for (int i = 0; i < nodes.getLength(); i++) {
-                        Element defaultSSLElement = (Element) nodes.item(i);
-                        String sslRef = defaultSSLElement.getAttribute(Constants.SSL_REF_ATTR);
-                        if (sslRef != null && !sslRef.isEmpty() && !sslRef.equals(Constants.DEFAULT_SSL_CONFIG_ID)) {
-                            hasNonDefaultSSL = true;
-                            break;
+                        Element sslElement = (Element) nodes.item(i);
+                        String id = sslElement.getAttribute(Constants.FACTORY_ID);
+                        if (Constants.DEFAULT_SSL_CONFIG_ID.equals(id)) {
+                            String keystoreRef = sslElement.getAttribute(Constants.KEYSTORE_REF_ATTR);
+                            if (keystoreRef != null && !keystoreRef.isEmpty() && !keystoreRef.equals(Constants.DEFAULT_KEY_STORE)) {
+                                hasNonDefaultKeystore = true;
+                                break;
+                            }
                         }
                     }
-                    if (!hasNonDefaultSSL) {
-                        // Check all ssl elements with the default id to see if the keystore ref
-                        // is set to something other than the default.  If it is and the keystore
-                        // is not defined then the reference checking will have picked it
-                        // up already.
-                        //    <ssl id="defaultSSLConfig" keyStoreRef="myKeyStore" />
-                        boolean hasNonDefaultKeystore = false;
-                        nodes = root.getElementsByTagName(Constants.SSL_ELEMENT);
+                    if (!hasNonDefaultKeystore) {
+                        // Make sure the default keystore is defined and give a warning
+                        // if not.
+                        boolean foundValidKeystore = false;
+                        nodes = root.getElementsByTagName(Constants.KEY_STORE);
                         for (int i = 0; i < nodes.getLength(); i++) {
-                            Element sslElement = (Element) nodes.item(i);
-                            String id = sslElement.getAttribute(Constants.FACTORY_ID);
-                            if (Constants.DEFAULT_SSL_CONFIG_ID.equals(id)) {
-                                String keystoreRef = sslElement.getAttribute(Constants.KEYSTORE_REF_ATTR);
-                                if (keystoreRef != null && !keystoreRef.isEmpty() && !keystoreRef.equals(Constants.DEFAULT_KEY_STORE)) {
-                                    hasNonDefaultKeystore = true;
-                                    break;
-                                }
+                            Element keystoreElem = (Element) nodes.item(i);
+                            String id = keystoreElem.getAttribute(Constants.INSTANCE_ID);
+                            String password = keystoreElem.getAttribute(Constants.PASSWORD_ATTRIBUTE);
+                            // The id can be unset or set to the default keystore id, the password must be set
+                            if ((id == null || id.isEmpty() || id.equals(Constants.DEFAULT_KEY_STORE)) && password != null && !password.isEmpty()) {
+                                foundValidKeystore = true;
+                                break;
                             }
                         }
-                        if (!hasNonDefaultKeystore) {
-                            // Make sure the default keystore is defined and give a warning
-                            // if not.
-                            boolean foundValidKeystore = false;
-                            nodes = root.getElementsByTagName(Constants.KEY_STORE);
-                            for (int i = 0; i < nodes.getLength(); i++) {
-                                Element keystoreElem = (Element) nodes.item(i);
-                                String id = keystoreElem.getAttribute(Constants.INSTANCE_ID);
-                                String password = keystoreElem.getAttribute(Constants.PASSWORD_ATTRIBUTE);
-                                // The id can be unset or set to the default keystore id, the password must be set
-                                if ((id == null || id.isEmpty() || id.equals(Constants.DEFAULT_KEY_STORE)) && password != null && !password.isEmpty()) {
-                                    foundValidKeystore = true;
-                                    break;
-                                }
+                        if (!foundValidKeystore) {
+                            // If only ssl enabled then just give a warning.  If all three features
+                            // are enabled then the server won't work so give an error.
+                            Level level = Level.WARNING;
+                            if (features.size() == 3) {
+                                level = Level.ERROR;
                             }
-                            if (!foundValidKeystore) {
-                                // If only ssl enabled then just give a warning.  If all three features
-                                // are enabled then the server won't work so give an error.
-                                Level level = Level.WARNING;
-                                if (features.size() == 3) {
-                                    level = Level.ERROR;
-                                }
-                                Node errorNode = featureManager != null ? (Node) featureManager.getUserData(ORIG_NODE) : null;
-                                if (errorNode == null)
-                                    errorNode = topLevelContext.getDocument().getDocumentElement();
-                                String message = Messages.missingKeystore;
-                                quickFixData.setValues(QuickFixType.SSL_NO_KEYSTORE, null, null, -1);
-                                if (features.contains("appSecurity")) {
-                                    message = Messages.missingKeystoreAndUR;
-                                    quickFixData.setAttribute(APP_SECURITY_ENABLED, Boolean.TRUE);
-                                }
-                                createMessage(message, getTopLevelResource(), level, errorNode, quickFixData);
+                            Node errorNode = featureManager != null ? (Node) featureManager.getUserData(ORIG_NODE) : null;
+                            if (errorNode == null)
+                                errorNode = topLevelContext.getDocument().getDocumentElement();
+                            String message = Messages.missingKeystore;
+                            quickFixData.setValues(QuickFixType.SSL_NO_KEYSTORE, null, null, -1);
+                            if (features.contains("appSecurity")) {
+                                message = Messages.missingKeystoreAndUR;
+                                quickFixData.setAttribute(APP_SECURITY_ENABLED, Boolean.TRUE);
                             }
+                            addMessage(message, getTopLevelResource(), level, errorNode, quickFixData);
                         }
                     }
                 }
             }
-        } catch (Exception e) {
-            Trace.logError("Error during validation for: " + context.getURI(), e);
-        } finally {
-            if (topLevelContext != null) {
-                topLevelContext.dispose();
-            }
         }
     }
 
@@ -373,6 +521,8 @@ public abstract class AbstractConfigurationValidator {
      */
     private void processDocument(ValidationContext context, Document mergeDoc) {
         currentContext = context;
+        if (state != null && context != topLevelContext)
+            state.addFile(context.getURI());
 
         Document doc = currentContext.getDocument();
         if (doc == null) {
@@ -410,7 +560,21 @@ public abstract class AbstractConfigurationValidator {
             mergeElem = (Element) clone;
         }
 
+        // keep track of the top level elements of the main document for incremental validation
+        boolean track = state != null && currentContext == topLevelContext;
+        if (track) {
+            state.mergeDoc = mergeDoc;
+            state.serverDecl = serverDecl;
+            startGroup(IncrementalValidationState.DEFAULT_DROPINS);
+        }
+
         ConfigurationFile configFile = currentContext.getConfigFile();
+        WebSphereServerInfo server = currentContext.getServer();
+        if (track && server != null && configFile != null && configFile.isConfigRoot()) {
+            // dropins that are added or removed need a full pass
+            state.addFolder(server.getConfigDefaultDropinsPath().toFile());
+            state.addFolder(server.getConfigOverrideDropinsPath().toFile());
+        }
         if (configFile != null) {
             for (ConfigurationFile dropin : configFile.getDefaultDropins()) {
                 ValidationContext dropinContext = ValidationContext.createValidationContext(dropin, currentContext, null);
@@ -420,9 +584,14 @@ public abstract class AbstractConfigurationValidator {
         }
 
         for (Element element = DOMUtils.getFirstChildElement(serverElem); element != null; element = DOMUtils.getNextElement(element)) {
-            processElement(element, mergeElem, serverDecl);
+            if (track)
+                processTopLevelElement(element, mergeElem, serverDecl);
+            else
+                processElement(element, mergeElem, serverDecl);
         }
 
+        if (track)
+            startGroup(IncrementalValidationState.OVERRIDE_DROPINS);
         if (configFile != null) {
             for (ConfigurationFile dropin : configFile.getOverrideDropins()) {
                 ValidationContext dropinContext = ValidationContext.createValidationContext(dropin, currentContext, null);
@@ -433,6 +602,32 @@ public abstract class AbstractConfigurationValidator {
 
     }
 
+    /**
+     * Process a top level element of the main document, and record its messages, its
+     * merged element, and whether it merged with any other element.
+     */
+    private void processTopLevelElement(Element element, Element mergeRoot, CMElementDeclaration serverDecl) {
+        startGroup(element);
+        currentOwner = element;
+        Node last = mergeRoot.getLastChild();
+        try {
+            processElement(element, mergeRoot, serverDecl);
+        } finally {
+            currentOwner = null;
+        }
+
+        Node added = mergeRoot.getLastChild();
+        String name = element.getNodeName();
+        if (added == last || !(added instanceof Element) || added.getPreviousSibling() != last || Constants.FEATURE_MANAGER.equals(name)) {
+            // the element didn't add exactly one merged element, or it defines features
+            // that the rest of the document depends on
+            state.merged.add(element);
+            return;
+        }
+        state.mergeElements.put(element, (Element) added);
+        state.idSignatures.put(element, IncrementalValidationState.getIdSignature(element));
+    }
+
     /**
      * Process each element.
      *
@@ -483,6 +678,7 @@ public abstract class AbstractConfigurationValidator {
             IncludeConflictResolution onConflict = IncludeConflictResolution.getConflictResolution(DOMUtils.getAttributeValue(element, Constants.ONCONFLICT_ATTRIBUTE));
             boolean isOptional = optional == null ? false : Boolean.parseBoolean(optional);
             currentContext.setCurrentInclude(element);
+            markMerged(null);
             ValidationContext newContext = null;
             ValidationContext mergedContext = null;
             try {
@@ -495,17 +691,21 @@ public abstract class AbstractConfigurationValidator {
                     IResource includeFile = mappedConfigFolder.findMember(path);
                     if (includeFile != null && includeFile.exists()) {
                         newContext = ValidationContext.createValidationContext(includeFile, currentContext, IncludeConflictResolution.MERGE);
+                    } else if (state != null) {
+                        state.addFile(mappedConfigFolder.getFile(path).getLocationURI());
                     }
                 } else {
                     newContext = ValidationContext.createValidationContext(path, currentContext.getURI(), currentContext.getUserDirectory(), currentContext,
                                                                            IncludeConflictResolution.MERGE);
+                    if (newContext == null && state != null)
+                        state.addFile(ConfigUtils.resolve(currentContext.getURI(), path, currentContext.getUserDirectory()));
                 }
                 if (newContext == null) {
                     if (Trace.ENABLED) {
                         Trace.trace(Trace.WARNING, "Failed to create validation context for include file " + path + ".");
                     }
                     if (isTopLevel()) {
-                        createMessage(NLS.bind(Messages.errorLoadingInclude, path), currentContext.getResource(), isOptional ? Level.INFO : Level.ERROR, element);
+                        addMessage(NLS.bind(Messages.errorLoadingInclude, path), currentContext.getResource(), isOptional ? Level.INFO : Level.ERROR, element);
                     }
                 } else {
                     ValidationContext previousContext = includes.get(newContext.getURI());
@@ -514,7 +714,7 @@ public abstract class AbstractConfigurationValidator {
                     if (previousContext != null) {
                         if (emitMessage(previousContext, currentContext)) {
                             String includePath = getFilePathString(newContext);
-                            createMessage(NLS.bind(Messages.infoMultipleInclude, includePath), getTopLevelResource(), Level.INFO, getErrorNode(element));
+                            addMessage(NLS.bind(Messages.infoMultipleInclude, includePath), getTopLevelResource(), Level.INFO, getErrorNode(element));
                         }
                         return;
                     }
@@ -533,7 +733,7 @@ public abstract class AbstractConfigurationValidator {
                     Trace.trace(Trace.WARNING, "Failed to validate included file " + path + ".", e);
                 }
                 if (isTopLevel()) {
-                    createMessage(NLS.bind(Messages.errorLoadingInclude, path), currentContext.getResource(), isOptional ? Level.INFO : Level.ERROR, element);
+                    addMessage(NLS.bind(Messages.errorLoadingInclude, path), currentContext.getResource(), isOptional ? Level.INFO : Level.ERROR, element);
                 }
             } finally {
                 if (newContext != null) {
@@ -558,9 +758,10 @@ public abstract class AbstractConfigurationValidator {
             return;
         }
         String name = attr.getValue();
+        markMerged(null);
         if (ConfigVarsUtils.containsReference(name)) {
             if (isTopLevel()) {
-                createMessage(NLS.bind(Messages.variableNameContainsRefs, name), currentContext.getResource(), Level.ERROR, attr);
+                addMessage(NLS.bind(Messages.variableNameContainsRefs, name), currentContext.getResource(), Level.ERROR, attr);
             }
             name = globalVars.resolve(name);
         }
@@ -569,11 +770,11 @@ public abstract class AbstractConfigurationValidator {
         Attr valueAttr = elem.getAttributeNode(Constants.VARIABLE_VALUE);
         Attr defaultValueAttr = elem.getAttributeNode(Constants.VARIABLE_DEFAULT_VALUE);
         if (valueAttr != null && defaultValueAttr != null) {
-            createMessage(NLS.bind(Messages.invalidVariableDecl, name), getTopLevelResource(), Level.ERROR, elem);
+            addMessage(NLS.bind(Messages.invalidVariableDecl, name), getTopLevelResource(), Level.ERROR, elem);
             // The element is in error so skip further checking
             return;
         } else if (valueAttr == null && defaultValueAttr == null) {
-            createMessage(NLS.bind(Messages.variableDeclNoValue, name), getTopLevelResource(), Level.ERROR, elem);
+            addMessage(NLS.bind(Messages.variableDeclNoValue, name), getTopLevelResource(), Level.ERROR, elem);
             // The element is in error so skip further checking
             return;
         }
@@ -597,7 +798,7 @@ public abstract class AbstractConfigurationValidator {
                 DocumentLocation location = DocumentLocation.createDocumentLocation(currentContext.getURI(), elem);
                 DocumentLocation mergeLocation = DocumentLocation.createDocumentLocation(mergeContext.getURI(), mergeElem);
 
-                createMessage(NLS.bind(Messages.infoReplaceItem,
+                addMessage(NLS.bind(Messages.infoReplaceItem,
                                        new String[] { replaceElemName, location.getLocationString(), oldElemName, mergeLocation.getLocationString() }),
                               getTopLevelResource(),
                               Level.INFO, getErrorNode(elem));
@@ -630,7 +831,7 @@ public abstract class AbstractConfigurationValidator {
                         if (!allSecurePorts.contains(new Integer(serverSecurePort))) {
                             String defaultSecurePort = Integer.toString(validationContext.getConfigFile().getHTTPSPort());
                             quickFixData.setValues(QuickFixType.REMOTE_SERVER_SECURE_PORT_MISMATCH, null, null, -1);
-                            createMessage(NLS.bind(Messages.securePortMismatch, new String[] { defaultSecurePort, serverSecurePort }), getTopLevelResource(), Level.ERROR,
+                            addMessage(NLS.bind(Messages.securePortMismatch, new String[] { defaultSecurePort, serverSecurePort }), getTopLevelResource(), Level.ERROR,
                                           validationContext.getConfigFile().getDocument().getDocumentElement(),
                                           quickFixData);
                         }
@@ -693,6 +894,7 @@ public abstract class AbstractConfigurationValidator {
             initData(mergeElem, elem);
             mergeParent.appendChild(mergeElem);
         } else {
+            markMerged(mergeElem);
             ValidationContext mergeContext = (ValidationContext) mergeElem.getUserData(NODE_CONTEXT);
             IncludeConflictResolution resolution = currentContext.getConflictResolution();
             if (resolution == IncludeConflictResolution.IGNORE) {
@@ -710,7 +912,7 @@ public abstract class AbstractConfigurationValidator {
                 DocumentLocation location = DocumentLocation.createDocumentLocation(currentContext.getURI(), elem);
                 DocumentLocation mergeLocation = DocumentLocation.createDocumentLocation(mergeContext.getURI(), mergeElem);
 
-                createMessage(NLS.bind(Messages.infoReplaceItem,
+                addMessage(NLS.bind(Messages.infoReplaceItem,
                                        new String[] { replaceElemName, location.getLocationString(), oldElemName, mergeLocation.getLocationString() }),
                               getTopLevelResource(),
                               Level.INFO, getErrorNode(elem));
@@ -771,6 +973,7 @@ public abstract class AbstractConfigurationValidator {
             if (text != null && text.equals(content)) {
                 ValidationContext mergeContext = (ValidationContext) child.getUserData(NODE_CONTEXT);
                 mergeNode = child;
+                markMerged(child);
                 if (emitMessage(mergeContext, currentContext)) {
                     if (currentContext.isDropin()) {
                         DocumentLocation location = DocumentLocation.createDocumentLocation(currentContext.getURI(), elem);
@@ -778,10 +981,10 @@ public abstract class AbstractConfigurationValidator {
                         Node errorNode = (Node) mergeNode.getUserData(ORIG_NODE);
                         if (errorNode == null)
                             errorNode = topLevelContext.getDocument().getDocumentElement();
-                        createMessage(NLS.bind(Messages.infoDuplicateItemDropin, new String[] { elem.getNodeName(), text, location.getLocationString(), line }),
+                        addMessage(NLS.bind(Messages.infoDuplicateItemDropin, new String[] { elem.getNodeName(), text, location.getLocationString(), line }),
                                       getTopLevelResource(), Level.INFO, errorNode);
                     } else {
-                        createMessage(NLS.bind(Messages.infoDuplicateItem, new String[] { elem.getNodeName(), text }), getTopLevelResource(), Level.INFO, getErrorNode(elem));
+                        addMessage(NLS.bind(Messages.infoDuplicateItem, new String[] { elem.getNodeName(), text }), getTopLevelResource(), Level.INFO, getErrorNode(elem));
                     }
                 }
                 setNodeData(mergeNode, elem);
@@ -810,11 +1013,11 @@ public abstract class AbstractConfigurationValidator {
                     Node errorNode = (Node) mergeAttr.getUserData(ORIG_NODE);
                     if (errorNode == null)
                         errorNode = topLevelContext.getDocument().getDocumentElement();
-                    createMessage(NLS.bind(Messages.infoOverrideItemDropin,
+                    addMessage(NLS.bind(Messages.infoOverrideItemDropin,
                                            new String[] { name, mergeParent.getNodeName(), mergeAttr.getNodeValue(), value, location.getLocationString(), line }),
                                   getTopLevelResource(), Level.INFO, errorNode);
                 } else {
-                    createMessage(NLS.bind(Messages.infoOverrideItem, new String[] { name, mergeParent.getNodeName(), mergeAttr.getNodeValue(), value }), getTopLevelResource(),
+                    addMessage(NLS.bind(Messages.infoOverrideItem, new String[] { name, mergeParent.getNodeName(), mergeAttr.getNodeValue(), value }), getTopLevelResource(),
                                   Level.INFO, getErrorNode(attr));
                 }
             }
@@ -846,11 +1049,12 @@ public abstract class AbstractConfigurationValidator {
     private void processFeature(Element elem, Element mergeParent) {
         String content = DOMUtils.getTextContent(elem);
         String canonicalName = FeatureList.getCanonicalFeatureName(content, wsRuntime);
+        markMerged(null);
         if (isTopLevel()) {
             if (canonicalName != null) {
                 if (FeatureList.isFeatureSuperseded(canonicalName, wsRuntime)) {
                     quickFixData.setValues(QuickFixType.SUPERSEDED_FEATURE, content, null, -1);
-                    createMessage(NLS.bind(Messages.supersededFeature, content),
+                    addMessage(NLS.bind(Messages.supersededFeature, content),
                                   getTopLevelResource(), Level.WARNING, elem,
                                   quickFixData);
                 }
@@ -858,11 +1062,11 @@ public abstract class AbstractConfigurationValidator {
                 String bestMatch = matcher.getBestMatch(FeatureList.getFeatures(false, wsRuntime), content, null);
                 if (bestMatch != null) {
                     quickFixData.setValues(QuickFixType.UNRECOGNIZED_FEATURE, bestMatch, null, -1);
-                    createMessage(NLS.bind(Messages.unrecognizedFeature, content),
+                    addMessage(NLS.bind(Messages.unrecognizedFeature, content),
                                   getTopLevelResource(), Level.WARNING, elem,
                                   quickFixData);
                 } else {
-                    createMessage(NLS.bind(Messages.unrecognizedFeature, content),
+                    addMessage(NLS.bind(Messages.unrecognizedFeature, content),
                                   getTopLevelResource(), Level.WARNING, elem);
                 }
             }
@@ -879,7 +1083,7 @@ public abstract class AbstractConfigurationValidator {
                     mergeNode = child;
                     ValidationContext mergeContext = (ValidationContext) child.getUserData(NODE_CONTEXT);
                     if (mergeContext != null && isTopLevel(mergeContext) && isTopLevel(currentContext)) {
-                        createMessage(NLS.bind(Messages.infoDuplicateItem, new String[] { elem.getNodeName(), content }), getTopLevelResource(), Level.INFO, getErrorNode(elem));
+                        addMessage(NLS.bind(Messages.infoDuplicateItem, new String[] { elem.getNodeName(), content }), getTopLevelResource(), Level.INFO, getErrorNode(elem));
                     }
                     setNodeData(child, elem);
                     mergeNode = child;
@@ -898,7 +1102,6 @@ public abstract class AbstractConfigurationValidator {
 
     private void checkFeatureConflicts(String featureName, Element elem) {
         Element element = null;
-        Set<FeatureConflict> featureConflicts = resolverResult.getFeatureConflicts();
         String featureSymbolicName = FeatureList.getFeatureSymbolicName(featureName, wsRuntime);
         if (featureSymbolicName != null) {
             // Create a temporary set so not looping through and removing at the same time
@@ -930,7 +1133,7 @@ public abstract class AbstractConfigurationValidator {
                         return;
                     quickFixData.setValues(QuickFixType.FEATURE_CONFLICT, featureSymbolicName, null, -1);
                     if (currentContext.getParent() == null && conflictALoc.equals(conflictBLoc)) {
-                        createMessage(NLS.bind(Messages.featureConflict,
+                        addMessage(NLS.bind(Messages.featureConflict,
                                                RuntimeFeatureResolver.getDependencyChainString(dependancyChainA, wsRuntime),
                                                RuntimeFeatureResolver.getDependencyChainString(dependancyChainB, wsRuntime)),
                                       getTopLevelResource(), Level.WARNING, elem, quickFixData);
@@ -953,13 +1156,13 @@ public abstract class AbstractConfigurationValidator {
                         // for conflicts between Dropins marker should appear on the server element
                         if (currentContext.isDropin() && element == null) {
                             Element ele = commonParent.getDocument().getDocumentElement();
-                            createMessage(NLS.bind(Messages.featureConflictWithLoc,
+                            addMessage(NLS.bind(Messages.featureConflictWithLoc,
                                                    new String[] { RuntimeFeatureResolver.getDependencyChainString(dependancyChainA, wsRuntime),
                                                                   RuntimeFeatureResolver.getDependencyChainString(dependancyChainB, wsRuntime),
                                                                   location.getLocationString(), configLocation.getLocationString() }),
                                           commonParent.getResource(), Level.WARNING, ele, quickFixData);
                         } else {
-                            createMessage(NLS.bind(Messages.featureConflictWithLoc,
+                            addMessage(NLS.bind(Messages.featureConflictWithLoc,
                                                    new String[] { RuntimeFeatureResolver.getDependencyChainString(dependancyChainA, wsRuntime),
                                                                   RuntimeFeatureResolver.getDependencyChainString(dependancyChainB, wsRuntime),
                                                                   location.getLocationString(), configLocation.getLocationString() }),
@@ -1049,7 +1252,7 @@ public abstract class AbstractConfigurationValidator {
             // a marker if we find a best match.
             if (bestMatch != null) {
                 quickFixData.setValues(QuickFixType.UNRECOGNIZED_ELEMENT, bestMatch, null, -1);
-                createMessage(NLS.bind(Messages.unrecognizedElement, new String[] { elem.getNodeName() }),
+                addMessage(NLS.bind(Messages.unrecognizedElement, new String[] { elem.getNodeName() }),
                               getTopLevelResource(), Level.WARNING, elem, quickFixData);
             }
         } else {
@@ -1067,7 +1270,7 @@ public abstract class AbstractConfigurationValidator {
                     }
 
                     quickFixData.setValues(QuickFixType.UNAVAILABLE_ELEMENT, possibleFeatures.toString(), null, -1);
-                    createMessage(NLS.bind(Messages.unavailableElement, new String[] { elem.getNodeName() }),
+                    addMessage(NLS.bind(Messages.unavailableElement, new String[] { elem.getNodeName() }),
                                   getTopLevelResource(), Level.WARNING, elem, quickFixData);
                 }
             }
@@ -1108,13 +1311,13 @@ public abstract class AbstractConfigurationValidator {
                     if (hasExtraProperties) {
                         if (bestMatch != null) {
                             quickFixData.setValues(QuickFixType.UNRECOGNIZED_PROPERTY, bestMatch, null, -1);
-                            createMessage(NLS.bind(Messages.unrecognizedProperty,
+                            addMessage(NLS.bind(Messages.unrecognizedProperty,
                                                    new String[] { attrName, elemName }),
                                           getTopLevelResource(), Level.INFO, attr, quickFixData);
                         }
                     } else {
                         quickFixData.setValues(QuickFixType.UNRECOGNIZED_PROPERTY, bestMatch, null, -1);
-                        createMessage(NLS.bind(Messages.unrecognizedProperty,
+                        addMessage(NLS.bind(Messages.unrecognizedProperty,
                                                new String[] { attrName, elemName }),
                                       getTopLevelResource(), Level.WARNING, attr, quickFixData);
                     }
@@ -1123,7 +1326,7 @@ public abstract class AbstractConfigurationValidator {
             }
 
             if (resolvedValue.isEmpty() && attrDecl.getUsage() == CMAttributeDeclaration.REQUIRED) {
-                createMessage(NLS.bind(Messages.emptyRequiredAttribute, new String[] { attr.getNodeName(), mergeElem.getNodeName() }), getTopLevelResource(), Level.WARNING, attr);
+                addMessage(NLS.bind(Messages.emptyRequiredAttribute, new String[] { attr.getNodeName(), mergeElem.getNodeName() }), getTopLevelResource(), Level.WARNING, attr);
             }
 
             if (Constants.PASSWORD_TYPE.equals(type) || Constants.PASSWORD_HASH_TYPE.equals(type)) {
@@ -1131,13 +1334,13 @@ public abstract class AbstractConfigurationValidator {
                     int code = ConfigUtils.validatePassword(value, type, wsRuntime);
                     if (code == ConfigUtils.PASSWORD_PLAIN_TEXT) {
                         quickFixData.setValues(QuickFixType.PLAIN_TEXT_PASSWORD, null, null, -1);
-                        createMessage(Messages.warningPlainTextPassword, getTopLevelResource(), Level.WARNING, attr, quickFixData);
+                        addMessage(Messages.warningPlainTextPassword, getTopLevelResource(), Level.WARNING, attr, quickFixData);
                     } else if (code == ConfigUtils.PASSWORD_NOT_SUPPORT_AES) {
-                        createMessage(Messages.warningAESEncryptedPasswordNotSupported, getTopLevelResource(), Level.WARNING, attr);
+                        addMessage(Messages.warningAESEncryptedPasswordNotSupported, getTopLevelResource(), Level.WARNING, attr);
                     } else if (code == ConfigUtils.PASSWORD_NOT_SUPPORT_HASH) {
-                        createMessage(Messages.warningHashEncodedPasswordNotSupported, getTopLevelResource(), Level.WARNING, attr);
+                        addMessage(Messages.warningHashEncodedPasswordNotSupported, getTopLevelResource(), Level.WARNING, attr);
                     } else if (code == ConfigUtils.PASSWORD_NOT_SUPPORT_CUSTOM && ConfigUtils.getEncryptionAlgorithm(value) != null) {
-                        createMessage(NLS.bind(Messages.warningCustomEncryptedPasswordNotSupported, ConfigUtils.getEncryptionAlgorithm(value)), getTopLevelResource(),
+                        addMessage(NLS.bind(Messages.warningCustomEncryptedPasswordNotSupported, ConfigUtils.getEncryptionAlgorithm(value)), getTopLevelResource(),
                                       Level.WARNING, attr);
                     }
                 }
@@ -1182,7 +1385,7 @@ public abstract class AbstractConfigurationValidator {
                         for (String reference : references) {
                             NodeList nested = attr.getOwnerElement().getElementsByTagName(reference);
                             if (nested != null && nested.getLength() > 0) {
-                                createMessage(NLS.bind(Messages.singlePidRefAndNested, new String[] { mergeElem.getNodeName(), attr.getNodeName(), reference }),
+                                addMessage(NLS.bind(Messages.singlePidRefAndNested, new String[] { mergeElem.getNodeName(), attr.getNodeName(), reference }),
                                               getTopLevelResource(), Level.WARNING, attr);
                                 break;
                             }
@@ -1198,7 +1401,7 @@ public abstract class AbstractConfigurationValidator {
                     if (!vars.isPredefinedVar(ref.getReferenceName())) {
                         final String bestMatch = matcher.getBestMatch(vars, ref.getReferenceName(), type);
                         quickFixData.setValues(QuickFixType.UNDEFINED_VARIABLE, bestMatch, ref.getReferenceName(), ref.getReferenceOffset());
-                        createMessage(NLS.bind(Messages.unresolvedPropertyValue, new String[] { attr.getNodeName(), mergeElem.getNodeName(), ref.getReferenceName() }),
+                        addMessage(NLS.bind(Messages.unresolvedPropertyValue, new String[] { attr.getNodeName(), mergeElem.getNodeName(), ref.getReferenceName() }),
                                       getTopLevelResource(), Level.WARNING, attr, quickFixData);
                     }
                 }
@@ -1209,7 +1412,7 @@ public abstract class AbstractConfigurationValidator {
             ExpressionOperandError expressionRightOperandError = resolvedInfo.getExpressionRightOperandError();
 
             if (resolvedInfo.isInvalidExpression()) {
-                createMessage(NLS.bind(Messages.invalidVariableExpression, new String[] { value, attr.getNodeName(), mergeElem.getNodeName(), vars.getTypeName(type) }),
+                addMessage(NLS.bind(Messages.invalidVariableExpression, new String[] { value, attr.getNodeName(), mergeElem.getNodeName(), vars.getTypeName(type) }),
                               getTopLevelResource(), Level.WARNING, attr);
             } else if (expressionLeftOperandError != null || expressionRightOperandError != null) {
 
@@ -1217,7 +1420,7 @@ public abstract class AbstractConfigurationValidator {
                 if (expressionLeftOperandError != null) {
                     switch (resolvedInfo.getExpressionLeftOperandError()) {
                         case MISSING:
-                            createMessage(NLS.bind(Messages.expressionMissingLeftOperand, new String[] { value, attr.getNodeName(), mergeElem.getNodeName() }),
+                            addMessage(NLS.bind(Messages.expressionMissingLeftOperand, new String[] { value, attr.getNodeName(), mergeElem.getNodeName() }),
                                           getTopLevelResource(), Level.WARNING, attr);
                             break;
                         case UNDEFINED:
@@ -1231,12 +1434,12 @@ public abstract class AbstractConfigurationValidator {
                             if (!vars.isPredefinedVar(leftOperand)) {
                                 final String bestMatch = matcher.getBestMatch(vars, leftOperand, type);
                                 quickFixData.setValues(QuickFixType.UNDEFINED_VARIABLE, bestMatch, leftOperand, index);
-                                createMessage(NLS.bind(Messages.expressionUndefinedLeftOperand, new String[] { value, attr.getNodeName(), mergeElem.getNodeName() }),
+                                addMessage(NLS.bind(Messages.expressionUndefinedLeftOperand, new String[] { value, attr.getNodeName(), mergeElem.getNodeName() }),
                                               getTopLevelResource(), Level.WARNING, attr, quickFixData);
                             }
                             break;
                         case INVALID_VALUE:
-                            createMessage(NLS.bind(Messages.expressionInvalidLeftOperand, new String[] { value, attr.getNodeName(), mergeElem.getNodeName() }),
+                            addMessage(NLS.bind(Messages.expressionInvalidLeftOperand, new String[] { value, attr.getNodeName(), mergeElem.getNodeName() }),
                                           getTopLevelResource(), Level.WARNING, attr);
                             break;
                     }
@@ -1246,7 +1449,7 @@ public abstract class AbstractConfigurationValidator {
                 if (expressionRightOperandError != null) {
                     switch (resolvedInfo.getExpressionRightOperandError()) {
                         case MISSING:
-                            createMessage(NLS.bind(Messages.expressionMissingRightOperand, new String[] { value, attr.getNodeName(), mergeElem.getNodeName() }),
+                            addMessage(NLS.bind(Messages.expressionMissingRightOperand, new String[] { value, attr.getNodeName(), mergeElem.getNodeName() }),
                                           getTopLevelResource(), Level.WARNING, attr);
                             break;
                         case UNDEFINED:
@@ -1260,18 +1463,18 @@ public abstract class AbstractConfigurationValidator {
                                 int index = value.indexOf(expression.getOperator().getSymbol()) + 1;
                                 quickFixData.setValues(QuickFixType.UNDEFINED_VARIABLE, bestMatch, rightOperand, index);
 
-                                createMessage(NLS.bind(Messages.expressionUndefinedRightOperand, new String[] { value, attr.getNodeName(), mergeElem.getNodeName() }),
+                                addMessage(NLS.bind(Messages.expressionUndefinedRightOperand, new String[] { value, attr.getNodeName(), mergeElem.getNodeName() }),
                                               getTopLevelResource(), Level.WARNING, attr, quickFixData);
                             }
                             break;
                         case INVALID_VALUE:
-                            createMessage(NLS.bind(Messages.expressionInvalidRightOperand, new String[] { value, attr.getNodeName(), mergeElem.getNodeName() }),
+                            addMessage(NLS.bind(Messages.expressionInvalidRightOperand, new String[] { value, attr.getNodeName(), mergeElem.getNodeName() }),
                                           getTopLevelResource(), Level.WARNING, attr);
                             break;
                     }
                 }
             } else if (resolvedInfo.isTypeMismatch()) {
-                createMessage(NLS.bind(Messages.incorrectVariableReferenceType, new String[] { value, attr.getNodeName(), mergeElem.getNodeName(), vars.getTypeName(type) }),
+                addMessage(NLS.bind(Messages.incorrectVariableReferenceType, new String[] { value, attr.getNodeName(), mergeElem.getNodeName(), vars.getTypeName(type) }),
                               getTopLevelResource(), Level.WARNING, attr);
             } else if (resolvedInfo.isFullyResolved() && (ConfigVars.getTypeSet(type) == ConfigVars.DURATION_TYPES)) {
                 // Special check for duration types since they are just specified
@@ -1281,7 +1484,7 @@ public abstract class AbstractConfigurationValidator {
                     Long.valueOf(resolvedValue);
                 } catch (NumberFormatException e) {
                     if (!ConfigVars.isDurationType(resolvedValue)) {
-                        createMessage(NLS.bind(Messages.invalidValue, new String[] { resolvedValue, attr.getNodeName(), mergeElem.getNodeName(), vars.getTypeName(type) }),
+                        addMessage(NLS.bind(Messages.invalidValue, new String[] { resolvedValue, attr.getNodeName(), mergeElem.getNodeName(), vars.getTypeName(type) }),
                                       getTopLevelResource(), Level.WARNING, attr);
                     }
                 }
@@ -1292,7 +1495,7 @@ public abstract class AbstractConfigurationValidator {
                 if (typeDef instanceof XSDSimpleTypeDefinition) {
                     XSDSimpleTypeDefinition simpleTypeDef = (XSDSimpleTypeDefinition) typeDef;
                     if (!simpleTypeDef.isValidLiteral(resolvedValue)) {
-                        createMessage(NLS.bind(Messages.invalidValueNoType, new String[] { resolvedValue, attr.getNodeName(), mergeElem.getNodeName() }),
+                        addMessage(NLS.bind(Messages.invalidValueNoType, new String[] { resolvedValue, attr.getNodeName(), mergeElem.getNodeName() }),
                                       getTopLevelResource(), Level.WARNING, attr);
                     }
                 }
@@ -1314,18 +1517,18 @@ public abstract class AbstractConfigurationValidator {
             String message = NLS.bind(messageKey, new String[] { formatList(references), id });
             if (bestMatch != null) {
                 quickFixData.setValues(QuickFixType.FACTORY_ID_NOT_FOUND, bestMatch, id, index);
-                createMessage(message, getTopLevelResource(), Level.WARNING, node, quickFixData);
+                addMessage(message, getTopLevelResource(), Level.WARNING, node, quickFixData);
             } else {
-                createMessage(message, getTopLevelResource(), Level.WARNING, node);
+                addMessage(message, getTopLevelResource(), Level.WARNING, node);
             }
         }
         if (itemSet.contains(id)) {
             if (doQuickFix) {
                 quickFixData.setValues(QuickFixType.DUPLICATE_FACTORY_ID, null, id, index);
-                createMessage(NLS.bind(Messages.duplicateFactoryId, id), getTopLevelResource(),
+                addMessage(NLS.bind(Messages.duplicateFactoryId, id), getTopLevelResource(),
                               Level.WARNING, node, quickFixData);
             } else {
-                createMessage(NLS.bind(Messages.duplicateFactoryId, id),
+                addMessage(NLS.bind(Messages.duplicateFactoryId, id),
                               getTopLevelResource(), Level.WARNING, node);
             }
         }
@@ -1370,6 +1573,8 @@ public abstract class AbstractConfigurationValidator {
             mergeNode.setUserData(ORIG_NODE, node, null);
         }
         mergeNode.setUserData(NODE_CONTEXT, currentContext, null);
+        if (state != null)
+            mergeNode.setUserData(OWNER, currentOwner, null);
     }
 
     private void setNodeData(Node mergeNode, Node node) {
@@ -1470,6 +1675,28 @@ public abstract class AbstractConfigurationValidator {
 
     protected abstract void createMessage(String text, IResource resource, Level level, Node node, QuickFixData fixData);
 
+    private void addMessage(String text, IResource resource, Level level, Node node) {
+        quickFixData.setValues(QuickFixType.NONE, null, null, -1);
+        addMessage(text, resource, level, node, quickFixData);
+    }
+
+    /**
+     * Create a message, or record it if this is an incremental validation pass.
+     */
+    private void addMessage(String text, IResource resource, Level level, Node node, QuickFixData fixData) {
+        if (recording == null) {
+            createMessage(text, resource, level, node, fixData);
+            return;
+        }
+        QuickFixData data = null;
+        if (fixData != null) {
+            data = new QuickFixData();
+            data.setValues(fixData.getFixType(), fixData.getBestMatch(), fixData.getUndefinedReferenceName(), fixData.getUndefinedReferenceOffset());
+            data.getAttributes().putAll(fixData.getAttributes());
+        }
+        recording.add(new IncrementalValidationState.Message(text, resource, level, node, data));
+    }
+
     public static class QuickFixData {
         private QuickFixType fixType;
         private String bestMatch;
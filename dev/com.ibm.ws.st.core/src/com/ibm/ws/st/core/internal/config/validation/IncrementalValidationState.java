@@ -0,0 +1,303 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package com.ibm.ws.st.core.internal.config.validation;
+
+import java.io.File;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.wst.sse.core.internal.provisional.INodeAdapter;
+import org.eclipse.wst.sse.core.internal.provisional.INodeNotifier;
+import org.eclipse.wst.xml.core.internal.contentmodel.CMElementDeclaration;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import com.ibm.ws.st.core.internal.Constants;
+import com.ibm.ws.st.core.internal.RuntimeFeatureResolver.FeatureConflict;
+import com.ibm.ws.st.core.internal.WebSphereRuntime;
+import com.ibm.ws.st.core.internal.config.ConfigVars;
+import com.ibm.ws.st.core.internal.config.validation.AbstractConfigurationValidator.Level;
+import com.ibm.ws.st.core.internal.config.validation.AbstractConfigurationValidator.QuickFixData;
+
+/**
+ * The state kept between validation passes of a document that is open in an editor. It
+ * holds the merged document, the symbol tables and the messages of the last full pass,
+ * grouped by the top level element that produced them.
+ * <p>
+ * The state is an adapter on every node of the document, so it is notified of each change
+ * and keeps track of the top level elements that changed. A changed element can be
+ * revalidated on its own if it did not merge with any other element in the last pass.
+ * Any other change needs a full pass, as does a change to the files that the last pass
+ * read, the creation of an include that it could not find, or a change to the list of
+ * files in the config dropins folders. Everything
+ * else that validation depends on, such as the server variables and the runtime
+ * features, is picked up by a full pass at least every {@link #MAX_AGE} milliseconds.
+ */
+@SuppressWarnings("restriction")
+class IncrementalValidationState implements INodeAdapter {
+
+    public static final String INCREMENTAL_VALIDATION_PROPERTY = "com.ibm.ws.st.incrementalValidation";
+
+    // message groups that don't belong to a top level element
+    static final String GLOBAL = "global";
+    static final String DEFAULT_DROPINS = "defaultDropins";
+    static final String OVERRIDE_DROPINS = "overrideDropins";
+    static final String POST = "post";
+
+    private static final long MAX_AGE = 30000;
+    private static final boolean enabled = !"false".equalsIgnoreCase(System.getProperty(INCREMENTAL_VALIDATION_PROPERTY));
+    private static final Object lock = new Object();
+
+    // held for the duration of a validation pass, separate from the lock on the state
+    // itself so that change notifications are never blocked by validation
+    final Object validationLock = new Object();
+
+    /**
+     * A message that was created during a validation pass.
+     */
+    static class Message {
+        final String text;
+        final IResource resource;
+        final Level level;
+        final Node node;
+        final QuickFixData fixData;
+
+        Message(String text, IResource resource, Level level, Node node, QuickFixData fixData) {
+            this.text = text;
+            this.resource = resource;
+            this.level = level;
+            this.node = node;
+            this.fixData = fixData;
+        }
+    }
+
+    // the results of the last full pass
+    IResource resource;
+    ValidationContext context;
+    WebSphereRuntime runtime;
+    ConfigVars globalVars;
+    Map<String, Set<String>> ids;
+    ValidationFilterMatcher ignoreMatcher;
+    Map<String, Element> featureMap;
+    List<String> features;
+    Set<FeatureConflict> featureConflicts;
+    Document mergeDoc;
+    CMElementDeclaration serverDecl;
+    final Map<Object, List<Message>> messages = new LinkedHashMap<Object, List<Message>>();
+    final Map<Element, Element> mergeElements = new HashMap<Element, Element>();
+    final Set<Element> merged = new HashSet<Element>();
+    final Map<Element, Set<String>> idSignatures = new HashMap<Element, Set<String>>();
+    final Map<File, Long> fileStamps = new HashMap<File, Long>();
+    final Map<File, Set<String>> folderListings = new HashMap<File, Set<String>>();
+    private long time;
+    private boolean valid;
+
+    // the changes since the last pass
+    private final Set<Element> dirty = new LinkedHashSet<Element>();
+    private boolean structureChanged;
+
+    private IncrementalValidationState() {
+        // use getState()
+    }
+
+    /**
+     * Returns the incremental validation state of the given document, or <code>null</code>
+     * if the document does not support change notifications.
+     */
+    static IncrementalValidationState getState(Document document) {
+        if (!enabled || !(document instanceof INodeNotifier))
+            return null;
+
+        INodeNotifier notifier = (INodeNotifier) document;
+        synchronized (lock) {
+            INodeAdapter adapter = notifier.getExistingAdapter(IncrementalValidationState.class);
+            if (adapter instanceof IncrementalValidationState)
+                return (IncrementalValidationState) adapter;
+            IncrementalValidationState state = new IncrementalValidationState();
+            notifier.addAdapter(state);
+            return state;
+        }
+    }
+
+    /**
+     * Start a full pass, dropping the results of the last one.
+     */
+    synchronized void reset() {
+        valid = false;
+        messages.clear();
+        mergeElements.clear();
+        merged.clear();
+        idSignatures.clear();
+        fileStamps.clear();
+        folderListings.clear();
+        dirty.clear();
+        structureChanged = false;
+        context = null;
+        mergeDoc = null;
+        serverDecl = null;
+    }
+
+    /**
+     * Complete a full pass, and start watching the document for changes.
+     */
+    void completed(IResource res) {
+        resource = res;
+        time = System.currentTimeMillis();
+        if (context != null && context.getDocument() != null)
+            watch(context.getDocument());
+        synchronized (this) {
+            valid = mergeDoc != null && serverDecl != null;
+        }
+    }
+
+    /**
+     * Record the time stamp of a file that the last full pass read, or tried to read. A
+     * file that doesn't exist has a time stamp of 0, so creating it needs a full pass.
+     */
+    void addFile(URI uri) {
+        if (uri != null && "file".equals(uri.getScheme())) {
+            File file = new File(uri);
+            fileStamps.put(file, Long.valueOf(file.lastModified()));
+        }
+    }
+
+    /**
+     * Record the configuration files in a folder that the last full pass read, such as
+     * a config dropins folder.
+     */
+    void addFolder(File folder) {
+        if (folder != null)
+            folderListings.put(folder, getListing(folder));
+    }
+
+    private static Set<String> getListing(File folder) {
+        Set<String> set = new TreeSet<String>();
+        String[] names = folder.list();
+        if (names != null) {
+            for (String name : names) {
+                if (name.endsWith(".xml"))
+                    set.add(name);
+            }
+        }
+        return set;
+    }
+
+    /**
+     * Returns true if the changes since the last pass can be revalidated without a full pass.
+     */
+    synchronized boolean isReusable(IResource res) {
+        if (!valid || structureChanged || System.currentTimeMillis() - time > MAX_AGE)
+            return false;
+        if (resource == null ? res != null : !resource.equals(res))
+            return false;
+        for (Element elem : dirty) {
+            if (!mergeElements.containsKey(elem) || merged.contains(elem))
+                return false;
+        }
+        for (Map.Entry<File, Long> entry : fileStamps.entrySet()) {
+            if (entry.getKey().lastModified() != entry.getValue().longValue())
+                return false;
+        }
+        for (Map.Entry<File, Set<String>> entry : folderListings.entrySet()) {
+            if (!getListing(entry.getKey()).equals(entry.getValue()))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the top level elements that changed since the last pass, and clears them.
+     */
+    synchronized List<Element> takeDirty() {
+        List<Element> list = new ArrayList<Element>(dirty);
+        dirty.clear();
+        return list;
+    }
+
+    /**
+     * Add this state as an adapter to the given node and all of its descendants that don't
+     * have it yet.
+     */
+    void watch(Node node) {
+        if (node instanceof INodeNotifier) {
+            INodeNotifier notifier = (INodeNotifier) node;
+            if (notifier.getExistingAdapter(IncrementalValidationState.class) == null)
+                notifier.addAdapter(this);
+        }
+        for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE || child.getNodeType() == Node.TEXT_NODE)
+                watch(child);
+        }
+    }
+
+    /**
+     * Returns the element names and ids of all of the elements with an id in the given
+     * subtree. A change to these needs the references in the whole document checked again.
+     */
+    static Set<String> getIdSignature(Element elem) {
+        Set<String> set = new TreeSet<String>();
+        addIds(elem, set);
+        return set;
+    }
+
+    private static void addIds(Element elem, Set<String> set) {
+        if (elem.hasAttribute(Constants.FACTORY_ID))
+            set.add(elem.getNodeName() + "=" + elem.getAttribute(Constants.FACTORY_ID));
+        for (Node child = elem.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE)
+                addIds((Element) child, set);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isAdapterForType(Object type) {
+        return type == IncrementalValidationState.class;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void notifyChanged(INodeNotifier notifier, int eventType, Object changedFeature, Object oldValue, Object newValue, int pos) {
+        Element owner = notifier instanceof Node ? getOwner((Node) notifier) : null;
+        synchronized (this) {
+            if (owner == null)
+                structureChanged = true;
+            else
+                dirty.add(owner);
+        }
+    }
+
+    /**
+     * Returns the top level element that contains the given node, or <code>null</code> if
+     * the node is not inside a top level element.
+     */
+    private static Element getOwner(Node node) {
+        Node child = node;
+        Node parent = node.getParentNode();
+        while (parent != null) {
+            if (parent.getParentNode() instanceof Document)
+                return child instanceof Element ? (Element) child : null;
+            child = parent;
+            parent = parent.getParentNode();
+        }
+        return null;
+    }
+}
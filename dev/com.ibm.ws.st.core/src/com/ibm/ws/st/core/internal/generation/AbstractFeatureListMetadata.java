@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013, 2015 IBM Corporation and others.
+ * Copyright (c) 2013, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,19 +11,22 @@
 package com.ibm.ws.st.core.internal.generation;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.IOException;
-import java.io.InputStream;
 import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.ibm.ws.st.core.internal.Trace;
 import com.ibm.ws.st.core.internal.config.FeatureList.FeatureMapType;
 
 /**
- *
+ * Feature list metadata. Each generated feature list also has a {@link FeatureIndex} that is
+ * used to load the feature list without parsing it and to answer feature queries.
  */
 public abstract class AbstractFeatureListMetadata extends Metadata<HashMap<FeatureMapType, HashMap<String, Feature>>> {
 
+    // feature indexes keyed by feature list path
+    private final ConcurrentHashMap<String, FeatureIndex> indexes = new ConcurrentHashMap<String, FeatureIndex>();
+    private FeatureIndex fallbackIndex;
+
     protected AbstractFeatureListMetadata(String target) {
         super(target);
     }
@@ -52,12 +55,10 @@ public abstract class AbstractFeatureListMetadata extends Metadata<HashMap<Featu
 
     public HashMap<FeatureMapType, HashMap<String, Feature>> getPayload(IMetadataGenerator metadataGen) {
         HashMap<FeatureMapType, HashMap<String, Feature>> map = null;
-        InputStream is = null;
         try {
             File f = getTarget(metadataGen).toFile();
             if (f.exists()) {
-                is = new FileInputStream(f);
-                map = FeatureInfoHandler.parseFeatureListXML(is);
+                map = loadFeatureMaps(f);
             } else {
                 // avoid multiple logged errors
 
@@ -68,15 +69,6 @@ public abstract class AbstractFeatureListMetadata extends Metadata<HashMap<Featu
             }
         } catch (Throwable e) {
             Trace.logError("Error occurred while parsing or retrieving feature list payload for generator: " + metadataGen.getGeneratorId(), e);
-        } finally {
-            if (is != null) {
-                try {
-                    is.close();
-                } catch (IOException e) {
-                    if (Trace.ENABLED)
-                        Trace.trace(Trace.WARNING, "Error closing featurelist file", e);
-                }
-            }
         }
         if (map == null) {
             map = getFallbackPayload();
@@ -88,21 +80,10 @@ public abstract class AbstractFeatureListMetadata extends Metadata<HashMap<Featu
     HashMap<FeatureMapType, HashMap<String, Feature>> reloadPayload(File file) {
         HashMap<FeatureMapType, HashMap<String, Feature>> map = null;
         if (file.exists()) {
-            InputStream is = null;
             try {
-                is = new FileInputStream(file);
-                map = FeatureInfoHandler.parseFeatureListXML(is);
+                map = loadFeatureMaps(file);
             } catch (Throwable t) {
                 Trace.logError("Error parsing featurelist file: " + file.getAbsolutePath(), t);
-            } finally {
-                if (is != null) {
-                    try {
-                        is.close();
-                    } catch (IOException e) {
-                        if (Trace.ENABLED)
-                            Trace.trace(Trace.WARNING, "Error closing featurelist file: " + file.getAbsolutePath(), e);
-                    }
-                }
             }
         }
         if (map == null) {
@@ -112,4 +93,53 @@ public abstract class AbstractFeatureListMetadata extends Metadata<HashMap<Featu
 
     }
 
+    /**
+     * Load the feature maps from the feature list's index if it is up to date, otherwise parse
+     * the feature list and write a new index.
+     */
+    private HashMap<FeatureMapType, HashMap<String, Feature>> loadFeatureMaps(File file) throws Exception {
+        FeatureIndex index = FeatureIndex.open(file);
+        indexes.put(file.getAbsolutePath(), index);
+        return index.getFeatureMaps();
+    }
+
+    /**
+     * Returns the feature index for the feature list of the given generator.
+     *
+     * @param metadataGen the generator, or <code>null</code> for the fallback feature list
+     * @return the index, or <code>null</code> if there is no feature list
+     */
+    public FeatureIndex getFeatureIndex(IMetadataGenerator metadataGen) {
+        HashMap<FeatureMapType, HashMap<String, Feature>> map = getFeatureListMaps(metadataGen);
+        if (map == null)
+            return null;
+
+        if (metadataGen != null) {
+            String key = getTarget(metadataGen).toFile().getAbsolutePath();
+            FeatureIndex index = indexes.get(key);
+            if (index != null && index.getFeatureMaps() == map)
+                return index;
+            if (map != getFallbackPayload()) {
+                // the payload was not loaded from a file, e.g. it was set directly
+                index = FeatureIndex.create(map);
+                indexes.put(key, index);
+                return index;
+            }
+        }
+
+        synchronized (this) {
+            if (fallbackIndex == null || fallbackIndex.getFeatureMaps() != map)
+                fallbackIndex = FeatureIndex.create(map);
+            return fallbackIndex;
+        }
+    }
+
+    @Override
+    public synchronized void remove(String generatorId, boolean destroy) {
+        Data data = infos.get(generatorId);
+        if (data != null && data.metadataGen != null)
+            indexes.remove(getTarget(data.metadataGen).toFile().getAbsolutePath());
+        super.remove(generatorId, destroy);
+    }
+
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013, 2015 IBM Corporation and others.
+ * Copyright (c) 2013, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -219,6 +219,13 @@ public class Feature implements Cloneable {
         this.symbolicName = symbolicName;
     }
 
+    /**
+     * @return the process types
+     */
+    protected Set<String> getProcessTypes() {
+        return processTypes;
+    }
+
     /**
      * @param processType a new process type
      */
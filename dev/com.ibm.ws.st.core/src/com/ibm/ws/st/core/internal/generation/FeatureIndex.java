@@ -0,0 +1,698 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package com.ibm.ws.st.core.internal.generation;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+import com.ibm.ws.st.core.internal.FileUtil;
+import com.ibm.ws.st.core.internal.Trace;
+import com.ibm.ws.st.core.internal.config.FeatureList.FeatureMapType;
+import com.ibm.ws.st.core.internal.generation.Feature.FeatureType;
+
+/**
+ * Compact binary index of a feature list. The index holds every feature with its strings
+ * interned, the public and symbolic name tables, and for every public feature the transitive
+ * closure of the features it enables and of the features that enable it.
+ *
+ * The index is written next to the generated feature list and memory-mapped when it is read,
+ * so the feature list does not have to be parsed again on the next start and feature queries
+ * do not walk the feature maps. An index records the size and timestamp of the feature list it
+ * was built from and is ignored if the feature list has changed. It also records its own size
+ * and a checksum, so an index that was truncated or damaged is ignored and built again.
+ */
+public class FeatureIndex {
+
+    public static final String INDEX_EXT = ".idx";
+
+    private static final int MAGIC = 0x4C464958; // LFIX
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 5 * 8 + 4 + 4;
+
+    private static final int FLAG_SUPERSEDED = 0x1;
+    private static final int FLAG_SINGLETON = 0x2;
+
+    private static final FeatureType[] FEATURE_TYPES = FeatureType.values();
+
+    private final ByteBuffer buffer;
+    private final int stringCount;
+    private final int stringsOffset;
+    private final int featureCount;
+    private final int featuresOffset;
+    private final int publicCount;
+    private final int publicOffset;
+    private final int symbolicCount;
+    private final int symbolicOffset;
+    private final int nodeCount;
+    private final int nodesOffset;
+    private final String[] strings;
+
+    private HashMap<FeatureMapType, HashMap<String, Feature>> featureMaps;
+
+    private FeatureIndex(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION)
+            throw new IOException("Not a feature index");
+        int pos = 24;
+        stringCount = buffer.getInt(pos);
+        stringsOffset = buffer.getInt(pos + 4);
+        featureCount = buffer.getInt(pos + 8);
+        featuresOffset = buffer.getInt(pos + 12);
+        publicCount = buffer.getInt(pos + 16);
+        publicOffset = buffer.getInt(pos + 20);
+        symbolicCount = buffer.getInt(pos + 24);
+        symbolicOffset = buffer.getInt(pos + 28);
+        nodeCount = buffer.getInt(pos + 32);
+        nodesOffset = buffer.getInt(pos + 36);
+        if (buffer.getInt(68) != buffer.capacity() || buffer.getInt(64) != checksum(buffer))
+            throw new IOException("The feature index is damaged");
+        strings = new String[stringCount];
+    }
+
+    private static int checksum(ByteBuffer buffer) {
+        ByteBuffer body = buffer.duplicate();
+        body.position(HEADER_SIZE);
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Returns the index file for the given feature list.
+     */
+    public static File getIndexFile(File featureList) {
+        return new File(featureList.getPath() + INDEX_EXT);
+    }
+
+    /**
+     * Open the index for the given feature list. If there is no index, or it is out of date or
+     * can't be read, the feature list is parsed and a new index is written.
+     *
+     * @param featureList the feature list file
+     * @return the index
+     * @throws Exception if the feature list can't be parsed
+     */
+    public static FeatureIndex open(File featureList) throws Exception {
+        FeatureIndex index = load(featureList);
+        if (index != null) {
+            try {
+                index.getFeatureMaps();
+                return index;
+            } catch (RuntimeException e) {
+                if (Trace.ENABLED)
+                    Trace.trace(Trace.WARNING, "Could not read feature index: " + getIndexFile(featureList), e);
+            }
+        }
+
+        // record the state of the file before it is parsed so a concurrent change invalidates the index
+        long length = featureList.length();
+        long lastModified = featureList.lastModified();
+        HashMap<FeatureMapType, HashMap<String, Feature>> map;
+        InputStream is = null;
+        try {
+            is = new FileInputStream(featureList);
+            map = FeatureInfoHandler.parseFeatureListXML(is);
+        } finally {
+            if (is != null) {
+                try {
+                    is.close();
+                } catch (IOException e) {
+                    if (Trace.ENABLED)
+                        Trace.trace(Trace.WARNING, "Error closing featurelist file", e);
+                }
+            }
+        }
+        return write(map, featureList, length, lastModified);
+    }
+
+    /**
+     * Open the index for the given feature list if it is up to date.
+     *
+     * @param featureList the feature list file
+     * @return the index, or <code>null</code> if there is no index or it is out of date
+     */
+    public static FeatureIndex load(File featureList) {
+        File indexFile = getIndexFile(featureList);
+        if (!indexFile.exists())
+            return null;
+
+        long time = System.currentTimeMillis();
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(indexFile.toPath(), StandardOpenOption.READ);
+
+            // check the header before the file is mapped, a mapped file can't be replaced on some platforms
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // read the whole header
+            }
+            if (header.hasRemaining() || header.getInt(0) != MAGIC || header.getInt(4) != VERSION || header.getInt(68) != channel.size()
+                || header.getLong(8) != featureList.length() || header.getLong(16) != featureList.lastModified()) {
+                if (Trace.ENABLED)
+                    Trace.trace(Trace.INFO, "Feature index is out of date: " + indexFile);
+                return null;
+            }
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            FeatureIndex index = new FeatureIndex(buffer);
+            if (Trace.ENABLED)
+                Trace.tracePerf("Feature index load", time);
+            return index;
+        } catch (Exception e) {
+            if (Trace.ENABLED)
+                Trace.trace(Trace.WARNING, "Could not read feature index: " + indexFile, e);
+            return null;
+        } finally {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    // ignore, the mapping stays valid
+                }
+            }
+        }
+    }
+
+    /**
+     * Build an index for the given feature maps and write it next to the feature list. If the
+     * index cannot be written an index held in memory is returned.
+     *
+     * @param featureMaps the feature maps parsed from the feature list
+     * @param featureList the feature list file
+     * @param length the size of the feature list when it was parsed
+     * @param lastModified the timestamp of the feature list when it was parsed
+     * @return the index
+     */
+    public static FeatureIndex write(HashMap<FeatureMapType, HashMap<String, Feature>> featureMaps, File featureList, long length, long lastModified) {
+        long time = System.currentTimeMillis();
+        byte[] bytes = build(featureMaps, length, lastModified);
+        FeatureIndex index = null;
+
+        File indexFile = getIndexFile(featureList);
+        File tempFile = new File(indexFile.getPath() + ".tmp");
+        OutputStream out = null;
+        try {
+            out = new FileOutputStream(tempFile);
+            out.write(bytes);
+            out.close();
+            out = null;
+            FileUtil.deleteFile(indexFile);
+            if (tempFile.renameTo(indexFile))
+                index = load(featureList);
+        } catch (IOException e) {
+            if (Trace.ENABLED)
+                Trace.trace(Trace.WARNING, "Could not write feature index: " + indexFile, e);
+        } finally {
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException e) {
+                    // ignore
+                }
+            }
+            if (tempFile.exists())
+                FileUtil.deleteFile(tempFile);
+        }
+
+        if (index == null)
+            index = create(bytes);
+        index.featureMaps = featureMaps;
+        if (Trace.ENABLED)
+            Trace.tracePerf("Feature index write", time);
+        return index;
+    }
+
+    /**
+     * Build an index for the given feature maps that is only held in memory.
+     *
+     * @param featureMaps the feature maps
+     * @return the index
+     */
+    public static FeatureIndex create(HashMap<FeatureMapType, HashMap<String, Feature>> featureMaps) {
+        FeatureIndex index = create(build(featureMaps, -1, -1));
+        index.featureMaps = featureMaps;
+        return index;
+    }
+
+    private static FeatureIndex create(byte[] bytes) {
+        try {
+            return new FeatureIndex(ByteBuffer.wrap(bytes));
+        } catch (IOException e) {
+            // can't happen, the header was just written
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns the feature maps held by this index. The maps are created on the first call and
+     * the same maps are returned after that.
+     */
+    public synchronized HashMap<FeatureMapType, HashMap<String, Feature>> getFeatureMaps() {
+        if (featureMaps == null) {
+            long time = System.currentTimeMillis();
+            Feature[] features = new Feature[featureCount];
+            for (int i = 0; i < featureCount; i++)
+                features[i] = readFeature(i);
+
+            HashMap<FeatureMapType, HashMap<String, Feature>> maps = new HashMap<FeatureMapType, HashMap<String, Feature>>();
+            maps.put(FeatureMapType.PUBLIC_FEATURES_KEYED_BY_NAME, readEntries(publicCount, publicOffset, features));
+            maps.put(FeatureMapType.ALL_FEATURES_KEYED_BY_SYMBOLIC_NAME, readEntries(symbolicCount, symbolicOffset, features));
+            featureMaps = maps;
+            if (Trace.ENABLED)
+                Trace.tracePerf("Feature index read " + featureCount + " features", time);
+        }
+        return featureMaps;
+    }
+
+    /**
+     * Returns the public feature name matching the given name, ignoring case, or <code>null</code>
+     * if this index does not define the feature.
+     */
+    public String getFeatureName(String name) {
+        int node = findNode(name);
+        if (node < 0 || getNodeFeature(node) < 0)
+            return null;
+        return getString(buffer.getInt(getNodeOffset(node) + 4));
+    }
+
+    /**
+     * Returns the features enabled by the given feature, directly or indirectly, not including
+     * the feature itself. Features defined outside this index are included but not followed.
+     *
+     * @param name a public feature name
+     * @return the enabled features, or <code>null</code> if this index does not define the feature
+     */
+    public List<String> getChildren(String name) {
+        int node = findNode(name);
+        if (node < 0 || getNodeFeature(node) < 0)
+            return null;
+        int pos = getNodeOffset(node) + 12;
+        return readNodeNames(pos);
+    }
+
+    /**
+     * Returns the public features in this index that enable the given feature, directly or
+     * indirectly, not including the feature itself.
+     *
+     * @param name a feature name
+     * @return the enabling features, or <code>null</code> if no feature in this index enables the feature
+     */
+    public List<String> getParents(String name) {
+        int node = findNode(name);
+        if (node < 0)
+            return null;
+        int pos = getNodeOffset(node) + 12;
+        pos += 4 + 4 * buffer.getInt(pos);
+        return readNodeNames(pos);
+    }
+
+    private List<String> readNodeNames(int pos) {
+        int count = buffer.getInt(pos);
+        List<String> names = new ArrayList<String>(count);
+        for (int i = 0; i < count; i++) {
+            int n = buffer.getInt(pos + 4 + 4 * i);
+            names.add(getString(buffer.getInt(getNodeOffset(n) + 4)));
+        }
+        return names;
+    }
+
+    private int findNode(String name) {
+        if (name == null)
+            return -1;
+        String key = name.toLowerCase(Locale.ENGLISH);
+        int low = 0;
+        int high = nodeCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = getString(buffer.getInt(getNodeOffset(mid))).compareTo(key);
+            if (cmp < 0)
+                low = mid + 1;
+            else if (cmp > 0)
+                high = mid - 1;
+            else
+                return mid;
+        }
+        return -1;
+    }
+
+    private int getNodeOffset(int node) {
+        return buffer.getInt(nodesOffset + 4 * node);
+    }
+
+    private int getNodeFeature(int node) {
+        return buffer.getInt(getNodeOffset(node) + 8);
+    }
+
+    private String getString(int id) {
+        if (id < 0)
+            return null;
+        String s = strings[id];
+        if (s == null) {
+            int pos = buffer.getInt(stringsOffset + 4 * id);
+            int len = buffer.getInt(pos);
+            byte[] b = new byte[len];
+            ByteBuffer dup = buffer.duplicate();
+            dup.position(pos + 4);
+            dup.get(b);
+            s = new String(b, StandardCharsets.UTF_8);
+            strings[id] = s;
+        }
+        return s;
+    }
+
+    private HashMap<String, Feature> readEntries(int count, int offset, Feature[] features) {
+        HashMap<String, Feature> map = new HashMap<String, Feature>(count * 2);
+        for (int i = 0; i < count; i++) {
+            int pos = offset + 8 * i;
+            map.put(getString(buffer.getInt(pos)), features[buffer.getInt(pos + 4)]);
+        }
+        return map;
+    }
+
+    private Feature readFeature(int i) {
+        Reader r = new Reader(buffer.getInt(featuresOffset + 4 * i));
+        String name = r.string();
+        String featureInfoName = r.string();
+        int type = r.integer();
+        Feature f = new Feature(name, featureInfoName, type < 0 ? null : FEATURE_TYPES[type]);
+        int flags = r.integer();
+        f.setSuperseded((flags & FLAG_SUPERSEDED) != 0);
+        f.setSingleton((flags & FLAG_SINGLETON) != 0);
+        String s = r.string();
+        if (s != null)
+            f.setDisplayName(s);
+        s = r.string();
+        if (s != null)
+            f.setDescription(s);
+        s = r.string();
+        if (s != null)
+            f.setSymbolicName(s);
+        r.strings(f.getEnables());
+        r.strings(f.getApiJars());
+        r.strings(f.getSpiJars());
+        r.strings(f.getApiPackages());
+        r.strings(f.getSpiPackages());
+        r.strings(f.getConfigElements());
+        r.strings(f.getAutoProvisions());
+        r.strings(f.getCategoryElements());
+        r.strings(f.getProcessTypes());
+        r.strings(f.getSupersededBy());
+        int includes = r.integer();
+        for (int j = 0; j < includes; j++) {
+            String key = r.string();
+            List<String> tolerates = new ArrayList<String>();
+            r.strings(tolerates);
+            f.getIncludes().put(key, tolerates);
+        }
+        return f;
+    }
+
+    private class Reader {
+        private int pos;
+
+        Reader(int pos) {
+            this.pos = pos;
+        }
+
+        int integer() {
+            int v = buffer.getInt(pos);
+            pos += 4;
+            return v;
+        }
+
+        String string() {
+            return getString(integer());
+        }
+
+        void strings(Collection<String> c) {
+            int count = integer();
+            for (int i = 0; i < count; i++)
+                c.add(string());
+        }
+    }
+
+    // ---- building ----
+
+    private static class Builder {
+        final Map<String, Integer> stringIds = new LinkedHashMap<String, Integer>();
+        final List<String> stringList = new ArrayList<String>();
+
+        int intern(String s) {
+            if (s == null)
+                return -1;
+            Integer id = stringIds.get(s);
+            if (id == null) {
+                id = Integer.valueOf(stringList.size());
+                stringIds.put(s, id);
+                stringList.add(s);
+            }
+            return id.intValue();
+        }
+
+        void strings(DataOutputStream out, Collection<String> c) throws IOException {
+            out.writeInt(c.size());
+            for (String s : c)
+                out.writeInt(intern(s));
+        }
+    }
+
+    private static class Node {
+        final String key;
+        String name;
+        int feature = -1;
+        int id;
+        final List<Node> enables = new ArrayList<Node>(4);
+        final List<Node> enabledBy = new ArrayList<Node>(4);
+        List<Node> children = Collections.emptyList();
+        List<Node> parents = Collections.emptyList();
+
+        Node(String key, String name) {
+            this.key = key;
+            this.name = name;
+        }
+    }
+
+    private static byte[] build(HashMap<FeatureMapType, HashMap<String, Feature>> featureMaps, long length, long lastModified) {
+        Map<String, Feature> publicMap = getMap(featureMaps, FeatureMapType.PUBLIC_FEATURES_KEYED_BY_NAME);
+        Map<String, Feature> symbolicMap = getMap(featureMaps, FeatureMapType.ALL_FEATURES_KEYED_BY_SYMBOLIC_NAME);
+
+        // number every distinct feature object
+        IdentityHashMap<Feature, Integer> featureIds = new IdentityHashMap<Feature, Integer>();
+        List<Feature> features = new ArrayList<Feature>();
+        addFeatures(publicMap, featureIds, features);
+        addFeatures(symbolicMap, featureIds, features);
+
+        // the enables graph of the public features, keyed by lower case name
+        TreeMap<String, Node> nodes = new TreeMap<String, Node>();
+        for (Map.Entry<String, Feature> entry : publicMap.entrySet()) {
+            if (entry.getKey() == null || entry.getValue() == null)
+                continue;
+            Node node = getNode(nodes, entry.getKey());
+            node.name = entry.getKey();
+            node.feature = featureIds.get(entry.getValue()).intValue();
+        }
+        for (Map.Entry<String, Feature> entry : publicMap.entrySet()) {
+            if (entry.getKey() == null || entry.getValue() == null)
+                continue;
+            Node node = nodes.get(entry.getKey().toLowerCase(Locale.ENGLISH));
+            for (String enabled : entry.getValue().getEnables()) {
+                Node child = getNode(nodes, enabled);
+                if (child != node && !node.enables.contains(child)) {
+                    node.enables.add(child);
+                    child.enabledBy.add(node);
+                }
+            }
+        }
+        int id = 0;
+        for (Node node : nodes.values())
+            node.id = id++;
+        for (Node node : nodes.values()) {
+            if (node.feature >= 0)
+                node.children = closure(node, true);
+            node.parents = closure(node, false);
+        }
+
+        try {
+            Builder b = new Builder();
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.write(new byte[HEADER_SIZE]);
+
+            // features
+            int[] featureOffsets = new int[features.size()];
+            for (int i = 0; i < features.size(); i++) {
+                featureOffsets[i] = out.size();
+                Feature f = features.get(i);
+                out.writeInt(b.intern(f.getName()));
+                out.writeInt(b.intern(f.getFeatureInfoName()));
+                out.writeInt(f.getFeatureType() == null ? -1 : f.getFeatureType().ordinal());
+                out.writeInt((f.isSuperseded() ? FLAG_SUPERSEDED : 0) | (f.isSingleton() ? FLAG_SINGLETON : 0));
+                out.writeInt(b.intern(f.getDisplayName()));
+                out.writeInt(b.intern(f.getDescription()));
+                out.writeInt(b.intern(f.getSymbolicName()));
+                b.strings(out, f.getEnables());
+                b.strings(out, f.getApiJars());
+                b.strings(out, f.getSpiJars());
+                b.strings(out, f.getApiPackages());
+                b.strings(out, f.getSpiPackages());
+                b.strings(out, f.getConfigElements());
+                b.strings(out, f.getAutoProvisions());
+                b.strings(out, f.getCategoryElements());
+                b.strings(out, f.getProcessTypes());
+                b.strings(out, f.getSupersededBy());
+                out.writeInt(f.getIncludes().size());
+                for (Map.Entry<String, List<String>> include : f.getIncludes().entrySet()) {
+                    out.writeInt(b.intern(include.getKey()));
+                    b.strings(out, include.getValue() == null ? Collections.<String> emptyList() : include.getValue());
+                }
+            }
+            int featuresOffset = out.size();
+            for (int offset : featureOffsets)
+                out.writeInt(offset);
+
+            // map entries
+            int publicOffset = writeEntries(out, b, publicMap, featureIds);
+            int symbolicOffset = writeEntries(out, b, symbolicMap, featureIds);
+
+            // nodes, in key order
+            int[] nodeOffsets = new int[nodes.size()];
+            for (Node node : nodes.values()) {
+                nodeOffsets[node.id] = out.size();
+                out.writeInt(b.intern(node.key));
+                out.writeInt(b.intern(node.name));
+                out.writeInt(node.feature);
+                writeNodes(out, node.children);
+                writeNodes(out, node.parents);
+            }
+            int nodesOffset = out.size();
+            for (int offset : nodeOffsets)
+                out.writeInt(offset);
+
+            // strings
+            int[] stringOffsets = new int[b.stringList.size()];
+            for (int i = 0; i < stringOffsets.length; i++) {
+                stringOffsets[i] = out.size();
+                byte[] s = b.stringList.get(i).getBytes(StandardCharsets.UTF_8);
+                out.writeInt(s.length);
+                out.write(s);
+            }
+            int stringsOffset = out.size();
+            for (int offset : stringOffsets)
+                out.writeInt(offset);
+            out.close();
+
+            ByteBuffer header = ByteBuffer.wrap(bytes.toByteArray());
+            header.putInt(0, MAGIC);
+            header.putInt(4, VERSION);
+            header.putLong(8, length);
+            header.putLong(16, lastModified);
+            header.putInt(24, stringOffsets.length);
+            header.putInt(28, stringsOffset);
+            header.putInt(32, features.size());
+            header.putInt(36, featuresOffset);
+            header.putInt(40, publicMap.size());
+            header.putInt(44, publicOffset);
+            header.putInt(48, symbolicMap.size());
+            header.putInt(52, symbolicOffset);
+            header.putInt(56, nodes.size());
+            header.putInt(60, nodesOffset);
+            header.putInt(68, header.capacity());
+            header.putInt(64, checksum(header));
+            return header.array();
+        } catch (IOException e) {
+            // can't happen when writing to memory
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Map<String, Feature> getMap(HashMap<FeatureMapType, HashMap<String, Feature>> featureMaps, FeatureMapType type) {
+        Map<String, Feature> map = featureMaps == null ? null : featureMaps.get(type);
+        if (map == null)
+            return Collections.emptyMap();
+        // drop null keys and values so that every entry can be written
+        Map<String, Feature> result = new LinkedHashMap<String, Feature>(map.size() * 2);
+        for (Map.Entry<String, Feature> entry : map.entrySet()) {
+            if (entry.getKey() != null && entry.getValue() != null)
+                result.put(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    private static void addFeatures(Map<String, Feature> map, IdentityHashMap<Feature, Integer> featureIds, List<Feature> features) {
+        for (Feature f : map.values()) {
+            if (!featureIds.containsKey(f)) {
+                featureIds.put(f, Integer.valueOf(features.size()));
+                features.add(f);
+            }
+        }
+    }
+
+    private static Node getNode(Map<String, Node> nodes, String name) {
+        String key = name.toLowerCase(Locale.ENGLISH);
+        Node node = nodes.get(key);
+        if (node == null) {
+            node = new Node(key, name);
+            nodes.put(key, node);
+        }
+        return node;
+    }
+
+    private static List<Node> closure(Node start, boolean down) {
+        Set<Node> found = Collections.newSetFromMap(new LinkedHashMap<Node, Boolean>());
+        ArrayDeque<Node> queue = new ArrayDeque<Node>();
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            for (Node next : down ? node.enables : node.enabledBy) {
+                if (next != start && found.add(next))
+                    queue.add(next);
+            }
+        }
+        return new ArrayList<Node>(found);
+    }
+
+    private static int writeEntries(DataOutputStream out, Builder b, Map<String, Feature> map, IdentityHashMap<Feature, Integer> featureIds) throws IOException {
+        int offset = out.size();
+        for (Map.Entry<String, Feature> entry : map.entrySet()) {
+            out.writeInt(b.intern(entry.getKey()));
+            out.writeInt(featureIds.get(entry.getValue()).intValue());
+        }
+        return offset;
+    }
+
+    private static void writeNodes(DataOutputStream out, List<Node> nodes) throws IOException {
+        out.writeInt(nodes.size());
+        for (Node node : nodes)
+            out.writeInt(node.id);
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2017 IBM Corporation and others.
+ * Copyright (c) 2012, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,9 +12,22 @@ package com.ibm.ws.st.core.internal.generation;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
@@ -38,12 +51,24 @@ public class GeneratorJob extends Job {
     // wait a maximum of 1 minute for the generation of either the schema or feature list
     static final int NUMBER_OF_ATTEMPTS = 120;
 
-    static final GeneratorSchedulingRule GENERATOR_RULE = new GeneratorSchedulingRule();
+    public static final String GENERATOR_THREADS_PROPERTY = "com.ibm.ws.st.metadataGeneratorThreads";
+
+    // each generator forks a JVM, so keep the pool small even on machines with many cores
+    private static final int DEFAULT_MAX_THREADS = 3;
+
+    private static ThreadPoolExecutor pool;
+
+    // jobs that are scheduled but have not started yet, by generator id
+    private static final Map<String, GeneratorJob> queuedJobs = new HashMap<String, GeneratorJob>();
 
     IMetadataGenerator metadataGen;
-    final Helper[] helpers;
+    Helper[] helpers;
+    private boolean started;
     final Map<Helper, IPath> helperPathMap = new HashMap<Helper, IPath>();
 
+    // key of the runtime install in the shared metadata store, or null if the store is not used
+    private String installKey;
+
     static int numberOfAttempts = NUMBER_OF_ATTEMPTS;
 
     public interface Helper {
@@ -51,15 +76,88 @@ public class GeneratorJob extends Job {
     }
 
     static public void generate(IMetadataGenerator metadataGen, Helper[] helpers, IJobChangeListener[] listeners) {
-        GeneratorJob job = new GeneratorJob(metadataGen, helpers);
+        String generatorId = metadataGen.getGeneratorId();
+        GeneratorJob job;
+        int queueDepth;
+        synchronized (queuedJobs) {
+            // if a job for the same generator is still waiting, have it generate the new metadata as well.
+            // A job that was cancelled before it started is no longer scheduled
+            job = queuedJobs.get(generatorId);
+            if (job != null && job.metadataGen == metadataGen && !job.started && job.getState() != Job.NONE) {
+                job.addHelpers(helpers);
+                if (listeners != null) {
+                    for (IJobChangeListener listener : listeners) {
+                        job.addJobChangeListener(listener);
+                    }
+                }
+                if (Trace.ENABLED)
+                    Trace.trace(Trace.INFO, "Generator job: Merged request for " + generatorId + " into the queued job. Queued jobs: " + queuedJobs.size());
+                return;
+            }
+
+            job = new GeneratorJob(metadataGen, helpers);
+            queuedJobs.put(generatorId, job);
+            queueDepth = queuedJobs.size();
+        }
+
         if (listeners != null) {
             for (IJobChangeListener listener : listeners) {
                 job.addJobChangeListener(listener);
             }
         }
         job.setPriority(Job.SHORT);
-        job.setRule(GENERATOR_RULE);
+        job.setRule(new GeneratorSchedulingRule(generatorId));
         job.schedule();
+        if (Trace.ENABLED)
+            Trace.trace(Trace.INFO, "Generator job: Scheduled for " + generatorId + ". Queued jobs: " + queueDepth);
+    }
+
+    /**
+     * Shut down the shared generator pool.
+     */
+    public static synchronized void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+            pool = null;
+        }
+    }
+
+    private static synchronized ThreadPoolExecutor getPool() {
+        if (pool == null) {
+            int threads = getThreadCount();
+            pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "WebSphere metadata generator-" + count.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+            pool.allowCoreThreadTimeOut(true);
+        }
+        return pool;
+    }
+
+    private static int getThreadCount() {
+        int threads = Math.max(1, Math.min(DEFAULT_MAX_THREADS, Runtime.getRuntime().availableProcessors() / 2));
+        String prop = System.getProperty(GENERATOR_THREADS_PROPERTY);
+        if (prop != null && !prop.isEmpty()) {
+            try {
+                threads = Math.max(1, Integer.parseInt(prop));
+            } catch (NumberFormatException e) {
+                Trace.logError("The metadata generator thread count specified is not valid: " + prop + ". The default will be used: " + threads, e);
+            }
+        }
+        return threads;
+    }
+
+    // called with the queued jobs lock held
+    private void addHelpers(Helper[] newHelpers) {
+        Set<Helper> set = new LinkedHashSet<Helper>(Arrays.asList(helpers));
+        set.addAll(Arrays.asList(newHelpers));
+        helpers = set.toArray(new Helper[set.size()]);
     }
 
     // for testing purposes only
@@ -77,6 +175,12 @@ public class GeneratorJob extends Job {
 
     @Override
     protected IStatus run(IProgressMonitor monitor) {
+        synchronized (queuedJobs) {
+            started = true;
+            if (queuedJobs.get(metadataGen.getGeneratorId()) == this)
+                queuedJobs.remove(metadataGen.getGeneratorId());
+        }
+
         if (monitor.isCanceled())
             return Status.CANCEL_STATUS;
 
@@ -86,69 +190,88 @@ public class GeneratorJob extends Job {
         int totalWork = helpers.length * singleUnitTicks;
         monitor.beginTask(NLS.bind(Messages.jobRuntimeCache, metadataGen.getGeneratorId()), totalWork);
 
-        final IStatus[] finalStatus = { Status.OK_STATUS };
-        List<Thread> threads = new ArrayList<Thread>();
+        IStatus finalStatus = Status.OK_STATUS;
+        List<Future<IStatus>> futures = new ArrayList<Future<IStatus>>(helpers.length);
 
         // Defect 183320: The temporary files should be associated and deleted within the scope of a single job
         // otherwise when multiple jobs are scheduled there can be timing issues that cause the job to fail.
         associateTempFiles();
         deleteTempFiles();
 
-        // start the worker threads
+        // runtimes with identical installs generate identical metadata, so look for it in the store first
+        installKey = MetadataStore.getInstallKey(metadataGen);
+
+        // queue the helpers on the shared pool, which limits the number of generators running
+        // at the same time across all runtimes
+        ThreadPoolExecutor executor = getPool();
         for (final Helper helper : helpers) {
             if (monitor.isCanceled())
-                return Status.CANCEL_STATUS;
-            Thread t = new Thread(helper.getClass().getName()) {
-                @Override
-                public void run() {
-                    IStatus status = generate(helper, new SubProgressMonitor(monitor2, singleUnitTicks));
-                    // Only update if the previous status was OK. For a cancel
-                    // operation we already check the progress monitor.
-                    if (finalStatus[0].isOK()) {
-                        finalStatus[0] = status;
+                break;
+            try {
+                futures.add(executor.submit(new Callable<IStatus>() {
+                    @Override
+                    public IStatus call() {
+                        long helperTime = System.currentTimeMillis();
+                        IStatus status = generate(helper, new SubProgressMonitor(monitor2, singleUnitTicks));
+                        if (Trace.ENABLED)
+                            Trace.tracePerf("Generator job: " + helper.getTarget(metadataGen).lastSegment() + " for " + metadataGen.getGeneratorId(), helperTime);
+                        return status;
                     }
-                }
-            };
-            threads.add(t);
-            t.start();
+                }));
+            } catch (RejectedExecutionException e) {
+                // the pool was shut down
+                finalStatus = Status.CANCEL_STATUS;
+                break;
+            }
         }
         if (Trace.ENABLED)
-            Trace.trace(Trace.INFO, "Generator Job: All metadata generation threads started");
+            Trace.trace(Trace.INFO, "Generator Job: All metadata generation tasks queued. Pool queue: " + executor.getQueue().size() + ", active: "
+                                    + executor.getActiveCount());
 
-        // wait for all threads to complete
-        for (Thread t : threads) {
+        // wait for all tasks to complete
+        for (Future<IStatus> future : futures) {
             try {
-                t.join();
-                Trace.trace(Trace.INFO, "Thread " + t.getName() + " completed.");
+                IStatus status = future.get();
+                // Only update if the previous status was OK. For a cancel
+                // operation we already check the progress monitor.
+                if (finalStatus.isOK())
+                    finalStatus = status;
             } catch (InterruptedException e) {
                 // do nothing
+            } catch (ExecutionException e) {
+                if (finalStatus.isOK())
+                    finalStatus = new Status(IStatus.ERROR, Activator.PLUGIN_ID, NLS.bind(Messages.metadataGenerationFailedDetails, metadataGen.getGeneratorId()), e.getCause());
+            } catch (CancellationException e) {
+                finalStatus = Status.CANCEL_STATUS;
             } finally {
                 monitor.worked(100 / helpers.length);
             }
         }
 
-        if (monitor.isCanceled()) {
+        if (monitor.isCanceled() || finalStatus == Status.CANCEL_STATUS) {
             deleteTempFiles();
             return Status.CANCEL_STATUS;
         }
 
-        if (!finalStatus[0].isOK()) {
+        if (!finalStatus.isOK()) {
             deleteTempFiles();
-            Trace.logError(NLS.bind(Messages.metadataGenerationFailedDetails, metadataGen.getGeneratorId()), finalStatus[0].getException());
+            Trace.logError(NLS.bind(Messages.metadataGenerationFailedDetails, metadataGen.getGeneratorId()), finalStatus.getException());
         } else {
-            finalStatus[0] = renameTempFiles();
+            finalStatus = renameTempFiles();
 
             // delete any remaining temporary files, if there was failure during
             // the renaming process
-            if (!finalStatus[0].isOK())
+            if (!finalStatus.isOK())
                 deleteTempFiles();
+            else
+                storeFiles();
         }
 
         monitor.done();
         if (Trace.ENABLED)
-            Trace.tracePerf("Generator job: All metadata generation threads finished", time);
+            Trace.tracePerf("Generator job: All metadata generation tasks finished for " + metadataGen.getGeneratorId(), time);
 
-        return finalStatus[0];
+        return finalStatus;
     }
 
     protected IStatus generate(Helper helper, IProgressMonitor monitor) {
@@ -158,6 +281,10 @@ public class GeneratorJob extends Job {
         if (monitor.isCanceled())
             return Status.CANCEL_STATUS;
 
+        String key = getStoreKey(helper);
+        if (key != null && MetadataStore.restore(key, helper.getTarget(metadataGen).lastSegment(), tempPath.toFile()))
+            return Status.OK_STATUS;
+
         try {
             if (helper instanceof SchemaMetadata)
                 metadataGen.generateSchema(tempPath.toOSString(), monitor, NUMBER_OF_ATTEMPTS);
@@ -174,6 +301,27 @@ public class GeneratorJob extends Job {
         return Status.OK_STATUS;
     }
 
+    private String getStoreKey(Helper helper) {
+        if (installKey == null)
+            return null;
+        String[] options = null;
+        if (helper instanceof AbstractFeatureListMetadata)
+            options = ((AbstractFeatureListMetadata) helper).getCommandOptions();
+        else if (!(helper instanceof SchemaMetadata))
+            return null;
+        return MetadataStore.getKey(installKey, helper.getTarget(metadataGen).lastSegment(), options);
+    }
+
+    private void storeFiles() {
+        for (Helper helper : helpers) {
+            String key = getStoreKey(helper);
+            if (key != null) {
+                IPath path = helper.getTarget(metadataGen);
+                MetadataStore.store(key, path.lastSegment(), path.toFile());
+            }
+        }
+    }
+
     private void associateTempFiles() {
         for (Helper helper : helpers) {
             IPath path = helper.getTarget(metadataGen);
@@ -199,6 +347,8 @@ public class GeneratorJob extends Job {
                 if (tempFile.exists()) {
                     File toFile = path.toFile();
                     FileUtil.deleteFile(toFile);
+                    if (helper instanceof AbstractFeatureListMetadata)
+                        FileUtil.deleteFile(FeatureIndex.getIndexFile(toFile));
                     if (!WebSphereRuntime.rename(tempFile, toFile)) {
                         Trace.logError("Failed to generate " + helper.getTarget(metadataGen).toOSString() + " because the temporary file could not be renamed", null);
                         return new Status(IStatus.ERROR, Activator.PLUGIN_ID, NLS.bind(Messages.metadataGenerationFailedDetails, generatorId));
@@ -219,20 +369,25 @@ public class GeneratorJob extends Job {
         return Constants.JOB_FAMILY.equals(family);
     }
 
+    /**
+     * Generation for a runtime or server writes to its own metadata directory, so jobs
+     * only conflict with other jobs for the same generator.
+     */
     private static class GeneratorSchedulingRule implements ISchedulingRule {
+        private final String generatorId;
 
-        GeneratorSchedulingRule() {
-            // empty
+        GeneratorSchedulingRule(String generatorId) {
+            this.generatorId = generatorId;
         }
 
         @Override
         public boolean contains(ISchedulingRule rule) {
-            return rule == GENERATOR_RULE;
+            return isConflicting(rule);
         }
 
         @Override
         public boolean isConflicting(ISchedulingRule rule) {
-            return rule == GENERATOR_RULE;
+            return rule instanceof GeneratorSchedulingRule && generatorId.equals(((GeneratorSchedulingRule) rule).generatorId);
         }
     }
 }
\ No newline at end of file
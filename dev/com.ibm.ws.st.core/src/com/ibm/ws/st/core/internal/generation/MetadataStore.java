@@ -0,0 +1,189 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package com.ibm.ws.st.core.internal.generation;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.IPath;
+
+import com.ibm.ws.st.core.internal.Activator;
+import com.ibm.ws.st.core.internal.FileUtil;
+import com.ibm.ws.st.core.internal.Trace;
+import com.ibm.ws.st.core.internal.WebSphereRuntime;
+import com.ibm.ws.st.core.internal.WebSphereRuntimeProductInfoCacheUtil;
+
+/**
+ * Store for generated runtime metadata that is shared by all runtimes with identical installs.
+ * Entries are keyed by a digest of the runtime's install key, the locale and the generation
+ * options, and are hard linked into each runtime's metadata directory (or copied if the file
+ * system does not support links).
+ */
+public class MetadataStore {
+    private static final String STORE_FOLDER = "metadataStore";
+
+    // entries that have not been used for this long are removed
+    private static final long MAX_UNUSED_AGE = TimeUnit.DAYS.toMillis(60);
+
+    private static boolean isCleaned = false;
+
+    private MetadataStore() {
+        // static only
+    }
+
+    /**
+     * Returns the key of the install for the given generator, or <code>null</code> if its metadata
+     * cannot be shared. Only runtime metadata is shared, server metadata depends on the server's
+     * user directory.
+     *
+     * @param metadataGen the generator
+     * @return the install key, or <code>null</code>
+     */
+    static String getInstallKey(IMetadataGenerator metadataGen) {
+        if (!(metadataGen instanceof WebSphereRuntime))
+            return null;
+        return WebSphereRuntimeProductInfoCacheUtil.getInstallKey((WebSphereRuntime) metadataGen);
+    }
+
+    /**
+     * Returns the key of a metadata file.
+     *
+     * @param installKey the install key
+     * @param fileName the name of the metadata file
+     * @param options the generation options, may be <code>null</code>
+     * @return the key
+     */
+    static String getKey(String installKey, String fileName, String[] options) {
+        StringBuilder sb = new StringBuilder(installKey);
+        sb.append(Locale.getDefault()).append('\n').append(fileName).append('\n');
+        if (options != null) {
+            for (String o : options)
+                sb.append(o).append('\n');
+        }
+
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            byte[] digest = md.digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest)
+                hex.append(String.format("%02x", Integer.valueOf(b & 0xFF)));
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            return null;
+        }
+    }
+
+    private static File getStoreFile(String key, String fileName) {
+        IPath path = Activator.getInstance().getStateLocation().append(STORE_FOLDER).append(key).append(fileName);
+        return path.toFile();
+    }
+
+    /**
+     * Link or copy a stored metadata file to the given file.
+     *
+     * @param key the key of the metadata file
+     * @param fileName the name of the metadata file
+     * @param to the file to create
+     * @return <code>true</code> if the file was found in the store, and <code>false</code> otherwise
+     */
+    static boolean restore(String key, String fileName, File to) {
+        File file = getStoreFile(key, fileName);
+        if (!file.exists())
+            return false;
+
+        FileUtil.deleteFile(to);
+        if (!link(file, to))
+            return false;
+
+        // mark the entry as used
+        if (!file.getParentFile().setLastModified(System.currentTimeMillis()) && Trace.ENABLED)
+            Trace.trace(Trace.WARNING, "Could not update metadata store entry: " + file);
+
+        if (Trace.ENABLED)
+            Trace.trace(Trace.INFO, "Metadata restored from store: " + file + " to " + to);
+        return true;
+    }
+
+    /**
+     * Add a generated metadata file to the store, if it is not already there.
+     *
+     * @param key the key of the metadata file
+     * @param fileName the name of the metadata file
+     * @param from the generated file
+     */
+    static synchronized void store(String key, String fileName, File from) {
+        File file = getStoreFile(key, fileName);
+        if (file.exists() || !from.exists())
+            return;
+
+        cleanUp();
+
+        File dir = file.getParentFile();
+        if (!dir.exists() && !dir.mkdirs()) {
+            if (Trace.ENABLED)
+                Trace.trace(Trace.WARNING, "Could not create metadata store entry: " + dir);
+            return;
+        }
+
+        // link through a temp file so that a partial file is never seen
+        File temp = new File(dir, fileName + ".tmp");
+        FileUtil.deleteFile(temp);
+        if (link(from, temp) && !temp.renameTo(file))
+            FileUtil.deleteFile(temp);
+    }
+
+    private static boolean link(File from, File to) {
+        try {
+            Files.createLink(to.toPath(), from.toPath());
+            return true;
+        } catch (UnsupportedOperationException | IOException e) {
+            // fall back to a copy
+        }
+        try {
+            Files.copy(from.toPath(), to.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        } catch (IOException e) {
+            if (Trace.ENABLED)
+                Trace.trace(Trace.WARNING, "Could not copy metadata file " + from + " to " + to, e);
+        }
+        return false;
+    }
+
+    // Remove entries that have not been used for a while, once per session
+    private static void cleanUp() {
+        if (isCleaned)
+            return;
+        isCleaned = true;
+
+        File[] entries = Activator.getInstance().getStateLocation().append(STORE_FOLDER).toFile().listFiles();
+        if (entries == null)
+            return;
+
+        long oldest = System.currentTimeMillis() - MAX_UNUSED_AGE;
+        for (File entry : entries) {
+            if (entry.isDirectory() && entry.lastModified() < oldest) {
+                try {
+                    FileUtil.deleteDirectory(entry.getAbsolutePath(), true);
+                } catch (IOException e) {
+                    if (Trace.ENABLED)
+                        Trace.trace(Trace.WARNING, "Could not remove metadata store entry: " + entry, e);
+                }
+            }
+        }
+    }
+}
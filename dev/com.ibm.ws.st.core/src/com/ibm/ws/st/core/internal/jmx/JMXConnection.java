@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2018 IBM Corporation and others.
+ * Copyright (c) 2011, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -107,6 +107,21 @@ public class JMXConnection {
         this.password = password;
     }
 
+    /**
+     * Creates a connection that uses the same connector as the given connection.
+     *
+     * @param connection a connected connection
+     */
+    protected JMXConnection(JMXConnection connection) {
+        this.serverWorkAreaPath = connection.serverWorkAreaPath;
+        this.host = connection.host;
+        this.port = connection.port;
+        this.user = connection.user;
+        this.password = connection.password;
+        this.connector = connection.connector;
+        this.mbsc = connection.mbsc;
+    }
+
     public String getHost() {
         return host;
     }
@@ -253,6 +268,7 @@ public class JMXConnection {
             return mbsc.invoke(objectName, operation, params, signature);
         } catch (ConnectException e) {
             Trace.trace(Trace.JMX, "Failed JMX operation '" + operation + "' on objectName '" + objectName + "'", e);
+            connectionFailed();
             throw new JMXConnectionException();
         } catch (Exception e) {
             Trace.trace(Trace.JMX, "Failed JMX operation '" + operation + "' on objectName '" + objectName + "'", e);
@@ -495,6 +511,25 @@ public class JMXConnection {
         invoke(FILE_TRANSFER_MBEAN_NAME, "deleteFile", params, signature);
     }
 
+    /**
+     * Delete all of the given remote files and directories, recursively.
+     *
+     * @param remoteArtifacts the remote files and directories
+     * @return <code>true</code> if everything was deleted, <code>false</code> otherwise
+     * @throws Exception if the operation failed, or is not supported by the server
+     */
+    public boolean deleteAll(List<String> remoteArtifacts) throws Exception {
+        if (isLocalConnection())
+            throw new UnsupportedOperationException("Deleting files is only supported by the REST connector");
+
+        if (Trace.ENABLED)
+            Trace.trace(Trace.JMX, "Deleting remote files: " + remoteArtifacts);
+        Object[] params = new Object[] { remoteArtifacts };
+        String[] signature = new String[] { "java.util.List" };
+        Object result = invoke(FILE_TRANSFER_MBEAN_NAME, "deleteAll", params, signature);
+        return Boolean.TRUE.equals(result);
+    }
+
     public Object getMetadata(String path, String requestOptions) throws Exception {
         if (isLocalConnection())
             throw new UnsupportedOperationException("Querying the server is only supported by the REST connector");
@@ -613,6 +648,23 @@ public class JMXConnection {
         return serverWorkAreaPath != null;
     }
 
+    /**
+     * Called when an operation fails because the server could not be reached.
+     */
+    protected void connectionFailed() {
+        // do nothing
+    }
+
+    /**
+     * Returns the cache of server variables that have been resolved over this connection's
+     * connector, or <code>null</code> if the connector is not shared.
+     *
+     * @return the cache of resolved variables, or <code>null</code>
+     */
+    public Map<String, String> getConfigVarCache() {
+        return null;
+    }
+
     /**
      * Checks whether there is an Application MBean with the given module name. Returns true if and only if
      * the MBean exists.
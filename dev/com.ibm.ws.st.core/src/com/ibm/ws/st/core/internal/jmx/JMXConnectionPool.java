@@ -0,0 +1,425 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package com.ibm.ws.st.core.internal.jmx;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+
+import com.ibm.ws.st.core.internal.ApplicationNotificationListener;
+import com.ibm.ws.st.core.internal.ConfigurationListener;
+import com.ibm.ws.st.core.internal.ServerMonitorScheduler;
+import com.ibm.ws.st.core.internal.Trace;
+
+/**
+ * Shares JMX connections to the same server. Each connection that is handed out is a lease
+ * on a shared connector, and disconnecting the lease returns it to the pool instead of
+ * closing the connector. The connector is closed once it has not been leased for the idle
+ * timeout.
+ * <p>
+ * A connector that has not been used for a while is checked before it is leased again, and
+ * is reconnected if the check fails. Failed connection attempts are retried with a growing
+ * delay, and until the delay has passed further attempts fail right away. Notification
+ * listeners that were added through a lease are removed when the lease is disconnected.
+ */
+public class JMXConnectionPool {
+
+    public static final String IDLE_TIMEOUT_PROPERTY = "com.ibm.ws.st.jmxIdleTimeout";
+
+    /**
+     * Creates and connects a new JMX connection.
+     */
+    public interface ConnectionFactory {
+        public JMXConnection connect() throws Exception;
+    }
+
+    private static final long DEFAULT_IDLE_TIMEOUT = 60000;
+    private static final long HEALTH_CHECK_INTERVAL = 5000;
+    private static final long MIN_RETRY_DELAY = 250;
+    private static final long MAX_RETRY_DELAY = 4000;
+
+    private static final Map<String, Session> sessions = new HashMap<String, Session>();
+    private static final long idleTimeout = getIdleTimeout();
+
+    private JMXConnectionPool() {
+        // static methods only
+    }
+
+    /**
+     * Returns a connected JMX connection for the given key, reusing the connector of an
+     * existing connection with the same key if there is one. The connection must be
+     * disconnected when it is no longer needed.
+     *
+     * @param key identifies the server and the credentials used to connect to it
+     * @param factory creates the connection if there is no connector to reuse
+     * @return a connected JMX connection
+     * @throws Exception if the connection could not be created
+     */
+    public static JMXConnection getConnection(String key, ConnectionFactory factory) throws Exception {
+        return getConnection(key, factory, false);
+    }
+
+    static JMXConnection getConnection(String key, ConnectionFactory factory, boolean verify) throws Exception {
+        Session session;
+        synchronized (sessions) {
+            session = sessions.get(key);
+            if (session == null) {
+                session = new Session(key);
+                sessions.put(key, session);
+            }
+            // reserve the session so that it is not evicted while connecting
+            session.reserve();
+        }
+        return session.lease(factory, verify);
+    }
+
+    /**
+     * Check the connector for the given key before it is next leased.
+     *
+     * @param key identifies the server and the credentials used to connect to it
+     */
+    public static void invalidate(String key) {
+        Session session;
+        synchronized (sessions) {
+            session = sessions.get(key);
+        }
+        if (session != null)
+            session.invalidate();
+    }
+
+    /**
+     * Close all connectors, whether they are leased or not.
+     */
+    public static void shutdown() {
+        List<Session> list;
+        synchronized (sessions) {
+            list = new ArrayList<Session>(sessions.values());
+            sessions.clear();
+        }
+        for (Session session : list)
+            session.close();
+    }
+
+    static void evict(Session session) {
+        // take the connector under the session lock alone, so a session that is busy doesn't hold up the pool
+        JMXConnection connection;
+        synchronized (session) {
+            if (!session.isIdle())
+                return;
+            connection = session.detach();
+        }
+
+        synchronized (sessions) {
+            // the session may have been leased again since it was detached
+            if (sessions.get(session.key) == session && session.isIdle())
+                sessions.remove(session.key);
+        }
+
+        // closing the connector talks to the server, so don't hold up the pool while it does
+        if (connection != null) {
+            if (Trace.ENABLED)
+                Trace.trace(Trace.JMX, "Closing idle JMX connection: " + session.key);
+            connection.disconnect();
+        }
+    }
+
+    private static long getIdleTimeout() {
+        long timeout = DEFAULT_IDLE_TIMEOUT;
+        String prop = System.getProperty(IDLE_TIMEOUT_PROPERTY);
+        if (prop != null && !prop.isEmpty()) {
+            try {
+                timeout = Math.max(0, Long.parseLong(prop));
+            } catch (NumberFormatException e) {
+                Trace.logError("The JMX idle timeout specified is not valid: " + prop + ". The default will be used: " + timeout, e);
+            }
+        }
+        return timeout;
+    }
+
+    /**
+     * A shared connector to one server.
+     */
+    static class Session {
+        final String key;
+        private final Map<String, String> configVars = new ConcurrentHashMap<String, String>();
+        private final Object connectLock = new Object();
+        private ConnectionFactory factory;
+        private JMXConnection connection;
+        private int leases;
+        private long lastVerified;
+        private long lastReleased;
+        // guarded by connectLock
+        private int failures;
+        private long retryTime;
+        private Exception lastFailure;
+        private ScheduledFuture<?> eviction;
+
+        Session(String key) {
+            this.key = key;
+        }
+
+        synchronized void reserve() {
+            leases++;
+            if (eviction != null) {
+                eviction.cancel(false);
+                eviction = null;
+            }
+        }
+
+        JMXConnection lease(ConnectionFactory connectionFactory, boolean verify) throws Exception {
+            boolean leased = false;
+            try {
+                // connecting and checking the connector talk to the server, so they are only serialized
+                // with each other and not with eviction or the rest of the session
+                synchronized (connectLock) {
+                    long time = System.currentTimeMillis();
+                    JMXConnection c;
+                    ConnectionFactory f;
+                    boolean check;
+                    synchronized (this) {
+                        if (connectionFactory != null)
+                            factory = connectionFactory;
+                        f = factory;
+                        c = connection;
+                        check = c != null && (verify || time - lastVerified > HEALTH_CHECK_INTERVAL);
+                    }
+
+                    if (check && !isHealthy(c)) {
+                        if (Trace.ENABLED)
+                            Trace.trace(Trace.JMX, "Reconnecting stale JMX connection: " + key);
+                        synchronized (this) {
+                            if (connection == c) {
+                                connection = null;
+                                configVars.clear();
+                            }
+                        }
+                        c.disconnect();
+                        c = null;
+                    }
+
+                    if (c == null) {
+                        if (time < retryTime) {
+                            if (Trace.ENABLED)
+                                Trace.trace(Trace.JMX, "Not connecting to " + key + " for another " + (retryTime - time) + "ms after " + failures + " failed attempts");
+                            throw new JMXConnectionException(lastFailure);
+                        }
+                        try {
+                            c = f.connect();
+                        } catch (Exception e) {
+                            failures++;
+                            long delay = Math.min(MAX_RETRY_DELAY, MIN_RETRY_DELAY << Math.min(failures - 1, 10));
+                            retryTime = System.currentTimeMillis() + delay;
+                            lastFailure = e;
+                            throw e;
+                        }
+                        failures = 0;
+                        retryTime = 0;
+                        lastFailure = null;
+                        synchronized (this) {
+                            connection = c;
+                            lastVerified = System.currentTimeMillis();
+                        }
+                    }
+
+                    leased = true;
+                    return new Lease(this, c);
+                }
+            } finally {
+                if (!leased)
+                    release();
+            }
+        }
+
+        private boolean isHealthy(JMXConnection c) {
+            try {
+                c.getMBeanCount();
+                synchronized (this) {
+                    lastVerified = System.currentTimeMillis();
+                }
+                return true;
+            } catch (Exception e) {
+                if (Trace.ENABLED)
+                    Trace.trace(Trace.JMX, "JMX connection health check failed: " + key, e);
+                return false;
+            }
+        }
+
+        synchronized void invalidate() {
+            lastVerified = 0;
+        }
+
+        synchronized void release() {
+            leases--;
+            if (leases > 0)
+                return;
+
+            lastReleased = System.currentTimeMillis();
+            if (eviction != null)
+                eviction.cancel(false);
+            // evict on the scheduler, since the pool is locked before a session
+            try {
+                eviction = ServerMonitorScheduler.getInstance().schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        JMXConnectionPool.evict(Session.this);
+                    }
+                }, idleTimeout);
+            } catch (Exception e) {
+                // the scheduler has been shut down
+                eviction = null;
+                if (Trace.ENABLED)
+                    Trace.trace(Trace.JMX, "Could not schedule JMX connection eviction: " + key, e);
+            }
+        }
+
+        synchronized boolean isIdle() {
+            return leases == 0 && System.currentTimeMillis() - lastReleased >= idleTimeout;
+        }
+
+        // Take the connector away from the session without closing it
+        synchronized JMXConnection detach() {
+            JMXConnection c = connection;
+            connection = null;
+            configVars.clear();
+            return c;
+        }
+
+        void close() {
+            JMXConnection c;
+            synchronized (this) {
+                if (eviction != null)
+                    eviction.cancel(false);
+                eviction = null;
+                c = detach();
+            }
+            if (c != null)
+                c.disconnect();
+        }
+
+        Map<String, String> getConfigVars() {
+            return configVars;
+        }
+
+        ConnectionFactory getFactory() {
+            return factory;
+        }
+    }
+
+    /**
+     * A connection that uses a shared connector.
+     */
+    static class Lease extends JMXConnection {
+        private Session session;
+        private boolean released;
+        private final List<ApplicationNotificationListener> appListeners = Collections.synchronizedList(new ArrayList<ApplicationNotificationListener>(2));
+        private final List<ConfigurationListener> configListeners = Collections.synchronizedList(new ArrayList<ConfigurationListener>(1));
+
+        Lease(Session session, JMXConnection connection) {
+            super(connection);
+            this.session = session;
+        }
+
+        @Override
+        public synchronized void connect() throws JMXConnectionException {
+            if (!released && mbsc != null)
+                return;
+
+            // reconnecting after a failure, so check the shared connector first
+            if (!released)
+                release();
+            Lease lease;
+            try {
+                lease = (Lease) JMXConnectionPool.getConnection(session.key, session.getFactory(), true);
+            } catch (JMXConnectionException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new JMXConnectionException(e);
+            }
+            session = lease.session;
+            mbsc = lease.mbsc;
+            connector = lease.connector;
+            released = false;
+        }
+
+        @Override
+        public synchronized void disconnect() {
+            if (!released)
+                release();
+        }
+
+        private void release() {
+            synchronized (appListeners) {
+                for (ApplicationNotificationListener listener : appListeners) {
+                    try {
+                        super.removeAppListener(listener);
+                    } catch (Exception e) {
+                        if (Trace.ENABLED)
+                            Trace.trace(Trace.JMX, "Could not remove app listener for " + listener.getAppName(), e);
+                    }
+                }
+                appListeners.clear();
+            }
+            synchronized (configListeners) {
+                for (ConfigurationListener listener : configListeners) {
+                    try {
+                        super.removeConfigListener(listener);
+                    } catch (Exception e) {
+                        if (Trace.ENABLED)
+                            Trace.trace(Trace.JMX, "Could not remove config listener", e);
+                    }
+                }
+                configListeners.clear();
+            }
+            mbsc = null;
+            connector = null;
+            released = true;
+            session.release();
+        }
+
+        @Override
+        public void addAppListener(ApplicationNotificationListener appListener) throws Exception {
+            super.addAppListener(appListener);
+            appListeners.add(appListener);
+        }
+
+        @Override
+        public void removeAppListener(ApplicationNotificationListener appListener) throws Exception {
+            appListeners.remove(appListener);
+            super.removeAppListener(appListener);
+        }
+
+        @Override
+        public void addConfigListener(ConfigurationListener configListener) throws Exception {
+            super.addConfigListener(configListener);
+            configListeners.add(configListener);
+        }
+
+        @Override
+        public void removeConfigListener(ConfigurationListener configListener) throws Exception {
+            configListeners.remove(configListener);
+            super.removeConfigListener(configListener);
+        }
+
+        @Override
+        protected void connectionFailed() {
+            session.invalidate();
+        }
+
+        @Override
+        public Map<String, String> getConfigVarCache() {
+            return session.getConfigVars();
+        }
+    }
+}
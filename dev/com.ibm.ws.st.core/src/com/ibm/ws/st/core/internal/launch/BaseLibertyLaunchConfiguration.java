@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2017 IBM Corporation and others.
+ * Copyright (c) 2016, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -169,6 +169,9 @@ public class BaseLibertyLaunchConfiguration extends AbstractLaunchConfigurationE
             } catch (Exception e) {
                 //this means the remote server is not started so get the port number from server object
                 remoteDebugPort = Integer.parseInt(websphereServer.getRemoteServerStartDebugPort());
+            } finally {
+                if (jmxConnection != null)
+                    jmxConnection.disconnect();
             }
 
             // remote debug case, connect debug client
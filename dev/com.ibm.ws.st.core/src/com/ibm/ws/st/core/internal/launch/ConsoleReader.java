@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2015 IBM Corporation and others.
+ * Copyright (c) 2011, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,69 +10,166 @@
  *******************************************************************************/
 package com.ibm.ws.st.core.internal.launch;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.InputStreamReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import com.ibm.ws.st.core.internal.Trace;
 
+/**
+ * Tails a console or messages log file. New content is read through a file channel into a
+ * reused buffer and decoded incrementally, and complete lines are handed to the stream
+ * monitors in batches. The file is reopened from the start when it rolls over, which is
+ * detected by a change of file identity (the inode where the platform has one) or by the
+ * file becoming shorter than what has been read.
+ */
 public class ConsoleReader {
     private static final String ERROR = "[ERROR   ]";
     private static final String FATAL = "[FATAL   ]";
     private static final String ERR = "[err]";
 
+    private static final int BUFFER_SIZE = 64 * 1024;
+
     private final StreamMonitor outListener;
     private final StreamMonitor errListener;
 
-    private long size = -1;
-    private File file = null;
-    private BufferedReader reader = null;
+    private final File file;
+    private final Path path;
+    private FileChannel channel = null;
+    private Object fileKey = null;
+    private long position = 0;
+
+    private ByteBuffer bytes = null;
+    private CharBuffer chars = null;
+    private CharsetDecoder decoder = null;
+    private final StringBuilder line = new StringBuilder(256);
     private String charset = null;
 
+    // consecutive lines for the same monitor, delivered together
+    private final List<String> batch = new ArrayList<String>();
+    private StreamMonitor batchListener = null;
+
+    private volatile WatchService watchService = null;
+    private boolean watchUnavailable = false;
+    private volatile boolean closed = false;
+
     public ConsoleReader(File file, StreamMonitor outListener, StreamMonitor errListener) {
         this.file = file;
+        this.path = file.toPath();
         this.outListener = outListener;
         this.errListener = errListener;
         if (Trace.ENABLED)
             Trace.trace(Trace.INFO, "Monitoring " + file.getAbsolutePath());
     }
 
-    protected void update() {
+    protected synchronized void update() {
+        if (closed)
+            return;
         try {
             // handle file roll-over or deletion
-            if (reader != null && size != -1 && size > file.length()) {
-                reader.close();
-                reader = null;
-            }
-            if (reader == null && file.exists()) {
-                if (charset != null)
-                    reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), charset));
-                else
-                    reader = new BufferedReader(new InputStreamReader(new FileInputStream(file)));
-            }
-
-            if (reader == null)
-                return;
-
-            size = file.length();
+            if (channel != null && isRolledOver())
+                closeChannel();
 
-            // read lines
-            String s = reader.readLine();
-            while (s != null) {
-                append(s + "\n");
-                s = reader.readLine();
+            if (channel == null) {
+                if (!file.exists())
+                    return;
+                openChannel();
             }
+
+            read();
         } catch (Exception e) {
             if (Trace.ENABLED)
                 Trace.trace(Trace.WARNING, "Error updating stream monitor", e);
+        } finally {
+            flushBatch();
         }
     }
 
-    private void append(String s) {
-        if (s == null)
-            return;
+    private boolean isRolledOver() throws IOException {
+        BasicFileAttributes attrs;
+        try {
+            attrs = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return true;
+        }
+        if (attrs.size() < position)
+            return true;
+        Object key = attrs.fileKey();
+        return key != null && fileKey != null && !key.equals(fileKey);
+    }
+
+    private void openChannel() throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            fileKey = Files.readAttributes(path, BasicFileAttributes.class).fileKey();
+        } catch (IOException e) {
+            fileKey = null;
+        }
+        position = 0;
+        line.setLength(0);
 
+        if (bytes == null) {
+            bytes = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            chars = CharBuffer.allocate(BUFFER_SIZE);
+        }
+        bytes.clear();
+        getDecoder().reset();
+    }
+
+    private CharsetDecoder getDecoder() {
+        if (decoder == null) {
+            Charset cs = charset != null ? Charset.forName(charset) : Charset.defaultCharset();
+            decoder = cs.newDecoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+        }
+        return decoder;
+    }
+
+    private void read() throws IOException {
+        int n;
+        while ((n = channel.read(bytes, position)) > 0) {
+            position += n;
+            bytes.flip();
+            getDecoder().decode(bytes, chars, false);
+            // keep any partial character for the next read
+            bytes.compact();
+
+            chars.flip();
+            while (chars.hasRemaining()) {
+                char c = chars.get();
+                if (c == '\n') {
+                    int len = line.length();
+                    if (len > 0 && line.charAt(len - 1) == '\r')
+                        line.setLength(len - 1);
+                    append(line.toString());
+                    line.setLength(0);
+                } else {
+                    line.append(c);
+                }
+            }
+            chars.clear();
+        }
+    }
+
+    private void append(String s) {
         boolean err = false;
         if (s.startsWith(ERROR))
             err = true;
@@ -81,29 +178,156 @@ public class ConsoleReader {
         else if (s.startsWith(ERR))
             err = true;
 
-        if (err)
-            errListener.streamAppended(s);
-        else
-            outListener.streamAppended(s);
+        StreamMonitor listener = err ? errListener : outListener;
+        if (listener != batchListener)
+            flushBatch();
+        batchListener = listener;
+        batch.add(s);
+    }
+
+    private void flushBatch() {
+        if (batch.isEmpty())
+            return;
+        batchListener.streamAppended(batch);
+        batch.clear();
+    }
+
+    /**
+     * Wait until the file may have changed, or until the timeout expires. A watch service is
+     * used to wake up as soon as the file is written, if one is available for the file's folder.
+     *
+     * @param timeout the maximum time to wait, in milliseconds
+     * @throws InterruptedException
+     */
+    protected void waitForChange(long timeout) throws InterruptedException {
+        WatchService ws = getWatchService();
+        if (ws == null) {
+            Thread.sleep(timeout);
+            return;
+        }
+
+        long end = System.currentTimeMillis() + timeout;
+        try {
+            long remaining = timeout;
+            while (remaining > 0) {
+                WatchKey key = ws.poll(remaining, TimeUnit.MILLISECONDS);
+                if (key == null)
+                    return;
+
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    Object context = event.context();
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW || (context instanceof Path && file.getName().equals(((Path) context).toString())))
+                        changed = true;
+                }
+                if (!key.reset()) {
+                    // the folder is gone, watch again once it is recreated
+                    closeWatchService();
+                    return;
+                }
+                if (changed)
+                    return;
+                remaining = end - System.currentTimeMillis();
+            }
+        } catch (ClosedWatchServiceException e) {
+            // closed while waiting
+        }
+    }
+
+    private WatchService getWatchService() {
+        WatchService ws = watchService;
+        if (ws != null || watchUnavailable || closed)
+            return ws;
+
+        File dir = file.getAbsoluteFile().getParentFile();
+        if (dir == null || !dir.isDirectory())
+            return null;
+
+        try {
+            ws = FileSystems.getDefault().newWatchService();
+            // polling implementations are no faster than reading the file on a timer
+            if (ws.getClass().getName().contains("Polling")) {
+                ws.close();
+                watchUnavailable = true;
+                return null;
+            }
+            dir.toPath().register(ws, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (Exception e) {
+            if (Trace.ENABLED)
+                Trace.trace(Trace.WARNING, "Could not watch " + dir + ", the console file will be polled", e);
+            if (ws != null) {
+                try {
+                    ws.close();
+                } catch (IOException e2) {
+                    // ignore
+                }
+            }
+            watchUnavailable = true;
+            return null;
+        }
+        watchService = ws;
+        if (closed) {
+            closeWatchService();
+            return null;
+        }
+        return ws;
+    }
+
+    /**
+     * Returns <code>true</code> if changes to the file are signalled by a watch service, and
+     * <code>false</code> if the file is only read when polled.
+     *
+     * @return <code>true</code> if the file is watched
+     */
+    protected boolean isWatched() {
+        return getWatchService() != null;
+    }
+
+    private void closeWatchService() {
+        WatchService ws = watchService;
+        watchService = null;
+        if (ws != null) {
+            try {
+                ws.close();
+            } catch (IOException e) {
+                if (Trace.ENABLED)
+                    Trace.trace(Trace.WARNING, "Error closing console watch service", e);
+            }
+        }
     }
 
     public String getCharset() {
         return charset;
     }
 
-    public void setCharset(String aCharSet) {
+    public synchronized void setCharset(String aCharSet) {
         charset = aCharSet;
+        decoder = null;
     }
 
-    protected void close() {
-        if (reader != null) {
+    private void closeChannel() {
+        if (channel != null) {
             try {
-                reader.close();
+                channel.close();
             } catch (Exception e) {
                 if (Trace.ENABLED)
                     Trace.trace(Trace.WARNING, "Error closing stream monitor", e);
             }
-            reader = null;
+            channel = null;
+        }
+        // a partial line at the end of the old file is complete now
+        if (line.length() > 0) {
+            append(line.toString());
+            line.setLength(0);
+        }
+    }
+
+    protected void close() {
+        closed = true;
+        closeWatchService();
+        synchronized (this) {
+            closeChannel();
+            flushBatch();
         }
     }
 }
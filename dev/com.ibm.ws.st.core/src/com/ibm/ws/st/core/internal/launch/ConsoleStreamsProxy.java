@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2015 IBM Corporation and others.
+ * Copyright (c) 2011, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -28,6 +28,8 @@ import com.ibm.ws.st.core.internal.jmx.JMXConnection;
 public class ConsoleStreamsProxy implements IStreamsProxy2 {
     private static final int DELAY = 500;
     private static final int JMX_DELAY = 5000;
+    // when the file is watched, it is still checked this often in case an event is missed
+    private static final int WATCH_DELAY = 2000;
 
     final ConsoleReader consoleMonitor;
     private final StreamMonitor outMonitor;
@@ -72,6 +74,8 @@ public class ConsoleStreamsProxy implements IStreamsProxy2 {
             Trace.trace(Trace.INFO, "Terminating console monitor");
         done = true;
         consoleMonitor.close();
+        if (jmx != null)
+            jmx.disconnect();
     }
 
     protected void update() {
@@ -93,8 +97,10 @@ public class ConsoleStreamsProxy implements IStreamsProxy2 {
                     update();
 
                     try {
-                        int delay = jmx == null ? DELAY : JMX_DELAY;
-                        sleep(delay);
+                        if (jmx != null)
+                            sleep(JMX_DELAY);
+                        else
+                            consoleMonitor.waitForChange(consoleMonitor.isWatched() ? WATCH_DELAY : DELAY);
                     } catch (Exception e) {
                         // do nothing
                     }
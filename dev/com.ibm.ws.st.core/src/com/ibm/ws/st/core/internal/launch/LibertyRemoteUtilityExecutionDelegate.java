@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014, 2019 IBM Corporation and others.
+ * Copyright (c) 2014, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -524,7 +524,8 @@ public class LibertyRemoteUtilityExecutionDelegate implements IUtilityExecutionD
         }
 
         try {
-            wsServer.createJMXConnection();
+            // only checks that the server can be reached, so release the connection right away
+            wsServer.createJMXConnection().disconnect();
         } catch (Exception e) {
             //means jmxConnection was not established with the server, in this case auto sync on server.xml file won't work.
             //so upload the file using remote utility.
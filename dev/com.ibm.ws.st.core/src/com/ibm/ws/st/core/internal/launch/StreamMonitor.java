@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2015 IBM Corporation and others.
+ * Copyright (c) 2012, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -36,52 +36,63 @@ public class StreamMonitor implements IStreamMonitor {
             listeners.add(listener);
     }
 
-    protected void streamAppended(String s) {
-        String r = null;
-        if (useConsoleLog) {
-            r = s;
-        } else {
-            // Note the date field length can be different
-            //[5/1/12 11:23:18:363 EDT] 00000019 com.ibm.ws.kernel.feature.internal.FeatureManager            I CWWKF0007I: Feature update started.
-            //[4/23/12 16:06:32:171 EDT] 00000011 com.ibm.ws.app.manager.internal.monitor.DropinMonitor        A CWWKZ0058I: Monitoring dropins for applications.
-
-            int i = s.indexOf(']');
-            if ((s.startsWith("[")) && i > 0) {
-                printMessage = true;
-                char c = s.charAt(i + 72);
-                switch (c) {
-                    case 'A':
-                        r = AUDIT + s.substring(i + 73);
-                        break;
-                    case 'E':
-                        r = ERROR + s.substring(i + 73);
-                        break;
-                    case 'W':
-                        r = WARNING + s.substring(i + 73);
-                        break;
-                    case 'O': // system.out
-                        r = s.substring(i + 73);
-                        break;
-                    case 'R': //system.err
-                        r = Err + s.substring(i + 73);
-                        break;
-                    default:
-                        printMessage = false; // if the message is not one of the types above, then  don't print it to the console
-                        return;
-                }
-            } else if (printMessage)
-                // when there is an exception, the message doesn't start with '[' bracket..print if the message is a part of the message starting with
-                // one of the codes (A, E, O, W, R)
-                r = s;
+    /**
+     * Append a batch of lines. Listeners are notified once with all of the lines that
+     * are shown.
+     *
+     * @param lines the lines, without line terminators
+     */
+    protected void streamAppended(List<String> lines) {
+        StringBuilder text = new StringBuilder(lines.size() * 128);
+        for (String s : lines) {
+            String r = format(s);
+            if (r != null)
+                text.append(r).append('\n');
         }
-        
-        if (r != null) {
+
+        if (text.length() > 0) {
+            String r = text.toString();
             sb.append(r);
             for (IStreamListener l : listeners)
                 l.streamAppended(r, this);
         }
     }
 
+    private String format(String s) {
+        if (useConsoleLog)
+            return s;
+
+        // Note the date field length can be different
+        //[5/1/12 11:23:18:363 EDT] 00000019 com.ibm.ws.kernel.feature.internal.FeatureManager            I CWWKF0007I: Feature update started.
+        //[4/23/12 16:06:32:171 EDT] 00000011 com.ibm.ws.app.manager.internal.monitor.DropinMonitor        A CWWKZ0058I: Monitoring dropins for applications.
+
+        int i = s.indexOf(']');
+        if ((s.startsWith("[")) && i > 0) {
+            printMessage = true;
+            char c = s.length() > i + 72 ? s.charAt(i + 72) : ' ';
+            switch (c) {
+                case 'A':
+                    return AUDIT + s.substring(i + 73);
+                case 'E':
+                    return ERROR + s.substring(i + 73);
+                case 'W':
+                    return WARNING + s.substring(i + 73);
+                case 'O': // system.out
+                    return s.substring(i + 73);
+                case 'R': //system.err
+                    return Err + s.substring(i + 73);
+                default:
+                    printMessage = false; // if the message is not one of the types above, then  don't print it to the console
+                    return null;
+            }
+        }
+        if (printMessage)
+            // when there is an exception, the message doesn't start with '[' bracket..print if the message is a part of the message starting with
+            // one of the codes (A, E, O, W, R)
+            return s;
+        return null;
+    }
+
     @Override
     public String getContents() {
         return sb.toString();
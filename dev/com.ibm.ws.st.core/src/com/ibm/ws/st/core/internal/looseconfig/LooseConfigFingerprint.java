@@ -0,0 +1,282 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package com.ibm.ws.st.core.internal.looseconfig;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.jdt.core.IClasspathEntry;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.wst.server.core.IModule;
+import org.eclipse.wst.server.core.model.ServerBehaviourDelegate;
+
+import com.ibm.ws.st.common.core.ext.internal.servertype.AbstractServerBehaviourExtension;
+import com.ibm.ws.st.core.internal.FileUtil;
+import com.ibm.ws.st.core.internal.PublishUnit;
+import com.ibm.ws.st.core.internal.Trace;
+import com.ibm.ws.st.core.internal.WebSphereServerBehaviour;
+
+/**
+ * Fingerprints of the inputs to a loose config xml file: the deployment assembly, classpath,
+ * linked resource locations, facets and mapped output paths of each module project. They are
+ * saved per server along with the time stamp of the generated file, so that the file is only
+ * regenerated when a module changed, and then only for the modules that changed.
+ */
+public class LooseConfigFingerprint {
+    public static final String FINGERPRINT_FILE = "looseConfigFingerprints.properties";
+
+    // project files that the loose archive is computed from
+    private static final String[] PROJECT_FILES = { ".project", ".classpath", ".settings/org.eclipse.wst.common.component",
+                                                    ".settings/org.eclipse.wst.common.project.facet.core.xml" };
+
+    private static final Object lock = new Object();
+
+    private final IPath propertiesPath;
+    private final String fileKey;
+    private final WebSphereServerBehaviour serverBehaviour;
+    private final AbstractServerBehaviourExtension serverBehaviourExt;
+    private final Map<PublishUnit, String> fingerprints = new LinkedHashMap<PublishUnit, String>();
+
+    /**
+     * Compute the fingerprints for an application.
+     *
+     * @param directory the server's temp directory, where the fingerprints are saved
+     * @param xmlPath the path of the loose config xml file
+     * @param app the application
+     * @param serverBehaviour the server behaviour, used to map paths in the same way as the loose archive
+     */
+    public LooseConfigFingerprint(IPath directory, IPath xmlPath, PublishUnit app, WebSphereServerBehaviour serverBehaviour) {
+        propertiesPath = directory.append(FINGERPRINT_FILE);
+        fileKey = xmlPath.toOSString();
+        this.serverBehaviour = serverBehaviour;
+        this.serverBehaviourExt = serverBehaviour == null ? null : (AbstractServerBehaviourExtension) serverBehaviour.getAdapter(AbstractServerBehaviourExtension.class);
+        compute(app);
+    }
+
+    private void compute(PublishUnit pu) {
+        fingerprints.put(pu, getFingerprint(pu));
+        List<PublishUnit> children = pu.getChildren();
+        if (children != null) {
+            for (PublishUnit child : children) {
+                if (child.getDeltaKind() != ServerBehaviourDelegate.REMOVED)
+                    compute(child);
+            }
+        }
+    }
+
+    /**
+     * Returns the modules that changed since the file was last generated, an empty list if
+     * nothing changed, or <code>null</code> if the file must be generated again from scratch
+     * (e.g. the file was changed, or modules were added or removed).
+     *
+     * @param file the loose config xml file
+     * @return the changed modules, or <code>null</code>
+     */
+    public List<PublishUnit> getChangedModules(File file) {
+        Properties props = load();
+        String stamp = props.getProperty(fileKey);
+        if (stamp == null || !stamp.equals(getFileStamp(file)))
+            return null;
+
+        int count = 0;
+        String prefix = fileKey + "|";
+        for (Object key : props.keySet()) {
+            if (((String) key).startsWith(prefix))
+                count++;
+        }
+        if (count != fingerprints.size())
+            return null;
+
+        List<PublishUnit> changed = new ArrayList<PublishUnit>(2);
+        for (Map.Entry<PublishUnit, String> entry : fingerprints.entrySet()) {
+            String stored = props.getProperty(getKey(entry.getKey()));
+            if (stored == null)
+                return null;
+            if (entry.getValue() == null || !stored.equals(entry.getValue()))
+                changed.add(entry.getKey());
+        }
+        return changed;
+    }
+
+    /**
+     * Save the fingerprints after the file was generated or found to be up to date.
+     *
+     * @param file the loose config xml file
+     */
+    public void save(File file) {
+        synchronized (lock) {
+            Properties props = load();
+            removeKeys(props, fileKey);
+            boolean complete = true;
+            for (Map.Entry<PublishUnit, String> entry : fingerprints.entrySet()) {
+                if (entry.getValue() == null)
+                    complete = false;
+                else
+                    props.setProperty(getKey(entry.getKey()), entry.getValue());
+            }
+            // without every fingerprint the file must always be compared
+            if (complete && file.exists())
+                props.setProperty(fileKey, getFileStamp(file));
+            FileUtil.saveCachedProperties(props, propertiesPath);
+        }
+    }
+
+    /**
+     * Forget the fingerprints of a loose config xml file, e.g. when the application is removed.
+     *
+     * @param directory the server's temp directory
+     * @param xmlPath the path of the loose config xml file
+     */
+    public static void remove(IPath directory, IPath xmlPath) {
+        synchronized (lock) {
+            IPath path = directory.append(FINGERPRINT_FILE);
+            if (!path.toFile().exists())
+                return;
+            Properties props = new Properties();
+            FileUtil.loadProperties(props, path);
+            if (removeKeys(props, xmlPath.toOSString()))
+                FileUtil.saveCachedProperties(props, path);
+        }
+    }
+
+    private Properties load() {
+        Properties props = new Properties();
+        synchronized (lock) {
+            FileUtil.loadProperties(props, propertiesPath);
+        }
+        return props;
+    }
+
+    private static boolean removeKeys(Properties props, String fileKey) {
+        boolean removed = props.remove(fileKey) != null;
+        String prefix = fileKey + "|";
+        Iterator<Object> iter = props.keySet().iterator();
+        while (iter.hasNext()) {
+            if (((String) iter.next()).startsWith(prefix)) {
+                iter.remove();
+                removed = true;
+            }
+        }
+        return removed;
+    }
+
+    private String getKey(PublishUnit pu) {
+        return fileKey + "|" + FileUtil.genModuleURICacheKey(pu.getModule());
+    }
+
+    private static String getFileStamp(File file) {
+        return file.lastModified() + ":" + file.length();
+    }
+
+    /**
+     * Returns the fingerprint of a module, or <code>null</code> if it could not be computed.
+     */
+    private String getFingerprint(PublishUnit pu) {
+        IModule[] module = pu.getModule();
+        IModule m = module[module.length - 1];
+        IProject project = m.getProject();
+        if (project == null || !project.isAccessible())
+            return null;
+
+        StringBuilder sb = new StringBuilder();
+        try {
+            describe(m, project, sb);
+
+            // a utility module's classpath dependencies are added to its parent's archive, so
+            // the parent depends on them as well
+            List<PublishUnit> children = pu.getChildren();
+            if (children != null) {
+                for (PublishUnit child : children) {
+                    IModule[] childModule = child.getModule();
+                    IModule c = childModule[childModule.length - 1];
+                    if (child.getDeltaKind() != ServerBehaviourDelegate.REMOVED && "jst.utility".equals(c.getModuleType().getId())
+                        && c.getProject() != null && c.getProject().isAccessible())
+                        describe(c, c.getProject(), sb);
+                }
+            }
+        } catch (CoreException e) {
+            if (Trace.ENABLED)
+                Trace.trace(Trace.WARNING, "Could not compute loose config fingerprint for " + project.getName(), e);
+            return null;
+        }
+
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-1");
+            byte[] digest = md.digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest)
+                hex.append(String.format("%02x", Integer.valueOf(b & 0xFF)));
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            return null;
+        }
+    }
+
+    private void describe(IModule module, IProject project, StringBuilder sb) throws CoreException {
+        sb.append(module.getId()).append('\n');
+        sb.append(module.getModuleType().getId()).append(':').append(module.getModuleType().getVersion()).append('\n');
+        sb.append(project.getLocation()).append('\n');
+        appendMappedPath(project.getLocation(), sb);
+        for (String name : PROJECT_FILES)
+            sb.append(name).append('=').append(project.getFile(name).getModificationStamp()).append('\n');
+
+        // the location of a linked resource can change through a path variable without changing the .project file
+        for (IResource resource : ProjectInfoHandler.parseProject(project))
+            sb.append(resource.getFullPath()).append('=').append(resource.getLocation()).append('\n');
+
+        if (project.hasNature(JavaCore.NATURE_ID)) {
+            IJavaProject javaProject = JavaCore.create(project);
+            sb.append(javaProject.getOutputLocation()).append('\n');
+            appendMappedPath(getLocation(javaProject.getOutputLocation()), sb);
+            for (IClasspathEntry entry : javaProject.getResolvedClasspath(true)) {
+                IPath output = entry.getOutputLocation();
+                sb.append(entry.getEntryKind()).append(' ').append(entry.getPath());
+                if (output != null)
+                    sb.append(' ').append(output);
+                sb.append('\n');
+                appendMappedPath(getLocation(output), sb);
+            }
+        }
+    }
+
+    // The loose archive maps the output locations, e.g. to a path in a Docker container
+    private void appendMappedPath(IPath location, StringBuilder sb) {
+        if (serverBehaviourExt == null || location == null)
+            return;
+        IPath mappedPath = serverBehaviourExt.getMappedPath(location, serverBehaviour);
+        if (mappedPath != null)
+            sb.append(location).append(" -> ").append(mappedPath).append('\n');
+    }
+
+    private static IPath getLocation(IPath fullPath) {
+        if (fullPath == null)
+            return null;
+        IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+        if (fullPath.segmentCount() == 1)
+            return root.getProject(fullPath.lastSegment()).getLocation();
+        return root.getFolder(fullPath).getLocation();
+    }
+}
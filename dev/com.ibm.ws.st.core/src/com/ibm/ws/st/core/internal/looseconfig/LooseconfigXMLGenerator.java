@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2017 IBM Corporation and others.
+ * Copyright (c) 2011, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -25,6 +25,8 @@ import org.eclipse.wst.server.core.IModule;
 import org.eclipse.wst.server.core.model.ServerBehaviourDelegate;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.xml.sax.SAXException;
 
 import com.ibm.ws.st.core.internal.PublishUnit;
 import com.ibm.ws.st.core.internal.Trace;
@@ -53,7 +55,112 @@ public class LooseconfigXMLGenerator {
         saveDocument(path, doc);
     }
 
+    /**
+     * Regenerate the archives of the given modules within an existing loose config xml file,
+     * leaving the rest of the file as is.
+     *
+     * @param path the existing loose config xml file
+     * @param outPath the path to write the updated file to, if anything changed
+     * @param app the application
+     * @param modules the changed modules of the application, not including the application itself
+     * @return <code>true</code> if the file was updated, <code>false</code> if nothing changed, or
+     *         <code>null</code> if the modules could not be found and the file must be generated again
+     */
+    public Boolean updateRepository(IPath path, IPath outPath, PublishUnit app, List<PublishUnit> modules) throws ParserConfigurationException, SAXException, IOException {
+        Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(path.toFile());
+        Element root = doc.getDocumentElement();
+        if (root == null || !ELE_ARCHIVE.equals(root.getNodeName()))
+            return null;
+        removeText(root);
+
+        boolean changed = false;
+        for (PublishUnit pu : modules) {
+            // the archive of a changed parent is regenerated with its children
+            if (pu == app || pu.getParent() == null)
+                return null;
+            if (hasChangedParent(pu, modules))
+                continue;
+
+            Element old = findArchive(root, app, pu);
+            if (old == null)
+                return null;
+
+            Element archive = createLooseContent(doc, pu);
+            if (archive == null)
+                return null;
+            if (!archive.isEqualNode(old)) {
+                old.getParentNode().replaceChild(archive, old);
+                changed = true;
+            }
+        }
+
+        if (changed)
+            saveDocument(outPath, doc);
+        return Boolean.valueOf(changed);
+    }
+
+    private static boolean hasChangedParent(PublishUnit pu, List<PublishUnit> modules) {
+        for (PublishUnit parent = pu.getParent(); parent != null; parent = parent.getParent()) {
+            if (modules.contains(parent))
+                return true;
+        }
+        return false;
+    }
+
+    // Find the archive element of a module by following the targetInArchive of each of its parents
+    private static Element findArchive(Element root, PublishUnit app, PublishUnit pu) {
+        if (pu == app)
+            return root;
+        PublishUnit parentUnit = pu.getParent();
+        if (parentUnit == null)
+            return null;
+        Element parent = findArchive(root, app, parentUnit);
+        if (parent == null)
+            return null;
+
+        IModule[] module = pu.getModule();
+        IModule[] parentModule = parentUnit.getModule();
+        String targetInArchive = DeploymentAssemblyUtil.getDeployPath(parentModule[parentModule.length - 1].getProject(), module[module.length - 1].getName());
+        if (targetInArchive == null)
+            return null;
+
+        for (Node n = parent.getFirstChild(); n != null; n = n.getNextSibling()) {
+            if (n instanceof Element && ELE_ARCHIVE.equals(n.getNodeName()) && targetInArchive.equals(((Element) n).getAttribute(ATT_TARGET_IN_ARCHIVE)))
+                return (Element) n;
+        }
+        return null;
+    }
+
+    // Remove the whitespace between elements so that archives can be compared
+    private static void removeText(Node node) {
+        Node n = node.getFirstChild();
+        while (n != null) {
+            Node next = n.getNextSibling();
+            if (n.getNodeType() == Node.TEXT_NODE)
+                node.removeChild(n);
+            else
+                removeText(n);
+            n = next;
+        }
+    }
+
     protected void fillLooseContent(Document doc, Element parent, PublishUnit pUnit) {
+        Element archive = createLooseContent(doc, pUnit);
+        if (archive == null)
+            return;
+
+        if (parent == null)
+            doc.appendChild(archive);
+        else
+            parent.appendChild(archive);
+    }
+
+    /**
+     * Create the archive element for a module and its children.
+     *
+     * @return the archive, or <code>null</code> for a binary module
+     */
+    protected Element createLooseContent(Document doc, PublishUnit pUnit) {
         IModule[] module = pUnit.getModule();
         LooseArchive arch = new LooseArchive(module[module.length - 1], serverBehaviour);
         Element archive = doc.createElement(ELE_ARCHIVE);
@@ -66,15 +173,10 @@ public class LooseconfigXMLGenerator {
             IProject parentProject = parentModule[parentModule.length - 1].getProject();
             String targetInArchive = DeploymentAssemblyUtil.getDeployPath(parentProject, module[module.length - 1].getName());
             if (targetInArchive == null) // binary module.  It is added as jar in the parent.
-                return;
+                return null;
             archive.setAttribute(ATT_TARGET_IN_ARCHIVE, targetInArchive);
         }
 
-        if (parent == null)
-            doc.appendChild(archive);
-        else
-            parent.appendChild(archive);
-
         List<PublishUnit> children = pUnit.getChildren();
         if (children != null) {
             for (PublishUnit pu : children) {
@@ -101,7 +203,7 @@ public class LooseconfigXMLGenerator {
 
             archive.appendChild(el);
         }
-
+        return archive;
     }
 
     private static void saveDocument(IPath path, Document d) throws IOException {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2014 IBM Corporation and others.
+ * Copyright (c) 2011, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -13,8 +13,13 @@ package com.ibm.ws.st.core.tests;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
+import com.ibm.ws.st.core.tests.config.ConfigVarsTemplateTest;
 import com.ibm.ws.st.core.tests.config.RecursiveIncludeTestCase;
+import com.ibm.ws.st.core.tests.docker.DockerEngineClientTest;
+import com.ibm.ws.st.core.tests.jee.LooseConfigFingerprintTest;
 import com.ibm.ws.st.core.tests.module.AllModuleTestCase;
+import com.ibm.ws.st.core.tests.schema.FeatureClosureTest;
+import com.ibm.ws.st.core.tests.schema.FeatureIndexTest;
 import com.ibm.ws.st.core.tests.schema.FeatureListTest;
 import com.ibm.ws.st.core.tests.schema.SchemaUtilTest;
 
@@ -24,14 +29,23 @@ import com.ibm.ws.st.core.tests.schema.SchemaUtilTest;
 @Suite.SuiteClasses({ ExistenceTest.class,
                       SchemaUtilTest.class, // WebSphereServerTestCase, OSGiTestCase and SchemaTestCase cause this to fail
                       FeatureListTest.class,
+                      FeatureIndexTest.class,
+                      FeatureClosureTest.class,
                       RecursiveIncludeTestCase.class,
+                      ConfigVarsTemplateTest.class,
                       WebSphereRuntimeTestCase.class,
                       MultipleRuntimeTestCase.class,
                       AllModuleTestCase.class,
                       WebSphereServerTestCase.class,
                       UtilitiesTestCase.class,
                       OutOfSyncTest.class,
-                      RuntimeVersionCompareTest.class })
+                      RuntimeVersionCompareTest.class,
+                      ConsoleMessageClassifierTest.class,
+                      ConfigSyncSchedulerTest.class,
+                      JMXConnectionPoolTest.class,
+                      DockerEngineClientTest.class,
+                      ZipPackagerTest.class,
+                      LooseConfigFingerprintTest.class })
 public class AllBaseTests {
     // Intentionally empty
 }
\ No newline at end of file
@@ -0,0 +1,171 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package com.ibm.ws.st.core.tests;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestSuite;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.AllTests;
+
+import com.ibm.ws.st.core.internal.ConfigSyncScheduler;
+import com.ibm.ws.st.core.internal.ConfigSyncScheduler.ConfigSync;
+import com.ibm.ws.st.core.internal.ConfigSyncScheduler.Deferral;
+import com.ibm.ws.st.tests.common.util.TestCaseDescriptor;
+
+@TestCaseDescriptor(description = "Test scheduling the automatic configuration sync", isStable = true)
+@RunWith(AllTests.class)
+public class ConfigSyncSchedulerTest extends ToolsTestBase {
+
+    private static final long QUIET_PERIOD = 500;
+    // requests are delayed long enough that they can't run between the steps of a test
+    private static final long DELAY = 1000;
+
+    protected static final AtomicInteger syncs = new AtomicInteger();
+
+    protected static final ConfigSync sync = new ConfigSync() {
+        @Override
+        public IStatus sync(IProgressMonitor monitor) {
+            syncs.incrementAndGet();
+            return Status.OK_STATUS;
+        }
+    };
+
+    public static TestSuite suite() {
+        TestSuite suite = new TestSuite();
+        suite.addTest(ConfigSyncSchedulerTest.getOrderedTests());
+        suite.setName(ConfigSyncSchedulerTest.class.getSimpleName());
+        return suite;
+    }
+
+    public static TestSuite getOrderedTests() {
+        TestSuite testSuite = new TestSuite();
+
+        testSuite.addTest(TestSuite.createTest(ConfigSyncSchedulerTest.class, "doSetup"));
+        testSuite.addTest(TestSuite.createTest(ConfigSyncSchedulerTest.class, "testQuietPeriod"));
+        testSuite.addTest(TestSuite.createTest(ConfigSyncSchedulerTest.class, "testMaxDeferral"));
+        testSuite.addTest(TestSuite.createTest(ConfigSyncSchedulerTest.class, "testLongDelay"));
+        testSuite.addTest(TestSuite.createTest(ConfigSyncSchedulerTest.class, "testResetAfterCancel"));
+        testSuite.addTest(TestSuite.createTest(ConfigSyncSchedulerTest.class, "testCoalesce"));
+        testSuite.addTest(TestSuite.createTest(ConfigSyncSchedulerTest.class, "testCancel"));
+        testSuite.addTest(TestSuite.createTest(ConfigSyncSchedulerTest.class, "doTearDown"));
+
+        return testSuite;
+    }
+
+    @Test
+    public void doSetup() throws Exception {
+        print("Starting test: ConfigSyncSchedulerTest");
+        init();
+    }
+
+    @Test
+    public void testQuietPeriod() throws Exception {
+        Deferral deferral = new Deferral(QUIET_PERIOD, ConfigSyncScheduler.MAX_DEFERRAL);
+        assertEquals(QUIET_PERIOD, deferral.request(0, 0));
+
+        // each request postpones the sync until the configuration is quiet again
+        assertEquals(QUIET_PERIOD, deferral.request(300, 0));
+        assertEquals(QUIET_PERIOD, deferral.request(600, 0));
+
+        // a longer delay is honoured
+        assertEquals(2000, deferral.request(700, 2000));
+    }
+
+    @Test
+    public void testMaxDeferral() throws Exception {
+        Deferral deferral = new Deferral(QUIET_PERIOD, ConfigSyncScheduler.MAX_DEFERRAL);
+        long first = 1000;
+        long last = first + ConfigSyncScheduler.MAX_DEFERRAL;
+
+        // a steady stream of requests postpones the sync, but not past the maximum deferral
+        for (long time = first; time + QUIET_PERIOD <= last; time += 400)
+            assertEquals("Request at " + time, QUIET_PERIOD, deferral.request(time, 0));
+        assertEquals(200, deferral.request(last - 200, 0));
+        assertEquals(0, deferral.request(last + 1, 0));
+    }
+
+    @Test
+    public void testLongDelay() throws Exception {
+        // a delay longer than the maximum deferral is not cut short, but is not extended either
+        Deferral deferral = new Deferral(QUIET_PERIOD, ConfigSyncScheduler.MAX_DEFERRAL);
+        assertEquals(60000, deferral.request(0, 60000));
+        assertEquals(50000, deferral.request(10000, 60000));
+    }
+
+    @Test
+    public void testResetAfterCancel() throws Exception {
+        Deferral deferral = new Deferral(QUIET_PERIOD, ConfigSyncScheduler.MAX_DEFERRAL);
+        deferral.request(0, 0);
+        assertEquals(0, deferral.request(ConfigSyncScheduler.MAX_DEFERRAL + 5000, 0));
+
+        // after a sync runs or is cancelled, the next request waits for the quiet period again
+        deferral.reset();
+        assertEquals(QUIET_PERIOD, deferral.request(ConfigSyncScheduler.MAX_DEFERRAL + 6000, 0));
+    }
+
+    @Test
+    public void testCoalesce() throws Exception {
+        String key = "testCoalesce";
+        syncs.set(0);
+        try {
+            ConfigSyncScheduler.schedule(key, sync, DELAY);
+            Thread.sleep(DELAY / 2);
+            ConfigSyncScheduler.schedule(key, sync, DELAY);
+            Thread.sleep(DELAY / 2);
+            ConfigSyncScheduler.schedule(key, sync, DELAY);
+            Thread.sleep(DELAY / 2);
+
+            // each request postponed the sync
+            assertEquals(0, syncs.get());
+
+            Thread.sleep(DELAY * 2);
+            assertEquals("The requests should be synced together", 1, syncs.get());
+
+            // a request after the sync needs another sync
+            ConfigSyncScheduler.schedule(key, sync, DELAY);
+            Thread.sleep(DELAY * 2);
+            assertEquals(2, syncs.get());
+        } finally {
+            ConfigSyncScheduler.remove(key);
+        }
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        String key = "testCancel";
+        syncs.set(0);
+        try {
+            ConfigSyncScheduler.schedule(key, sync, DELAY);
+            ConfigSyncScheduler.cancel(key);
+            Thread.sleep(DELAY * 2);
+            assertEquals("A cancelled sync should not run", 0, syncs.get());
+
+            ConfigSyncScheduler.schedule(key, sync, DELAY);
+            Thread.sleep(DELAY / 2);
+            assertEquals("The sync should wait for the delay after it was cancelled", 0, syncs.get());
+            Thread.sleep(DELAY * 2);
+            assertEquals(1, syncs.get());
+        } finally {
+            ConfigSyncScheduler.remove(key);
+        }
+    }
+
+    @Test
+    public void doTearDown() throws Exception {
+        print("Ending test: ConfigSyncSchedulerTest\n");
+    }
+}
@@ -0,0 +1,215 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package com.ibm.ws.st.core.tests;
+
+import java.io.StringReader;
+import java.util.StringTokenizer;
+
+import javax.json.Json;
+import javax.json.JsonReader;
+
+import junit.framework.TestSuite;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.AllTests;
+
+import com.ibm.ws.st.core.internal.ConsoleMessageClassifier;
+import com.ibm.ws.st.core.internal.ConsoleMessageClassifier.Kind;
+import com.ibm.ws.st.tests.common.util.TestCaseDescriptor;
+
+@TestCaseDescriptor(description = "Test classifying console messages", isStable = true)
+@RunWith(AllTests.class)
+public class ConsoleMessageClassifierTest extends ToolsTestBase {
+
+    private static final String[] SAMPLE = new String[] {
+                                                          "[AUDIT   ] CWWKE0001I: The server defaultServer has been launched.",
+                                                          "[INFO    ] CWWKE0002I: The kernel started after 0.512 seconds",
+                                                          "[INFO    ] CWWKF0007I: Feature update started.",
+                                                          "[INFO    ] SRVE0169I: Loading Web Module: DemoWeb.",
+                                                          "[INFO    ] SESN0176I: A new session context will be created for application key default_host/DemoWeb",
+                                                          "[AUDIT   ] CWWKT0016I: Web application available (default_host): http://localhost:9080/DemoWeb/",
+                                                          "[AUDIT   ] CWWKZ0001I: Application DemoWeb started in 0.940 seconds.",
+                                                          "        at com.ibm.ws.container.service.app.deploy.ContainerInfo.getContainer(ContainerInfo.java:42)",
+                                                          "[AUDIT   ] CWWKF0012I: The server installed the following features: [jsp-2.3, servlet-3.1].",
+                                                          "[AUDIT   ] CWWKF0011I: The server defaultServer is ready to run a smarter planet."
+    };
+
+    private static final String JSON = "{\"type\":\"liberty_message\",\"host\":\"localhost\",\"ibm_serverName\":\"defaultServer\","
+                                       + "\"message\":\"CWWKZ0001I: Application DemoWeb started in 0.940 seconds.\",\"ibm_threadId\":\"0000001f\","
+                                       + "\"ibm_messageId\":\"CWWKZ0001I\",\"module\":\"com.ibm.ws.app.manager.AppMessageHelper\",\"loglevel\":\"AUDIT\"}";
+
+    private static final String JSON_UNTRACKED = "{\"type\":\"liberty_message\",\"host\":\"localhost\",\"ibm_serverName\":\"defaultServer\","
+                                                 + "\"message\":\"SRVE0169I: Loading Web Module: DemoWeb.\",\"ibm_threadId\":\"0000001f\","
+                                                 + "\"ibm_messageId\":\"SRVE0169I\",\"module\":\"com.ibm.ws.webcontainer\",\"loglevel\":\"INFO\"}";
+
+    public static TestSuite suite() {
+        TestSuite suite = new TestSuite();
+        suite.addTest(ConsoleMessageClassifierTest.getOrderedTests());
+        suite.setName(ConsoleMessageClassifierTest.class.getSimpleName());
+        return suite;
+    }
+
+    public static TestSuite getOrderedTests() {
+        TestSuite testSuite = new TestSuite();
+
+        testSuite.addTest(TestSuite.createTest(ConsoleMessageClassifierTest.class, "doSetup"));
+        testSuite.addTest(TestSuite.createTest(ConsoleMessageClassifierTest.class, "testClassify"));
+        testSuite.addTest(TestSuite.createTest(ConsoleMessageClassifierTest.class, "testPrecedence"));
+        testSuite.addTest(TestSuite.createTest(ConsoleMessageClassifierTest.class, "testJsonMessage"));
+        testSuite.addTest(TestSuite.createTest(ConsoleMessageClassifierTest.class, "testThroughput"));
+        testSuite.addTest(TestSuite.createTest(ConsoleMessageClassifierTest.class, "doTearDown"));
+
+        return testSuite;
+    }
+
+    @Test
+    public void doSetup() throws Exception {
+        print("Starting test: ConsoleMessageClassifierTest");
+        init();
+    }
+
+    @Test
+    public void testClassify() {
+        assertEquals(Kind.SERVER_STARTED, ConsoleMessageClassifier.classify("[AUDIT   ] CWWKF0011I: The server defaultServer is ready to run a smarter planet."));
+        assertEquals(Kind.APP_STARTED, ConsoleMessageClassifier.classify("[AUDIT   ] CWWKZ0001I: Application DemoWeb started in 0.94 seconds."));
+        assertEquals(Kind.APP_STARTED, ConsoleMessageClassifier.classify("[AUDIT   ] J2CA7001I: Resource adapter DemoRA installed in 1.2 seconds."));
+        assertEquals(Kind.APP_STOPPED, ConsoleMessageClassifier.classify("[AUDIT   ] CWWKZ0009I: The application DemoWeb has stopped successfully."));
+        assertEquals(Kind.APP_UPDATED, ConsoleMessageClassifier.classify("[AUDIT   ] CWWKZ0003I: The application DemoWeb updated in 0.2 seconds."));
+        assertEquals(Kind.APP_START_FAILED, ConsoleMessageClassifier.classify("[AUDIT   ] CWWKZ0012I: The application OSGi.app was not started."));
+        assertEquals(Kind.APP_NO_HANDLER, ConsoleMessageClassifier.classify("[ERROR   ] CWWKZ0005E: The application Demo cannot start because the server is not configured to handle applications of type foo."));
+        assertEquals(Kind.APP_UPDATE_FAILED, ConsoleMessageClassifier.classify("[AUDIT   ] J2CA7020I: Resource adapter DemoRA is not updated."));
+        assertEquals(Kind.APP_STOP_FAILED, ConsoleMessageClassifier.classify("[ERROR   ] CWWKZ0010E: An exception occurred while stopping the application DemoWeb."));
+        assertEquals(Kind.APP_NOT_FOUND, ConsoleMessageClassifier.classify("[WARNING ] CWWKZ0014W: The application Web could not be started as it could not be found at location Web.war."));
+
+        assertNull(ConsoleMessageClassifier.classify(""));
+        assertNull(ConsoleMessageClassifier.classify("CWWKZ000"));
+        assertNull(ConsoleMessageClassifier.classify("[AUDIT   ] CWWKE0001I: The server defaultServer has been launched."));
+        assertNull(ConsoleMessageClassifier.classify("[AUDIT   ] J2CA7001: Resource adapter"));
+
+        // the code can be anywhere in the line, and only the given region is looked at
+        String text = "xx CWWKZ0001I yy";
+        assertEquals(Kind.APP_STARTED, ConsoleMessageClassifier.classify(text));
+        assertEquals(Kind.APP_STARTED, ConsoleMessageClassifier.classify(text, 3, 13));
+        assertNull(ConsoleMessageClassifier.classify(text, 4, 16));
+        assertNull(ConsoleMessageClassifier.classify(text, 0, 12));
+    }
+
+    @Test
+    public void testPrecedence() {
+        assertEquals(Kind.SERVER_STARTED, ConsoleMessageClassifier.classify("CWWKZ0001I CWWKF0011I"));
+        assertEquals(Kind.APP_STARTED, ConsoleMessageClassifier.classify("CWWKZ0014W CWWKZ0001I"));
+        assertEquals(Kind.APP_START_FAILED, ConsoleMessageClassifier.classify("CWWKZ0004E J2CA7002E"));
+    }
+
+    @Test
+    public void testJsonMessage() {
+        assertEquals("CWWKZ0001I: Application DemoWeb started in 0.940 seconds.", ConsoleMessageClassifier.getJsonMessage(JSON));
+        assertEquals("a \"quoted\" message", ConsoleMessageClassifier.getJsonMessage("{\"message\":\"a \\\"quoted\\\" message\"}"));
+        assertEquals("top", ConsoleMessageClassifier.getJsonMessage("{\"nested\":{\"message\":\"inner\"},\"message\":\"top\"}"));
+        assertNull(ConsoleMessageClassifier.getJsonMessage("{\"type\":\"liberty_trace\"}"));
+        assertNull(ConsoleMessageClassifier.getJsonMessage("{\"message\":\"\"}"));
+        assertNull(ConsoleMessageClassifier.getJsonMessage("{ not json"));
+
+        assertEquals(Kind.APP_STARTED, ConsoleMessageClassifier.classify(JSON));
+        assertNull(ConsoleMessageClassifier.classify(JSON_UNTRACKED));
+    }
+
+    /**
+     * Compares the throughput of the classifier against splitting the text with a tokenizer,
+     * decoding every JSON line and checking each line for every message code.
+     */
+    @Test
+    public void testThroughput() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            for (String s : SAMPLE)
+                sb.append(s).append("\r\n");
+            sb.append(JSON_UNTRACKED).append("\n");
+        }
+        String text = sb.toString();
+        int lines = 200 * (SAMPLE.length + 1);
+
+        // warm up, and check that both find the same messages
+        int expected = 0;
+        int actual = 0;
+        for (int i = 0; i < 20; i++) {
+            expected = tokenize(text);
+            actual = classify(text);
+        }
+        assertEquals(expected, actual);
+
+        int iterations = 200;
+        long time = System.nanoTime();
+        for (int i = 0; i < iterations; i++)
+            tokenize(text);
+        long tokenizeTime = System.nanoTime() - time;
+
+        time = System.nanoTime();
+        for (int i = 0; i < iterations; i++)
+            classify(text);
+        long classifyTime = System.nanoTime() - time;
+
+        print("Tokenize and match: " + (lines * iterations * 1000000000L / Math.max(tokenizeTime, 1)) + " lines/s");
+        print("Classify:           " + (lines * iterations * 1000000000L / Math.max(classifyTime, 1)) + " lines/s");
+    }
+
+    private static int classify(String text) {
+        int count = 0;
+        int length = text.length();
+        int start = 0;
+        while (start < length) {
+            int end = start;
+            char c;
+            while (end < length && (c = text.charAt(end)) != '\n' && c != '\r')
+                end++;
+            if (end > start && ConsoleMessageClassifier.classify(text, start, end) != null) {
+                String s = text.substring(start, end);
+                if (s.startsWith("{"))
+                    s = ConsoleMessageClassifier.getJsonMessage(s);
+                if (s != null && ConsoleMessageClassifier.classify(s) != null)
+                    count++;
+            }
+            start = end + 1;
+        }
+        return count;
+    }
+
+    private static final String[] CODES = new String[] { "CWWKF0011I", "CWWKZ0001I", "CWWKZ0013E", "J2CA7001I", "J2CA7013E", "CWWKZ0009I", "J2CA7009I",
+                                                         "CWWKZ0003I", "CWWKZ0062I", "CWWKZ0002E", "J2CA7002E", "CWWKZ0012I", "J2CA7012I", "CWWKZ0005E",
+                                                         "CWWKZ0004E", "CWWKZ0020I", "J2CA7020I", "CWWKZ0010E", "J2CA7010E", "CWWKZ0014W", "J2CA7014W" };
+
+    private static int tokenize(String text) {
+        int count = 0;
+        StringTokenizer st = new StringTokenizer(text, "\r\n");
+        while (st.hasMoreTokens()) {
+            String s = st.nextToken();
+            if (s.startsWith("{")) {
+                JsonReader reader = Json.createReader(new StringReader(s));
+                s = reader.readObject().getString("message");
+                reader.close();
+            }
+            for (String code : CODES) {
+                if (s.contains(code)) {
+                    count++;
+                    break;
+                }
+            }
+        }
+        return count;
+    }
+
+    @Test
+    public void doTearDown() {
+        cleanUp();
+        print("Ending test: ConsoleMessageClassifierTest\n");
+    }
+}
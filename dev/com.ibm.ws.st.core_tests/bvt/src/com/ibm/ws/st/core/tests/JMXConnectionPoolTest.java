@@ -0,0 +1,232 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package com.ibm.ws.st.core.tests;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import javax.management.MBeanServerConnection;
+
+import junit.framework.TestSuite;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.AllTests;
+
+import com.ibm.ws.st.core.internal.jmx.JMXConnection;
+import com.ibm.ws.st.core.internal.jmx.JMXConnectionException;
+import com.ibm.ws.st.core.internal.jmx.JMXConnectionPool;
+import com.ibm.ws.st.tests.common.util.TestCaseDescriptor;
+
+@TestCaseDescriptor(description = "Test sharing JMX connections", isStable = true)
+@RunWith(AllTests.class)
+public class JMXConnectionPoolTest extends ToolsTestBase {
+
+    protected static int connects;
+    protected static int closes;
+    protected static boolean healthy = true;
+    protected static boolean available = true;
+    protected static volatile long checkDelay = 0;
+
+    public static TestSuite suite() {
+        TestSuite suite = new TestSuite();
+        suite.addTest(JMXConnectionPoolTest.getOrderedTests());
+        suite.setName(JMXConnectionPoolTest.class.getSimpleName());
+        return suite;
+    }
+
+    public static TestSuite getOrderedTests() {
+        TestSuite testSuite = new TestSuite();
+
+        testSuite.addTest(TestSuite.createTest(JMXConnectionPoolTest.class, "doSetup"));
+        testSuite.addTest(TestSuite.createTest(JMXConnectionPoolTest.class, "testShared"));
+        testSuite.addTest(TestSuite.createTest(JMXConnectionPoolTest.class, "testReconnect"));
+        testSuite.addTest(TestSuite.createTest(JMXConnectionPoolTest.class, "testRetryDelay"));
+        testSuite.addTest(TestSuite.createTest(JMXConnectionPoolTest.class, "testSlowServer"));
+        testSuite.addTest(TestSuite.createTest(JMXConnectionPoolTest.class, "doTearDown"));
+
+        return testSuite;
+    }
+
+    @Test
+    public void doSetup() throws Exception {
+        print("Starting test: JMXConnectionPoolTest");
+        init();
+    }
+
+    @Test
+    public void testShared() throws Exception {
+        reset();
+        String key = "testShared";
+        JMXConnection jmx1 = JMXConnectionPool.getConnection(key, factory);
+        JMXConnection jmx2 = JMXConnectionPool.getConnection(key, factory);
+        assertEquals(1, connects);
+        assertEquals(Integer.valueOf(1), jmx1.getMBeanCount());
+
+        jmx1.getConfigVarCache().put("${wlp.user.dir}", "/opt/wlp/usr");
+        assertEquals("/opt/wlp/usr", jmx2.getConfigVarCache().get("${wlp.user.dir}"));
+
+        // disconnecting returns the connection to the pool
+        jmx1.disconnect();
+        jmx1.disconnect();
+        jmx2.disconnect();
+        assertEquals(0, closes);
+
+        JMXConnection jmx3 = JMXConnectionPool.getConnection(key, factory);
+        assertEquals(1, connects);
+        jmx3.disconnect();
+
+        JMXConnectionPool.shutdown();
+        assertEquals(1, closes);
+    }
+
+    @Test
+    public void testReconnect() throws Exception {
+        reset();
+        String key = "testReconnect";
+        JMXConnection jmx = JMXConnectionPool.getConnection(key, factory);
+
+        // a failed health check replaces the connector
+        healthy = false;
+        jmx.disconnect();
+        jmx.connect();
+        assertEquals(2, connects);
+        assertEquals(1, closes);
+
+        healthy = true;
+        JMXConnectionPool.invalidate(key);
+        JMXConnection jmx2 = JMXConnectionPool.getConnection(key, factory);
+        assertEquals(2, connects);
+
+        jmx.disconnect();
+        jmx2.disconnect();
+        JMXConnectionPool.shutdown();
+    }
+
+    @Test
+    public void testRetryDelay() throws Exception {
+        reset();
+        String key = "testRetryDelay";
+        available = false;
+        try {
+            JMXConnectionPool.getConnection(key, factory);
+            fail("Connection should fail");
+        } catch (Exception e) {
+            // expected
+        }
+
+        // the next attempt fails without connecting again
+        try {
+            JMXConnectionPool.getConnection(key, factory);
+            fail("Connection should fail");
+        } catch (JMXConnectionException e) {
+            assertNotNull(e.getCause());
+        }
+        assertEquals(0, connects);
+
+        available = true;
+        Thread.sleep(500);
+        JMXConnection jmx = JMXConnectionPool.getConnection(key, factory);
+        assertEquals(1, connects);
+        jmx.disconnect();
+        JMXConnectionPool.shutdown();
+    }
+
+    /**
+     * A server that is slow to answer the health check doesn't hold up connections to other servers.
+     */
+    @Test
+    public void testSlowServer() throws Exception {
+        reset();
+        final String key = "testSlowServer";
+        JMXConnection jmx = JMXConnectionPool.getConnection(key, factory);
+        jmx.disconnect();
+
+        checkDelay = 3000;
+        JMXConnectionPool.invalidate(key);
+        final Exception[] failure = new Exception[1];
+        Thread thread = new Thread("JMX connection pool test") {
+            @Override
+            public void run() {
+                try {
+                    JMXConnectionPool.getConnection(key, factory).disconnect();
+                } catch (Exception e) {
+                    failure[0] = e;
+                }
+            }
+        };
+        thread.start();
+        Thread.sleep(500);
+
+        long time = System.currentTimeMillis();
+        JMXConnection jmx2 = JMXConnectionPool.getConnection(key + "2", factory);
+        assertTrue(System.currentTimeMillis() - time < 1000);
+        jmx2.disconnect();
+
+        thread.join();
+        assertNull(failure[0]);
+        // the slow check passed, so the connector was kept
+        assertEquals(2, connects);
+        assertEquals(0, closes);
+        JMXConnectionPool.shutdown();
+    }
+
+    @Test
+    public void doTearDown() {
+        JMXConnectionPool.shutdown();
+        cleanUp();
+        print("Ending test: JMXConnectionPoolTest\n");
+    }
+
+    private static void reset() {
+        connects = 0;
+        closes = 0;
+        healthy = true;
+        available = true;
+        checkDelay = 0;
+    }
+
+    private static final JMXConnectionPool.ConnectionFactory factory = new JMXConnectionPool.ConnectionFactory() {
+        @Override
+        public JMXConnection connect() throws Exception {
+            if (!available)
+                throw new Exception("Server is not available");
+            connects++;
+            return new TestConnection();
+        }
+    };
+
+    private static class TestConnection extends JMXConnection {
+        TestConnection() {
+            super("localhost", "9443", "user", "password");
+            mbsc = (MBeanServerConnection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[] { MBeanServerConnection.class }, new InvocationHandler() {
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                    if (!healthy)
+                        throw new java.io.IOException("Connection closed");
+                    if ("getMBeanCount".equals(method.getName())) {
+                        if (checkDelay > 0)
+                            Thread.sleep(checkDelay);
+                        return Integer.valueOf(1);
+                    }
+                    return null;
+                }
+            });
+        }
+
+        @Override
+        public void disconnect() {
+            closes++;
+            super.disconnect();
+        }
+    }
+}
@@ -0,0 +1,257 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package com.ibm.ws.st.core.tests;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import junit.framework.TestSuite;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.AllTests;
+
+import com.ibm.ws.st.core.internal.ZipPackager;
+import com.ibm.ws.st.core.tests.util.FileUtil;
+import com.ibm.ws.st.tests.common.util.TestCaseDescriptor;
+
+@TestCaseDescriptor(description = "Test creating zip archives", isStable = true)
+@RunWith(AllTests.class)
+public class ZipPackagerTest extends ToolsTestBase {
+
+    // larger than the entries that are compressed in memory
+    private static final int LARGE_SIZE = 5 * 1024 * 1024;
+    private static final long TIME = 1500000000000L;
+
+    protected static File tempDir;
+
+    public static TestSuite suite() {
+        TestSuite suite = new TestSuite();
+        suite.addTest(ZipPackagerTest.getOrderedTests());
+        suite.setName(ZipPackagerTest.class.getSimpleName());
+        return suite;
+    }
+
+    public static TestSuite getOrderedTests() {
+        TestSuite testSuite = new TestSuite();
+
+        testSuite.addTest(TestSuite.createTest(ZipPackagerTest.class, "doSetup"));
+        testSuite.addTest(TestSuite.createTest(ZipPackagerTest.class, "testRoundTrip"));
+        testSuite.addTest(TestSuite.createTest(ZipPackagerTest.class, "testZipFiles"));
+        testSuite.addTest(TestSuite.createTest(ZipPackagerTest.class, "testEmptyFolder"));
+        testSuite.addTest(TestSuite.createTest(ZipPackagerTest.class, "testCompressionMethods"));
+        testSuite.addTest(TestSuite.createTest(ZipPackagerTest.class, "testManyEntries"));
+        testSuite.addTest(TestSuite.createTest(ZipPackagerTest.class, "doTearDown"));
+
+        return testSuite;
+    }
+
+    @Test
+    public void doSetup() throws Exception {
+        print("Starting test: ZipPackagerTest");
+        init();
+        tempDir = Files.createTempDirectory("zipPackagerTest").toFile();
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        File folder = new File(tempDir, "roundTrip");
+        Random random = new Random(42);
+        writeFile(new File(folder, "index.html"), "<html><body>Hello</body></html>".getBytes("UTF-8"));
+        writeFile(new File(folder, "WEB-INF/web.xml"), "<web-app/>".getBytes("UTF-8"));
+        writeFile(new File(folder, "WEB-INF/classes/com/example/deep/nested/Test.class"), randomBytes(random, 3000));
+        writeFile(new File(folder, "empty.txt"), new byte[0]);
+        writeFile(new File(folder, "donn\u00e9es/\u30d5\u30a1\u30a4\u30eb.txt"), "non-ASCII name".getBytes("UTF-8"));
+        writeFile(new File(folder, "images/logo.png"), randomBytes(random, 2000));
+        writeFile(new File(folder, "WEB-INF/lib/large.jar"), randomBytes(random, LARGE_SIZE));
+        writeFile(new File(folder, "large.txt"), repeatedBytes(LARGE_SIZE));
+        new File(folder, "emptyFolder").mkdirs();
+        new File(folder, "nested/emptyFolder").mkdirs();
+
+        File zip = new File(tempDir, "roundTrip.zip");
+        new ZipPackager().zipDirectory(folder, zip);
+        checkZip(folder, collectFiles(folder), zip);
+    }
+
+    @Test
+    public void testZipFiles() throws Exception {
+        File folder = new File(tempDir, "roundTrip");
+        List<File> files = new ArrayList<File>();
+        files.add(new File(folder, "WEB-INF/web.xml"));
+        files.add(new File(folder, "donn\u00e9es/\u30d5\u30a1\u30a4\u30eb.txt"));
+        files.add(new File(folder, "empty.txt"));
+        // folders are ignored
+        files.add(new File(folder, "WEB-INF"));
+
+        File zip = new File(tempDir, "files.zip");
+        new ZipPackager().zipFiles(folder, files, zip);
+        files.remove(files.size() - 1);
+        checkZip(folder, files, zip);
+    }
+
+    @Test
+    public void testEmptyFolder() throws Exception {
+        File folder = new File(tempDir, "empty");
+        new File(folder, "a/b").mkdirs();
+
+        File zip = new File(tempDir, "empty.zip");
+        new ZipPackager().zipDirectory(folder, zip);
+        checkZip(folder, new ArrayList<File>(), zip);
+    }
+
+    @Test
+    public void testCompressionMethods() throws Exception {
+        File folder = new File(tempDir, "roundTrip");
+        File zip = new File(tempDir, "roundTrip.zip");
+        ZipFile zipFile = new ZipFile(zip);
+        try {
+            assertEquals(ZipEntry.DEFLATED, zipFile.getEntry("index.html").getMethod());
+            assertEquals(ZipEntry.DEFLATED, zipFile.getEntry("large.txt").getMethod());
+            assertEquals(ZipEntry.STORED, zipFile.getEntry("images/logo.png").getMethod());
+            assertEquals(ZipEntry.STORED, zipFile.getEntry("WEB-INF/lib/large.jar").getMethod());
+            assertTrue(zipFile.getEntry("large.txt").getCompressedSize() < LARGE_SIZE / 10);
+        } finally {
+            zipFile.close();
+        }
+
+        // without storing compressed formats, everything that deflate helps with is deflated
+        File zip2 = new File(tempDir, "deflated.zip");
+        new ZipPackager(9, false).zipDirectory(folder, zip2);
+        checkZip(folder, collectFiles(folder), zip2);
+    }
+
+    /**
+     * Archives with too many entries for the classic zip format are written with zip64 extensions.
+     */
+    @Test
+    public void testManyEntries() throws Exception {
+        File folder = new File(tempDir, "many");
+        int count = 0xFFFF + 100;
+        for (int i = 0; i < count; i++)
+            writeFile(new File(folder, "d" + (i / 1000) + "/f" + i + ".txt"), Integer.toString(i).getBytes("UTF-8"));
+
+        File zip = new File(tempDir, "many.zip");
+        new ZipPackager().zipDirectory(folder, zip);
+
+        ZipFile zipFile = new ZipFile(zip);
+        try {
+            assertEquals(count, zipFile.size());
+            for (int i = 0; i < count; i += 997) {
+                ZipEntry entry = zipFile.getEntry("d" + (i / 1000) + "/f" + i + ".txt");
+                assertNotNull("Missing entry " + i, entry);
+                assertEquals(Integer.toString(i), new String(readEntry(zipFile, entry), "UTF-8"));
+            }
+        } finally {
+            zipFile.close();
+        }
+    }
+
+    @Test
+    public void doTearDown() throws Exception {
+        if (tempDir != null)
+            FileUtil.deleteDirectory(tempDir.getAbsolutePath(), true);
+        cleanUp();
+        print("Ending test: ZipPackagerTest\n");
+    }
+
+    // Check that the zip has exactly one entry for each of the given files, with the same content
+    private static void checkZip(File root, List<File> files, File zip) throws IOException {
+        String rootPath = root.getAbsolutePath();
+        Map<String, File> expected = new HashMap<String, File>();
+        for (File f : files)
+            expected.put(f.getAbsolutePath().substring(rootPath.length() + 1).replace('\\', '/'), f);
+
+        ZipFile zipFile = new ZipFile(zip);
+        try {
+            assertEquals(expected.size(), zipFile.size());
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                File f = expected.remove(entry.getName());
+                assertNotNull("Unexpected entry: " + entry.getName(), f);
+                assertFalse(entry.isDirectory());
+                assertEquals(entry.getName(), f.length(), entry.getSize());
+                assertTrue(entry.getName(), Math.abs(entry.getTime() - f.lastModified()) <= 2000);
+                byte[] content = readEntry(zipFile, entry);
+                assertTrue("Content of " + entry.getName(), Arrays.equals(Files.readAllBytes(f.toPath()), content));
+            }
+            assertTrue("Missing entries: " + expected.keySet(), expected.isEmpty());
+        } finally {
+            zipFile.close();
+        }
+    }
+
+    private static byte[] readEntry(ZipFile zipFile, ZipEntry entry) throws IOException {
+        InputStream in = zipFile.getInputStream(entry);
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buf = new byte[8192];
+            int n;
+            while ((n = in.read(buf)) > 0)
+                out.write(buf, 0, n);
+            return out.toByteArray();
+        } finally {
+            in.close();
+        }
+    }
+
+    private static List<File> collectFiles(File folder) {
+        List<File> files = new ArrayList<File>();
+        File[] children = folder.listFiles();
+        if (children != null) {
+            for (File f : children) {
+                if (f.isDirectory())
+                    files.addAll(collectFiles(f));
+                else
+                    files.add(f);
+            }
+        }
+        return files;
+    }
+
+    private static void writeFile(File file, byte[] content) throws IOException {
+        file.getParentFile().mkdirs();
+        OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content);
+        } finally {
+            out.close();
+        }
+        file.setLastModified(TIME);
+    }
+
+    private static byte[] randomBytes(Random random, int size) {
+        byte[] b = new byte[size];
+        random.nextBytes(b);
+        return b;
+    }
+
+    private static byte[] repeatedBytes(int size) {
+        byte[] b = new byte[size];
+        for (int i = 0; i < size; i++)
+            b[i] = (byte) ('a' + (i % 26));
+        return b;
+    }
+}
@@ -0,0 +1,434 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package com.ibm.ws.st.core.tests.config;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.AllTests;
+
+import com.ibm.ws.st.core.internal.Constants;
+import com.ibm.ws.st.core.internal.config.ConfigVars;
+import com.ibm.ws.st.core.internal.config.ConfigVars.ExpressionOperandError;
+import com.ibm.ws.st.core.internal.config.ConfigVars.ResolvedValueInfo;
+import com.ibm.ws.st.core.internal.config.ConfigVars.UndefinedReference;
+import com.ibm.ws.st.core.internal.config.DocumentLocation;
+import com.ibm.ws.st.core.tests.ToolsTestBase;
+import com.ibm.ws.st.tests.common.util.TestCaseDescriptor;
+
+import junit.framework.TestSuite;
+
+@TestCaseDescriptor(description = "Test resolving configuration values through templates", isStable = true)
+@RunWith(AllTests.class)
+public class ConfigVarsTemplateTest extends ToolsTestBase {
+
+    private static final String[] VALUES = new String[] {
+                                                          "",
+                                                          "plain text",
+                                                          "${host}",
+                                                          "http://${host}:${port}/app",
+                                                          "${host}${port}",
+                                                          "prefix ${undefined} suffix",
+                                                          "${a}${b}${c}${d}${e}${f}",
+                                                          "${list(hosts)}",
+                                                          "${list(undefinedList)}",
+                                                          "${list(hosts}",
+                                                          "${port+1}",
+                                                          "${port-count}",
+                                                          "${count*2}",
+                                                          "${port/count}",
+                                                          "${-5+3}",
+                                                          "${port+host}",
+                                                          "${port+missing}",
+                                                          "${+1}",
+                                                          "${1-}",
+                                                          "${1+2+3}",
+                                                          "${port+1} and ${missing*2}",
+                                                          "${missing*2} and ${port+1}",
+                                                          "${url}",
+                                                          "${deferred}",
+                                                          "${",
+                                                          "abc${",
+                                                          "${host",
+                                                          "}${host}{",
+                                                          "${}",
+                                                          "${${host}}",
+                                                          "$${host}",
+                                                          "${ host }",
+                                                          "${enabled}",
+                                                          "${timeout}"
+    };
+
+    private static final String[] TYPES = new String[] { null, Constants.XSD_INT_TYPE, Constants.XSD_BOOLEAN_TYPE, Constants.LONG_TYPE, Constants.XSD_STRING_TYPE };
+
+    protected static ReferenceVars vars;
+
+    public static TestSuite suite() {
+        TestSuite suite = new TestSuite();
+        suite.addTest(ConfigVarsTemplateTest.getOrderedTests());
+        suite.setName(ConfigVarsTemplateTest.class.getSimpleName());
+        return suite;
+    }
+
+    public static TestSuite getOrderedTests() {
+        TestSuite testSuite = new TestSuite();
+
+        testSuite.addTest(TestSuite.createTest(ConfigVarsTemplateTest.class, "doSetup"));
+        testSuite.addTest(TestSuite.createTest(ConfigVarsTemplateTest.class, "testMatchesReference"));
+        testSuite.addTest(TestSuite.createTest(ConfigVarsTemplateTest.class, "testUndefinedOffsets"));
+        testSuite.addTest(TestSuite.createTest(ConfigVarsTemplateTest.class, "testChainedVars"));
+        testSuite.addTest(TestSuite.createTest(ConfigVarsTemplateTest.class, "testCacheEviction"));
+        testSuite.addTest(TestSuite.createTest(ConfigVarsTemplateTest.class, "testThroughput"));
+        testSuite.addTest(TestSuite.createTest(ConfigVarsTemplateTest.class, "doTearDown"));
+
+        return testSuite;
+    }
+
+    @Test
+    public void doSetup() throws Exception {
+        print("Starting test: ConfigVarsTemplateTest");
+        init();
+        vars = new ReferenceVars();
+        vars.add("host", "localhost", (DocumentLocation) null);
+        vars.add("port", "9080", (DocumentLocation) null);
+        vars.add("count", "4", (DocumentLocation) null);
+        vars.add("hosts", "a.com, b.com", (DocumentLocation) null);
+        vars.add("enabled", "true", (DocumentLocation) null);
+        vars.add("timeout", "30s", (DocumentLocation) null);
+        for (String name : new String[] { "a", "b", "c" })
+            vars.add(name, name.toUpperCase(), (DocumentLocation) null);
+
+        // a variable that refers to others is resolved when it is added
+        vars.add("url", "http://${host}:${port}", (DocumentLocation) null);
+
+        // in a context, references are resolved when the context ends
+        vars.startContext();
+        vars.add("deferred", "${later}/${port}", (DocumentLocation) null);
+        vars.add("later", "value", (DocumentLocation) null);
+        vars.endContext();
+    }
+
+    @Test
+    public void testMatchesReference() {
+        for (String type : TYPES) {
+            for (String value : VALUES) {
+                ResolvedValueInfo info = new ResolvedValueInfo();
+                ReferenceInfo expected = new ReferenceInfo();
+                vars.resolve(value, info, type);
+                vars.resolveReference(value, expected, type);
+                assertSame(value, type, expected, info);
+
+                // a cached template gives the same result the second time
+                vars.resolve(value, info, type);
+                assertSame(value, type, expected, info);
+            }
+        }
+    }
+
+    @Test
+    public void testUndefinedOffsets() {
+        ResolvedValueInfo info = new ResolvedValueInfo();
+        vars.resolve("abc ${x} ${list(y)} ${host} ${z}", info);
+        assertEquals("abc ${x} ${list(y)} localhost ${z}", info.getResolvedValue());
+        assertFalse(info.isFullyResolved());
+        UndefinedReference[] refs = info.getUndefinedReferences();
+        assertEquals(3, refs.length);
+        assertEquals("x", refs[0].getReferenceName());
+        assertEquals(6, refs[0].getReferenceOffset());
+        assertEquals("y", refs[1].getReferenceName());
+        assertEquals(16, refs[1].getReferenceOffset());
+        assertEquals("z", refs[2].getReferenceName());
+        assertEquals(30, refs[2].getReferenceOffset());
+    }
+
+    @Test
+    public void testChainedVars() {
+        assertEquals("http://localhost:9080", vars.getValue("url"));
+        assertEquals("value/9080", vars.getValue("deferred"));
+
+        // a chained expression is not valid and is dropped from the value
+        ResolvedValueInfo info = new ResolvedValueInfo();
+        vars.resolve("x${1+2+3}y", info);
+        assertTrue(info.isInvalidExpression());
+        assertEquals("xy", info.getResolvedValue());
+    }
+
+    @Test
+    public void testCacheEviction() {
+        // more distinct values than the cache holds, while a few values stay in use
+        for (int i = 0; i < 10000; i++) {
+            String value = "${host}-" + i;
+            assertEquals("localhost-" + i, vars.resolve(value));
+            if (i % 100 == 0) {
+                for (String v : VALUES) {
+                    ResolvedValueInfo info = new ResolvedValueInfo();
+                    ReferenceInfo expected = new ReferenceInfo();
+                    vars.resolve(v, info, null);
+                    vars.resolveReference(v, expected, null);
+                    assertSame(v, null, expected, info);
+                }
+            }
+        }
+    }
+
+    /**
+     * Compares the throughput of resolving through templates against the previous
+     * implementation, which scanned the value and parsed its expressions on every call.
+     */
+    @Test
+    public void testThroughput() {
+        ResolvedValueInfo info = new ResolvedValueInfo();
+        ReferenceInfo expected = new ReferenceInfo();
+        int count = 0;
+
+        // warm up
+        for (int i = 0; i < 2000; i++) {
+            for (String value : VALUES) {
+                vars.resolve(value, info, null);
+                vars.resolveReference(value, expected, null);
+            }
+        }
+
+        int iterations = 20000;
+        long time = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            for (String value : VALUES) {
+                vars.resolveReference(value, expected, null);
+                count += expected.getResolvedValue().length();
+            }
+        }
+        long referenceTime = System.nanoTime() - time;
+
+        time = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            for (String value : VALUES) {
+                vars.resolve(value, info, null);
+                count -= info.getResolvedValue().length();
+            }
+        }
+        long templateTime = System.nanoTime() - time;
+        assertEquals(0, count);
+
+        long values = (long) iterations * VALUES.length;
+        print("Scan and resolve: " + (values * 1000000000L / Math.max(referenceTime, 1)) + " values/s");
+        print("Template resolve: " + (values * 1000000000L / Math.max(templateTime, 1)) + " values/s");
+    }
+
+    @Test
+    public void doTearDown() {
+        cleanUp();
+        print("Ending test: ConfigVarsTemplateTest\n");
+    }
+
+    private static void assertSame(String value, String type, ResolvedValueInfo expected, ResolvedValueInfo actual) {
+        String msg = "Value: " + value + ", type: " + type;
+        assertEquals(msg, expected.getResolvedValue(), actual.getResolvedValue());
+        assertEquals(msg, expected.isTypeMismatch(), actual.isTypeMismatch());
+        assertEquals(msg, expected.isInvalidExpression(), actual.isInvalidExpression());
+        assertEquals(msg, expected.getExpressionLeftOperandError(), actual.getExpressionLeftOperandError());
+        assertEquals(msg, expected.getExpressionRightOperandError(), actual.getExpressionRightOperandError());
+        assertEquals(msg, expected.isFullyResolved(), actual.isFullyResolved());
+        UndefinedReference[] expectedRefs = expected.getUndefinedReferences();
+        UndefinedReference[] actualRefs = actual.getUndefinedReferences();
+        if (expectedRefs == null) {
+            assertNull(msg, actualRefs);
+            return;
+        }
+        assertNotNull(msg, actualRefs);
+        assertEquals(msg, expectedRefs.length, actualRefs.length);
+        for (int i = 0; i < expectedRefs.length; i++) {
+            assertEquals(msg, expectedRefs[i].getReferenceName(), actualRefs[i].getReferenceName());
+            assertEquals(msg, expectedRefs[i].getReferenceOffset(), actualRefs[i].getReferenceOffset());
+        }
+    }
+
+    /**
+     * Exposes the result setters to the reference resolver.
+     */
+    private static class ReferenceInfo extends ResolvedValueInfo {
+        @Override
+        public void reset() {
+            super.reset();
+        }
+
+        @Override
+        public void setResolvedValue(String value) {
+            super.setResolvedValue(value);
+        }
+
+        @Override
+        public void setTypeMismatch(boolean value) {
+            super.setTypeMismatch(value);
+        }
+
+        @Override
+        public void setInvalidExpression(boolean invalidExpression) {
+            super.setInvalidExpression(invalidExpression);
+        }
+
+        @Override
+        public void setExpressionLeftOperandError(ExpressionOperandError error) {
+            super.setExpressionLeftOperandError(error);
+        }
+
+        @Override
+        public void setExpressionRightOperandError(ExpressionOperandError error) {
+            super.setExpressionRightOperandError(error);
+        }
+
+        @Override
+        public void addUndefinedReference(String name, int offset) {
+            super.addUndefinedReference(name, offset);
+        }
+    }
+
+    /**
+     * Resolves values with the implementation that scanned the value on every call.
+     */
+    private static class ReferenceVars extends ConfigVars {
+
+        public ReferenceVars() {
+            // public so the test can create it
+        }
+
+        void resolveReference(String value, ReferenceInfo info, String expectedTypeName) {
+            StringBuilder builder = new StringBuilder();
+            int offset = 0;
+            int start = value.indexOf("${");
+
+            info.reset();
+            while (start >= 0) {
+                int end = value.indexOf("}", start);
+                if (end >= 0) {
+                    builder.append(value, offset, start);
+                    String varName = value.substring(start + 2, end);
+                    int varOffset = start + 2;
+                    String[] expression = null;
+
+                    // Check for list
+                    if (varName.startsWith(LIST_START) && varName.endsWith(LIST_END)) {
+                        varName = varName.substring(LIST_START.length(), varName.length() - 1);
+                        varOffset = varOffset + LIST_START.length();
+                    } else {
+                        expression = split(varName);
+                    }
+
+                    // Check for expressions
+                    if (expression != null) {
+
+                        // Detect if there is a chained expression
+                        if (split(expression[2]) != null) {
+                            info.setInvalidExpression(true);
+                        } else {
+                            String expressionResult = calculateExpression(expression, info);
+                            if (expressionResult != null) {
+                                builder.append(expressionResult);
+                            } else {
+                                builder.append(varName);
+                            }
+                        }
+                    } else {
+                        String varValue = getValue(varName);
+                        if (varValue != null) {
+                            builder.append(varValue);
+                            if (expectedTypeName != null) {
+                                if (!checkType(getType(varName), expectedTypeName)) {
+                                    info.setTypeMismatch(true);
+                                }
+                            }
+                        } else {
+                            info.addUndefinedReference(varName, varOffset);
+                            builder.append(value, start, end + 1);
+                        }
+                    }
+
+                } else {
+                    break;
+                }
+                offset = end + 1;
+                start = value.indexOf("${", offset);
+            }
+            if (offset < value.length()) {
+                builder.append(value, offset, value.length());
+            }
+            info.setResolvedValue(builder.toString());
+        }
+
+        // Split an expression into its left operand, operator and right operand, the same
+        // way as the Expression class, or return null if there is no operator
+        private static String[] split(String expression) {
+            for (char operator : new char[] { '+', '-', '*', '/' }) {
+                int index = expression.indexOf(operator);
+                if (index != -1)
+                    return new String[] { expression.substring(0, index), String.valueOf(operator), expression.substring(index + 1) };
+            }
+            return null;
+        }
+
+        private String calculateExpression(String[] expression, ReferenceInfo info) {
+            long leftOperandLongValue = 0;
+            long rightOperandLongValue = 0;
+
+            // Obtain left operand
+            String leftOperand = expression[0];
+            if (leftOperand.length() > 0) {
+                if (!LONG_TYPES.contains(computeType(leftOperand))) {
+                    leftOperand = getValue(leftOperand);
+                }
+                if (leftOperand == null) {
+                    info.setExpressionLeftOperandError(ExpressionOperandError.UNDEFINED);
+                } else {
+                    try {
+                        leftOperandLongValue = Long.parseLong(leftOperand);
+                    } catch (NumberFormatException numberFormatException) {
+                        info.setExpressionLeftOperandError(ExpressionOperandError.INVALID_VALUE);
+                    }
+                }
+            } else {
+                info.setExpressionLeftOperandError(ExpressionOperandError.MISSING);
+            }
+
+            // Obtain right operand
+            String rightOperand = expression[2];
+            if (rightOperand.length() > 0) {
+                if (!LONG_TYPES.contains(computeType(rightOperand))) {
+                    rightOperand = getValue(rightOperand);
+                }
+
+                if (rightOperand == null) {
+                    info.setExpressionRightOperandError(ExpressionOperandError.UNDEFINED);
+                } else {
+                    try {
+                        rightOperandLongValue = Long.parseLong(rightOperand);
+                    } catch (NumberFormatException numberFormatException) {
+                        info.setExpressionRightOperandError(ExpressionOperandError.INVALID_VALUE);
+                    }
+                }
+            } else {
+                info.setExpressionRightOperandError(ExpressionOperandError.MISSING);
+            }
+
+            // If both operands were obtained, return calculated expression
+            if (info.getExpressionLeftOperandError() == null && info.getExpressionRightOperandError() == null) {
+                switch (expression[1].charAt(0)) {
+                    case '+':
+                        return Long.toString(leftOperandLongValue + rightOperandLongValue);
+                    case '-':
+                        return Long.toString(leftOperandLongValue - rightOperandLongValue);
+                    case '*':
+                        return Long.toString(leftOperandLongValue * rightOperandLongValue);
+                    case '/':
+                        return Long.toString(leftOperandLongValue / rightOperandLongValue);
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,561 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package com.ibm.ws.st.core.tests.docker;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.AllTests;
+
+import com.ibm.ws.st.common.core.ext.internal.setuphandlers.IPlatformHandler;
+import com.ibm.ws.st.common.core.ext.internal.setuphandlers.IPlatformHandler.ExecutionOutput;
+import com.ibm.ws.st.common.core.ext.internal.setuphandlers.PlatformHandlerFactory;
+import com.ibm.ws.st.common.core.ext.internal.setuphandlers.PlatformHandlerFactory.PlatformType;
+import com.ibm.ws.st.common.core.ext.internal.util.AbstractDockerMachine;
+import com.ibm.ws.st.common.core.ext.internal.util.DockerArchive;
+import com.ibm.ws.st.common.core.ext.internal.util.DockerCopyBatch;
+import com.ibm.ws.st.common.core.ext.internal.util.DockerEngineClient;
+import com.ibm.ws.st.core.tests.ToolsTestBase;
+import com.ibm.ws.st.tests.common.util.TestCaseDescriptor;
+
+import junit.framework.TestSuite;
+
+/**
+ * Tests the Docker engine API client against a stub engine on a local socket.
+ * No Docker installation is needed.
+ */
+@TestCaseDescriptor(description = "Docker engine API client", isStable = true)
+@RunWith(AllTests.class)
+public class DockerEngineClientTest extends ToolsTestBase {
+    private static final String CONTAINER = "wlp";
+    private static final String INSPECT = "{\"Id\":\"abc\",\"State\":{\"Running\":true},\"Config\":{\"Tty\":false,\"Env\":[\"A=1\"]},"
+                                          + "\"NetworkSettings\":{\"Ports\":{\"9080/tcp\":[{\"HostIp\":\"0.0.0.0\",\"HostPort\":\"32768\"}]}}}";
+
+    protected static StubEngine engine;
+    protected static DockerEngineClient client;
+
+    public static TestSuite suite() {
+        TestSuite suite = new TestSuite();
+        suite.addTest(DockerEngineClientTest.getOrderedTests());
+        suite.setName(DockerEngineClientTest.class.getSimpleName());
+        return suite;
+    }
+
+    public static TestSuite getOrderedTests() {
+        TestSuite testSuite = new TestSuite();
+
+        testSuite.addTest(TestSuite.createTest(DockerEngineClientTest.class, "doSetup"));
+        testSuite.addTest(TestSuite.createTest(DockerEngineClientTest.class, "testInspect"));
+        testSuite.addTest(TestSuite.createTest(DockerEngineClientTest.class, "testConnectionReuse"));
+        testSuite.addTest(TestSuite.createTest(DockerEngineClientTest.class, "testLogs"));
+        testSuite.addTest(TestSuite.createTest(DockerEngineClientTest.class, "testExec"));
+        testSuite.addTest(TestSuite.createTest(DockerEngineClientTest.class, "testCopyIn"));
+        testSuite.addTest(TestSuite.createTest(DockerEngineClientTest.class, "testCopyOut"));
+        testSuite.addTest(TestSuite.createTest(DockerEngineClientTest.class, "testCopyInBatch"));
+        testSuite.addTest(TestSuite.createTest(DockerEngineClientTest.class, "testCopyOutBatch"));
+        testSuite.addTest(TestSuite.createTest(DockerEngineClientTest.class, "testEngineError"));
+        testSuite.addTest(TestSuite.createTest(DockerEngineClientTest.class, "testExecStartFailure"));
+        testSuite.addTest(TestSuite.createTest(DockerEngineClientTest.class, "testFallback"));
+        testSuite.addTest(TestSuite.createTest(DockerEngineClientTest.class, "doTearDown"));
+
+        return testSuite;
+    }
+
+    @Test
+    public void doSetup() throws Exception {
+        print("Starting test: DockerEngineClientTest");
+        engine = new StubEngine();
+        engine.start();
+        client = DockerEngineClient.getClient(new StubMachine(engine.getPort()), PlatformHandlerFactory.getPlatformHandler(null, PlatformType.COMMAND));
+        assertNotNull("The engine client should be available for a tcp DOCKER_HOST", client);
+    }
+
+    @Test
+    public void testInspect() throws Exception {
+        assertTrue("The container should be running", client.isRunning(CONTAINER));
+        assertEquals("0.0.0.0:32768", client.getPortMapping(CONTAINER, "9080"));
+        assertEquals("abc", client.inspectContainer(CONTAINER).getString("Id"));
+    }
+
+    @Test
+    public void testConnectionReuse() throws Exception {
+        int before = engine.getConnectionCount();
+        for (int i = 0; i < 10; i++)
+            client.inspectContainer(CONTAINER);
+        int connections = engine.getConnectionCount() - before;
+        assertTrue("Connections should be reused, but " + connections + " were opened", connections <= 1);
+    }
+
+    @Test
+    public void testLogs() throws Exception {
+        assertEquals("out line\nerr line\n", client.getLogs(CONTAINER));
+    }
+
+    @Test
+    public void testExec() throws Exception {
+        ExecutionOutput result = client.exec(CONTAINER, "sh -c \"ls /config\"", null, 10000);
+        assertEquals(3, result.getReturnCode());
+        assertEquals("server.xml\n", result.getOutput());
+        assertEquals("warning\n", result.getError());
+        assertEquals("[\"sh\",\"-c\",\"ls /config\"]", engine.getLastExecCommand());
+    }
+
+    @Test
+    public void testCopyIn() throws Exception {
+        File file = File.createTempFile("engineTest", ".xml");
+        try {
+            Files.write(file.toPath(), "<server/>".getBytes(StandardCharsets.UTF_8));
+            client.copyIn(CONTAINER, file, "/config/server.xml");
+            assertEquals("/config", engine.getLastArchivePath());
+            assertEquals(Collections.singletonMap("server.xml", "<server/>"), engine.getLastArchive());
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testCopyOut() throws Exception {
+        File dir = Files.createTempDirectory("engineTest").toFile();
+        try {
+            File target = new File(dir, "copy.log");
+            client.copyOut(CONTAINER, "/logs/messages.log", target, 10000);
+            assertEquals("log content", new String(Files.readAllBytes(target.toPath()), StandardCharsets.UTF_8));
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    public void testCopyInBatch() throws Exception {
+        File dir = Files.createTempDirectory("engineTest").toFile();
+        try {
+            write(new File(dir, "config/server.xml"), "<server/>");
+            write(new File(dir, "config/workarea/cache"), "cache");
+            write(new File(dir, "shared.txt"), "shared");
+            DockerCopyBatch batch = new DockerCopyBatch().add(new File(dir, "config").getPath(), "/config").add(new File(dir, "shared.txt").getPath(),
+                                                                                                               "/opt/ibm/wlp/usr/shared/shared.txt").exclude("workarea");
+            assertEquals(2, client.copyIn(CONTAINER, batch, null));
+            assertEquals("/", engine.getLastArchivePath());
+            Map<String, String> expected = new HashMap<String, String>();
+            expected.put("config/server.xml", "<server/>");
+            expected.put("opt/ibm/wlp/usr/shared/shared.txt", "shared");
+            assertEquals(expected, engine.getLastArchive());
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    public void testCopyOutBatch() throws Exception {
+        File dir = Files.createTempDirectory("engineTest").toFile();
+        try {
+            File config = new File(dir, "config");
+            File log = new File(dir, "logs/copy.log");
+            DockerCopyBatch batch = new DockerCopyBatch().add("/config", config.getPath()).add("/logs/messages.log", log.getPath()).exclude("workarea");
+            assertEquals(2, client.copyOut(CONTAINER, batch, 10000, null));
+            assertEquals("[\"tar\",\"-cf\",\"-\",\"-C\",\"/\",\"config\",\"logs/messages.log\"]", engine.getLastExecCommand());
+            assertEquals("<server/>", new String(Files.readAllBytes(new File(config, "server.xml").toPath()), StandardCharsets.UTF_8));
+            assertEquals("log content", new String(Files.readAllBytes(log.toPath()), StandardCharsets.UTF_8));
+            assertFalse("Excluded folders should not be copied", new File(config, "workarea").exists());
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    public void testEngineError() throws Exception {
+        try {
+            client.isRunning("missing");
+            fail("An error response should throw an exception");
+        } catch (DockerEngineClient.DockerEngineException e) {
+            assertEquals(404, e.getStatusCode());
+            assertTrue("The engine message should be included: " + e.getMessage(), e.getMessage().contains("No such container"));
+        }
+        // an error response from a reachable engine does not disable the client
+        assertNotNull(DockerEngineClient.getClient(new StubMachine(engine.getPort()), PlatformHandlerFactory.getPlatformHandler(null, PlatformType.COMMAND)));
+    }
+
+    @Test
+    public void testExecStartFailure() throws Exception {
+        // the engine drops the connection after the command was started, so it must not be run again
+        try {
+            client.exec(CONTAINER, "rm -rf /tmp/drop", null, 10000);
+            fail("The exec should fail when the connection is dropped");
+        } catch (DockerEngineClient.NotStartedException e) {
+            fail("A command that was started must not be reported as not started");
+        } catch (IOException e) {
+            // expected
+        }
+
+        // an error creating the command means it never ran
+        try {
+            client.exec("missing", "rm -rf /tmp", null, 10000);
+            fail("The exec should fail for a missing container");
+        } catch (DockerEngineClient.NotStartedException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testFallback() throws Exception {
+        int port = engine.getPort();
+        engine.close();
+        try {
+            client.inspectContainer(CONTAINER);
+            fail("The request should fail when the engine is not running");
+        } catch (IOException e) {
+            // expected
+        }
+        try {
+            client.exec(CONTAINER, "ls", null, 10000);
+            fail("The exec should fail when the engine is not running");
+        } catch (DockerEngineClient.NotStartedException e) {
+            // expected, the command line can be used instead
+        }
+        assertNull("The command line should be used after the engine could not be reached",
+                   DockerEngineClient.getClient(new StubMachine(port), PlatformHandlerFactory.getPlatformHandler(null, PlatformType.COMMAND)));
+    }
+
+    @Test
+    public void doTearDown() throws Exception {
+        if (engine != null)
+            engine.close();
+        DockerEngineClient.shutdown();
+        print("Ending test: DockerEngineClientTest\n");
+    }
+
+    protected static void write(File file, String content) throws IOException {
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    protected static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children)
+                delete(child);
+        }
+        file.delete();
+    }
+
+    private static class StubMachine extends AbstractDockerMachine {
+        private final int port;
+
+        StubMachine(int port) {
+            super((IPlatformHandler) null);
+            this.port = port;
+        }
+
+        @Override
+        public boolean isRealMachine() {
+            return false;
+        }
+
+        @Override
+        public MachineType getMachineType() {
+            return MachineType.PHANTOM;
+        }
+
+        @Override
+        public String getMachineName() {
+            return null;
+        }
+
+        @Override
+        public String getHost() {
+            return "localhost";
+        }
+
+        @Override
+        public Map<String, String> getDockerEnv() {
+            Map<String, String> env = new HashMap<String, String>();
+            env.put("DOCKER_HOST", "tcp://127.0.0.1:" + port);
+            return env;
+        }
+    }
+
+    /**
+     * A minimal HTTP/1.1 server that answers the engine API requests used by the tests.
+     */
+    private static class StubEngine extends Thread {
+        private final ServerSocket serverSocket;
+        private final AtomicInteger connectionCount = new AtomicInteger();
+        private final List<Socket> sockets = Collections.synchronizedList(new ArrayList<Socket>());
+        private volatile String lastExecCommand;
+        private volatile String lastArchivePath;
+        private volatile Map<String, String> lastArchive;
+
+        StubEngine() throws IOException {
+            super("Stub Docker engine");
+            setDaemon(true);
+            serverSocket = new ServerSocket(0);
+        }
+
+        int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        int getConnectionCount() {
+            return connectionCount.get();
+        }
+
+        String getLastExecCommand() {
+            return lastExecCommand;
+        }
+
+        String getLastArchivePath() {
+            return lastArchivePath;
+        }
+
+        Map<String, String> getLastArchive() {
+            return lastArchive;
+        }
+
+        void close() throws IOException {
+            serverSocket.close();
+            synchronized (sockets) {
+                for (Socket s : sockets)
+                    s.close();
+            }
+        }
+
+        @Override
+        public void run() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    final Socket socket = serverSocket.accept();
+                    sockets.add(socket);
+                    new Thread("Stub Docker engine connection") {
+                        @Override
+                        public void run() {
+                            handle(socket);
+                        }
+                    }.start();
+                } catch (IOException e) {
+                    // closed
+                }
+            }
+        }
+
+        private void handle(Socket socket) {
+            try {
+                InputStream in = new BufferedInputStream(socket.getInputStream());
+                OutputStream out = socket.getOutputStream();
+                String requestLine;
+                boolean counted = false;
+                while ((requestLine = readLine(in)) != null && !requestLine.isEmpty()) {
+                    Map<String, String> headers = new HashMap<String, String>();
+                    String line;
+                    while ((line = readLine(in)) != null && !line.isEmpty()) {
+                        int index = line.indexOf(':');
+                        headers.put(line.substring(0, index).trim().toLowerCase(), line.substring(index + 1).trim());
+                    }
+                    byte[] body = readBody(in, headers);
+
+                    String[] parts = requestLine.split(" ");
+                    String method = parts[0];
+                    String path = parts[1].substring(parts[1].indexOf('/', 1));
+                    if (path.startsWith("/events")) {
+                        respond(out, 404, "application/json", "{\"message\":\"not supported\"}".getBytes(StandardCharsets.UTF_8));
+                        continue;
+                    }
+                    if (!counted) {
+                        connectionCount.incrementAndGet();
+                        counted = true;
+                    }
+                    dispatch(method, path, body, out);
+                }
+            } catch (IOException e) {
+                // connection closed
+            } finally {
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                    // ignore
+                }
+            }
+        }
+
+        private void dispatch(String method, String path, byte[] body, OutputStream out) throws IOException {
+            if (path.startsWith("/containers/missing/")) {
+                respond(out, 404, "application/json", "{\"message\":\"No such container: missing\"}".getBytes(StandardCharsets.UTF_8));
+            } else if (path.equals("/containers/" + CONTAINER + "/json")) {
+                respond(out, 200, "application/json", INSPECT.getBytes(StandardCharsets.UTF_8));
+            } else if (path.startsWith("/containers/" + CONTAINER + "/logs")) {
+                ByteArrayOutputStream frames = new ByteArrayOutputStream();
+                writeFrame(frames, 1, "out line\n");
+                writeFrame(frames, 2, "err line\n");
+                respond(out, 200, "application/vnd.docker.raw-stream", frames.toByteArray());
+            } else if (path.equals("/containers/" + CONTAINER + "/exec")) {
+                String json = new String(body, StandardCharsets.UTF_8);
+                int start = json.indexOf("\"Cmd\":") + 6;
+                lastExecCommand = json.substring(start, json.indexOf(']', start) + 1);
+                String id = lastExecCommand.startsWith("[\"tar\"") ? "tar1" : lastExecCommand.contains("/tmp/drop") ? "drop1" : "exec1";
+                respond(out, 201, "application/json", ("{\"Id\":\"" + id + "\"}").getBytes(StandardCharsets.UTF_8));
+            } else if (path.equals("/exec/exec1/start")) {
+                ByteArrayOutputStream frames = new ByteArrayOutputStream();
+                writeFrame(frames, 1, "server.xml\n");
+                writeFrame(frames, 2, "warning\n");
+                respond(out, 200, "application/vnd.docker.raw-stream", frames.toByteArray());
+            } else if (path.equals("/exec/drop1/start")) {
+                // the command started, then the connection was lost
+                throw new IOException("Connection dropped");
+            } else if (path.equals("/exec/exec1/json")) {
+                respond(out, 200, "application/json", "{\"ExitCode\":3}".getBytes(StandardCharsets.UTF_8));
+            } else if (path.equals("/exec/tar1/start")) {
+                // the tar output is split across frames, with stderr in between
+                byte[] tar = createContainerArchive();
+                ByteArrayOutputStream frames = new ByteArrayOutputStream();
+                for (int i = 0; i < tar.length; i += 1000) {
+                    int length = Math.min(1000, tar.length - i);
+                    frames.write(new byte[] { 1, 0, 0, 0, (byte) (length >>> 24), (byte) (length >>> 16), (byte) (length >>> 8), (byte) length });
+                    frames.write(tar, i, length);
+                    if (i == 0)
+                        writeFrame(frames, 2, "tar: Removing leading '/'\n");
+                }
+                respond(out, 200, "application/vnd.docker.raw-stream", frames.toByteArray());
+            } else if (path.equals("/exec/tar1/json")) {
+                respond(out, 200, "application/json", "{\"ExitCode\":0}".getBytes(StandardCharsets.UTF_8));
+            } else if (path.startsWith("/containers/" + CONTAINER + "/archive") && "HEAD".equals(method)) {
+                respond(out, 404, "application/json", new byte[0]);
+            } else if (path.startsWith("/containers/" + CONTAINER + "/archive") && "PUT".equals(method)) {
+                lastArchivePath = URLDecoder.decode(path.substring(path.indexOf("path=") + 5), "UTF-8");
+                lastArchive = readArchive(body);
+                respond(out, 200, "application/json", new byte[0]);
+            } else if (path.startsWith("/containers/" + CONTAINER + "/archive")) {
+                File file = File.createTempFile("messages", ".log");
+                try {
+                    Files.write(file.toPath(), "log content".getBytes(StandardCharsets.UTF_8));
+                    ByteArrayOutputStream tar = new ByteArrayOutputStream();
+                    DockerArchive.Writer writer = new DockerArchive.Writer(tar);
+                    writer.add(file, "messages.log");
+                    writer.finish();
+                    respond(out, 200, "application/x-tar", tar.toByteArray());
+                } finally {
+                    file.delete();
+                }
+            } else {
+                respond(out, 404, "application/json", ("{\"message\":\"Unexpected request " + path + "\"}").getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        private static Map<String, String> readArchive(byte[] tar) throws IOException {
+            File dir = Files.createTempDirectory("engineArchive").toFile();
+            try {
+                DockerArchive.extract(new ByteArrayInputStream(tar), dir, null);
+                Map<String, String> map = new HashMap<String, String>();
+                readFiles(dir, "", map);
+                return map;
+            } finally {
+                delete(dir);
+            }
+        }
+
+        private static void readFiles(File dir, String prefix, Map<String, String> map) throws IOException {
+            for (File f : dir.listFiles()) {
+                if (f.isDirectory())
+                    readFiles(f, prefix + f.getName() + "/", map);
+                else
+                    map.put(prefix + f.getName(), new String(Files.readAllBytes(f.toPath()), StandardCharsets.UTF_8));
+            }
+        }
+
+        // The archive that tar would create for /config and /logs/messages.log
+        private static byte[] createContainerArchive() throws IOException {
+            File dir = Files.createTempDirectory("engineArchive").toFile();
+            try {
+                write(new File(dir, "config/server.xml"), "<server/>");
+                write(new File(dir, "config/workarea/cache"), "cache");
+                write(new File(dir, "logs/messages.log"), "log content");
+                ByteArrayOutputStream tar = new ByteArrayOutputStream();
+                DockerArchive.Writer writer = new DockerArchive.Writer(tar);
+                writer.add(new File(dir, "config"), "config");
+                writer.add(new File(dir, "logs/messages.log"), "logs/messages.log");
+                writer.finish();
+                // tar pads the archive to a full record
+                tar.write(new byte[10240 - tar.size() % 10240]);
+                return tar.toByteArray();
+            } finally {
+                delete(dir);
+            }
+        }
+
+        private static void writeFrame(OutputStream out, int stream, String text) throws IOException {
+            byte[] data = text.getBytes(StandardCharsets.UTF_8);
+            out.write(new byte[] { (byte) stream, 0, 0, 0, (byte) (data.length >>> 24), (byte) (data.length >>> 16), (byte) (data.length >>> 8), (byte) data.length });
+            out.write(data);
+        }
+
+        private static void respond(OutputStream out, int code, String contentType, byte[] body) throws IOException {
+            String header = "HTTP/1.1 " + code + " " + (code < 300 ? "OK" : "Error") + "\r\nContent-Type: " + contentType + "\r\nContent-Length: " + body.length
+                            + "\r\n\r\n";
+            out.write(header.getBytes(StandardCharsets.US_ASCII));
+            out.write(body);
+            out.flush();
+        }
+
+        private static byte[] readBody(InputStream in, Map<String, String> headers) throws IOException {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            if ("chunked".equalsIgnoreCase(headers.get("transfer-encoding"))) {
+                while (true) {
+                    int size = Integer.parseInt(readLine(in).trim(), 16);
+                    if (size == 0) {
+                        readLine(in);
+                        break;
+                    }
+                    copy(in, body, size);
+                    readLine(in);
+                }
+            } else if (headers.containsKey("content-length")) {
+                copy(in, body, Integer.parseInt(headers.get("content-length")));
+            }
+            return body.toByteArray();
+        }
+
+        private static void copy(InputStream in, OutputStream out, int size) throws IOException {
+            for (int i = 0; i < size; i++) {
+                int b = in.read();
+                if (b < 0)
+                    throw new IOException("Unexpected end of request");
+                out.write(b);
+            }
+        }
+
+        private static String readLine(InputStream in) throws IOException {
+            StringBuilder sb = new StringBuilder();
+            int b;
+            while ((b = in.read()) >= 0) {
+                if (b == '\n')
+                    return sb.toString().trim();
+                sb.append((char) b);
+            }
+            return sb.length() == 0 ? null : sb.toString();
+        }
+    }
+}
@@ -0,0 +1,301 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package com.ibm.ws.st.core.tests.jee;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import junit.framework.TestSuite;
+
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IPathVariableManager;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.wst.server.core.IModule;
+import org.eclipse.wst.server.core.ServerUtil;
+import org.eclipse.wst.server.core.model.ServerBehaviourDelegate;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.AllTests;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import com.ibm.ws.st.core.internal.PublishUnit;
+import com.ibm.ws.st.core.internal.looseconfig.LooseConfigFingerprint;
+import com.ibm.ws.st.core.internal.looseconfig.LooseconfigXMLGenerator;
+import com.ibm.ws.st.core.tests.util.FileUtil;
+import com.ibm.ws.st.core.tests.util.WLPCommonUtil;
+import com.ibm.ws.st.tests.common.util.TestCaseDescriptor;
+
+@TestCaseDescriptor(description = "Test the loose config fingerprints and partial loose config xml updates", isStable = true)
+@RunWith(AllTests.class)
+public class LooseConfigFingerprintTest extends JEETestBase {
+
+    private static final String RESOURCE_LOC = "jee/JEEMultiLocationPublish";
+    private static final String PATH_VARIABLE = "LOOSE_CONFIG_FINGERPRINT_TEST";
+
+    protected static File tempDir;
+    protected static PublishUnit app;
+    protected static PublishUnit web;
+    protected static IPath xmlPath;
+
+    public static TestSuite suite() {
+        TestSuite suite = new TestSuite();
+        suite.addTest(LooseConfigFingerprintTest.getOrderedTests());
+        suite.setName(LooseConfigFingerprintTest.class.getSimpleName());
+        return suite;
+    }
+
+    public static TestSuite getOrderedTests() {
+        TestSuite testSuite = new TestSuite();
+
+        testSuite.addTest(TestSuite.createTest(LooseConfigFingerprintTest.class, "doSetup"));
+        testSuite.addTest(TestSuite.createTest(LooseConfigFingerprintTest.class, "testUnchanged"));
+        testSuite.addTest(TestSuite.createTest(LooseConfigFingerprintTest.class, "testChangedModule"));
+        testSuite.addTest(TestSuite.createTest(LooseConfigFingerprintTest.class, "testChangedFile"));
+        testSuite.addTest(TestSuite.createTest(LooseConfigFingerprintTest.class, "testLinkedResourceLocation"));
+        testSuite.addTest(TestSuite.createTest(LooseConfigFingerprintTest.class, "testUpdateRepository"));
+        testSuite.addTest(TestSuite.createTest(LooseConfigFingerprintTest.class, "testUpdateRepositoryUnchanged"));
+        testSuite.addTest(TestSuite.createTest(LooseConfigFingerprintTest.class, "testUpdateRepositoryApplication"));
+        testSuite.addTest(TestSuite.createTest(LooseConfigFingerprintTest.class, "doTearDown"));
+
+        return testSuite;
+    }
+
+    @Test
+    public void doSetup() throws Exception {
+        print("Starting test: LooseConfigFingerprintTest");
+        init();
+        createRuntime();
+        createServer();
+        createVM();
+
+        importProjects(new Path(RESOURCE_LOC).append("locationCProjects"), new String[] { "UtilC" });
+        importProjects(new Path(RESOURCE_LOC).append("locationDProjects"), new String[] { "WebFragD", "WebD", "EARD" });
+
+        IModule ear = ServerUtil.getModule(getProject("EARD"));
+        assertNotNull("The EARD module was not found", ear);
+        app = createPublishUnit(new IModule[] { ear }, null);
+        web = findPublishUnit(app, "WebD");
+        assertNotNull("The WebD module was not found", web);
+
+        tempDir = Files.createTempDirectory("looseConfigFingerprintTest").toFile();
+        xmlPath = new Path(tempDir.getAbsolutePath()).append("EARD.ear.xml");
+    }
+
+    @Test
+    public void testUnchanged() throws Exception {
+        generate();
+        List<PublishUnit> changed = createFingerprint().getChangedModules(xmlPath.toFile());
+        assertNotNull("The fingerprints should match the generated file", changed);
+        assertTrue("No module should have changed: " + changed, changed.isEmpty());
+    }
+
+    @Test
+    public void testChangedModule() throws Exception {
+        generate();
+        getProject("WebD").getFile(".classpath").touch(null);
+
+        List<PublishUnit> changed = createFingerprint().getChangedModules(xmlPath.toFile());
+        assertNotNull("Only the changed module should be generated again", changed);
+        assertEquals("Unexpected changed modules: " + changed, 1, changed.size());
+        assertEquals("WebD", changed.get(0).getModuleName());
+    }
+
+    @Test
+    public void testChangedFile() throws Exception {
+        generate();
+        Document doc = load(xmlPath.toFile());
+        doc.getDocumentElement().appendChild(doc.createElement(LooseconfigXMLGenerator.ELE_DIR));
+        FileUtil.saveDOM(doc, xmlPath.toOSString());
+
+        assertNull("A changed file should be generated again", createFingerprint().getChangedModules(xmlPath.toFile()));
+    }
+
+    @Test
+    public void testLinkedResourceLocation() throws Exception {
+        // a workspace path variable, so that changing it does not change the .project file
+        IPathVariableManager variables = ResourcesPlugin.getWorkspace().getPathVariableManager();
+        File first = new File(tempDir, "first");
+        File second = new File(tempDir, "second");
+        assertTrue(first.mkdirs());
+        assertTrue(second.mkdirs());
+        variables.setURIValue(PATH_VARIABLE, first.toURI());
+        IFolder folder = getProject("WebD").getFolder("WebContent/linked");
+        folder.createLink(new Path(PATH_VARIABLE), IResource.ALLOW_MISSING_LOCAL, null);
+
+        generate();
+        List<PublishUnit> changed = createFingerprint().getChangedModules(xmlPath.toFile());
+        assertNotNull(changed);
+        assertTrue("No module should have changed: " + changed, changed.isEmpty());
+
+        variables.setURIValue(PATH_VARIABLE, second.toURI());
+        changed = createFingerprint().getChangedModules(xmlPath.toFile());
+        assertNotNull("Only the module with the linked resource should be generated again", changed);
+        assertEquals("Unexpected changed modules: " + changed, 1, changed.size());
+        assertEquals("WebD", changed.get(0).getModuleName());
+
+        folder.delete(true, null);
+        variables.setURIValue(PATH_VARIABLE, null);
+    }
+
+    @Test
+    public void testUpdateRepository() throws Exception {
+        generate();
+        Document expected = load(xmlPath.toFile());
+
+        // change the war archive, and add an entry to the ear archive that must be kept
+        Document doc = load(xmlPath.toFile());
+        Element warArchive = findArchive(doc.getDocumentElement(), "/WebD.war");
+        assertNotNull("The war archive was not found", warArchive);
+        Element entry = getFirstElement(warArchive, LooseconfigXMLGenerator.ELE_DIR);
+        assertNotNull("The war archive has no directory entries", entry);
+        entry.setAttribute(LooseconfigXMLGenerator.ATT_SOURCE_ON_DISK, new File(tempDir, "stale").getAbsolutePath());
+        Element marker = doc.createElement(LooseconfigXMLGenerator.ELE_FILE);
+        marker.setAttribute(LooseconfigXMLGenerator.ATT_TARGET_IN_ARCHIVE, "/marker.txt");
+        marker.setAttribute(LooseconfigXMLGenerator.ATT_SOURCE_ON_DISK, new File(tempDir, "marker.txt").getAbsolutePath());
+        doc.getDocumentElement().appendChild(marker);
+        FileUtil.saveDOM(doc, xmlPath.toOSString());
+
+        IPath outPath = new Path(tempDir.getAbsolutePath()).append("updated.xml");
+        Boolean updated = createGenerator().updateRepository(xmlPath, outPath, app, Collections.singletonList(web));
+        assertEquals(Boolean.TRUE, updated);
+
+        Document actual = load(outPath.toFile());
+        Element root = actual.getDocumentElement();
+        Element actualMarker = getLastElement(root);
+        assertNotNull(actualMarker);
+        assertEquals("The rest of the file should be kept", "/marker.txt", actualMarker.getAttribute(LooseconfigXMLGenerator.ATT_TARGET_IN_ARCHIVE));
+        root.removeChild(actualMarker);
+        assertTrue("The war archive should be generated again", expected.getDocumentElement().isEqualNode(root));
+    }
+
+    @Test
+    public void testUpdateRepositoryUnchanged() throws Exception {
+        generate();
+        IPath outPath = new Path(tempDir.getAbsolutePath()).append("unchanged.xml");
+        Boolean updated = createGenerator().updateRepository(xmlPath, outPath, app, Collections.singletonList(web));
+        assertEquals(Boolean.FALSE, updated);
+        assertFalse("The file should not be written when nothing changed", outPath.toFile().exists());
+    }
+
+    @Test
+    public void testUpdateRepositoryApplication() throws Exception {
+        generate();
+        IPath outPath = new Path(tempDir.getAbsolutePath()).append("application.xml");
+        List<PublishUnit> modules = new ArrayList<PublishUnit>();
+        modules.add(app);
+        modules.add(web);
+        assertNull("A changed application should be generated again", createGenerator().updateRepository(xmlPath, outPath, app, modules));
+    }
+
+    @Test
+    public void doTearDown() throws Exception {
+        if (tempDir != null)
+            FileUtil.deleteDirectory(tempDir.getAbsolutePath(), true);
+        WLPCommonUtil.cleanUp();
+        print("Ending test: LooseConfigFingerprintTest\n");
+    }
+
+    private static PublishUnit createPublishUnit(IModule[] module, PublishUnit parent) {
+        PublishUnit pu = new PublishUnit(module, ServerBehaviourDelegate.NO_CHANGE);
+        pu.setParent(parent);
+        IModule[] children = server.getChildModules(module, null);
+        if (children != null) {
+            for (IModule child : children) {
+                IModule[] childModule = new IModule[module.length + 1];
+                System.arraycopy(module, 0, childModule, 0, module.length);
+                childModule[module.length] = child;
+                pu.addChild(createPublishUnit(childModule, pu));
+            }
+        }
+        return pu;
+    }
+
+    private static PublishUnit findPublishUnit(PublishUnit pu, String name) {
+        if (name.equals(pu.getModuleName()))
+            return pu;
+        if (pu.getChildren() != null) {
+            for (PublishUnit child : pu.getChildren()) {
+                PublishUnit found = findPublishUnit(child, name);
+                if (found != null)
+                    return found;
+            }
+        }
+        return null;
+    }
+
+    private static LooseconfigXMLGenerator createGenerator() {
+        return new LooseconfigXMLGenerator(wsServer.getWebSphereServerBehaviour());
+    }
+
+    private static LooseConfigFingerprint createFingerprint() {
+        return new LooseConfigFingerprint(new Path(tempDir.getAbsolutePath()), xmlPath, app, wsServer.getWebSphereServerBehaviour());
+    }
+
+    // Generate the file from scratch and save the fingerprints, as a full publish does
+    private static void generate() throws Exception {
+        createGenerator().generateRepository(xmlPath, app);
+        createFingerprint().save(xmlPath.toFile());
+    }
+
+    private static Element findArchive(Element parent, String targetInArchive) {
+        for (Node n = parent.getFirstChild(); n != null; n = n.getNextSibling()) {
+            if (n instanceof Element && LooseconfigXMLGenerator.ELE_ARCHIVE.equals(n.getNodeName())
+                && targetInArchive.equals(((Element) n).getAttribute(LooseconfigXMLGenerator.ATT_TARGET_IN_ARCHIVE)))
+                return (Element) n;
+        }
+        return null;
+    }
+
+    private static Element getFirstElement(Element parent, String name) {
+        for (Node n = parent.getFirstChild(); n != null; n = n.getNextSibling()) {
+            if (n instanceof Element && name.equals(n.getNodeName()))
+                return (Element) n;
+        }
+        return null;
+    }
+
+    private static Element getLastElement(Element parent) {
+        for (Node n = parent.getLastChild(); n != null; n = n.getPreviousSibling()) {
+            if (n instanceof Element)
+                return (Element) n;
+        }
+        return null;
+    }
+
+    // Load a document without the whitespace between elements so that it can be compared
+    private static Document load(File file) throws Exception {
+        Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(file);
+        removeText(doc.getDocumentElement());
+        return doc;
+    }
+
+    private static void removeText(Node node) {
+        Node n = node.getFirstChild();
+        while (n != null) {
+            Node next = n.getNextSibling();
+            if (n.getNodeType() == Node.TEXT_NODE)
+                node.removeChild(n);
+            else
+                removeText(n);
+            n = next;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package com.ibm.ws.st.core.tests.schema;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.AllTests;
+
+import com.ibm.ws.st.core.internal.FeatureClosure;
+import com.ibm.ws.st.core.internal.RuntimeFeatureResolver;
+import com.ibm.ws.st.core.internal.WebSphereRuntime;
+import com.ibm.ws.st.core.internal.config.FeatureList.FeatureMapType;
+import com.ibm.ws.st.core.internal.generation.Feature;
+import com.ibm.ws.st.core.internal.generation.Feature.FeatureType;
+import com.ibm.ws.st.core.internal.generation.FeatureListCoreMetadata;
+import com.ibm.ws.st.core.tests.ToolsTestBase;
+import com.ibm.ws.st.tests.common.util.TestCaseDescriptor;
+
+import junit.framework.TestSuite;
+
+/**
+ * Test the conflict check of the feature closure against the feature resolver, and that
+ * the closure of a runtime is built again when its features change.
+ */
+@TestCaseDescriptor(description = "Check feature closure conflicts", isStable = true)
+@RunWith(AllTests.class)
+public class FeatureClosureTest extends ToolsTestBase {
+    protected static final String RUNTIME_NAME = FeatureClosureTest.class.getCanonicalName() + "_runtime";
+
+    private static final String TEST_FEATURE = "closureTest-1.0";
+
+    // features that can't be resolved together, directly or through the features they include
+    private static final String[][] CONFLICTS = new String[][] {
+                                                                 { "servlet-3.1", "servlet-4.0" },
+                                                                 { "jsp-2.3", "servlet-5.0" },
+                                                                 { "webProfile-7.0", "servlet-4.0" },
+                                                                 { "webProfile-7.0", "webProfile-8.0" },
+                                                                 { "jsf-2.2", "jsp-2.3", "servlet-5.0" },
+                                                                 { "jpa-2.1", "jpa-2.2" },
+                                                                 { "servlet-3.1", "jdbc-4.1", "jdbc-4.2" }
+    };
+
+    // features that resolve together
+    private static final String[][] NO_CONFLICTS = new String[][] {
+                                                                    {},
+                                                                    { "servlet-3.1" },
+                                                                    { "webProfile-7.0" },
+                                                                    { "servlet-3.1", "jsp-2.3" },
+                                                                    { "jsp-2.3", "jpa-2.1", "jaxrs-2.0" },
+                                                                    { "webProfile-7.0", "servlet-3.1", "jsf-2.2" },
+                                                                    { "webProfile-8.0", "jdbc-4.2" },
+                                                                    { "javaee-7.0" },
+                                                                    { "javaee-8.0" },
+                                                                    { "notAFeature-1.0" }
+    };
+
+    public static TestSuite suite() {
+        TestSuite suite = new TestSuite();
+        suite.addTest(FeatureClosureTest.getOrderedTests());
+        suite.setName(FeatureClosureTest.class.getSimpleName());
+        return suite;
+    }
+
+    public static TestSuite getOrderedTests() {
+        TestSuite testSuite = new TestSuite();
+
+        testSuite.addTest(TestSuite.createTest(FeatureClosureTest.class, "doSetup"));
+        testSuite.addTest(TestSuite.createTest(FeatureClosureTest.class, "testConflicts"));
+        testSuite.addTest(TestSuite.createTest(FeatureClosureTest.class, "testNoConflicts"));
+        testSuite.addTest(TestSuite.createTest(FeatureClosureTest.class, "testInvalidate"));
+        testSuite.addTest(TestSuite.createTest(FeatureClosureTest.class, "testRuntimeFeatureChange"));
+        testSuite.addTest(TestSuite.createTest(FeatureClosureTest.class, "doTearDown"));
+
+        return testSuite;
+    }
+
+    @Test
+    public void doSetup() throws Exception {
+        print("Starting test: FeatureClosureTest");
+        init();
+        createRuntime(RUNTIME_NAME);
+    }
+
+    @Test
+    public void testConflicts() throws Exception {
+        // fallback feature list
+        FeatureClosure closure = FeatureClosure.getInstance(null);
+        for (String[] features : CONFLICTS) {
+            List<String> list = Arrays.asList(features);
+            assertTrue("Expected a possible conflict: " + list, closure.canConflict(list));
+            assertFalse("Expected a conflict: " + list, RuntimeFeatureResolver.getFeatureConflicts(null, list).isEmpty());
+        }
+    }
+
+    @Test
+    public void testNoConflicts() throws Exception {
+        // fallback feature list
+        FeatureClosure closure = FeatureClosure.getInstance(null);
+        for (String[] features : NO_CONFLICTS) {
+            List<String> list = Arrays.asList(features);
+            assertFalse("Expected no conflict: " + list, closure.canConflict(list));
+            assertTrue("Expected no conflict: " + list, RuntimeFeatureResolver.resolve(null, list).getFeatureConflicts().isEmpty());
+        }
+    }
+
+    @Test
+    public void testInvalidate() throws Exception {
+        WebSphereRuntime wsRuntime = getWebSphereRuntime();
+        FeatureClosure closure = FeatureClosure.getInstance(wsRuntime);
+        assertTrue(closure == FeatureClosure.getInstance(wsRuntime));
+
+        FeatureClosure.invalidate(wsRuntime);
+        FeatureClosure closure2 = FeatureClosure.getInstance(wsRuntime);
+        assertFalse(closure == closure2);
+        assertTrue(closure2 == FeatureClosure.getInstance(wsRuntime));
+        for (String[] features : CONFLICTS) {
+            List<String> list = Arrays.asList(features);
+            assertEquals(list.toString(), closure.canConflict(list), closure2.canConflict(list));
+            assertEquals(features[0], closure.getFeatureChildren(features[0]), closure2.getFeatureChildren(features[0]));
+        }
+    }
+
+    @Test
+    public void testRuntimeFeatureChange() throws Exception {
+        WebSphereRuntime wsRuntime = getWebSphereRuntime();
+        FeatureListCoreMetadata metadata = FeatureListCoreMetadata.getInstance();
+        HashMap<FeatureMapType, HashMap<String, Feature>> original = metadata.getFeatureListMaps(wsRuntime);
+        List<String> features = Arrays.asList(TEST_FEATURE);
+        FeatureClosure closure = FeatureClosure.getInstance(wsRuntime);
+        assertFalse(closure.canConflict(features));
+        assertTrue(closure.getFeatureChildren(TEST_FEATURE).isEmpty());
+
+        // add a feature that includes two versions of the same singleton feature
+        HashMap<String, Feature> publicMap = new HashMap<String, Feature>(original.get(FeatureMapType.PUBLIC_FEATURES_KEYED_BY_NAME));
+        HashMap<String, Feature> symbolicMap = new HashMap<String, Feature>(original.get(FeatureMapType.ALL_FEATURES_KEYED_BY_SYMBOLIC_NAME));
+        List<Feature> versions = getSingletonVersions(publicMap);
+        assertEquals(2, versions.size());
+        Feature testFeature = new Feature(TEST_FEATURE, null, FeatureType.PUBLIC);
+        for (Feature f : versions) {
+            testFeature.getIncludes().put(f.getSymbolicName(), new ArrayList<String>());
+            testFeature.getEnables().add(f.getName());
+        }
+        publicMap.put(TEST_FEATURE, testFeature);
+        symbolicMap.put(TEST_FEATURE, testFeature);
+        HashMap<FeatureMapType, HashMap<String, Feature>> changed = new HashMap<FeatureMapType, HashMap<String, Feature>>();
+        changed.put(FeatureMapType.PUBLIC_FEATURES_KEYED_BY_NAME, publicMap);
+        changed.put(FeatureMapType.ALL_FEATURES_KEYED_BY_SYMBOLIC_NAME, symbolicMap);
+
+        try {
+            // the same as when the runtime's metadata is generated again
+            metadata.generationComplete(wsRuntime.getGeneratorId(), changed);
+            FeatureClosure.invalidate(wsRuntime);
+
+            FeatureClosure closure2 = FeatureClosure.getInstance(wsRuntime);
+            assertFalse(closure == closure2);
+            assertTrue(closure2.canConflict(features));
+            assertTrue(closure2.isContainedBy(versions.get(0).getName(), TEST_FEATURE));
+        } finally {
+            metadata.generationComplete(wsRuntime.getGeneratorId(), original);
+            FeatureClosure.invalidate(wsRuntime);
+        }
+
+        closure = FeatureClosure.getInstance(wsRuntime);
+        assertFalse(closure.canConflict(features));
+        assertTrue(closure.getFeatureChildren(TEST_FEATURE).isEmpty());
+    }
+
+    @Test
+    public void doTearDown() {
+        cleanUp();
+        print("Ending test: FeatureClosureTest\n");
+    }
+
+    // Returns two public versions of a singleton feature
+    private static List<Feature> getSingletonVersions(Map<String, Feature> publicMap) {
+        Map<String, Feature> families = new HashMap<String, Feature>();
+        for (Feature f : publicMap.values()) {
+            String symbolicName = f.getSymbolicName();
+            int index = symbolicName == null ? -1 : symbolicName.lastIndexOf('-');
+            if (!f.isSingleton() || index < 0 || index == symbolicName.length() - 1 || !Character.isDigit(symbolicName.charAt(index + 1)))
+                continue;
+            String family = symbolicName.substring(0, index);
+            Feature other = families.put(family, f);
+            if (other != null)
+                return Arrays.asList(other, f);
+        }
+        return new ArrayList<Feature>();
+    }
+}
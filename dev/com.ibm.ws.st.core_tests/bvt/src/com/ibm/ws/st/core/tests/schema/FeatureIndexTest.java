@@ -0,0 +1,305 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package com.ibm.ws.st.core.tests.schema;
+
+import java.io.File;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.AllTests;
+
+import com.ibm.ws.st.core.internal.config.FeatureList.FeatureMapType;
+import com.ibm.ws.st.core.internal.generation.Feature;
+import com.ibm.ws.st.core.internal.generation.FeatureIndex;
+import com.ibm.ws.st.core.internal.generation.FeatureInfoHandler;
+import com.ibm.ws.st.core.internal.generation.MetadataProviderManager;
+import com.ibm.ws.st.core.tests.ToolsTestBase;
+import com.ibm.ws.st.core.tests.util.FileUtil;
+import com.ibm.ws.st.tests.common.util.TestCaseDescriptor;
+
+import junit.framework.TestSuite;
+
+/**
+ * Test that a feature index read back from disk matches the feature list it was built from,
+ * and that an index that is out of date or damaged is built again.
+ */
+@TestCaseDescriptor(description = "Check feature index", isStable = true)
+@RunWith(AllTests.class)
+public class FeatureIndexTest extends ToolsTestBase {
+
+    // offset of the version in the index header
+    private static final int VERSION_OFFSET = 4;
+
+    protected static File tempDir;
+    protected static File featureList;
+    protected static HashMap<FeatureMapType, HashMap<String, Feature>> expected;
+
+    public static TestSuite suite() {
+        TestSuite suite = new TestSuite();
+        suite.addTest(FeatureIndexTest.getOrderedTests());
+        suite.setName(FeatureIndexTest.class.getSimpleName());
+        return suite;
+    }
+
+    public static TestSuite getOrderedTests() {
+        TestSuite testSuite = new TestSuite();
+
+        testSuite.addTest(TestSuite.createTest(FeatureIndexTest.class, "doSetup"));
+        testSuite.addTest(TestSuite.createTest(FeatureIndexTest.class, "testWriteAndRead"));
+        testSuite.addTest(TestSuite.createTest(FeatureIndexTest.class, "testFeatureNames"));
+        testSuite.addTest(TestSuite.createTest(FeatureIndexTest.class, "testClosures"));
+        testSuite.addTest(TestSuite.createTest(FeatureIndexTest.class, "testStampMismatch"));
+        testSuite.addTest(TestSuite.createTest(FeatureIndexTest.class, "testVersionMismatch"));
+        testSuite.addTest(TestSuite.createTest(FeatureIndexTest.class, "testTruncated"));
+        testSuite.addTest(TestSuite.createTest(FeatureIndexTest.class, "testCorrupt"));
+        testSuite.addTest(TestSuite.createTest(FeatureIndexTest.class, "doTearDown"));
+
+        return testSuite;
+    }
+
+    @Test
+    public void doSetup() throws Exception {
+        print("Starting test: FeatureIndexTest");
+        init();
+        tempDir = Files.createTempDirectory("featureIndexTest").toFile();
+        featureList = new File(tempDir, "featureList.xml");
+        URL url = MetadataProviderManager.getDefaultFeatureList();
+        assertNotNull("Could not find the default feature list", url);
+        InputStream in = url.openStream();
+        try {
+            Files.copy(in, featureList.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            in.close();
+        }
+        expected = parse();
+        assertFalse(expected.get(FeatureMapType.PUBLIC_FEATURES_KEYED_BY_NAME).isEmpty());
+    }
+
+    @Test
+    public void testWriteAndRead() throws Exception {
+        File indexFile = FeatureIndex.getIndexFile(featureList);
+        assertFalse(indexFile.exists());
+        checkFeatureMaps(FeatureIndex.open(featureList).getFeatureMaps());
+        assertTrue(indexFile.exists());
+
+        // read back through the mapped file without parsing the feature list
+        FeatureIndex index = FeatureIndex.load(featureList);
+        assertNotNull("The index was not read back", index);
+        checkFeatureMaps(index.getFeatureMaps());
+    }
+
+    @Test
+    public void testFeatureNames() throws Exception {
+        FeatureIndex index = FeatureIndex.load(featureList);
+        assertNotNull(index);
+        for (String name : expected.get(FeatureMapType.PUBLIC_FEATURES_KEYED_BY_NAME).keySet()) {
+            assertEquals(name, index.getFeatureName(name));
+            assertEquals(name, index.getFeatureName(name.toUpperCase(Locale.ENGLISH)));
+        }
+        assertEquals(null, index.getFeatureName("notAFeature-1.0"));
+        assertEquals(null, index.getChildren("notAFeature-1.0"));
+    }
+
+    @Test
+    public void testClosures() throws Exception {
+        FeatureIndex index = FeatureIndex.load(featureList);
+        assertNotNull(index);
+        Map<String, Feature> publicFeatures = expected.get(FeatureMapType.PUBLIC_FEATURES_KEYED_BY_NAME);
+        for (String name : publicFeatures.keySet()) {
+            assertEquals("Children of " + name, closure(name, true), toLowerCase(index.getChildren(name)));
+            Set<String> parents = closure(name, false);
+            List<String> indexParents = index.getParents(name);
+            if (parents.isEmpty() && indexParents == null)
+                continue;
+            assertEquals("Parents of " + name, parents, toLowerCase(indexParents));
+        }
+
+        assertTrue(toLowerCase(index.getChildren("jpa-2.1")).contains("jdbc-4.1"));
+        assertTrue(toLowerCase(index.getChildren("jpa-2.1")).contains("jndi-1.0"));
+        assertTrue(toLowerCase(index.getParents("servlet-3.1")).contains("jsp-2.3"));
+    }
+
+    @Test
+    public void testStampMismatch() throws Exception {
+        assertTrue(featureList.setLastModified(featureList.lastModified() + 10000));
+        assertEquals(null, FeatureIndex.load(featureList));
+        checkRebuild();
+    }
+
+    @Test
+    public void testVersionMismatch() throws Exception {
+        RandomAccessFile file = new RandomAccessFile(FeatureIndex.getIndexFile(featureList), "rw");
+        try {
+            file.seek(VERSION_OFFSET);
+            int version = file.readInt();
+            file.seek(VERSION_OFFSET);
+            file.writeInt(version + 1);
+        } finally {
+            file.close();
+        }
+        assertEquals(null, FeatureIndex.load(featureList));
+        checkRebuild();
+    }
+
+    @Test
+    public void testTruncated() throws Exception {
+        File indexFile = FeatureIndex.getIndexFile(featureList);
+        RandomAccessFile file = new RandomAccessFile(indexFile, "rw");
+        try {
+            file.setLength(file.length() / 2);
+        } finally {
+            file.close();
+        }
+        assertEquals(null, FeatureIndex.load(featureList));
+        checkRebuild();
+
+        // shorter than the header
+        file = new RandomAccessFile(indexFile, "rw");
+        try {
+            file.setLength(10);
+        } finally {
+            file.close();
+        }
+        assertEquals(null, FeatureIndex.load(featureList));
+        checkRebuild();
+    }
+
+    @Test
+    public void testCorrupt() throws Exception {
+        RandomAccessFile file = new RandomAccessFile(FeatureIndex.getIndexFile(featureList), "rw");
+        try {
+            long pos = file.length() / 2;
+            file.seek(pos);
+            int b = file.read();
+            file.seek(pos);
+            file.write(b ^ 0xFF);
+        } finally {
+            file.close();
+        }
+        assertEquals(null, FeatureIndex.load(featureList));
+
+        // the damaged index may still be mapped, so only check the result and not the file
+        checkFeatureMaps(FeatureIndex.open(featureList).getFeatureMaps());
+    }
+
+    @Test
+    public void doTearDown() throws Exception {
+        if (tempDir != null)
+            FileUtil.deleteDirectory(tempDir.getAbsolutePath(), true);
+        cleanUp();
+        print("Ending test: FeatureIndexTest\n");
+    }
+
+    private static HashMap<FeatureMapType, HashMap<String, Feature>> parse() throws Exception {
+        InputStream in = Files.newInputStream(featureList.toPath());
+        try {
+            return FeatureInfoHandler.parseFeatureListXML(in);
+        } finally {
+            in.close();
+        }
+    }
+
+    // The index is built again and read back, and both match the feature list
+    private static void checkRebuild() throws Exception {
+        checkFeatureMaps(FeatureIndex.open(featureList).getFeatureMaps());
+        FeatureIndex index = FeatureIndex.load(featureList);
+        assertNotNull("The index was not built again", index);
+        checkFeatureMaps(index.getFeatureMaps());
+    }
+
+    private static void checkFeatureMaps(HashMap<FeatureMapType, HashMap<String, Feature>> actual) {
+        for (FeatureMapType type : new FeatureMapType[] { FeatureMapType.PUBLIC_FEATURES_KEYED_BY_NAME, FeatureMapType.ALL_FEATURES_KEYED_BY_SYMBOLIC_NAME }) {
+            Map<String, Feature> expectedMap = expected.get(type);
+            Map<String, Feature> actualMap = actual.get(type);
+            assertNotNull("Missing map " + type, actualMap);
+            assertEquals(type.toString(), expectedMap.keySet(), actualMap.keySet());
+            for (Map.Entry<String, Feature> entry : expectedMap.entrySet())
+                checkFeature(entry.getValue(), actualMap.get(entry.getKey()));
+        }
+    }
+
+    private static void checkFeature(Feature f1, Feature f2) {
+        String name = f1.getName();
+        assertNotNull("Missing feature " + name, f2);
+        assertEquals(name, f1.getName(), f2.getName());
+        assertEquals(name, f1.getFeatureInfoName(), f2.getFeatureInfoName());
+        assertEquals(name, f1.getFeatureType(), f2.getFeatureType());
+        assertEquals(name, f1.getDisplayName(), f2.getDisplayName());
+        assertEquals(name, f1.getDescription(), f2.getDescription());
+        assertEquals(name, f1.getSymbolicName(), f2.getSymbolicName());
+        assertEquals(name, f1.getProcessType(), f2.getProcessType());
+        assertEquals(name, f1.isSuperseded(), f2.isSuperseded());
+        assertEquals(name, f1.isSingleton(), f2.isSingleton());
+        assertEquals(name, f1.getEnables(), f2.getEnables());
+        assertEquals(name, f1.getApiJars(), f2.getApiJars());
+        assertEquals(name, f1.getSpiJars(), f2.getSpiJars());
+        assertEquals(name, f1.getApiPackages(), f2.getApiPackages());
+        assertEquals(name, f1.getSpiPackages(), f2.getSpiPackages());
+        assertEquals(name, f1.getConfigElements(), f2.getConfigElements());
+        assertEquals(name, f1.getAutoProvisions(), f2.getAutoProvisions());
+        assertEquals(name, f1.getCategoryElements(), f2.getCategoryElements());
+        assertEquals(name, f1.getSupersededBy(), f2.getSupersededBy());
+        assertEquals(name, f1.getIncludes(), f2.getIncludes());
+    }
+
+    // Walk the enables of the parsed public features to find the expected closure of a feature
+    private static Set<String> closure(String start, boolean down) {
+        Map<String, Set<String>> edges = new HashMap<String, Set<String>>();
+        for (Map.Entry<String, Feature> entry : expected.get(FeatureMapType.PUBLIC_FEATURES_KEYED_BY_NAME).entrySet()) {
+            String from = entry.getKey().toLowerCase(Locale.ENGLISH);
+            for (String enabled : entry.getValue().getEnables()) {
+                String to = enabled.toLowerCase(Locale.ENGLISH);
+                String key = down ? from : to;
+                Set<String> set = edges.get(key);
+                if (set == null) {
+                    set = new HashSet<String>();
+                    edges.put(key, set);
+                }
+                set.add(down ? to : from);
+            }
+        }
+
+        String startKey = start.toLowerCase(Locale.ENGLISH);
+        Set<String> found = new HashSet<String>();
+        ArrayDeque<String> queue = new ArrayDeque<String>();
+        queue.add(startKey);
+        while (!queue.isEmpty()) {
+            Set<String> next = edges.get(queue.poll());
+            if (next == null)
+                continue;
+            for (String s : next) {
+                if (!s.equals(startKey) && found.add(s))
+                    queue.add(s);
+            }
+        }
+        return found;
+    }
+
+    private static Set<String> toLowerCase(List<String> list) {
+        assertNotNull(list);
+        Set<String> set = new HashSet<String>();
+        for (String s : list)
+            set.add(s.toLowerCase(Locale.ENGLISH));
+        return set;
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2019 IBM Corporation and others.
+ * Copyright (c) 2011, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -24,6 +24,7 @@ import org.junit.runners.Suite;
                       FeatureValidationTest.class,
                       QuickFixTestCase.class,
                       IncludeRevalidateTestCase.class,
+                      IncrementalValidationTestCase.class,
                       BestMatchTest.class,
                       ConfigDropinsValidationTest.class,
                       // DropinRevalidateTestCase is failing because of eclipse bug https://bugs.eclipse.org/bugs/show_bug.cgi?id=466749
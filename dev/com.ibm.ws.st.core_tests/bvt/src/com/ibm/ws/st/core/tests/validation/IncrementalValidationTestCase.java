@@ -0,0 +1,264 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package com.ibm.ws.st.core.tests.validation;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.wst.sse.core.StructuredModelManager;
+import org.eclipse.wst.xml.core.internal.provisional.document.IDOMModel;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.AllTests;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import com.ibm.ws.st.core.internal.Constants;
+import com.ibm.ws.st.core.internal.config.DOMUtils;
+import com.ibm.ws.st.core.internal.config.DocumentLocation;
+import com.ibm.ws.st.core.internal.config.validation.AbstractConfigurationValidator;
+import com.ibm.ws.st.core.tests.util.TestUtil;
+import com.ibm.ws.st.tests.common.util.TestCaseDescriptor;
+
+import junit.framework.TestSuite;
+
+/**
+ * Test that validating an editor model incrementally gives the same messages
+ * as a full validation pass, and that the changes that affect other elements
+ * or files fall back to a full pass.
+ */
+@TestCaseDescriptor(description = "Incremental validation test", isStable = true)
+@RunWith(AllTests.class)
+@SuppressWarnings("restriction")
+public class IncrementalValidationTestCase extends ValidationTestBase {
+
+    protected static final String PROJECT_NAME = "IncrementalValidationTestProject";
+    protected static final String SERVER_NAME = "incrementalValidate";
+
+    protected static IDOMModel model;
+    protected static IFile file;
+
+    public static TestSuite suite() {
+        TestSuite suite = new TestSuite();
+        suite.addTest(IncrementalValidationTestCase.getOrderedTests());
+        suite.setName(IncrementalValidationTestCase.class.getSimpleName());
+        return suite;
+    }
+
+    public static TestSuite getOrderedTests() {
+        TestSuite testSuite = new TestSuite();
+
+        testSuite.addTest(TestSuite.createTest(IncrementalValidationTestCase.class, "doSetup"));
+        testSuite.addTest(TestSuite.createTest(IncrementalValidationTestCase.class, "testNoChange"));
+        testSuite.addTest(TestSuite.createTest(IncrementalValidationTestCase.class, "testAttributeEdit"));
+        testSuite.addTest(TestSuite.createTest(IncrementalValidationTestCase.class, "testNewChildElement"));
+        testSuite.addTest(TestSuite.createTest(IncrementalValidationTestCase.class, "testIdChange"));
+        testSuite.addTest(TestSuite.createTest(IncrementalValidationTestCase.class, "testMergedElement"));
+        testSuite.addTest(TestSuite.createTest(IncrementalValidationTestCase.class, "testUnresolvedIncludeCreated"));
+        testSuite.addTest(TestSuite.createTest(IncrementalValidationTestCase.class, "testDropinAdded"));
+        testSuite.addTest(TestSuite.createTest(IncrementalValidationTestCase.class, "doTearDown"));
+
+        return testSuite;
+    }
+
+    @Test
+    public void doSetup() throws Exception {
+        print("Starting test: IncrementalValidationTestCase");
+        init();
+        setupRuntime(PROJECT_NAME, "/validation/incremental");
+        file = getServerFile(SERVER_NAME, Constants.SERVER_XML);
+        assertTrue("The server configuration file does not exist.", file.exists());
+        model = (IDOMModel) StructuredModelManager.getModelManager().getModelForEdit(file);
+        assertNotNull("Could not get the model for: " + file, model);
+
+        // the first pass is always a full pass
+        assertSameMessages(true);
+    }
+
+    @Test
+    public void testNoChange() throws Exception {
+        assertSameMessages(false);
+    }
+
+    @Test
+    public void testAttributeEdit() throws Exception {
+        Element endpoint = getElement(Constants.HTTP_ENDPOINT);
+        endpoint.setAttribute("httpPort", "notANumber");
+        assertSameMessages(false);
+
+        endpoint.setAttribute("httpPort", "9080");
+        assertSameMessages(false);
+    }
+
+    @Test
+    public void testNewChildElement() throws Exception {
+        Element app = getElement(Constants.APPLICATION);
+        Element classloader = getDocument().createElement("classloader");
+        classloader.setAttribute("unknownAttribute", "value");
+        app.appendChild(classloader);
+        assertSameMessages(false);
+
+        app.removeChild(classloader);
+        assertSameMessages(false);
+    }
+
+    @Test
+    public void testIdChange() throws Exception {
+        // other elements may refer to the id, so the whole document is checked again
+        Element app = getElement(Constants.APPLICATION);
+        app.setAttribute(Constants.FACTORY_ID, "app2");
+        assertSameMessages(true);
+
+        app.setAttribute(Constants.FACTORY_ID, "app1");
+        assertSameMessages(true);
+    }
+
+    @Test
+    public void testMergedElement() throws Exception {
+        // a new top level element changes the structure of the document
+        Element logging = getDocument().createElement(Constants.LOGGING);
+        logging.setAttribute("maxFiles", "notANumber");
+        getDocument().getDocumentElement().appendChild(logging);
+        assertSameMessages(true);
+
+        // the new element merges with the existing one, so it can't be checked on its own
+        logging.setAttribute("maxFiles", "alsoNotANumber");
+        assertSameMessages(true);
+
+        getDocument().getDocumentElement().removeChild(logging);
+        assertSameMessages(true);
+
+        // the other elements can still be checked on their own
+        getElement(Constants.HTTP_ENDPOINT).setAttribute("httpsPort", "9444");
+        assertSameMessages(false);
+    }
+
+    @Test
+    public void testUnresolvedIncludeCreated() throws Exception {
+        IFile include = getServerFile(SERVER_NAME, "missing.xml");
+        writeFile(include.getLocation().toFile(), "<server>\n    <logging maxFiles=\"notANumber\"/>\n</server>\n");
+        refresh(include);
+        try {
+            assertSameMessages(true);
+            assertSameMessages(false);
+        } finally {
+            include.delete(true, null);
+            refresh(include);
+        }
+        assertSameMessages(true);
+    }
+
+    @Test
+    public void testDropinAdded() throws Exception {
+        IFile dropin = getOverrideDropinsFile(SERVER_NAME, "override.xml");
+        writeFile(dropin.getLocation().toFile(), "<server>\n    <logging maxFiles=\"notANumber\"/>\n</server>\n");
+        refresh(dropin);
+        try {
+            assertSameMessages(true);
+            assertSameMessages(false);
+        } finally {
+            dropin.delete(true, null);
+            refresh(dropin);
+        }
+        assertSameMessages(true);
+    }
+
+    @Test
+    public void doTearDown() {
+        if (model != null) {
+            model.releaseFromEdit();
+            model = null;
+        }
+        cleanUp();
+        print("Ending test: IncrementalValidationTestCase\n");
+    }
+
+    private static Document getDocument() {
+        return model.getDocument();
+    }
+
+    private static Element getElement(String name) {
+        Element elem = DOMUtils.getFirstChildElement(getDocument().getDocumentElement(), name);
+        assertNotNull("Could not find element: " + name, elem);
+        return elem;
+    }
+
+    private static void writeFile(File f, String content) throws Exception {
+        f.getParentFile().mkdirs();
+        OutputStream out = new FileOutputStream(f);
+        try {
+            out.write(content.getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+    }
+
+    private void refresh(IFile f) throws Exception {
+        IFolder folder = project.getFolder(Constants.SERVERS_FOLDER).getFolder(SERVER_NAME);
+        TestUtil.refreshResource(folder);
+        TestUtil.jobWaitBuildandResource();
+        getWebSphereRuntime().updateServerCache(true);
+        assertEquals(f.getLocation().toFile().exists(), f.exists());
+    }
+
+    /**
+     * Validate the model incrementally and with a full pass, and check that the messages
+     * are the same and that the incremental validation did a full pass only if expected.
+     */
+    private static void assertSameMessages(boolean expectFullPass) {
+        TestValidator incremental = new TestValidator(true);
+        incremental.validate(getDocument(), file);
+        TestValidator full = new TestValidator(false);
+        full.validate(getDocument(), file);
+
+        assertTrue("The full validation did not do a full pass", full.fullPass);
+        assertEquals("Incremental validation full pass", expectFullPass, incremental.fullPass);
+        Collections.sort(incremental.messages);
+        Collections.sort(full.messages);
+        assertEquals(full.messages, incremental.messages);
+    }
+
+    private static class TestValidator extends AbstractConfigurationValidator {
+        final List<String> messages = new ArrayList<String>();
+        final boolean incremental;
+        boolean fullPass;
+
+        TestValidator(boolean incremental) {
+            this.incremental = incremental;
+        }
+
+        @Override
+        protected boolean isIncremental() {
+            return incremental;
+        }
+
+        @Override
+        protected void processServer(Element serverElem, Document mergeDoc) {
+            // only a full pass processes the server elements
+            fullPass = true;
+            super.processServer(serverElem, mergeDoc);
+        }
+
+        @Override
+        protected void createMessage(String text, IResource resource, Level level, Node node, QuickFixData fixData) {
+            int line = node == null ? -1 : DocumentLocation.createDocumentLocation(node).getLine();
+            messages.add(level + " " + (resource == null ? null : resource.getFullPath()) + ":" + line + " " + text);
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2017 IBM Corporation and others.
+ * Copyright (c) 2016, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -103,8 +103,12 @@ public class LibertyLocalDockerUtilityExecutionDelegate implements IUtilityExecu
 
     public String getDockerRemoteOutputDir() throws Exception {
         JMXConnection jmx = wsServer.createJMXConnection();
-
-        CompositeData metadata = (CompositeData) jmx.getMetadata("${server.output.dir}", "a");
+        CompositeData metadata;
+        try {
+            metadata = (CompositeData) jmx.getMetadata("${server.output.dir}", "a");
+        } finally {
+            jmx.disconnect();
+        }
         String remoteOutputDir = (String) metadata.get("fileName");
         remoteOutputDir = remoteOutputDir.replace("\\", "/");
         return remoteOutputDir;
@@ -488,8 +492,12 @@ public class LibertyLocalDockerUtilityExecutionDelegate implements IUtilityExecu
     @Override
     public IPath getRemoteOutputDir() throws Exception {
         JMXConnection jmx = wsServer.createJMXConnection();
-
-        CompositeData metadata = (CompositeData) jmx.getMetadata("${server.output.dir}", "a");
+        CompositeData metadata;
+        try {
+            metadata = (CompositeData) jmx.getMetadata("${server.output.dir}", "a");
+        } finally {
+            jmx.disconnect();
+        }
         String remoteOutputDir = (String) metadata.get("fileName");
         remoteOutputDir = remoteOutputDir.replace("\\", "/");
         return new Path(remoteOutputDir);
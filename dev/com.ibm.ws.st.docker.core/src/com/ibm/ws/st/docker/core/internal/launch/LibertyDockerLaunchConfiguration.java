@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2017 IBM Corporation and others.
+ * Copyright (c) 2016, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -40,6 +40,7 @@ import com.ibm.ws.st.common.core.ext.internal.setuphandlers.PlatformHandlerFacto
 import com.ibm.ws.st.common.core.ext.internal.setuphandlers.PlatformHandlerFactory.PlatformType;
 import com.ibm.ws.st.common.core.ext.internal.util.AbstractDockerMachine;
 import com.ibm.ws.st.common.core.ext.internal.util.BaseDockerContainer;
+import com.ibm.ws.st.common.core.ext.internal.util.DockerCopyBatch;
 import com.ibm.ws.st.core.internal.WebSphereRuntime;
 import com.ibm.ws.st.core.internal.WebSphereServer;
 import com.ibm.ws.st.core.internal.WebSphereServerBehaviour;
@@ -418,7 +419,7 @@ public class LibertyDockerLaunchConfiguration extends AbstractLaunchConfiguratio
             if (Trace.ENABLED)
                 Trace.trace(Trace.INFO, "Copying files from " + tempPath + ", into container " + newContainerName + " " + usrFolder);
 
-            newContainer.copyIn(tempPath.toString() + "/.", usrFolder);
+            newContainer.copyIn(new DockerCopyBatch().add(tempPath.toOSString(), usrFolder).exclude(LibertyDockerRunUtility.WORKAREA_PATTERN), null);
         } catch (Exception e) {
             if (Trace.ENABLED)
                 Trace.trace(Trace.WARNING, "Could not copy all the files from the usr folder to the new Docker container.  The new container could not be set up properly.", e); //$NON-NLS-1$
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2017 IBM Corporation and others.
+ * Copyright (c) 2016, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -36,6 +36,7 @@ import org.eclipse.wst.server.core.util.SocketUtil;
 import com.ibm.ws.st.common.core.ext.internal.Constants;
 import com.ibm.ws.st.common.core.ext.internal.util.AbstractDockerMachine;
 import com.ibm.ws.st.common.core.ext.internal.util.BaseDockerContainer;
+import com.ibm.ws.st.common.core.ext.internal.util.DockerCopyBatch;
 import com.ibm.ws.st.common.core.ext.internal.util.FileUtil;
 import com.ibm.ws.st.core.internal.UserDirectory;
 import com.ibm.ws.st.core.internal.WebSphereServer;
@@ -49,6 +50,9 @@ import com.ibm.ws.st.docker.core.internal.Trace;
  */
 public class LibertyDockerRunUtility {
 
+    // The server workarea is a cache that Liberty rebuilds, so it is not copied with the usr folder
+    static final String WORKAREA_PATTERN = "servers/*/workarea";
+
     public static String getLibertyUsrPath(Map<String, String> serviceInfo) {
         final String defaultPath = "/opt/ibm/wlp/usr";
         if (serviceInfo == null) {
@@ -459,12 +463,12 @@ public class LibertyDockerRunUtility {
                                                 BaseDockerContainer container) throws ConnectException, IOException, CoreException {
 
         String serverConfigPath = serviceInfo.get(com.ibm.ws.st.common.core.ext.internal.Constants.LIBERTY_SERVER_CONFIG_PATH);
-        // Copy using somePath/. to copy all the files from the usr folder to the local filesystem
-        String usrFolder = serverConfigPath.replace("/servers/" + serviceInfo.get("libertyServerName"), "/.");
+        // Copy all the files from the usr folder to the local filesystem
+        String usrFolder = serverConfigPath.replace("/servers/" + serviceInfo.get("libertyServerName"), "");
 
-        // remove last segment ("usr") from the target destination
         try {
-            container.copyOut(usrFolder, mappedUsrFolder.toString());
+            DockerCopyBatch batch = new DockerCopyBatch().add(usrFolder, mappedUsrFolder.toOSString()).exclude(WORKAREA_PATTERN);
+            container.copyOut(batch, AbstractDockerMachine.DEFAULT_TIMEOUT, null);
         } catch (ConnectException ce) {
             if (Trace.ENABLED) {
                 Trace.trace(Trace.INFO, "Can't connect to container in order to copy the following usr folder from the container to the local filesystem:" + usrFolder);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2015 IBM Corporation and others.
+ * Copyright (c) 2011, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -42,10 +42,12 @@ public class Activator extends Plugin {
         props.put(DebugOptions.LISTENER_SYMBOLICNAME, PLUGIN_ID);
         context.registerService(DebugOptionsListener.class.getName(), Trace.TS, props);
         SharedLibResourceListener.start();
+        PackageReferenceIndex.start();
     }
 
     @Override
     public void stop(BundleContext context) throws Exception {
+        PackageReferenceIndex.stop();
         SharedLibResourceListener.stop();
         instance = null;
         super.stop(context);
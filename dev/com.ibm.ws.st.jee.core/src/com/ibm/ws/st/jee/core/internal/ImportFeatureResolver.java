@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2018 IBM Corporation and others.
+ * Copyright (c) 2012, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -28,18 +28,11 @@ import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
-import org.eclipse.jdt.core.IAnnotatable;
-import org.eclipse.jdt.core.IAnnotation;
 import org.eclipse.jdt.core.IClassFile;
-import org.eclipse.jdt.core.ICompilationUnit;
-import org.eclipse.jdt.core.IImportDeclaration;
 import org.eclipse.jdt.core.IJavaProject;
-import org.eclipse.jdt.core.IMethod;
 import org.eclipse.jdt.core.IPackageFragment;
 import org.eclipse.jdt.core.IPackageFragmentRoot;
-import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.JavaCore;
-import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.launching.IVMInstall;
 import org.eclipse.wst.server.core.IModule;
 import org.eclipse.wst.server.core.model.IModuleFile;
@@ -57,8 +50,6 @@ import com.ibm.ws.st.core.internal.config.FeatureList;
 
 @SuppressWarnings("restriction")
 public class ImportFeatureResolver extends FeatureResolver {
-    private static final int SEARCH_LIMIT = 7500;
-
     // map holds runtime id to API info mapping
     private static Map<String, APIInfo> runtimeAPIMap = new HashMap<String, APIInfo>();
 
@@ -335,31 +326,6 @@ public class ImportFeatureResolver extends FeatureResolver {
         return true;
     }
 
-    /**
-     * Process all annotations on an element to look for possible required features.
-     *
-     * @param type a parent type
-     * @param annotatable an object with annotations
-     * @param info API info
-     * @param requiredFeatures a list of currently required features
-     * @param featurePackages contains the packages that are included by the existing features, used to
-     *            decide if a package is already covered by an existing feature (for example, the jmsMdb
-     *            feature includes the ejb jars)
-     * @throws JavaModelException
-     */
-    private static void processAnnotations(IType type, IAnnotatable annotatable, APIInfo info, List<String> requiredFeatures, FeatureSet existingFeatures,
-                                           FeaturePackages featurePackages) throws JavaModelException {
-        IAnnotation[] ann = annotatable.getAnnotations();
-        for (IAnnotation a : ann) {
-            String pkg = a.getElementName();
-            int ind = pkg.lastIndexOf(".");
-            if (ind > 0) { // we only need to look at fully qualified annotations, other packages were caught via imports
-                pkg = pkg.substring(0, ind);
-                checkAndAddFeatures(pkg, info, requiredFeatures, existingFeatures, featurePackages, true);
-            }
-        }
-    }
-
     private static boolean deltaIncludesJavaChange(IModuleResourceDelta mrd) {
         IModuleResource mr = mrd.getModuleResource();
         if (mr instanceof IModuleFolder) {
@@ -416,48 +382,11 @@ public class ImportFeatureResolver extends FeatureResolver {
             }
             long time = System.currentTimeMillis();
 
-            // search through all compilation units for element and method annotations
-            int count = 0;
+            // check the packages referenced by the imports and annotations of all compilation units
             List<String> requiredFeatures = new ArrayList<String>();
-            IPackageFragment[] pfs = javaProject.getPackageFragments();
-            packageSearch: for (IPackageFragment pf : pfs) {
-                if (pf.getKind() == IPackageFragmentRoot.K_SOURCE) {
-                    ICompilationUnit[] cus = pf.getCompilationUnits();
-                    for (ICompilationUnit cu : cus) {
-                        IImportDeclaration[] imps = cu.getImports();
-                        for (IImportDeclaration im : imps) {
-                            String pkg = im.getElementName();
-                            if (im.isOnDemand())
-                                pkg = pkg.substring(0, pkg.length() - 2);
-                            else {
-                                int ind = pkg.lastIndexOf(".");
-                                if (ind > 0)
-                                    pkg = pkg.substring(0, ind);
-                            }
-                            checkAndAddFeatures(pkg, info, requiredFeatures, existingFeatures, featurePackages, true);
-                        }
-
-                        IType[] allTypes = cu.getAllTypes();
-                        for (IType type : allTypes) {
-                            count++;
-                            try {
-                                processAnnotations(type, type, info, requiredFeatures, existingFeatures, featurePackages);
-
-                                IMethod[] methods = type.getMethods();
-                                for (IMethod m : methods) {
-                                    count++;
-                                    processAnnotations(type, m, info, requiredFeatures, existingFeatures, featurePackages);
-                                }
-                            } catch (Exception e) {
-                                if (Trace.ENABLED)
-                                    Trace.logError("Error processing type for annotations: " + type.getFullyQualifiedName(), e);
-                            }
-                        }
-                        if (count > SEARCH_LIMIT)
-                            break packageSearch;
-                    }
-                }
-            }
+            PackageReferenceIndex index = PackageReferenceIndex.getIndex(javaProject);
+            for (String pkg : index.getReferencedPackages(monitor))
+                checkAndAddFeatures(pkg, info, requiredFeatures, existingFeatures, featurePackages, true);
 
             if (Trace.ENABLED)
                 Trace.tracePerf("Import scanning", time);
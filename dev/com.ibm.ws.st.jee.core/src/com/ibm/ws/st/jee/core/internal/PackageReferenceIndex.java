@@ -0,0 +1,450 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package com.ibm.ws.st.jee.core.internal;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.IAnnotatable;
+import org.eclipse.jdt.core.IAnnotation;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IImportDeclaration;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+
+/**
+ * Index of the packages referenced by each compilation unit of a Java project, through
+ * imports and fully qualified annotations on types and methods.
+ *
+ * The index is kept up to date from Java element deltas so that only the compilation units
+ * that changed are read again. When the structure of the project changes (classpath, source
+ * folders or packages) the units are listed and only those whose file has changed are read.
+ * The index is saved in the plug-in state location and checked the same way when it is
+ * loaded.
+ */
+public class PackageReferenceIndex {
+    private static final String INDEX_FOLDER = "packageIndex";
+    private static final String INDEX_EXT = ".txt";
+    private static final String VERSION = "#1";
+
+    private static final Map<IProject, PackageReferenceIndex> indexes = new HashMap<IProject, PackageReferenceIndex>();
+    private static IElementChangedListener elementChangedListener;
+
+    private static class Unit {
+        final long stamp;
+        final String[] packages;
+
+        Unit(long stamp, String[] packages) {
+            this.stamp = stamp;
+            this.packages = packages;
+        }
+    }
+
+    private final IJavaProject javaProject;
+
+    // compilation units keyed by handle identifier
+    private final Map<String, Unit> units = new LinkedHashMap<String, Unit>();
+
+    // the number of compilation units that reference each package
+    private final Map<String, Integer> references = new LinkedHashMap<String, Integer>();
+
+    private final Set<String> dirtyUnits = new HashSet<String>();
+    private boolean reconcile = true;
+    private boolean modified;
+
+    private PackageReferenceIndex(IJavaProject javaProject) {
+        this.javaProject = javaProject;
+    }
+
+    public synchronized static void start() {
+        if (elementChangedListener != null)
+            return;
+
+        elementChangedListener = new IElementChangedListener() {
+            @Override
+            public void elementChanged(ElementChangedEvent event) {
+                processDelta(event.getDelta());
+            }
+        };
+        JavaCore.addElementChangedListener(elementChangedListener, ElementChangedEvent.POST_CHANGE);
+    }
+
+    public synchronized static void stop() {
+        if (elementChangedListener == null)
+            return;
+
+        JavaCore.removeElementChangedListener(elementChangedListener);
+        elementChangedListener = null;
+        synchronized (indexes) {
+            indexes.clear();
+        }
+    }
+
+    /**
+     * Returns the index for the given project, loading it from the state location if it was saved.
+     *
+     * @param javaProject a Java project
+     * @return the index
+     */
+    public static PackageReferenceIndex getIndex(IJavaProject javaProject) {
+        IProject project = javaProject.getProject();
+        synchronized (indexes) {
+            PackageReferenceIndex index = indexes.get(project);
+            if (index == null) {
+                index = new PackageReferenceIndex(javaProject);
+                index.load();
+                indexes.put(project, index);
+            }
+            return index;
+        }
+    }
+
+    private static PackageReferenceIndex getLoadedIndex(IJavaElement element) {
+        IJavaProject javaProject = element.getJavaProject();
+        if (javaProject == null)
+            return null;
+        synchronized (indexes) {
+            return indexes.get(javaProject.getProject());
+        }
+    }
+
+    private static void processDelta(IJavaElementDelta delta) {
+        IJavaElement element = delta.getElement();
+        int kind = delta.getKind();
+        int flags = delta.getFlags();
+        switch (element.getElementType()) {
+            case IJavaElement.JAVA_MODEL:
+                break;
+            case IJavaElement.JAVA_PROJECT:
+                if (kind == IJavaElementDelta.REMOVED) {
+                    IProject project = ((IJavaProject) element).getProject();
+                    synchronized (indexes) {
+                        indexes.remove(project);
+                    }
+                    if ((flags & IJavaElementDelta.F_MOVED_TO) != 0 || !project.exists())
+                        deleteIndexFile(project);
+                    return;
+                }
+                if (kind == IJavaElementDelta.ADDED
+                    || (flags & (IJavaElementDelta.F_OPENED | IJavaElementDelta.F_CLOSED | IJavaElementDelta.F_CLASSPATH_CHANGED
+                                 | IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED)) != 0) {
+                    setReconcile(element);
+                }
+                break;
+            case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+                if (kind != IJavaElementDelta.CHANGED
+                    || (flags & (IJavaElementDelta.F_ADDED_TO_CLASSPATH | IJavaElementDelta.F_REMOVED_FROM_CLASSPATH)) != 0) {
+                    setReconcile(element);
+                    return;
+                }
+                // binary roots have no compilation units
+                if (((IPackageFragmentRoot) element).isArchive())
+                    return;
+                break;
+            case IJavaElement.PACKAGE_FRAGMENT:
+                if (kind != IJavaElementDelta.CHANGED) {
+                    setReconcile(element);
+                    return;
+                }
+                break;
+            case IJavaElement.COMPILATION_UNIT:
+                ICompilationUnit cu = (ICompilationUnit) element;
+                // changes to a working copy are picked up when the file is saved
+                if (cu.isWorkingCopy() && kind == IJavaElementDelta.CHANGED && (flags & IJavaElementDelta.F_PRIMARY_RESOURCE) == 0)
+                    return;
+                PackageReferenceIndex index = getLoadedIndex(element);
+                if (index != null)
+                    index.setDirty(cu.getPrimary().getHandleIdentifier());
+                return;
+            default:
+                return;
+        }
+
+        for (IJavaElementDelta child : delta.getAffectedChildren())
+            processDelta(child);
+    }
+
+    private static void setReconcile(IJavaElement element) {
+        PackageReferenceIndex index = getLoadedIndex(element);
+        if (index != null) {
+            synchronized (index) {
+                index.reconcile = true;
+            }
+        }
+    }
+
+    private synchronized void setDirty(String handle) {
+        dirtyUnits.add(handle);
+    }
+
+    /**
+     * Returns the packages referenced by the project, bringing the index up to date first.
+     *
+     * @param monitor a progress monitor, or <code>null</code>
+     * @return the referenced packages
+     */
+    public synchronized List<String> getReferencedPackages(IProgressMonitor monitor) throws JavaModelException {
+        long time = System.currentTimeMillis();
+        int scanned = reconcile ? reconcile(monitor) : update(monitor);
+        if (modified) {
+            save();
+            modified = false;
+        }
+        if (Trace.ENABLED)
+            Trace.tracePerf("Package reference index of " + javaProject.getElementName() + ": " + scanned + " of " + units.size() + " compilation units read", time);
+        return new ArrayList<String>(references.keySet());
+    }
+
+    /**
+     * List all compilation units and read the ones that are new or have changed.
+     */
+    private int reconcile(IProgressMonitor monitor) throws JavaModelException {
+        int scanned = 0;
+        Set<String> found = new HashSet<String>();
+        for (IPackageFragment pf : javaProject.getPackageFragments()) {
+            if (pf.getKind() != IPackageFragmentRoot.K_SOURCE)
+                continue;
+            for (ICompilationUnit cu : pf.getCompilationUnits()) {
+                if (monitor != null && monitor.isCanceled())
+                    return scanned;
+                String handle = cu.getHandleIdentifier();
+                found.add(handle);
+                Unit unit = units.get(handle);
+                if (unit == null || unit.stamp != getStamp(cu) || dirtyUnits.contains(handle)) {
+                    setUnit(handle, scan(cu));
+                    scanned++;
+                }
+            }
+        }
+        for (String handle : new ArrayList<String>(units.keySet())) {
+            if (!found.contains(handle))
+                setUnit(handle, null);
+        }
+        dirtyUnits.clear();
+        reconcile = false;
+        return scanned;
+    }
+
+    /**
+     * Read the compilation units that have changed since the last update.
+     */
+    private int update(IProgressMonitor monitor) throws JavaModelException {
+        int scanned = 0;
+        for (String handle : new ArrayList<String>(dirtyUnits)) {
+            if (monitor != null && monitor.isCanceled())
+                return scanned;
+            IJavaElement element = JavaCore.create(handle);
+            if (element instanceof ICompilationUnit && element.exists()) {
+                setUnit(handle, scan((ICompilationUnit) element));
+                scanned++;
+            } else {
+                setUnit(handle, null);
+            }
+            dirtyUnits.remove(handle);
+        }
+        return scanned;
+    }
+
+    private void setUnit(String handle, Unit unit) {
+        Unit old = unit == null ? units.remove(handle) : units.put(handle, unit);
+        if (old != null) {
+            for (String pkg : old.packages) {
+                Integer count = references.get(pkg);
+                if (count != null) {
+                    if (count.intValue() <= 1)
+                        references.remove(pkg);
+                    else
+                        references.put(pkg, Integer.valueOf(count.intValue() - 1));
+                }
+            }
+        }
+        if (unit != null) {
+            for (String pkg : unit.packages) {
+                Integer count = references.get(pkg);
+                references.put(pkg, Integer.valueOf(count == null ? 1 : count.intValue() + 1));
+            }
+        }
+        modified = true;
+    }
+
+    private static long getStamp(ICompilationUnit cu) {
+        IResource resource = cu.getResource();
+        return resource == null ? IResource.NULL_STAMP : resource.getModificationStamp();
+    }
+
+    /**
+     * Read the packages referenced by the imports of a compilation unit and by the fully
+     * qualified annotations on its types and methods.
+     */
+    private static Unit scan(ICompilationUnit cu) throws JavaModelException {
+        long stamp = getStamp(cu);
+        Set<String> packages = new LinkedHashSet<String>();
+        IImportDeclaration[] imps = cu.getImports();
+        for (IImportDeclaration im : imps) {
+            String pkg = im.getElementName();
+            if (im.isOnDemand())
+                pkg = pkg.substring(0, pkg.length() - 2);
+            else {
+                int ind = pkg.lastIndexOf(".");
+                if (ind > 0)
+                    pkg = pkg.substring(0, ind);
+            }
+            packages.add(pkg);
+        }
+
+        IType[] allTypes = cu.getAllTypes();
+        for (IType type : allTypes) {
+            try {
+                addAnnotationPackages(type, packages);
+
+                IMethod[] methods = type.getMethods();
+                for (IMethod m : methods)
+                    addAnnotationPackages(m, packages);
+            } catch (Exception e) {
+                if (Trace.ENABLED)
+                    Trace.logError("Error processing type for annotations: " + type.getFullyQualifiedName(), e);
+            }
+        }
+        return new Unit(stamp, packages.toArray(new String[packages.size()]));
+    }
+
+    private static void addAnnotationPackages(IAnnotatable annotatable, Set<String> packages) throws JavaModelException {
+        IAnnotation[] ann = annotatable.getAnnotations();
+        for (IAnnotation a : ann) {
+            String pkg = a.getElementName();
+            int ind = pkg.lastIndexOf(".");
+            if (ind > 0) // we only need to look at fully qualified annotations, other packages were caught via imports
+                packages.add(pkg.substring(0, ind));
+        }
+    }
+
+    private static File getIndexFile(IProject project) {
+        Activator activator = Activator.getInstance();
+        if (activator == null)
+            return null;
+        IPath path = activator.getStateLocation().append(INDEX_FOLDER).append(project.getName() + INDEX_EXT);
+        return path.toFile();
+    }
+
+    private static void deleteIndexFile(IProject project) {
+        File file = getIndexFile(project);
+        if (file != null && file.exists() && !file.delete() && Trace.ENABLED)
+            Trace.trace(Trace.WARNING, "Could not delete package reference index: " + file);
+    }
+
+    private void load() {
+        File file = getIndexFile(javaProject.getProject());
+        if (file == null || !file.exists())
+            return;
+
+        BufferedReader reader = null;
+        try {
+            reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8));
+            if (!VERSION.equals(reader.readLine()))
+                return;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] s = line.split("\t", -1);
+                if (s.length != 3)
+                    continue;
+                String[] packages = s[2].isEmpty() ? new String[0] : s[2].split(",");
+                setUnit(s[0], new Unit(Long.parseLong(s[1]), packages));
+            }
+        } catch (Exception e) {
+            if (Trace.ENABLED)
+                Trace.trace(Trace.WARNING, "Could not load package reference index: " + file, e);
+            units.clear();
+            references.clear();
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    // ignore
+                }
+            }
+        }
+        // the saved stamps are checked against the files on the next use
+        reconcile = true;
+        modified = false;
+    }
+
+    private void save() {
+        File file = getIndexFile(javaProject.getProject());
+        if (file == null)
+            return;
+
+        File folder = file.getParentFile();
+        if (!folder.exists() && !folder.mkdirs()) {
+            if (Trace.ENABLED)
+                Trace.trace(Trace.WARNING, "Could not create folder: " + folder);
+            return;
+        }
+        BufferedWriter writer = null;
+        try {
+            writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8));
+            writer.write(VERSION);
+            writer.newLine();
+            for (Map.Entry<String, Unit> entry : units.entrySet()) {
+                writer.write(entry.getKey());
+                writer.write('\t');
+                writer.write(Long.toString(entry.getValue().stamp));
+                writer.write('\t');
+                String[] packages = entry.getValue().packages;
+                for (int i = 0; i < packages.length; i++) {
+                    if (i > 0)
+                        writer.write(',');
+                    writer.write(packages[i]);
+                }
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            if (Trace.ENABLED)
+                Trace.trace(Trace.WARNING, "Could not save package reference index: " + file, e);
+        } finally {
+            if (writer != null) {
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    // ignore
+                }
+            }
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017 IBM Corporation and others.
+ * Copyright (c) 2017, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,16 +11,16 @@
 package com.ibm.ws.st.ui.internal;
 
 import java.io.BufferedInputStream;
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.ref.SoftReference;
 import java.net.URI;
-import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.wst.sse.core.StructuredModelManager;
 import org.eclipse.wst.sse.core.internal.provisional.IModelManager;
@@ -29,15 +29,39 @@ import org.eclipse.wst.xml.core.internal.provisional.document.IDOMDocument;
 import org.eclipse.wst.xml.core.internal.provisional.document.IDOMModel;
 import org.w3c.dom.Document;
 
+import com.ibm.ws.st.core.internal.FileUtil;
 import com.ibm.ws.st.core.internal.config.ConfigurationFile;
 
-/** Added as part of WASRTC 118980 to prevent memory leak. */
+/**
+ * Added as part of WASRTC 118980 to prevent memory leak.
+ *
+ * Cache of parsed configuration documents, keyed by file. An entry is reused while the file's
+ * timestamp and size are unchanged. When they change, or when the timestamp is too recent to
+ * be trusted, the content digest decides. No file contents are kept. The cache is bounded by
+ * the total size of the cached files and evicts the least recently used entries first.
+ */
 @SuppressWarnings("restriction")
 public class DomXmlDocumentFileCache {
 
+    public static final String CACHE_SIZE_PROPERTY = "com.ibm.ws.st.domCacheSizeKB";
+
+    private static final long DEFAULT_CACHE_SIZE = 16 * 1024 * 1024;
+
+    // file systems with coarse timestamps can change a file twice within this interval
+    private static final long TIMESTAMP_RESOLUTION = 2000;
+
     private static final DomXmlDocumentFileCache instance = new DomXmlDocumentFileCache();
 
-    private DomXmlDocumentFileCache() {}
+    private final long maxSize;
+    private long currentSize;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private DomXmlDocumentFileCache() {
+        maxSize = getMaxSize();
+    }
 
     public static DomXmlDocumentFileCache getInstance() {
         return instance;
@@ -45,30 +69,8 @@ public class DomXmlDocumentFileCache {
 
     /** Synchronize on MapLock when accessing map */
     private final Object mapLock = new Object();
-    Map<File /* XML File */, DomXmlCacheEntry /* Cached XML entry */> map = new HashMap<File, DomXmlCacheEntry>();
-
-    /** Read the contents of a file into a String */
-    private static String readFileIntoString(File f) throws IOException {
-
-        BufferedReader br = null;
-        try {
-            StringBuilder sb = new StringBuilder();
-            br = new BufferedReader(new FileReader(f));
-
-            String str;
-            while (null != (str = br.readLine())) {
-                sb.append(str + "\n");
-            }
-
-            return sb.toString();
-
-        } finally {
-            if (br != null) {
-                br.close();
-            }
-        }
-
-    }
+    // access order so that iteration starts with the least recently used entry
+    Map<File /* XML File */, DomXmlCacheEntry /* Cached XML entry */> map = new LinkedHashMap<File, DomXmlCacheEntry>(16, 0.75f, true);
 
     /**
      * Parse the document XML file from the configuration file; but only if the file contents has changed
@@ -81,46 +83,116 @@ public class DomXmlDocumentFileCache {
             return parseDomDocument(cf);
         }
 
-        String fileContents = readFileIntoString(f);
+        long lastModified = f.lastModified();
+        long size = f.length();
 
-        DomXmlCacheEntry e;
         synchronized (mapLock) {
-            e = map.get(f);
-
-            boolean createNew = false;
-
-            if (e != null) {
-                // We have seen this file before
-                if (e.document != null && e.document.get() != null && e.fileContents != null && e.fileContents.get() != null
-                    && e.fileContents.get().equalsIgnoreCase(fileContents)) {
-                    // We've seen this exact file contents before, so just return
-                    // the document object for it
-
-                    createNew = false;
-                } else {
-                    // The file has changed; we need to reparse it.
-                    map.remove(f);
-                    createNew = true;
+            DomXmlCacheEntry e = map.get(f);
+            Document document = e == null ? null : e.document.get();
+            String digest = null;
+
+            if (document != null) {
+                if (e.lastModified == lastModified && e.size == size && e.checked - lastModified > TIMESTAMP_RESOLUTION) {
+                    // Unchanged since it was parsed
+                    hits.incrementAndGet();
+                    return document;
                 }
 
-            } else {
-                // We have not seen this file before
-                createNew = true;
+                // The timestamp changed or can't be trusted, so compare the contents
+                digest = FileUtil.getFileDigest(f);
+                if (e.size == size && digest.equals(e.digest)) {
+                    e.lastModified = lastModified;
+                    e.checked = System.currentTimeMillis();
+                    hits.incrementAndGet();
+                    return document;
+                }
             }
 
-            if (createNew) {
-                e = new DomXmlCacheEntry();
-                e.fileContents = new SoftReference<String>(fileContents);
-                e.document = new SoftReference<Document>(parseDomDocument(cf));
-                map.put(f, e);
+            // We have not seen this file before, or it has changed; we need to (re)parse it.
+            misses.incrementAndGet();
+            if (e != null) {
+                map.remove(f);
+                currentSize -= e.size;
             }
+
+            e = new DomXmlCacheEntry();
+            e.checked = System.currentTimeMillis();
+            e.lastModified = lastModified;
+            e.size = size;
+            e.digest = digest != null ? digest : FileUtil.getFileDigest(f);
+            document = parseDomDocument(cf);
+            if (document == null)
+                return null;
+
+            e.document = new SoftReference<Document>(document);
+            map.put(f, e);
+            currentSize += size;
+            evict(f);
+            return document;
         }
+    }
 
-        if (e != null) {
-            return e.document.get();
+    /**
+     * Evict the least recently used entries, and any entries whose document has been
+     * garbage collected, until the cache is within its size limit.
+     */
+    private void evict(File keep) {
+        Iterator<Map.Entry<File, DomXmlCacheEntry>> it = map.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<File, DomXmlCacheEntry> entry = it.next();
+            DomXmlCacheEntry e = entry.getValue();
+            boolean collected = e.document.get() == null;
+            if (!collected && (currentSize <= maxSize || entry.getKey().equals(keep)))
+                continue;
+
+            it.remove();
+            currentSize -= e.size;
+            evictions.incrementAndGet();
+            if (Trace.ENABLED)
+                Trace.trace(Trace.INFO, "Evicted DOM cache entry: " + entry.getKey() + (collected ? " (collected)" : ""));
         }
-        return null;
+    }
+
+    /**
+     * Discard all cached documents.
+     */
+    public void clear() {
+        synchronized (mapLock) {
+            map.clear();
+            currentSize = 0;
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
 
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    @Override
+    public String toString() {
+        synchronized (mapLock) {
+            return "DomXmlDocumentFileCache [entries=" + map.size() + ", size=" + currentSize + ", hits=" + hits.get() + ", misses=" + misses.get() + ", evictions="
+                   + evictions.get() + "]";
+        }
+    }
+
+    private static long getMaxSize() {
+        String prop = System.getProperty(CACHE_SIZE_PROPERTY);
+        if (prop != null && !prop.isEmpty()) {
+            try {
+                return Math.max(0, Long.parseLong(prop)) * 1024;
+            } catch (NumberFormatException e) {
+                Trace.logError("The DOM cache size specified is not valid: " + prop + ". The default will be used: " + DEFAULT_CACHE_SIZE / 1024, e);
+            }
+        }
+        return DEFAULT_CACHE_SIZE;
     }
 
     // Load our own IDOMModel
@@ -186,9 +258,11 @@ public class DomXmlDocumentFileCache {
         }
     }
 
-    class DomXmlCacheEntry {
-        SoftReference<String> fileContents;
+    static class DomXmlCacheEntry {
+        long lastModified;
+        long size;
+        long checked;
+        String digest;
         SoftReference<Document> document;
-
     }
 }
\ No newline at end of file
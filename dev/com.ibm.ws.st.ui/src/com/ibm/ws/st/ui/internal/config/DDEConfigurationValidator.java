@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2015 IBM Corporation and others.
+ * Copyright (c) 2011, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -59,6 +59,13 @@ public class DDEConfigurationValidator extends AbstractConfigurationValidator im
         return null;
     }
 
+    /** {@inheritDoc} */
+    @Override
+    protected boolean isIncremental() {
+        // the editor validates the whole document for every node and item
+        return true;
+    }
+
     /** {@inheritDoc} */
     @Override
     protected void createMessage(String text, IResource resource, Level level, Node node, QuickFixData fixData) {